@@ -212,6 +212,21 @@ public class MuleEventTestCase extends AbstractMuleContextTestCase {
                is(event.getSecurityContext().getAuthentication().getCredentials()));
   }
 
+  @Test
+  public void variablesSerialization() throws Exception {
+    CoreEvent event = CoreEvent.builder(testEvent()).addVariable("foo", "bar").build();
+
+    Serializable serialized = (Serializable) createSerializableToByteArrayTransformer().transform(event);
+    ByteArrayToObject trans = new ByteArrayToObject();
+    trans.setMuleContext(muleContext);
+    CoreEvent deserialized = (CoreEvent) trans.transform(serialized);
+
+    assertThat(deserialized.getVariables().get("FOO").getValue(), is("bar"));
+    deserialized = CoreEvent.builder(deserialized).addVariable("other", "value").build();
+    assertThat(deserialized.getVariables().get("foo").getValue(), is("bar"));
+    assertThat(deserialized.getVariables().get("other").getValue(), is("value"));
+  }
+
   private SecurityContext createTestAuthentication() {
     Authentication auth = new DefaultMuleAuthentication(new DefaultMuleCredentials("dan", new char[] {'d', 'f'}));
     SecurityContext securityContext =
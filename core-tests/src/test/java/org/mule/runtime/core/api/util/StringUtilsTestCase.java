@@ -7,6 +7,7 @@
 package org.mule.runtime.core.api.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -107,4 +108,16 @@ public class StringUtilsTestCase extends AbstractMuleTestCase {
     assertNull(StringUtils.match(pattern, "hello world!", 1));
   }
 
+  @Test
+  public void testCaseInsensitiveHashCode() {
+    assertEquals("content-type".hashCode(), StringUtils.caseInsensitiveHashCode("Content-Type"));
+    assertEquals(StringUtils.caseInsensitiveHashCode("CONTENT-TYPE"), StringUtils.caseInsensitiveHashCode("content-type"));
+    assertEquals(StringUtils.caseInsensitiveHashCode("\u00C4rger"), StringUtils.caseInsensitiveHashCode("\u00E4RGER"));
+    // Both equal ignoring case, so they must hash the same
+    assertTrue("\u0130".equalsIgnoreCase("i"));
+    assertEquals(StringUtils.caseInsensitiveHashCode("\u0130"), StringUtils.caseInsensitiveHashCode("i"));
+    assertNotEquals(StringUtils.caseInsensitiveHashCode("foo"), StringUtils.caseInsensitiveHashCode("bar"));
+    assertEquals(0, StringUtils.caseInsensitiveHashCode(""));
+  }
+
 }
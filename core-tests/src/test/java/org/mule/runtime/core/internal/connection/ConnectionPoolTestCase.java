@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentCaptor.forClass;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.internal.connection.ConnectionPool.PooledConnection;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+@SmallTest
+public class ConnectionPoolTestCase extends AbstractMuleTestCase {
+
+  private ConnectionProvider<Object> connectionProvider;
+  private ConnectionPool<Object> pool;
+
+  @Before
+  public void before() throws Exception {
+    connectionProvider = mock(ConnectionProvider.class);
+    when(connectionProvider.connect()).thenAnswer(i -> new Object());
+  }
+
+  @Test
+  public void reusesLastReturnedConnection() throws Exception {
+    pool = createPool(2, 2, WHEN_EXHAUSTED_FAIL);
+    PooledConnection<Object> first = pool.borrow();
+    PooledConnection<Object> second = pool.borrow();
+    pool.release(first);
+    pool.release(second);
+
+    assertThat(pool.borrow(), is(sameInstance(second)));
+    verify(connectionProvider, times(2)).connect();
+  }
+
+  @Test
+  public void failWhenExhausted() throws Exception {
+    pool = createPool(1, 1, WHEN_EXHAUSTED_FAIL);
+    PooledConnection<Object> connection = pool.borrow();
+
+    try {
+      pool.borrow();
+      throw new AssertionError("Was expecting the pool to be exhausted");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+
+    pool.release(connection);
+    assertThat(pool.borrow(), is(sameInstance(connection)));
+  }
+
+  @Test
+  public void growWhenExhausted() throws Exception {
+    pool = createPool(1, 1, WHEN_EXHAUSTED_GROW);
+    PooledConnection<Object> first = pool.borrow();
+    PooledConnection<Object> second = pool.borrow();
+
+    assertThat(second, is(not(sameInstance(first))));
+    assertThat(pool.getNumActive(), is(2));
+  }
+
+  @Test
+  public void waitWhenExhausted() throws Exception {
+    pool = createPool(1, 1, WHEN_EXHAUSTED_WAIT);
+    PooledConnection<Object> connection = pool.borrow();
+
+    CompletableFuture<PooledConnection<Object>> waiter = new CompletableFuture<>();
+    new Thread(() -> {
+      try {
+        waiter.complete(pool.borrow());
+      } catch (Throwable t) {
+        waiter.completeExceptionally(t);
+      }
+    }).start();
+
+    while (pool.getNumWaiting() == 0) {
+      Thread.yield();
+    }
+    pool.release(connection);
+
+    assertThat(waiter.get(5, SECONDS), is(sameInstance(connection)));
+    assertThat(pool.getWaitTime().getTotalCount(), is(1L));
+  }
+
+  @Test
+  public void returnedConnectionHandedToWaitingThread() throws Exception {
+    pool = createPool(1, 1, WHEN_EXHAUSTED_WAIT);
+    PooledConnection<Object> connection = pool.borrow();
+
+    CompletableFuture<PooledConnection<Object>> waiter = borrowAsync();
+    while (pool.getNumWaiting() == 0) {
+      Thread.yield();
+    }
+    pool.release(connection);
+
+    // The connection never becomes idle, so a thread that just arrived can't take it before the waiting one
+    assertThat(pool.getNumIdle(), is(0));
+    assertThat(waiter.get(5, SECONDS), is(sameInstance(connection)));
+  }
+
+  @Test
+  public void closeFailsWaitingThreads() throws Exception {
+    pool = createPool(1, 1, WHEN_EXHAUSTED_WAIT);
+    pool.borrow();
+
+    CompletableFuture<PooledConnection<Object>> waiter = borrowAsync();
+    while (pool.getNumWaiting() == 0) {
+      Thread.yield();
+    }
+    pool.close();
+
+    try {
+      waiter.get(5, SECONDS);
+      throw new AssertionError("Was expecting the wait to fail");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), is(instanceOf(IllegalStateException.class)));
+    }
+    verify(connectionProvider, times(1)).connect();
+  }
+
+  @Test
+  public void evictionValidatesIdleConnectionsOnlyWhenEnabled() throws Exception {
+    Runnable eviction = createEvictingPool(false);
+    pool.release(pool.borrow());
+    eviction.run();
+    verify(connectionProvider, never()).validate(any());
+    assertThat(pool.getNumIdle(), is(1));
+
+    eviction = createEvictingPool(true);
+    pool.release(pool.borrow());
+    eviction.run();
+    verify(connectionProvider).validate(any());
+    assertThat(pool.getNumIdle(), is(0));
+  }
+
+  @Test
+  public void waitTimesOut() throws Exception {
+    PoolingProfile poolingProfile = new PoolingProfile(1, 1, 50, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    pool = new ConnectionPool<>(connectionProvider, poolingProfile, null);
+    pool.borrow();
+
+    try {
+      pool.borrow();
+      throw new AssertionError("Was expecting the wait to time out");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+    assertThat(pool.getNumWaiting(), is(0));
+  }
+
+  @Test
+  public void invalidateMakesRoom() throws Exception {
+    pool = createPool(1, 1, WHEN_EXHAUSTED_FAIL);
+    PooledConnection<Object> connection = pool.borrow();
+    pool.invalidate(connection);
+
+    verify(connectionProvider).disconnect(connection.getConnection());
+    assertThat(pool.borrow(), is(not(sameInstance(connection))));
+  }
+
+  @Test
+  public void destroyOverMaxIdle() throws Exception {
+    pool = createPool(2, 1, WHEN_EXHAUSTED_FAIL);
+    PooledConnection<Object> first = pool.borrow();
+    PooledConnection<Object> second = pool.borrow();
+    pool.release(first);
+    pool.release(second);
+
+    verify(connectionProvider).disconnect(second.getConnection());
+    verify(connectionProvider, never()).disconnect(first.getConnection());
+    assertThat(pool.getNumIdle(), is(1));
+  }
+
+  @Test
+  public void closeDestroysIdleConnections() throws Exception {
+    pool = createPool(2, 2, WHEN_EXHAUSTED_FAIL);
+    PooledConnection<Object> first = pool.borrow();
+    PooledConnection<Object> second = pool.borrow();
+    pool.release(first);
+
+    pool.close();
+    verify(connectionProvider).disconnect(first.getConnection());
+    verify(connectionProvider, never()).disconnect(second.getConnection());
+
+    pool.release(second);
+    verify(connectionProvider, times(2)).disconnect(any());
+  }
+
+  @Test
+  public void metrics() throws Exception {
+    pool = createPool(2, 2, WHEN_EXHAUSTED_FAIL);
+    PooledConnection<Object> first = pool.borrow();
+    pool.borrow();
+    pool.release(first);
+
+    assertThat(pool.getNumActive(), is(1));
+    assertThat(pool.getNumIdle(), is(1));
+    assertThat(pool.getNumWaiting(), is(0));
+    assertThat(pool.getBorrowLatency().getTotalCount(), is(2L));
+  }
+
+  private CompletableFuture<PooledConnection<Object>> borrowAsync() {
+    CompletableFuture<PooledConnection<Object>> waiter = new CompletableFuture<>();
+    new Thread(() -> {
+      try {
+        waiter.complete(pool.borrow());
+      } catch (Throwable t) {
+        waiter.completeExceptionally(t);
+      }
+    }).start();
+    return waiter;
+  }
+
+  private Runnable createEvictingPool(boolean validateIdleConnections) {
+    PoolingProfile poolingProfile = mock(PoolingProfile.class);
+    when(poolingProfile.getMaxActive()).thenReturn(1);
+    when(poolingProfile.getMaxIdle()).thenReturn(1);
+    when(poolingProfile.getExhaustedAction()).thenReturn(WHEN_EXHAUSTED_FAIL);
+    when(poolingProfile.getEvictionCheckIntervalMillis()).thenReturn(1000);
+    when(poolingProfile.getMinEvictionMillis()).thenReturn(60000);
+
+    Scheduler scheduler = mock(Scheduler.class);
+    pool = new ConnectionPool<>(connectionProvider, poolingProfile, scheduler, validateIdleConnections);
+
+    ArgumentCaptor<Runnable> eviction = forClass(Runnable.class);
+    verify(scheduler).scheduleWithFixedDelay(eviction.capture(), anyLong(), anyLong(), any(TimeUnit.class));
+    return eviction.getValue();
+  }
+
+  private ConnectionPool<Object> createPool(int maxActive, int maxIdle, int exhaustedAction) {
+    PoolingProfile poolingProfile = new PoolingProfile(maxActive, maxIdle, DEFAULT_MAX_POOL_WAIT, exhaustedAction,
+                                                       INITIALISE_NONE);
+    return new ConnectionPool<>(connectionProvider, poolingProfile, null);
+  }
+}
@@ -19,10 +19,10 @@ import static org.mule.runtime.api.connection.ConnectionValidationResult.success
 
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.core.internal.connection.ConnectionPool.PooledConnection;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
-import org.apache.commons.pool.ObjectPool;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,7 +36,7 @@ import java.io.IOException;
 public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
 
   @Mock
-  private ObjectPool<Object> pool;
+  private ConnectionPool<Object> pool;
 
   @Mock
   private Object config;
@@ -50,11 +50,13 @@ public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
   @Mock
   private ConnectionProvider connectionProvider;
 
+  private PooledConnection<Object> pooledConnection;
   private PoolingConnectionHandler<Object> managedConnection;
 
   @Before
   public void before() {
-    managedConnection = new PoolingConnectionHandler<>(connection, pool, poolingListener, connectionProvider);
+    pooledConnection = new PooledConnection<>(connection);
+    managedConnection = new PoolingConnectionHandler<>(pooledConnection, pool, poolingListener, connectionProvider);
     when(connectionProvider.validate(connection)).thenReturn(success());
   }
 
@@ -66,7 +68,7 @@ public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
   @Test
   public void release() throws Exception {
     managedConnection.release();
-    verify(pool).returnObject(connection);
+    verify(pool).release(pooledConnection);
     verify(poolingListener).onReturn(connection);
     assertDisconnected();
   }
@@ -75,15 +77,15 @@ public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
   public void releaseInvalidConnection() throws Exception {
     when(connectionProvider.validate(connection)).thenReturn(failure("Connection is invalid", new IOException()));
     managedConnection.release();
-    verify(pool).invalidateObject(connection);
-    verify(pool, never()).returnObject(connection);
+    verify(pool).invalidate(pooledConnection);
+    verify(pool, never()).release(pooledConnection);
     verify(poolingListener, never()).onReturn(connection);
   }
 
   @Test
   public void invalidate() throws Exception {
     managedConnection.invalidate();
-    verify(pool).invalidateObject(connection);
+    verify(pool).invalidate(pooledConnection);
     assertDisconnected();
   }
 
@@ -99,7 +101,7 @@ public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
   @Test
   public void close() throws Exception {
     managedConnection.close();
-    verify(pool, never()).returnObject(anyObject());
+    verify(pool, never()).release(anyObject());
   }
 
   @Test
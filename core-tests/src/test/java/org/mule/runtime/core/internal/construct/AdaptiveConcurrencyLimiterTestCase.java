@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.construct;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Thread.currentThread;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mule.runtime.core.internal.construct.AdaptiveConcurrencyLimiter.INITIAL_LIMIT;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+@SmallTest
+public class AdaptiveConcurrencyLimiterTestCase extends AbstractMuleTestCase {
+
+  private static final long LATENCY = 1000000;
+  private static final long TIMEOUT = 5000;
+
+  private final List<Integer> limits = new ArrayList<>();
+  private AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(MAX_VALUE, limits::add);
+
+  @Test
+  public void rejectsOverLimit() {
+    for (int i = 0; i < INITIAL_LIMIT; i++) {
+      assertThat(limiter.tryAcquire(), is(true));
+    }
+    assertThat(limiter.tryAcquire(), is(false));
+    assertThat(limiter.getInFlight(), is(INITIAL_LIMIT));
+
+    limiter.release(LATENCY);
+    assertThat(limiter.tryAcquire(), is(true));
+  }
+
+  @Test
+  public void acquireWaitsForRelease() throws Exception {
+    fill(INITIAL_LIMIT);
+
+    Thread waiter = new Thread(() -> {
+      try {
+        limiter.acquire();
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+      }
+    });
+    waiter.start();
+    waiter.join(100);
+    assertThat(waiter.isAlive(), is(true));
+
+    limiter.release(LATENCY);
+    waiter.join(TIMEOUT);
+    assertThat(waiter.isAlive(), is(false));
+    assertThat(limiter.getInFlight(), is(INITIAL_LIMIT));
+  }
+
+  @Test
+  public void stopFailsPendingAcquire() throws Exception {
+    fill(INITIAL_LIMIT);
+
+    final AtomicBoolean acquired = new AtomicBoolean(true);
+    Thread waiter = new Thread(() -> {
+      try {
+        acquired.set(limiter.acquire());
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+      }
+    });
+    waiter.start();
+    waiter.join(100);
+    assertThat(waiter.isAlive(), is(true));
+
+    limiter.stop();
+    waiter.join(TIMEOUT);
+    assertThat(waiter.isAlive(), is(false));
+    assertThat(acquired.get(), is(false));
+    assertThat(limiter.getInFlight(), is(INITIAL_LIMIT));
+  }
+
+  @Test
+  public void acquireSucceedsAfterRestart() throws Exception {
+    limiter.stop();
+    assertThat(limiter.acquire(), is(false));
+
+    limiter.start();
+    assertThat(limiter.acquire(), is(true));
+  }
+
+  @Test
+  public void initialLimitCappedByMaxLimit() {
+    limiter = new AdaptiveConcurrencyLimiter(2, limits::add);
+    assertThat(limiter.getLimit(), is(2));
+    assertThat(limiter.tryAcquire(), is(true));
+    assertThat(limiter.tryAcquire(), is(true));
+    assertThat(limiter.tryAcquire(), is(false));
+  }
+
+  @Test
+  public void limitGrowsWithDemand() {
+    fill(INITIAL_LIMIT);
+    limiter.release(LATENCY);
+    limiter.release(LATENCY);
+
+    assertThat(limiter.getLimit(), greaterThan(INITIAL_LIMIT));
+    assertThat(limits, contains(INITIAL_LIMIT, INITIAL_LIMIT + 1));
+  }
+
+  @Test
+  public void limitDoesNotGrowWithoutDemand() {
+    for (int i = 0; i < 10; i++) {
+      limiter.tryAcquire();
+      limiter.release(LATENCY);
+    }
+
+    assertThat(limiter.getLimit(), is(INITIAL_LIMIT));
+  }
+
+  @Test
+  public void limitDoesNotExceedMaxLimit() {
+    limiter = new AdaptiveConcurrencyLimiter(INITIAL_LIMIT, limits::add);
+    fill(INITIAL_LIMIT);
+    for (int i = 0; i < INITIAL_LIMIT; i++) {
+      limiter.release(LATENCY);
+    }
+
+    assertThat(limiter.getLimit(), is(INITIAL_LIMIT));
+  }
+
+  @Test
+  public void latencyIncreaseDecreasesLimit() {
+    limiter.tryAcquire();
+    limiter.release(LATENCY);
+    limiter.tryAcquire();
+    limiter.release(LATENCY * 10);
+
+    assertThat(limiter.getLimit(), lessThan(INITIAL_LIMIT));
+  }
+
+  @Test
+  public void overloadDecreasesLimit() {
+    limiter.onOverload();
+    assertThat(limiter.getLimit(), lessThan(INITIAL_LIMIT));
+    assertThat(limits.get(limits.size() - 1), is(limiter.getLimit()));
+  }
+
+  @Test
+  public void limitNeverGoesBelowOne() {
+    for (int i = 0; i < 100; i++) {
+      limiter.onOverload();
+    }
+
+    assertThat(limiter.getLimit(), is(1));
+    assertThat(limiter.tryAcquire(), is(true));
+    assertThat(limiter.tryAcquire(), is(false));
+  }
+
+  private void fill(int count) {
+    for (int i = 0; i < count; i++) {
+      limiter.tryAcquire();
+    }
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mule.runtime.core.api.context.notification.NotificationOverflowPolicy.BLOCK;
+import static org.mule.runtime.core.api.context.notification.NotificationOverflowPolicy.DROP_OLDEST;
+import static org.mule.runtime.core.api.context.notification.NotificationOverflowPolicy.SAMPLE;
+import static org.mule.runtime.core.internal.context.notification.BatchingNotificationDispatcher.BATCH_SIZE;
+import static org.mule.runtime.core.internal.context.notification.BatchingNotificationDispatcher.SAMPLE_RATE;
+
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.runtime.core.api.context.notification.Event1;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+@SmallTest
+public class BatchingNotificationDispatcherTestCase extends AbstractMuleTestCase {
+
+  private final List<Runnable> tasks = new ArrayList<>();
+  private final RecordingListener listener = new RecordingListener();
+
+  @Test
+  public void singleSubmissionPerBatch() {
+    BatchingNotificationDispatcher dispatcher = new BatchingNotificationDispatcher(listener, tasks::add, 16, DROP_OLDEST);
+    for (int i = 0; i < 10; ++i) {
+      dispatcher.dispatch(new Event1("" + i));
+    }
+
+    assertThat(tasks, hasSize(1));
+    assertThat(dispatcher.getQueued(), is(10));
+    runTasks();
+    assertThat(received(), contains("0", "1", "2", "3", "4", "5", "6", "7", "8", "9"));
+    assertThat(dispatcher.getQueued(), is(0));
+  }
+
+  @Test
+  public void batchSizeIsLimited() {
+    BatchingNotificationDispatcher dispatcher =
+        new BatchingNotificationDispatcher(listener, tasks::add, BATCH_SIZE * 2, DROP_OLDEST);
+    for (int i = 0; i < BATCH_SIZE + 1; ++i) {
+      dispatcher.dispatch(new Event1("" + i));
+    }
+
+    tasks.remove(0).run();
+    assertThat(listener.notifications, hasSize(BATCH_SIZE));
+    // The rest is drained by a new task
+    assertThat(tasks, hasSize(1));
+    runTasks();
+    assertThat(listener.notifications, hasSize(BATCH_SIZE + 1));
+  }
+
+  @Test
+  public void rejectedDrainDeliversOnCurrentThread() {
+    BatchingNotificationDispatcher dispatcher = new BatchingNotificationDispatcher(listener, task -> {
+      throw new RejectedExecutionException();
+    }, BATCH_SIZE * 2, DROP_OLDEST);
+    for (int i = 0; i < BATCH_SIZE + 1; ++i) {
+      dispatcher.dispatch(new Event1("" + i));
+    }
+
+    assertThat(listener.notifications, hasSize(BATCH_SIZE + 1));
+    assertThat(dispatcher.getQueued(), is(0));
+  }
+
+  @Test
+  public void drainSubmittedAgainAfterRejection() {
+    AtomicBoolean reject = new AtomicBoolean(true);
+    BatchingNotificationDispatcher dispatcher = new BatchingNotificationDispatcher(listener, task -> {
+      if (reject.get()) {
+        throw new RejectedExecutionException();
+      }
+      tasks.add(task);
+    }, 16, DROP_OLDEST);
+    dispatcher.dispatch(new Event1("0"));
+    reject.set(false);
+    dispatcher.dispatch(new Event1("1"));
+
+    assertThat(tasks, hasSize(1));
+    runTasks();
+    assertThat(received(), contains("0", "1"));
+  }
+
+  @Test
+  public void dropOldest() {
+    BatchingNotificationDispatcher dispatcher = new BatchingNotificationDispatcher(listener, tasks::add, 4, DROP_OLDEST);
+    for (int i = 0; i < 6; ++i) {
+      dispatcher.dispatch(new Event1("" + i));
+    }
+
+    assertThat(dispatcher.getDropped(), is(2L));
+    assertThat(dispatcher.getQueued(), is(4));
+    runTasks();
+    assertThat(received(), contains("2", "3", "4", "5"));
+  }
+
+  @Test
+  public void sample() {
+    BatchingNotificationDispatcher dispatcher = new BatchingNotificationDispatcher(listener, tasks::add, 4, SAMPLE);
+    for (int i = 0; i < 4 + SAMPLE_RATE * 2; ++i) {
+      dispatcher.dispatch(new Event1("" + i));
+    }
+
+    assertThat(dispatcher.getDropped(), is((long) SAMPLE_RATE * 2));
+    runTasks();
+    assertThat(received(), contains("2", "3", "4", "" + (4 + SAMPLE_RATE)));
+  }
+
+  @Test
+  public void blockDoesNotLoseNotifications() throws Exception {
+    int notifications = 1000;
+    ExecutorService executor = newSingleThreadExecutor();
+    try {
+      BatchingNotificationDispatcher dispatcher = new BatchingNotificationDispatcher(listener, executor, 2, BLOCK);
+      for (int i = 0; i < notifications; ++i) {
+        dispatcher.dispatch(new Event1("" + i));
+      }
+
+      assertThat(listener.latch.await(5, SECONDS), is(true));
+      assertThat(dispatcher.getDropped(), is(0L));
+      assertThat(listener.notifications, hasSize(notifications));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void listenerFailureDoesNotStopDelivery() {
+    NotificationListener<Notification> failingListener = new RecordingListener() {
+
+      @Override
+      public void onNotification(Notification notification) {
+        super.onNotification(notification);
+        throw new IllegalStateException("Expected");
+      }
+    };
+    BatchingNotificationDispatcher dispatcher = new BatchingNotificationDispatcher(failingListener, tasks::add, 4, DROP_OLDEST);
+    dispatcher.dispatch(new Event1("0"));
+    dispatcher.dispatch(new Event1("1"));
+
+    runTasks();
+    assertThat(((RecordingListener) failingListener).notifications, hasSize(2));
+  }
+
+  @Test
+  public void disposedDoesNotDeliver() {
+    BatchingNotificationDispatcher dispatcher = new BatchingNotificationDispatcher(listener, tasks::add, 4, DROP_OLDEST);
+    dispatcher.dispatch(new Event1("0"));
+    dispatcher.dispose();
+
+    runTasks();
+    assertThat(listener.notifications, hasSize(0));
+  }
+
+  private void runTasks() {
+    while (!tasks.isEmpty()) {
+      tasks.remove(0).run();
+    }
+  }
+
+  private List<String> received() {
+    return listener.notifications.stream().map(notification -> ((Event1) notification).getResourceIdentifier()).collect(toList());
+  }
+
+  private static class RecordingListener implements NotificationListener<Notification> {
+
+    private final List<Notification> notifications = new CopyOnWriteArrayList<>();
+    private final CountDownLatch latch = new CountDownLatch(1000);
+
+    @Override
+    public void onNotification(Notification notification) {
+      notifications.add(notification);
+      latch.countDown();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mule.runtime.api.el.BindingContext.builder;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class CompositeBindingContextTestCase extends AbstractMuleTestCase {
+
+  private final BindingContext child = builder()
+      .addBinding("shared", new TypedValue<>("child", STRING))
+      .addBinding("childOnly", new TypedValue<>("child", STRING))
+      .build();
+
+  private final BindingContext parent = builder()
+      .addBinding("shared", new TypedValue<>("parent", STRING))
+      .addBinding("parentOnly", new TypedValue<>("parent", STRING))
+      .build();
+
+  @Test
+  public void childBindingsTakePrecedence() {
+    BindingContext context = new CompositeBindingContext(child, parent);
+
+    assertThat(context.lookup("shared").get().getValue(), is("child"));
+    assertThat(context.lookup("childOnly").get().getValue(), is("child"));
+    assertThat(context.lookup("parentOnly").get().getValue(), is("parent"));
+    assertThat(context.lookup("none").isPresent(), is(false));
+  }
+
+  @Test
+  public void parentNotLookedUpWhenChildHasBinding() {
+    BindingContext lazyParent = mock(BindingContext.class);
+
+    new CompositeBindingContext(child, lazyParent).lookup("childOnly");
+
+    verify(lazyParent, never()).lookup(anyString());
+    verify(lazyParent, never()).bindings();
+  }
+
+  @Test
+  public void bindingsAreMerged() {
+    BindingContext context = new CompositeBindingContext(child, parent);
+
+    assertThat(context.identifiers(), containsInAnyOrder("shared", "childOnly", "parentOnly"));
+    assertThat(context.bindings().size(), is(3));
+    assertThat(context.bindings().stream().filter(binding -> binding.identifier().equals("shared")).findFirst().get().value()
+        .getValue(), is("child"));
+  }
+}
@@ -61,9 +61,11 @@ import org.mule.runtime.core.api.construct.FlowConstruct;
 import org.mule.runtime.core.api.el.ExpressionManagerSession;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.management.stats.ExpressionCacheStatistics;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.el.mvel.MVELExpressionLanguage;
+import org.mule.runtime.core.privileged.util.AttributeEvaluator;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 import org.mule.weave.v2.el.WeaveDefaultExpressionLanguageFactoryService;
 
@@ -206,6 +208,18 @@ public class DefaultExpressionManagerTestCase extends AbstractMuleContextTestCas
     assertThat(expressionManager.evaluate("payload", testEvent()).getValue(), is(TEST_PAYLOAD));
   }
 
+  @Test
+  @Description("Verifies that expressions of attributes are compiled when initialized and the cache statistics are published.")
+  public void attributeExpressionCompiledOnInitialization() throws MuleException {
+    new AttributeEvaluator("#[payload]", null).initialize(expressionManager);
+    expressionManager.evaluate("#[payload]", testEvent());
+
+    ExpressionCacheStatistics statistics = expressionManager.getExpressionCacheStatistics().get();
+    assertThat(statistics.getSize(), is(1));
+    assertThat(statistics.getMisses(), is(1L));
+    assertThat(statistics.getHits(), is(1L));
+  }
+
   @Test
   @Description("Verifies that flowVars work, returning null for non existent ones and it's value for those that do.")
   public void flowVars() throws MuleException {
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.el.BindingContextUtils.ATTRIBUTES;
+import static org.mule.runtime.api.el.BindingContextUtils.CORRELATION_ID;
+import static org.mule.runtime.api.el.BindingContextUtils.PAYLOAD;
+import static org.mule.runtime.api.el.BindingContextUtils.VARS;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.exception.NullExceptionHandler;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class EventBindingContextTestCase extends AbstractMuleTestCase {
+
+  private CoreEvent event;
+
+  @Before
+  public void before() {
+    event = CoreEvent.builder(create("id", EventBindingContextTestCase.class.getName(), null, NullExceptionHandler.getInstance()))
+        .message(of("payload")).addVariable("foo", "bar").build();
+  }
+
+  @Test
+  public void eventContextIsLazyAndReused() {
+    BindingContext context = event.asBindingContext();
+
+    assertThat(context, is(instanceOf(EventBindingContext.class)));
+    assertThat(event.asBindingContext(), is(sameInstance(context)));
+  }
+
+  @Test
+  public void changedEventHasNewContext() {
+    CoreEvent changed = CoreEvent.builder(event).addVariable("other", "value").build();
+
+    assertThat(changed.asBindingContext(), is(not(sameInstance(event.asBindingContext()))));
+    assertThat(((Map<String, TypedValue>) changed.asBindingContext().lookup(VARS).get().getValue()).containsKey("other"),
+               is(true));
+  }
+
+  @Test
+  public void messageBindingsTakenFromEvent() {
+    BindingContext context = event.asBindingContext();
+
+    assertThat(context.lookup(PAYLOAD).get(), is(sameInstance(event.getMessage().getPayload())));
+    assertThat(context.lookup(ATTRIBUTES).get(), is(sameInstance(event.getMessage().getAttributes())));
+  }
+
+  @Test
+  public void otherBindingsResolved() {
+    BindingContext context = event.asBindingContext();
+
+    assertThat(context.lookup(CORRELATION_ID).get().getValue(), is(event.getCorrelationId()));
+    assertThat(((Map<String, TypedValue>) context.lookup(VARS).get().getValue()).get("foo").getValue(), is("bar"));
+    assertThat(context.identifiers(), hasItems(PAYLOAD, ATTRIBUTES, VARS, CORRELATION_ID));
+  }
+}
@@ -465,6 +465,38 @@ public class DataWeaveExpressionLanguageAdaptorTestCase extends AbstractWeaveExp
     verify(genericExpressionLanguage, never()).evaluate(eq("payload"), any(BindingContext.class));
   }
 
+  @Test
+  public void variableExpressionShouldNotBeEvaluated() throws MuleException {
+    CoreEvent event = CoreEvent.builder(testEvent()).addVariable("myVar", "value").build();
+
+    TypedValue result =
+        new DataWeaveExpressionLanguageAdaptor(mock(MuleContext.class), registry, genericExpressionLanguageService)
+            .evaluate("#[vars.myVar]", event, bindingContext);
+    assertThat(result, is(sameInstance(event.getVariables().get("myVar"))));
+    verify(genericExpressionLanguage, never()).evaluate(anyString(), any(BindingContext.class));
+  }
+
+  @Test
+  public void missingVariableExpressionIsEvaluated() throws MuleException {
+    new DataWeaveExpressionLanguageAdaptor(mock(MuleContext.class), registry, genericExpressionLanguageService)
+        .evaluate("#[vars.myVar]", testEvent(), bindingContext);
+    verify(genericExpressionLanguage).evaluate(eq("vars.myVar"), any(BindingContext.class));
+  }
+
+  @Test
+  public void compiledExpressionsAreCached() throws MuleException {
+    DataWeaveExpressionLanguageAdaptor adaptor =
+        new DataWeaveExpressionLanguageAdaptor(mock(MuleContext.class), registry, genericExpressionLanguageService);
+    adaptor.compile("#[payload]");
+    adaptor.evaluate("#[payload]", testEvent(), bindingContext);
+    adaptor.evaluate("#[payload]", testEvent(), bindingContext);
+
+    CompiledExpressionCache cache = adaptor.getCompiledExpressionCache();
+    assertThat(cache.getSize(), is(1));
+    assertThat(cache.getMisses(), is(1L));
+    assertThat(cache.getHits(), is(2L));
+  }
+
   @Test
   @Description("When calling evaluate with just a BindingContext (no Event), it is passed to DW. No new context is built based on the contexts of the passed one.")
   public void evaluateNoEventDoesntInstantiateExtraBindingContexts() throws MuleException {
@@ -9,6 +9,8 @@ package org.mule.runtime.core.internal.event;
 import static java.util.Arrays.asList;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.contains;
@@ -48,7 +50,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -643,6 +648,69 @@ public class DefaultEventContextTestCase extends AbstractMuleContextTestCase {
     assertThat(callbacks, contains("onResponse", "onComplete", "onTerminated"));
   }
 
+  @Test
+  @Description("Parent EventContext terminates exactly once when its child contexts complete concurrently.")
+  public void concurrentChildrenSuccess() throws Exception {
+    final int childrenCount = 1000;
+    BaseEventContext parent = context.get();
+    AtomicInteger terminations = new AtomicInteger();
+    parent.onTerminated((e, t) -> terminations.incrementAndGet());
+
+    List<BaseEventContext> children = new ArrayList<>(childrenCount);
+    for (int i = 0; i < childrenCount; ++i) {
+      children.add(child(parent, empty()));
+    }
+    parent.success();
+
+    ExecutorService executor = newFixedThreadPool(8);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      for (BaseEventContext child : children) {
+        executor.submit(() -> {
+          start.await();
+          child.success();
+          return null;
+        });
+      }
+      start.countDown();
+      executor.shutdown();
+      assertThat(executor.awaitTermination(10, SECONDS), is(true));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(parent.isTerminated(), is(true));
+    assertThat(terminations.get(), is(1));
+  }
+
+  @Test
+  @Description("When the response of an EventContext is set concurrently, only one of the results is signalled.")
+  public void concurrentSuccessSignalsResponseOnce() throws Exception {
+    BaseEventContext parent = context.get();
+    AtomicInteger responses = new AtomicInteger();
+    parent.onResponse((e, t) -> responses.incrementAndGet());
+
+    ExecutorService executor = newFixedThreadPool(8);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      for (int i = 0; i < 8; ++i) {
+        executor.submit(() -> {
+          start.await();
+          parent.success(testEvent());
+          return null;
+        });
+      }
+      start.countDown();
+      executor.shutdown();
+      assertThat(executor.awaitTermination(10, SECONDS), is(true));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(parent.isTerminated(), is(true));
+    assertThat(responses.get(), is(1));
+  }
+
   @Test
   public void deepNesting() {
     BaseEventContext lastContext = context.get();
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import static java.util.Optional.empty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.internal.event.DefaultEventContext.child;
+import static org.mule.runtime.core.internal.event.EventQuickCopy.quickCopy;
+
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.exception.NullExceptionHandler;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventQuickCopyTestCase extends AbstractMuleTestCase {
+
+  private BaseEventContext parentContext;
+  private BaseEventContext childContext;
+  private CoreEvent event;
+
+  @Before
+  public void before() {
+    parentContext = (BaseEventContext) create("id", EventQuickCopyTestCase.class.getName(), null,
+                                              NullExceptionHandler.getInstance());
+    childContext = child(parentContext, empty());
+    event = CoreEvent.builder(parentContext).message(of("payload")).addVariable("foo", "bar").build();
+  }
+
+  @Test
+  public void copySharesState() {
+    CoreEvent copy = quickCopy(childContext, event);
+
+    assertThat(copy.getContext(), is(sameInstance(childContext)));
+    assertThat(copy.getMessage(), is(sameInstance(event.getMessage())));
+    assertThat(copy.getVariables(), is(sameInstance(event.getVariables())));
+  }
+
+  @Test
+  public void copyToSameContext() {
+    assertThat(quickCopy(parentContext, event), is(sameInstance(event)));
+  }
+
+  @Test
+  public void copyBackToOriginalContext() {
+    CoreEvent copy = quickCopy(childContext, event);
+
+    assertThat(quickCopy(parentContext, copy), is(sameInstance(event)));
+  }
+
+  @Test
+  public void copiesDontNest() {
+    BaseEventContext otherChildContext = child(parentContext, empty());
+    CoreEvent copy = quickCopy(otherChildContext, quickCopy(childContext, event));
+
+    assertThat(copy.getContext(), is(sameInstance(otherChildContext)));
+    assertThat(quickCopy(parentContext, copy), is(sameInstance(event)));
+  }
+
+  @Test
+  public void unmodifiedBuilderWithContextIsCopy() {
+    CoreEvent copy = CoreEvent.builder(childContext, event).build();
+
+    assertThat(copy, is(instanceOf(EventQuickCopy.class)));
+    assertThat(copy.getContext(), is(sameInstance(childContext)));
+    assertThat(copy.getVariables(), is(sameInstance(event.getVariables())));
+  }
+
+  @Test
+  public void modifiedBuilderWithContextIsNewEvent() {
+    CoreEvent copy = CoreEvent.builder(childContext, event).addVariable("other", "value").build();
+
+    assertThat(copy, is(not(instanceOf(EventQuickCopy.class))));
+    assertThat(copy.getContext(), is(sameInstance(childContext)));
+    assertThat(copy.getVariables().containsKey("other"), is(true));
+  }
+}
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.management.stats;
 
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 
@@ -13,6 +15,9 @@ import org.mule.runtime.core.api.management.stats.ComponentStatistics;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.junit4.rule.SystemProperty;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -112,6 +117,57 @@ public class ComponentStatisticsTestCase extends AbstractMuleTestCase {
     assertValues(stats, 2L, 5L, 2L, 3L, 2L);
   }
 
+  @Test
+  public void verifyPercentiles() {
+    ComponentStatistics stats = new ComponentStatistics();
+    for (long i = 1; i <= 100; ++i) {
+      stats.addExecutionTime(i);
+    }
+    assertThat(stats.getExecutionTimePercentile(50), equalTo(50L));
+    assertThat(stats.getExecutionTimePercentile(99), equalTo(99L));
+    stats.clear();
+    assertThat(stats.getExecutionTimePercentile(99), equalTo(0L));
+  }
+
+  @Test
+  public void verifyBranchPercentilesRecordedAsBranchesFinish() {
+    ComponentStatistics stats = new ComponentStatistics();
+    stats.addExecutionBranchTime(true, 4L, 4L);
+    assertThat(stats.getExecutionTimePercentile(50), equalTo(4L));
+    stats.addExecutionBranchTime(true, 4L, 4L);
+    stats.addExecutionBranchTime(true, 2L, 2L);
+    assertThat(stats.getExecutionTimePercentile(50), equalTo(4L));
+    assertThat(stats.getExecutionTimePercentile(10), equalTo(2L));
+    stats.addCompleteExecutionTime(4L);
+    assertThat(stats.getExecutionTimePercentile(10), equalTo(2L));
+  }
+
+  @Test
+  public void concurrentExecutionTimes() throws Exception {
+    ComponentStatistics stats = new ComponentStatistics();
+    int threads = 4;
+    int eventsPerThread = 10000;
+    ExecutorService executor = newFixedThreadPool(threads);
+    try {
+      CountDownLatch latch = new CountDownLatch(threads);
+      for (int i = 0; i < threads; ++i) {
+        long time = i + 1;
+        executor.execute(() -> {
+          for (int j = 0; j < eventsPerThread; ++j) {
+            stats.addExecutionTime(time);
+          }
+          latch.countDown();
+        });
+      }
+      assertThat(latch.await(5, SECONDS), equalTo(true));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertValues(stats, (long) threads * eventsPerThread, 10L * eventsPerThread, 2L, 4L, 1L);
+    assertThat(stats.getExecutionTimeHistogram().getTotalCount(), equalTo((long) threads * eventsPerThread));
+  }
+
   @Test
   public void verifyShortStatIntervalReset() {
     // configure to reset continuously
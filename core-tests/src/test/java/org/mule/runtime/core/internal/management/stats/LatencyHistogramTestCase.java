@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mule.runtime.core.api.management.stats.LatencyHistogram.MAX_TRACKABLE_VALUE;
+
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class LatencyHistogramTestCase extends AbstractMuleTestCase {
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  @Test
+  public void empty() {
+    assertThat(histogram.getTotalCount(), equalTo(0L));
+    assertThat(histogram.getValueAtPercentile(50), equalTo(0L));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    for (long i = 0; i < 64; ++i) {
+      histogram.record(i);
+    }
+    assertThat(histogram.getValueAtPercentile(0), equalTo(0L));
+    assertThat(histogram.getValueAtPercentile(50), equalTo(31L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo(63L));
+  }
+
+  @Test
+  public void largeValuesWithinRelativeError() {
+    for (long value : new long[] {64, 100, 1000, 12345, 1000000, 987654321}) {
+      LatencyHistogram single = new LatencyHistogram();
+      single.record(value);
+      long reported = single.getValueAtPercentile(100);
+      assertThat(reported, greaterThanOrEqualTo(value));
+      assertThat(reported, lessThanOrEqualTo(value + value / 32));
+    }
+  }
+
+  @Test
+  public void percentiles() {
+    for (int i = 0; i < 990; ++i) {
+      histogram.record(10);
+    }
+    for (int i = 0; i < 9; ++i) {
+      histogram.record(20);
+    }
+    histogram.record(30);
+
+    assertThat(histogram.getValueAtPercentile(50), equalTo(10L));
+    assertThat(histogram.getValueAtPercentile(99), equalTo(10L));
+    assertThat(histogram.getValueAtPercentile(99.9), equalTo(20L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo(30L));
+  }
+
+  @Test
+  public void outOfRangeValues() {
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+    assertThat(histogram.getValueAtPercentile(50), equalTo(0L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo(MAX_TRACKABLE_VALUE));
+  }
+
+  @Test
+  public void addAndReset() {
+    LatencyHistogram other = new LatencyHistogram();
+    histogram.record(1);
+    other.record(2);
+    other.record(3);
+
+    histogram.add(other);
+    assertThat(histogram.getTotalCount(), equalTo(3L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo(3L));
+
+    histogram.reset();
+    assertThat(histogram.getTotalCount(), equalTo(0L));
+    assertThat(other.getTotalCount(), equalTo(2L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidPercentile() {
+    histogram.getValueAtPercentile(101);
+  }
+}
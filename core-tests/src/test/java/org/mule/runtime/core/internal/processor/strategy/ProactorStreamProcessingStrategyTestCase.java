@@ -131,12 +131,12 @@ public class ProactorStreamProcessingStrategyTestCase extends AbstractProcessing
   }
 
   @Override
-  @Description("With the ProactorProcessingStrategy, each BLOCKING message processor is scheduled on a IO thread. These may, or "
-      + "may not, be the same thread.")
+  @Description("With the ProactorProcessingStrategy, consecutive BLOCKING message processors are scheduled together on a single "
+      + "IO thread.")
   public void multipleBlocking() throws Exception {
     super.multipleBlocking();
-    assertThat(threads, hasSize(between(1, 3)));
-    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), between(1l, 3l));
+    assertThat(threads, hasSize(equalTo(1)));
+    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), equalTo(1l));
     assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
     assertThat(threads, not(hasItem(startsWith(CPU_INTENSIVE))));
     assertThat(threads, not(hasItem(startsWith(CUSTOM))));
@@ -154,12 +154,12 @@ public class ProactorStreamProcessingStrategyTestCase extends AbstractProcessing
   }
 
   @Override
-  @Description("With the ProactorProcessingStrategy, each CPU_INTENSIVE message processor is scheduled on a CPU Intensive thread."
-      + " These may, or may not, be the same thread.")
+  @Description("With the ProactorProcessingStrategy, consecutive CPU_INTENSIVE message processors are scheduled together on a "
+      + "single CPU Intensive thread.")
   public void multipleCpuIntensive() throws Exception {
     super.multipleCpuIntensive();
-    assertThat(threads, hasSize(between(1, 3)));
-    assertThat(threads.stream().filter(name -> name.startsWith(CPU_INTENSIVE)).count(), between(1l, 3l));
+    assertThat(threads, hasSize(equalTo(1)));
+    assertThat(threads.stream().filter(name -> name.startsWith(CPU_INTENSIVE)).count(), equalTo(1l));
     assertThat(threads, not(hasItem(startsWith(IO))));
     assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
     assertThat(threads, not(hasItem(startsWith(CUSTOM))));
@@ -182,9 +182,9 @@ public class ProactorStreamProcessingStrategyTestCase extends AbstractProcessing
       + "scheduled on the correct scheduler.")
   public void mix2() throws Exception {
     super.mix2();
-    assertThat(threads, hasSize(between(3, 7)));
-    assertThat(threads.stream().filter(name -> name.startsWith(CPU_INTENSIVE)).count(), between(1l, 2l));
-    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), between(1l, 2l));
+    assertThat(threads, hasSize(between(3, 5)));
+    assertThat(threads.stream().filter(name -> name.startsWith(CPU_INTENSIVE)).count(), equalTo(1l));
+    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), equalTo(1l));
     assertThat(threads.stream().filter(name -> name.startsWith(CPU_LIGHT)).count(), between(1l, 3l));
     assertThat(threads, not(hasItem(startsWith(CUSTOM))));
   }
@@ -252,6 +252,29 @@ public class ProactorStreamProcessingStrategyTestCase extends AbstractProcessing
     assertThat(threads, not(hasItem(startsWith(CUSTOM))));
   }
 
+  @Test
+  @Description("Consecutive BLOCKING message processors are submitted to the IO pool only once.")
+  public void multipleBlockingSubmittedOnce() throws Exception {
+    Scheduler blockingSchedulerSpy = spy(blocking);
+
+    flow = flowBuilder.get().processors(blockingProcessor, blockingProcessor, blockingProcessor, cpuLightProcessor)
+        .processingStrategyFactory((context, prefix) -> new ProactorStreamProcessingStrategy(() -> ringBuffer,
+                                                                                             DEFAULT_BUFFER_SIZE,
+                                                                                             1,
+                                                                                             DEFAULT_WAIT_STRATEGY,
+                                                                                             () -> cpuLight,
+                                                                                             () -> blockingSchedulerSpy,
+                                                                                             () -> cpuIntensive,
+                                                                                             1,
+                                                                                             2))
+        .build();
+    flow.initialise();
+    flow.start();
+    processFlow(testEvent());
+    verify(blockingSchedulerSpy, times(1)).submit(any(Callable.class));
+    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), equalTo(1l));
+  }
+
   @Test
   @Description("If CPU INTENSIVE pool is busy OVERLOAD error is thrown")
   public void cpuIntensiveRejectedExecution() throws Exception {
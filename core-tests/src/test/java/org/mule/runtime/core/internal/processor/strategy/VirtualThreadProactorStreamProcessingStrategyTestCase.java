@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.hamcrest.core.IsCollectionContaining.hasItem;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.CORES;
+import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.DEFAULT_WAIT_STRATEGY;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.ProcessingStrategiesStory.PROACTOR;
+import static reactor.util.concurrent.Queues.XS_BUFFER_SIZE;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.transaction.TransactionCoordination;
+import org.mule.runtime.core.api.util.concurrent.NamedThreadFactory;
+import org.mule.runtime.core.internal.processor.strategy.ProactorStreamProcessingStrategyFactory.ProactorStreamProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.VirtualThreadProactorStreamProcessingStrategyFactory.VirtualThreadProactorStreamProcessingStrategy;
+import org.mule.tck.testmodels.mule.TestTransaction;
+
+import org.junit.Test;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(PROCESSING_STRATEGIES)
+@Story(PROACTOR)
+public class VirtualThreadProactorStreamProcessingStrategyTestCase extends AbstractProcessingStrategyTestCase {
+
+  // Tests use platform threads with a distinctive name in place of virtual threads, so they run on any JVM.
+  private static final String VIRTUAL = "virtual";
+
+  public VirtualThreadProactorStreamProcessingStrategyTestCase(Mode mode) {
+    super(mode);
+  }
+
+  @Override
+  protected ProcessingStrategy createProcessingStrategy(MuleContext muleContext, String schedulersNamePrefix) {
+    return createProcessingStrategy(CORES, MAX_VALUE);
+  }
+
+  private ProcessingStrategy createProcessingStrategy(int parallelism, int maxConcurrency) {
+    return new VirtualThreadProactorStreamProcessingStrategy(() -> ringBuffer,
+                                                             XS_BUFFER_SIZE,
+                                                             1,
+                                                             DEFAULT_WAIT_STRATEGY,
+                                                             () -> cpuLight,
+                                                             () -> blocking,
+                                                             () -> cpuIntensive,
+                                                             () -> newCachedThreadPool(new NamedThreadFactory(VIRTUAL)),
+                                                             parallelism,
+                                                             maxConcurrency,
+                                                             false);
+  }
+
+  @Test
+  @Description("The factory falls back to the proactor processing strategy when virtual threads are not supported.")
+  public void factoryCreatesProactorProcessingStrategy() {
+    ProcessingStrategy processingStrategy =
+        new VirtualThreadProactorStreamProcessingStrategyFactory().create(muleContext, "test");
+    assertThat(processingStrategy, instanceOf(ProactorStreamProcessingStrategy.class));
+    assertThat(processingStrategy instanceof VirtualThreadProactorStreamProcessingStrategy,
+               equalTo(VirtualThreadProactorStreamProcessingStrategyFactory.isVirtualThreadSupported()));
+  }
+
+  @Override
+  @Description("With the VirtualThreadProactorProcessingStrategy, a BLOCKING message processor runs on a virtual thread.")
+  public void singleBlocking() throws Exception {
+    super.singleBlocking();
+    assertThat(threads, hasSize(equalTo(1)));
+    assertThat(threads.stream().filter(name -> name.startsWith(VIRTUAL)).count(), equalTo(1l));
+    assertThat(threads, not(hasItem(startsWith(IO))));
+    assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
+    assertThat(threads, not(hasItem(startsWith(CPU_INTENSIVE))));
+  }
+
+  @Override
+  @Description("With the VirtualThreadProactorProcessingStrategy, when there is a mix of processor processing types, blocking "
+      + "processors run on virtual threads and the rest on the correct scheduler.")
+  public void mix() throws Exception {
+    super.mix();
+    assertThat(threads, hasSize(equalTo(3)));
+    assertThat(threads.stream().filter(name -> name.startsWith(CPU_INTENSIVE)).count(), equalTo(1l));
+    assertThat(threads.stream().filter(name -> name.startsWith(VIRTUAL)).count(), equalTo(1l));
+    assertThat(threads.stream().filter(name -> name.startsWith(CPU_LIGHT)).count(), equalTo(1l));
+    assertThat(threads, not(hasItem(startsWith(IO))));
+  }
+
+  @Test
+  @Description("If max concurrency is 2, only 2 BLOCKING processors run at the same time and further requests wait.")
+  public void singleBlockingConcurrentMaxConcurrency2() throws Exception {
+    internalConcurrent(flowBuilder.get()
+        .processingStrategyFactory((context, prefix) -> createProcessingStrategy(1, 2)), true, BLOCKING, 2);
+    assertThat(threads, hasSize(2));
+    assertThat(threads.stream().filter(name -> name.startsWith(VIRTUAL)).count(), equalTo(2l));
+    assertThat(threads, not(hasItem(startsWith(IO))));
+    assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
+  }
+
+  @Override
+  @Description("When the VirtualThreadProactorProcessingStrategy is configured and a transaction is active processing runs "
+      + "synchronously in the caller thread")
+  public void tx() throws Exception {
+    flow = flowBuilder.get().processors(cpuLightProcessor, cpuIntensiveProcessor, blockingProcessor).build();
+    flow.initialise();
+    flow.start();
+
+    TransactionCoordination.getInstance().bindTransaction(new TestTransaction(muleContext));
+
+    processFlow(testEvent());
+
+    assertThat(threads, hasSize(equalTo(1)));
+    assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
+    assertThat(threads, not(hasItem(startsWith(IO))));
+    assertThat(threads, not(hasItem(startsWith(CPU_INTENSIVE))));
+    assertThat(threads, not(hasItem(startsWith(CUSTOM))));
+    assertThat(threads, not(hasItem(startsWith(VIRTUAL))));
+  }
+}
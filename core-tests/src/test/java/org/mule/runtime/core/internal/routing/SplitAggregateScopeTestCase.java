@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.Optional.empty;
@@ -18,6 +19,8 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
 import static org.junit.rules.ExpectedException.none;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -47,6 +50,7 @@ import org.mule.runtime.api.event.Event;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.message.ErrorType;
 import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.CollectionDataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.construct.Flow;
@@ -201,6 +205,92 @@ public class SplitAggregateScopeTestCase extends AbstractMuleContextTestCase {
                                                                any(Scheduler.class), any(ErrorType.class));
   }
 
+  @Test
+  @Description("When a batch size is configured each RoutingPair carries a list with up to batchSize parts.")
+  public void batchedRoutingPairs() throws Exception {
+    CoreEvent event = getEventBuilder().message(Message.of(asList("bar", "zip", "foo"))).build();
+
+    router.setBatchSize(2);
+    router.setMessageProcessors(singletonList(mock(MessageProcessorChain.class)));
+    muleContext.getInjector().inject(router);
+    router.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    router.initialise();
+
+    List<RoutingPair> routingPairs = from(router.getRoutingPairs(event)).collectList().block();
+    assertThat(routingPairs, hasSize(2));
+    assertThat((List<?>) routingPairs.get(0).getEvent().getMessage().getPayload().getValue(), equalTo(asList("bar", "zip")));
+    assertThat((List<?>) routingPairs.get(1).getEvent().getMessage().getPayload().getValue(), equalTo(asList("foo")));
+    assertThat(((CollectionDataType) routingPairs.get(0).getEvent().getMessage().getPayload().getDataType()).getItemDataType()
+        .getType(), equalTo(String.class));
+  }
+
+  @Test
+  @Description("When a batch size is configured the batch fork-join strategy is used and results are flattened in part order.")
+  public void batchedResultIsFlattened() throws Exception {
+    CoreEvent original = getEventBuilder().message(Message.of(asList("bar", "zip", "foo"))).build();
+
+    MessageProcessorChain nested = newChain(empty(), event -> event);
+    nested.setMuleContext(muleContext);
+    router.setMessageProcessors(singletonList(nested));
+    router.setBatchSize(2);
+
+    muleContext.getInjector().inject(router);
+    router.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    router.initialise();
+
+    Event result = router.process(original);
+
+    List<Message> resultList = (List<Message>) result.getMessage().getPayload().getValue();
+    assertThat(resultList, hasSize(3));
+    assertThat(resultList.get(0).getPayload().getValue(), equalTo("bar"));
+    assertThat(resultList.get(1).getPayload().getValue(), equalTo("zip"));
+    assertThat(resultList.get(2).getPayload().getValue(), equalTo("foo"));
+  }
+
+  @Test
+  @Description("When a batch size is configured the result of each part is taken from its position in the batch result, even if it is a collection itself.")
+  public void batchedCollectionResultsAreKeptPerPart() throws Exception {
+    CoreEvent original = getEventBuilder().message(Message.of(asList("bar", "zip", "foo"))).build();
+
+    MessageProcessorChain nested = newChain(empty(), event -> {
+      List<List<Object>> partResults = new ArrayList<>();
+      for (Object part : (List<?>) event.getMessage().getPayload().getValue()) {
+        partResults.add(asList(part, part));
+      }
+      return CoreEvent.builder(event).message(Message.of(partResults)).build();
+    });
+    nested.setMuleContext(muleContext);
+    router.setMessageProcessors(singletonList(nested));
+    router.setBatchSize(2);
+
+    muleContext.getInjector().inject(router);
+    router.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    router.initialise();
+
+    Event result = router.process(original);
+
+    List<Message> resultList = (List<Message>) result.getMessage().getPayload().getValue();
+    assertThat(resultList, hasSize(3));
+    assertThat(resultList.get(0).getPayload().getValue(), equalTo(asList("bar", "bar")));
+    assertThat(resultList.get(1).getPayload().getValue(), equalTo(asList("zip", "zip")));
+    assertThat(resultList.get(2).getPayload().getValue(), equalTo(asList("foo", "foo")));
+  }
+
+  @Test
+  @Description("When a batch size is configured the router creates a batch fork-join strategy.")
+  public void batchForkJoinStrategyConfiguration() throws Exception {
+    router.setBatchSize(10);
+    router.setMessageProcessors(singletonList(mock(MessageProcessorChain.class)));
+    router.setForkJoinStrategyFactory(mockForkJoinStrategyFactory);
+
+    muleContext.getInjector().inject(router);
+    router.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    router.initialise();
+
+    verify(mockForkJoinStrategyFactory).createBatchForkJoinStrategy(any(ProcessingStrategy.class), anyInt(), eq(true),
+                                                                    anyLong(), any(Scheduler.class), any(ErrorType.class));
+  }
+
   @Test
   @Description("By default CollectListForkJoinStrategyFactory is used which aggregates routes into a message with a List<Message> payload.")
   public void defaultForkJoinStrategyFactory() {
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.store.PartitionedIndexedPersistentObjectStore.OBJECT_STORE_DIR;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Answers;
+
+@SmallTest
+public class PartitionedIndexedPersistentObjectStoreTestCase extends AbstractMuleTestCase {
+
+  private static final String PARTITION = "partition";
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  private MuleContext mockMuleContext = mock(MuleContext.class, Answers.RETURNS_DEEP_STUBS.get());
+  private PartitionedIndexedPersistentObjectStore<Serializable> os;
+
+  @Before
+  public void before() throws Exception {
+    when(mockMuleContext.getConfiguration().getWorkingDirectory()).thenReturn(workingDirectory.getRoot().getAbsolutePath());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    os = openStore();
+  }
+
+  @After
+  public void after() {
+    os.dispose();
+  }
+
+  @Test
+  public void storeRetrieveAndRemove() throws Exception {
+    os.store("key", "value", PARTITION);
+    assertThat(os.contains("key", PARTITION), is(true));
+    assertThat(os.retrieve("key", PARTITION), is("value"));
+    assertThat(os.remove("key", PARTITION), is("value"));
+    assertThat(os.contains("key", PARTITION), is(false));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeSameKeyThrowsException() throws Exception {
+    os.store("key", "value", PARTITION);
+    os.store("key", "value", PARTITION);
+  }
+
+  @Test
+  public void dataSurvivesReopening() throws Exception {
+    os.store("key1", "value1", PARTITION);
+    os.store("key2", "value2", PARTITION);
+    os.store("key3", "value3");
+    os.remove("key2", PARTITION);
+    os.open("empty");
+    os.dispose();
+
+    os = openStore();
+    assertThat(os.allPartitions(),
+               containsInAnyOrder(PARTITION, "empty", PartitionedIndexedPersistentObjectStore.DEFAULT_PARTITION_NAME));
+    assertThat(os.allKeys(PARTITION), containsInAnyOrder("key1"));
+    assertThat(os.retrieve("key1", PARTITION), is("value1"));
+    assertThat(os.retrieve("key3"), is("value3"));
+  }
+
+  @Test
+  public void clearedPartitionSurvivesReopening() throws Exception {
+    os.store("key", "value", PARTITION);
+    os.clear(PARTITION);
+    os.store("other", "value", PARTITION);
+    os.dispose();
+
+    os = openStore();
+    assertThat(os.allKeys(PARTITION), containsInAnyOrder("other"));
+  }
+
+  @Test
+  public void incompleteRecordIsDiscarded() throws Exception {
+    os.store("key", "value", PARTITION);
+    os.dispose();
+
+    try (RandomAccessFile file = new RandomAccessFile(dataFile(), "rw")) {
+      file.seek(file.length());
+      file.write(new byte[] {1, 2, 3, 4, 2, 0, 0});
+    }
+
+    os = openStore();
+    assertThat(os.retrieve("key", PARTITION), is("value"));
+    os.store("another", "value", PARTITION);
+    assertThat(os.retrieve("another", PARTITION), is("value"));
+  }
+
+  @Test
+  public void expireKeepsNewestEntries() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      os.store("key" + i, "value" + i, PARTITION);
+    }
+
+    os.expire(UNBOUNDED, 3, PARTITION);
+    assertThat(os.allKeys(PARTITION), containsInAnyOrder("key7", "key8", "key9"));
+  }
+
+  @Test
+  public void compactionKeepsLiveEntries() throws Exception {
+    for (int i = 0; i < 1000; i++) {
+      os.store("key" + i, "value" + i, PARTITION);
+    }
+    for (int i = 0; i < 990; i++) {
+      os.remove("key" + i, PARTITION);
+    }
+    final long sizeBeforeCompaction = dataFile().length();
+
+    os.compact();
+    assertThat(dataFile().length(), lessThan(sizeBeforeCompaction));
+    assertThat(os.retrieve("key995", PARTITION), is("value995"));
+
+    os.dispose();
+    os = openStore();
+    assertThat(os.allKeys(PARTITION).size(), is(10));
+    assertThat(os.retrieve("key999", PARTITION), is("value999"));
+  }
+
+  @Test
+  public void writesDuringCompactionAreKept() throws Exception {
+    for (int i = 0; i < 1000; i++) {
+      os.store("key" + i, "value" + i, PARTITION);
+    }
+    for (int i = 0; i < 990; i++) {
+      os.remove("key" + i, PARTITION);
+    }
+
+    Thread compaction = new Thread(os::compact);
+    compaction.start();
+    for (int i = 0; i < 100; i++) {
+      os.store("new" + i, "value" + i, PARTITION);
+    }
+    os.remove("key999", PARTITION);
+    compaction.join();
+
+    os.dispose();
+    os = openStore();
+    assertThat(os.allKeys(PARTITION).size(), is(109));
+    assertThat(os.contains("key999", PARTITION), is(false));
+    assertThat(os.retrieve("key995", PARTITION), is("value995"));
+    assertThat(os.retrieve("new99", PARTITION), is("value99"));
+  }
+
+  @Test
+  public void recoveryStartsFromCheckpoint() throws Exception {
+    os.store("key", "value", PARTITION);
+    os.dispose();
+    assertThat(checkpointFiles().length, is(1));
+
+    // a full replay would stop at the first record
+    corruptFirstRecord();
+
+    os = openStore();
+    assertThat(os.retrieve("key", PARTITION), is("value"));
+    os.store("another", "value", PARTITION);
+    os.dispose();
+
+    os = openStore();
+    assertThat(os.allKeys(PARTITION), containsInAnyOrder("key", "another"));
+  }
+
+  @Test
+  public void invalidCheckpointIsIgnored() throws Exception {
+    os.store("key", "value", PARTITION);
+    os.dispose();
+
+    try (RandomAccessFile file = new RandomAccessFile(checkpointFiles()[0], "rw")) {
+      file.setLength(file.length() - 1);
+    }
+
+    os = openStore();
+    assertThat(os.retrieve("key", PARTITION), is("value"));
+  }
+
+  @Test
+  public void checkpointCoversRecordsAppendedBeforeIt() throws Exception {
+    os.store("key1", "value1", PARTITION);
+    os.checkpoint();
+    os.store("key2", "value2", PARTITION);
+    os.remove("key1", PARTITION);
+    os.store("key3", "value3", PARTITION);
+    os.dispose();
+
+    os = openStore();
+    assertThat(os.allKeys(PARTITION), containsInAnyOrder("key2", "key3"));
+    assertThat(os.retrieve("key3", PARTITION), is("value3"));
+  }
+
+  private void corruptFirstRecord() throws Exception {
+    try (RandomAccessFile file = new RandomAccessFile(dataFile(), "rw")) {
+      final int checksum = file.readInt();
+      file.seek(0);
+      file.writeInt(~checksum);
+    }
+  }
+
+  private File dataFile() {
+    File[] files = new File(workingDirectory.getRoot(), OBJECT_STORE_DIR).listFiles((dir, name) -> name.startsWith("data-"));
+    assertThat(files.length, is(1));
+    return files[0];
+  }
+
+  private File[] checkpointFiles() {
+    return new File(workingDirectory.getRoot(), OBJECT_STORE_DIR).listFiles((dir, name) -> name.endsWith(".checkpoint"));
+  }
+
+  private PartitionedIndexedPersistentObjectStore<Serializable> openStore() throws Exception {
+    PartitionedIndexedPersistentObjectStore<Serializable> store = new PartitionedIndexedPersistentObjectStore<>(mockMuleContext);
+    store.open();
+    store.open(PARTITION);
+    return store;
+  }
+}
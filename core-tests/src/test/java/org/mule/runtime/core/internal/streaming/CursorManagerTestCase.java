@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import static java.util.Optional.empty;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.internal.event.DefaultEventContext.child;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.exception.NullExceptionHandler;
+import org.mule.runtime.core.internal.event.AbstractEventContext;
+import org.mule.runtime.core.internal.event.DefaultEventContext;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.function.BiConsumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+@SmallTest
+public class CursorManagerTestCase extends AbstractMuleTestCase {
+
+  private MutableStreamingStatistics statistics = new MutableStreamingStatistics();
+  private CursorManager cursorManager;
+  private DefaultEventContext eventContext;
+
+  @Before
+  public void before() {
+    Scheduler scheduler = mock(Scheduler.class);
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArguments()[0]).run();
+      return null;
+    }).when(scheduler).execute(any(Runnable.class));
+
+    cursorManager = new CursorManager(statistics, scheduler);
+    eventContext = (DefaultEventContext) create("id", CursorManagerTestCase.class.getName(), null,
+                                                NullExceptionHandler.getInstance());
+  }
+
+  @Test
+  public void resourcesReleasedOnTermination() throws Exception {
+    CursorStreamProvider provider = mockProvider();
+    CursorStream cursor = mock(CursorStream.class);
+    when(provider.openCursor()).thenReturn(cursor);
+
+    ((CursorStreamProvider) cursorManager.manage(provider, eventContext)).openCursor();
+    assertThat(statistics.getOpenCursorProvidersCount(), is(1));
+    assertThat(statistics.getOpenCursorsCount(), is(1));
+
+    eventContext.success();
+
+    verify(provider).close();
+    verify(provider).releaseResources();
+    verify(cursor).release();
+    assertThat(statistics.getOpenCursorProvidersCount(), is(0));
+    assertThat(statistics.getOpenCursorsCount(), is(0));
+  }
+
+  @Test
+  public void stateAttachedToEventContext() {
+    CursorStreamProvider provider = mockProvider();
+    cursorManager.manage(provider, eventContext);
+    EventStreamingState state = eventContext.getStreamingState();
+
+    cursorManager.manage(provider, eventContext);
+    cursorManager.manage(mockProvider(), eventContext);
+
+    assertThat(eventContext.getStreamingState(), is(sameInstance(state)));
+    assertThat(statistics.getOpenCursorProvidersCount(), is(2));
+  }
+
+  @Test
+  public void closingLastCursorOfClosedProviderDisposesState() throws Exception {
+    CursorStreamProvider provider = mockProvider();
+    when(provider.openCursor()).thenReturn(mock(CursorStream.class));
+
+    CursorStream cursor = ((CursorStreamProvider) cursorManager.manage(provider, eventContext)).openCursor();
+    EventStreamingState state = eventContext.getStreamingState();
+    when(provider.isClosed()).thenReturn(true);
+    cursor.close();
+
+    verify(provider).releaseResources();
+    assertThat(state.isDisposed(), is(true));
+    assertThat(statistics.getOpenCursorsCount(), is(0));
+
+    cursorManager.manage(mockProvider(), eventContext);
+    assertThat(eventContext.getStreamingState(), is(not(sameInstance(state))));
+    assertThat(eventContext.getStreamingState().isDisposed(), is(false));
+  }
+
+  @Test
+  public void stateAttachedToChildEventContext() {
+    AbstractEventContext childContext = (AbstractEventContext) child(eventContext, empty());
+    CursorStreamProvider provider = mockProvider();
+
+    cursorManager.manage(provider, childContext);
+    EventStreamingState state = childContext.getStreamingState();
+    cursorManager.manage(mockProvider(), childContext);
+
+    assertThat(childContext.getStreamingState(), is(sameInstance(state)));
+    assertThat(eventContext.getStreamingState(), is(nullValue()));
+
+    childContext.success();
+
+    verify(provider).close();
+    assertThat(state.isDisposed(), is(true));
+    assertThat(statistics.getOpenCursorProvidersCount(), is(0));
+  }
+
+  @Test
+  public void otherEventContextsTracked() {
+    BaseEventContext otherContext = mock(BaseEventContext.class);
+    when(otherContext.getId()).thenReturn("other");
+    CursorStreamProvider provider = mockProvider();
+
+    cursorManager.manage(provider, otherContext);
+    cursorManager.manage(mockProvider(), otherContext);
+
+    ArgumentCaptor<BiConsumer> onTerminated = ArgumentCaptor.forClass(BiConsumer.class);
+    verify(otherContext).onTerminated(onTerminated.capture());
+    onTerminated.getValue().accept(null, null);
+
+    verify(provider).close();
+    assertThat(statistics.getOpenCursorProvidersCount(), is(0));
+  }
+
+  private CursorStreamProvider mockProvider() {
+    return mock(CursorStreamProvider.class);
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import io.qameta.allure.Feature;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+public class InMemoryStreamBufferTestCase extends AbstractMuleTestCase {
+
+  private static final byte[] DATA = "Hello, how are you?".getBytes();
+  private static final InMemoryCursorStreamConfig CONFIG =
+      new InMemoryCursorStreamConfig(new DataSize(64, BYTE), new DataSize(64, BYTE), new DataSize(128, BYTE));
+
+  private final ByteBufferManager bufferManager = mock(ByteBufferManager.class);
+
+  @Test
+  public void directMemoryReleasedAfterLastReader() throws Exception {
+    when(bufferManager.allocate(anyInt())).thenAnswer(invocation -> ByteBuffer.allocateDirect((Integer) invocation
+        .getArguments()[0]));
+
+    InMemoryStreamBuffer buffer = new InMemoryStreamBuffer(new ByteArrayInputStream(DATA), CONFIG, bufferManager);
+    CursorStream cursor = new BufferedCursorStream(buffer, mock(CursorStreamProvider.class));
+    assertThat(cursor.read(), is((int) DATA[0]));
+
+    buffer.close();
+    verify(bufferManager, never()).deallocate(any(ByteBuffer.class));
+    assertThat(buffer.addReader(), is(true));
+    buffer.removeReader();
+
+    cursor.release();
+    verify(bufferManager).deallocate(any(ByteBuffer.class));
+    assertThat(buffer.addReader(), is(false));
+  }
+
+  @Test
+  public void heapMemoryReleasedAfterLastReader() throws Exception {
+    when(bufferManager.allocate(anyInt())).thenAnswer(invocation -> ByteBuffer.allocate((Integer) invocation
+        .getArguments()[0]));
+
+    InMemoryStreamBuffer buffer = new InMemoryStreamBuffer(new ByteArrayInputStream(DATA), CONFIG, bufferManager);
+    CursorStream cursor = new BufferedCursorStream(buffer, mock(CursorStreamProvider.class));
+    assertThat(cursor.read(), is((int) DATA[0]));
+
+    buffer.close();
+    verify(bufferManager, never()).deallocate(any(ByteBuffer.class));
+
+    cursor.release();
+    verify(bufferManager).deallocate(any(ByteBuffer.class));
+    assertThat(buffer.addReader(), is(false));
+  }
+}
@@ -21,11 +21,13 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.core.api.config.MuleProperties.MULE_STREAMING_MAX_MEMORY;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
 import static org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.MAX_STREAMING_PERCENTILE;
 import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
 import org.mule.runtime.api.util.Reference;
 import org.mule.runtime.api.util.concurrent.Latch;
 import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
@@ -142,6 +144,51 @@ public class PoolingByteBufferManagerTestCase extends AbstractMuleTestCase {
     }
   }
 
+  @Test
+  public void directBuffers() throws Exception {
+    final long maxMemory = 1000L;
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(maxMemory);
+    MutableStreamingStatistics statistics = new MutableStreamingStatistics();
+
+    bufferManager.dispose();
+    bufferManager = new PoolingByteBufferManager(allocateExecutor, memoryManager, 10, statistics);
+
+    assertThat(statistics.getMaxDirectMemory(), is(round(maxMemory * MAX_STREAMING_PERCENTILE)));
+
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer.isDirect(), is(true));
+    assertThat(buffer.capacity(), is(CAPACITY));
+    assertThat(statistics.getDirectMemoryInUse(), is((long) CAPACITY));
+
+    buffer.put((byte) 1);
+    bufferManager.deallocate(buffer);
+    assertThat(statistics.getDirectMemoryInUse(), is((long) CAPACITY));
+
+    ByteBuffer reused = bufferManager.allocate(CAPACITY);
+    assertThat(reused, is(sameInstance(buffer)));
+    assertThat(reused.position(), is(0));
+    assertThat(statistics.getDirectMemoryInUse(), is((long) CAPACITY));
+  }
+
+  @Test
+  public void oversizedDirectBuffersAreFreed() throws Exception {
+    final int capacity = DEFAULT_BUFFER_BUCKET_SIZE * 2;
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(capacity * 10L);
+    MutableStreamingStatistics statistics = new MutableStreamingStatistics();
+
+    bufferManager.dispose();
+    bufferManager = new PoolingByteBufferManager(allocateExecutor, memoryManager, 10, statistics);
+
+    ByteBuffer buffer = bufferManager.allocate(capacity);
+    assertThat(statistics.getDirectMemoryInUse(), is((long) capacity));
+
+    bufferManager.deallocate(buffer);
+    assertThat(statistics.getDirectMemoryInUse(), is(0L));
+    assertThat(bufferManager.allocate(capacity), is(not(sameInstance(buffer))));
+  }
+
   private void assertMemoryLimit(int bufferCapacity, long waitTimeoutMillis) throws InterruptedException {
     ByteBuffer buffer1 = bufferManager.allocate(bufferCapacity);
     ByteBuffer buffer2 = bufferManager.allocate(bufferCapacity);
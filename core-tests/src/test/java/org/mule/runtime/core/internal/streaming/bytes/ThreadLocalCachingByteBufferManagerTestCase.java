@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.round;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.MAX_STREAMING_PERCENTILE;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.api.util.Reference;
+import org.mule.runtime.api.util.concurrent.Latch;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.qameta.allure.Feature;
+import org.junit.After;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+public class ThreadLocalCachingByteBufferManagerTestCase extends AbstractMuleTestCase {
+
+  private static final int CAPACITY = 100;
+  private static final int SAME_CLASS_CAPACITY = CAPACITY + 1;
+  private static final int OTHER_CLASS_CAPACITY = 200;
+
+  private ThreadLocalCachingByteBufferManager bufferManager = new ThreadLocalCachingByteBufferManager();
+
+  @After
+  public void after() {
+    bufferManager.dispose();
+  }
+
+  @Test
+  public void defaultSizeBuffersAreCachedPerThread() {
+    ByteBuffer buffer = bufferManager.allocate(DEFAULT_BUFFER_BUCKET_SIZE);
+    bufferManager.deallocate(buffer);
+
+    assertThat(bufferManager.allocate(DEFAULT_BUFFER_BUCKET_SIZE), is(sameInstance(buffer)));
+  }
+
+  @Test
+  public void defaultSizeBuffersOverflowMagazine() {
+    ByteBuffer[] buffers = new ByteBuffer[ThreadLocalCachingByteBufferManager.MAGAZINE_SIZE + 1];
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = bufferManager.allocate(DEFAULT_BUFFER_BUCKET_SIZE);
+    }
+
+    for (ByteBuffer buffer : buffers) {
+      bufferManager.deallocate(buffer);
+    }
+
+    for (int i = 0; i < buffers.length; i++) {
+      assertThat(bufferManager.allocate(DEFAULT_BUFFER_BUCKET_SIZE).capacity(), is(DEFAULT_BUFFER_BUCKET_SIZE));
+    }
+  }
+
+  @Test
+  public void capacityRoundedUpToSizeClass() {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+
+    assertThat(buffer.capacity(), is(128));
+    assertThat(buffer.remaining(), is(CAPACITY));
+  }
+
+  @Test
+  public void buffersSharedWithinSizeClass() {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    buffer.put((byte) 1);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer buffer2 = bufferManager.allocate(SAME_CLASS_CAPACITY);
+    assertThat(buffer2, is(sameInstance(buffer)));
+    assertThat(buffer2.position(), is(0));
+    assertThat(buffer2.remaining(), is(SAME_CLASS_CAPACITY));
+  }
+
+  @Test
+  public void differentSlabsPerSizeClass() {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer buffer2 = bufferManager.allocate(OTHER_CLASS_CAPACITY);
+    assertThat(buffer2, not(sameInstance(buffer)));
+    assertThat(buffer2.capacity(), is(256));
+
+    bufferManager.deallocate(buffer2);
+    assertThat(bufferManager.allocate(OTHER_CLASS_CAPACITY), is(sameInstance(buffer2)));
+    assertThat(bufferManager.allocate(CAPACITY), is(sameInstance(buffer)));
+  }
+
+  @Test
+  public void cachedBuffersDroppedWhenMemoryIsExhausted() {
+    final long maxMemory = 1000L;
+    final int bufferCapacity = highestOneBit((int) round(maxMemory * MAX_STREAMING_PERCENTILE) / 2);
+
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(maxMemory);
+
+    bufferManager.dispose();
+    bufferManager = new ThreadLocalCachingByteBufferManager(memoryManager, 100);
+
+    bufferManager.deallocate(bufferManager.allocate(bufferCapacity));
+    bufferManager.deallocate(bufferManager.allocate(bufferCapacity / 2));
+
+    // Both cached buffers still count against the limit, so this allocation can only proceed by dropping them
+    assertThat(bufferManager.allocate(bufferCapacity * 2 - 1).capacity(), is(bufferCapacity * 2));
+  }
+
+  @Test
+  public void limitTotalMemory() throws Exception {
+    final long maxMemory = 1000L;
+    final int bufferCapacity = highestOneBit((int) round(maxMemory * MAX_STREAMING_PERCENTILE) / 2);
+    final long waitTimeoutMillis = SECONDS.toMillis(2);
+
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(maxMemory);
+
+    bufferManager.dispose();
+    bufferManager = new ThreadLocalCachingByteBufferManager(memoryManager, waitTimeoutMillis);
+
+    ByteBuffer buffer1 = bufferManager.allocate(bufferCapacity);
+    bufferManager.allocate(bufferCapacity);
+
+    Latch latch = new Latch();
+    Reference<Boolean> maxMemoryExhausted = new Reference<>(false);
+
+    new Thread(() -> {
+      try {
+        bufferManager.allocate(bufferCapacity);
+        latch.release();
+      } catch (MaxStreamingMemoryExceededException e) {
+        maxMemoryExhausted.set(true);
+      }
+    }).start();
+
+    assertThat(latch.await(waitTimeoutMillis * 2, MILLISECONDS), is(false));
+    assertThat(maxMemoryExhausted.get(), is(true));
+
+    Latch secondLatch = new Latch();
+    new Thread(() -> {
+      try {
+        bufferManager.allocate(bufferCapacity);
+        maxMemoryExhausted.set(false);
+      } finally {
+        secondLatch.release();
+      }
+    }).start();
+
+    bufferManager.deallocate(buffer1);
+
+    assertThat(secondLatch.await(waitTimeoutMillis, MILLISECONDS), is(true));
+    assertThat(maxMemoryExhausted.get(), is(false));
+  }
+
+  @Test
+  public void concurrentAllocationsDontExceedLimit() throws Exception {
+    final long maxMemory = 1000L;
+    final int buffers = 10;
+    final int bufferCapacity = highestOneBit((int) round(maxMemory * MAX_STREAMING_PERCENTILE) / buffers);
+
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(maxMemory);
+
+    bufferManager.dispose();
+    bufferManager = new ThreadLocalCachingByteBufferManager(memoryManager, 100);
+
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger allocated = new AtomicInteger(0);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < buffers * 4; i++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+          bufferManager.allocate(bufferCapacity);
+          allocated.incrementAndGet();
+        } catch (MaxStreamingMemoryExceededException e) {
+          // expected for the threads which exceed the limit
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(allocated.get(), is(buffers));
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.lang.Math.toIntExact;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.OBJECT_STREAMING;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.util.func.CheckedConsumer;
+import org.mule.tck.size.SmallTest;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(STREAMING)
+@Story(OBJECT_STREAMING)
+public class FileStoreCursorIteratorProviderTestCase extends AbstractObjectStreamingTestCase {
+
+  private static final int DATA_SIZE = 500;
+  private static final int BUCKET_SIZE = 10;
+  private static final int MAX_IN_MEMORY_BUCKETS = 2;
+
+  private CursorIteratorProvider streamProvider;
+
+  public FileStoreCursorIteratorProviderTestCase() {
+    super(DATA_SIZE);
+  }
+
+  @Override
+  protected void doSetUp() throws Exception {
+    streamProvider = new FileStoreCursorIteratorProvider(toStreamingIterator(data),
+                                                         new FileStoreCursorIteratorConfig(BUCKET_SIZE, MAX_IN_MEMORY_BUCKETS),
+                                                         muleContext.getObjectSerializer());
+  }
+
+  @After
+  public void after() {
+    streamProvider.close();
+    streamProvider.releaseResources();
+  }
+
+  @Test
+  @Description("fully consume stream in a single thread")
+  public void readFullyWithInSingleCursor() throws IOException {
+    withCursor(cursor -> checkEquals(data, cursor));
+  }
+
+  @Test
+  @Description("Consume the stream and then go back to items which were already written to disk and evicted from memory")
+  public void seekIntoEvictedBuckets() throws Exception {
+    withCursor(cursor -> {
+      checkEquals(data, cursor);
+
+      seekAndAssert(cursor, 0, BUCKET_SIZE * 3);
+      seekAndAssert(cursor, DATA_SIZE / 2 + 5, BUCKET_SIZE);
+    });
+  }
+
+  @Test
+  @Description("Two open cursors consume different ends of the same stream")
+  public void twoOpenCursorsReadingOppositeEndsOfTheStream() throws Exception {
+    withCursor(cursor1 -> withCursor(cursor2 -> {
+      seekAndAssert(cursor2, DATA_SIZE / 2, DATA_SIZE / 2);
+      seekAndAssert(cursor1, 0, DATA_SIZE / 2);
+    }));
+  }
+
+  @Test
+  @Description("Get the size of a stream")
+  public void size() throws Exception {
+    withCursor(cursor -> assertThat(cursor.getSize(), is(DATA_SIZE)));
+  }
+
+  private void seekAndAssert(CursorIterator<Object> cursor, long position, int size) throws Exception {
+    cursor.seek(position);
+    List<Object> read = read(cursor, size);
+    checkEquals(read, data.subList(toIntExact(position), toIntExact(position + size)));
+  }
+
+  private void withCursor(CheckedConsumer<CursorIterator> consumer) throws IOException {
+    try (CursorIterator cursor = streamProvider.openCursor()) {
+      consumer.accept(cursor);
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.String.CASE_INSENSITIVE_ORDER;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mule.runtime.core.internal.util.PersistentHashMap.empty;
+import static org.mule.runtime.core.internal.util.PersistentHashMap.emptyCaseInsensitive;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class PersistentHashMapTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void plusDoesNotModifyOriginal() {
+    PersistentHashMap<String, String> original = PersistentHashMap.<String, String>empty().plus("a", "1");
+    PersistentHashMap<String, String> updated = original.plus("b", "2");
+
+    assertThat(original.size(), is(1));
+    assertThat(original.containsKey("b"), is(false));
+    assertThat(updated.size(), is(2));
+    assertThat(updated.get("a"), is("1"));
+    assertThat(updated.get("b"), is("2"));
+  }
+
+  @Test
+  public void minusDoesNotModifyOriginal() {
+    PersistentHashMap<String, String> original = PersistentHashMap.<String, String>empty().plus("a", "1").plus("b", "2");
+    PersistentHashMap<String, String> updated = original.minus("a");
+
+    assertThat(original.size(), is(2));
+    assertThat(original.get("a"), is("1"));
+    assertThat(updated.size(), is(1));
+    assertThat(updated.get("a"), is(nullValue()));
+  }
+
+  @Test
+  public void unchangedMapsReturnSameInstance() {
+    String value = "1";
+    PersistentHashMap<String, String> map = PersistentHashMap.<String, String>empty().plus("a", value);
+
+    assertThat(map.plus("a", value), is(sameInstance(map)));
+    assertThat(map.minus("b"), is(sameInstance(map)));
+  }
+
+  @Test
+  public void caseInsensitive() {
+    PersistentHashMap<String, String> map = PersistentHashMap.<String>emptyCaseInsensitive().plus("FOO", "1").plus("foo", "2");
+
+    assertThat(map.size(), is(1));
+    assertThat(map.get("Foo"), is("2"));
+    assertThat(map.containsKey("fOO"), is(true));
+    // The case of the key is kept as it was first added
+    assertThat(map.keySet(), contains("FOO"));
+    assertThat(map.minus("fOo").isEmpty(), is(true));
+  }
+
+  @Test
+  public void caseSensitive() {
+    PersistentHashMap<String, String> map = PersistentHashMap.<String, String>empty().plus("FOO", "1").plus("foo", "2");
+
+    assertThat(map.size(), is(2));
+    assertThat(map.get("Foo"), is(nullValue()));
+  }
+
+  @Test
+  public void collidingKeys() {
+    // These keys have the same hash code
+    String[] keys = {"Aa", "BB", "AaAa", "BBBB", "AaBB", "BBAa"};
+    PersistentHashMap<String, Integer> map = empty();
+    for (int i = 0; i < keys.length; ++i) {
+      map = map.plus(keys[i], i);
+    }
+
+    for (int i = 0; i < keys.length; ++i) {
+      assertThat(map.get(keys[i]), is(i));
+    }
+
+    map = map.minus("Aa").minus("AaAa").minus("BBAa");
+    assertThat(map.size(), is(3));
+    assertThat(map.get("BB"), is(1));
+    assertThat(map.get("BBBB"), is(3));
+    assertThat(map.get("AaBB"), is(4));
+  }
+
+  @Test
+  public void behavesAsCaseInsensitiveMap() {
+    Random random = new Random(0);
+    Map<String, Integer> expected = new TreeMap<>(CASE_INSENSITIVE_ORDER);
+    PersistentHashMap<String, Integer> map = emptyCaseInsensitive();
+
+    for (int i = 0; i < 10000; ++i) {
+      String key = "key" + random.nextInt(500);
+      if (random.nextBoolean()) {
+        key = key.toUpperCase();
+      }
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.minus(key);
+      } else {
+        int value = random.nextInt();
+        expected.put(key, value);
+        map = map.plus(key, value);
+      }
+    }
+
+    assertThat(map.size(), is(expected.size()));
+    assertThat(new HashMap<>(map), equalTo(new HashMap<>(expected)));
+    for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+      assertThat(map.get(entry.getKey().toLowerCase()), is(entry.getValue()));
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutable() {
+    PersistentHashMap.<String, String>empty().plus("a", "1").put("b", "2");
+  }
+
+  @Test
+  public void serialization() {
+    PersistentHashMap<String, String> map = PersistentHashMap.<String>emptyCaseInsensitive().plus("Foo", "1").plus("bar", "2");
+    PersistentHashMap<String, String> deserialized = SerializationUtils.clone(map);
+
+    assertThat(deserialized, equalTo(map));
+    assertThat(deserialized.get("FOO"), is("1"));
+  }
+}
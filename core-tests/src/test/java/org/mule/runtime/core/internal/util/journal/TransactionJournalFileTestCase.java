@@ -10,13 +10,16 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.internal.util.journal.queue.LocalQueueTxJournalEntry;
 import org.mule.runtime.core.internal.util.journal.queue.LocalTxQueueTransactionJournal;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Rule;
@@ -51,11 +54,46 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
     assertThat(entry.getValue(), equalTo(payload));
   }
 
+  @Test
+  public void groupCommitEntriesAreDurable() throws Exception {
+    final int committers = 8;
+    final int entriesPerCommitter = 100;
+
+    Scheduler scheduler = muleContext.getSchedulerService().ioScheduler();
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(scheduler);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < committers; i++) {
+      final int txId = i;
+      Thread thread = new Thread(() -> {
+        for (int j = 0; j < entriesPerCommitter; j++) {
+          journal.awaitDurable(journal.logOperation(new LocalQueueTxJournalEntry(txId, (byte) 6, "queue", "entry " + j)));
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    journal.close();
+    scheduler.stop();
+
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> reopened = openJournal();
+    for (int i = 0; i < committers; i++) {
+      assertThat(reopened.getLogEntries(i).size(), equalTo(entriesPerCommitter));
+    }
+    reopened.close();
+  }
+
   private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal() {
+    return openJournal(null);
+  }
+
+  private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal(Scheduler groupCommitScheduler) {
     File journalFile = new File(temporaryFolder.getRoot(), "journal");
     JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
 
-    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500);
+    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500, groupCommitScheduler);
   }
 
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.scheduler.SchedulerConfig.config;
+import static org.mule.runtime.core.internal.util.queue.LogStructuredQueueStoreDelegate.MAX_SEGMENT_SIZE_PROPERTY_KEY;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class LogStructuredQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty maxSegmentSize = new SystemProperty(MAX_SEGMENT_SIZE_PROPERTY_KEY, "1024");
+
+  private SimpleUnitTestSupportSchedulerService schedulerService;
+  private MuleContext mockMuleContext;
+  private LogStructuredQueueStoreDelegate queueStore;
+
+  @Before
+  public void before() {
+    schedulerService = new SimpleUnitTestSupportSchedulerService();
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(mockMuleContext.getSchedulerService()).thenReturn(schedulerService);
+    when(mockMuleContext.getSchedulerBaseConfig()).thenReturn(config());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+    queueStore = createTestQueueStore();
+  }
+
+  @After
+  public void after() throws MuleException {
+    queueStore.dispose();
+    schedulerService.stop();
+  }
+
+  @Test
+  public void itemsAreReadInOrder() throws Exception {
+    queueStore.putNow("first");
+    queueStore.putNow("second");
+    queueStore.untake("zero");
+
+    assertThat(queueStore.getSize(), is(3));
+    assertThat(queueStore.peek(), is("zero"));
+    assertThat(queueStore.poll(0), is("zero"));
+    assertThat(queueStore.poll(0), is("first"));
+    assertThat(queueStore.poll(0), is("second"));
+    assertThat(queueStore.poll(0), is(nullValue()));
+  }
+
+  @Test
+  public void itemsSurviveReopening() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+    for (int i = 0; i < 60; i++) {
+      queueStore.poll(0);
+    }
+    queueStore.untake(createTestDataForIndex(59));
+    queueStore.close();
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(41));
+    for (int i = 59; i < 100; i++) {
+      assertThat(queueStore.poll(0), is(createTestDataForIndex(i)));
+    }
+  }
+
+  @Test
+  public void incompleteRecordIsDiscardedOnReopening() throws Exception {
+    queueStore.putNow("complete");
+    queueStore.close();
+
+    File segment = getSegments()[0];
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      file.seek(file.length());
+      file.write(new byte[] {0, 1, 2, 3, 1, 0});
+    }
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(1));
+    assertThat(queueStore.poll(0), is("complete"));
+  }
+
+  @Test
+  public void clearedItemsDoNotSurviveReopening() throws Exception {
+    queueStore.putNow("cleared");
+    queueStore.clear();
+    queueStore.putNow("kept");
+    queueStore.close();
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(1));
+    assertThat(queueStore.poll(0), is("kept"));
+  }
+
+  @Test
+  public void consumedSegmentsAreReclaimed() throws Exception {
+    for (int i = 0; i < 200; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+    assertThat(getSegments().length > 2, is(true));
+
+    for (int i = 0; i < 199; i++) {
+      queueStore.poll(0);
+    }
+
+    new PollingProber(5000, 100).check(new JUnitLambdaProbe(() -> getSegments().length <= 2));
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(199)));
+  }
+
+  @Test
+  public void concurrentWritersAreSynced() throws Exception {
+    final int writers = 8;
+    final CountDownLatch latch = new CountDownLatch(writers);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < writers; i++) {
+      final int writer = i;
+      Thread thread = new Thread(() -> {
+        for (int j = 0; j < 50; j++) {
+          queueStore.putNow(createTestDataForIndex(writer * 50 + j));
+        }
+        latch.countDown();
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    latch.await();
+
+    queueStore.close();
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(writers * 50));
+  }
+
+  @Test
+  public void removeAndContains() throws Exception {
+    queueStore.putNow("first");
+    queueStore.putNow("second");
+
+    assertThat(queueStore.contains("second"), is(true));
+    queueStore.remove("second");
+    assertThat(queueStore.contains("second"), is(false));
+    assertThat(queueStore.getSize(), is(1));
+  }
+
+  private File[] getSegments() {
+    File logDirectory = new File(workingDirectory.getRoot(), "queuestore" + File.separator + TEST_QUEUE_NAME + "-log");
+    return logDirectory.listFiles();
+  }
+
+  private String createTestDataForIndex(int index) {
+    return "some value " + index;
+  }
+
+  private LogStructuredQueueStoreDelegate createTestQueueStore() {
+    return new LogStructuredQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext,
+                                               0);
+  }
+}
@@ -9,11 +9,13 @@ package org.mule.runtime.core.internal.util.store;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
 import org.mule.tck.junit4.AbstractMuleTestCase;
@@ -92,6 +94,75 @@ public class PartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
     assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
   }
 
+  @Test
+  public void removedKeyIsNotExpiredNorCountedForMaxEntries() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.remove(TEST_KEY1, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+
+    store.expire(UNBOUNDED, 2, TEST_PARTITION);
+
+    assertThat(store.retrieve(TEST_KEY1, TEST_PARTITION), equalTo(TEST_VALUE));
+    assertThat(store.retrieve(TEST_KEY2, TEST_PARTITION), equalTo(TEST_VALUE));
+    assertThat(store.getEvictedEntriesCount(), is(0L));
+  }
+
+  @Test
+  public void keyStoredAgainWithSameValueIsNotExpiredByItsPreviousAge() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.remove(TEST_KEY1, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(5);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.expire(2, UNBOUNDED, TEST_PARTITION);
+
+    assertThat(store.retrieve(TEST_KEY1, TEST_PARTITION), equalTo(TEST_VALUE));
+    assertThat(store.getExpiredEntriesCount(), is(0L));
+  }
+
+  @Test
+  public void removedEntriesArePurgedFromTheIndex() throws ObjectStoreException {
+    for (int i = 0; i < 1000; i++) {
+      store.store(TEST_KEY1 + i, TEST_VALUE, TEST_PARTITION);
+    }
+    for (int i = 0; i < 999; i++) {
+      store.remove(TEST_KEY1 + i, TEST_PARTITION);
+    }
+
+    store.expire(UNBOUNDED, 1, TEST_PARTITION);
+    assertThat(store.allKeys(TEST_PARTITION), contains(TEST_KEY1 + 999));
+    assertThat(store.getEvictedEntriesCount(), is(0L));
+  }
+
+  @Test
+  public void clearedKeysAreNotExpiredNorCountedForMaxEntries() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.clear(TEST_PARTITION);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+
+    store.expire(UNBOUNDED, 1, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION), contains(TEST_KEY3));
+    assertThat(store.getEvictedEntriesCount(), is(0L));
+  }
+
+  @Test
+  public void expiredAndEvictedEntriesAreCounted() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.expire(UNBOUNDED, 1, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(5);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+    store.expire(2, UNBOUNDED, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION), contains(TEST_KEY3));
+    assertThat(store.getEvictedEntriesCount(), is(1L));
+    assertThat(store.getExpiredEntriesCount(), is(1L));
+  }
+
   @Test
   public void removesDataOnClear() throws ObjectStoreException {
     PartitionedInMemoryObjectStore os = spy(store);
@@ -7,6 +7,9 @@
 
 package org.mule.runtime.core.api.config;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration.LOG_STRUCTURED_PROPERTY;
+
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.component.AbstractComponent;
 import org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration;
@@ -20,6 +23,7 @@ public final class QueueProfile extends AbstractComponent {
 
   private int maxOutstandingMessages = 0;
   private boolean persistent;
+  private boolean logStructured = getBoolean(LOG_STRUCTURED_PROPERTY);
 
   public static QueueProfile newInstancePersistingToDefaultMemoryQueueStore() {
     return new QueueProfile(false);
@@ -38,6 +42,17 @@ public final class QueueProfile extends AbstractComponent {
     this.persistent = persistent;
   }
 
+  /**
+   * @param maxOutstandingMessages the max number of messages that will be queued
+   * @param persistent             whether the queue is persistent
+   * @param logStructured          whether a persistent queue stores its data in a segmented append-only log
+   * @since 4.2.0
+   */
+  public QueueProfile(int maxOutstandingMessages, boolean persistent, boolean logStructured) {
+    this(maxOutstandingMessages, persistent);
+    this.logStructured = logStructured;
+  }
+
   /**
    * This specifies the number of messages that can be queued before it starts blocking.
    *
@@ -56,15 +71,32 @@ public final class QueueProfile extends AbstractComponent {
     this.maxOutstandingMessages = maxOutstandingMessages;
   }
 
+  /**
+   * @return whether a persistent queue stores its data in a segmented append-only log
+   * @since 4.2.0
+   */
+  public boolean isLogStructured() {
+    return logStructured;
+  }
+
+  /**
+   * @param logStructured whether a persistent queue stores its data in a segmented append-only log
+   * @since 4.2.0
+   */
+  public void setLogStructured(boolean logStructured) {
+    this.logStructured = logStructured;
+  }
+
   public QueueConfiguration configureQueue(String component, QueueManager queueManager)
       throws InitialisationException {
-    QueueConfiguration qc = new DefaultQueueConfiguration(maxOutstandingMessages, persistent);
+    QueueConfiguration qc = new DefaultQueueConfiguration(maxOutstandingMessages, persistent, logStructured);
     queueManager.setQueueConfiguration(component, qc);
     return qc;
   }
 
   @Override
   public String toString() {
-    return "QueueProfile{maxOutstandingMessage=" + maxOutstandingMessages + ", persistent=" + persistent + "}";
+    return "QueueProfile{maxOutstandingMessage=" + maxOutstandingMessages + ", persistent=" + persistent + ", logStructured="
+        + logStructured + "}";
   }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.context.notification;
+
+/**
+ * What a {@link ServerNotificationManager} does with an asynchronous notification when batched dispatch is enabled and the queue
+ * of a listener is full.
+ *
+ * @since 4.2.0
+ */
+public enum NotificationOverflowPolicy {
+
+  /**
+   * The oldest notification in the queue is discarded to make room for the new one.
+   */
+  DROP_OLDEST,
+
+  /**
+   * The thread firing the notification waits until there is room in the queue. No notification is lost, but a slow listener
+   * slows down the components that fire notifications.
+   */
+  BLOCK,
+
+  /**
+   * Only one out of every {@code n} notifications that find the queue full is kept, discarding the oldest notification in the
+   * queue to make room for it. The rest are discarded. The listener keeps receiving recent notifications while discarding most of
+   * them.
+   */
+  SAMPLE
+}
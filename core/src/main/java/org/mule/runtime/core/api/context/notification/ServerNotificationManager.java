@@ -6,9 +6,14 @@
  */
 package org.mule.runtime.core.api.context.notification;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
 import static java.lang.Thread.currentThread;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.context.notification.NotificationOverflowPolicy.DROP_OLDEST;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.api.annotation.NoExtend;
 import org.mule.runtime.api.lifecycle.InitialisationException;
@@ -48,6 +53,7 @@ import org.mule.runtime.api.util.concurrent.Latch;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.ClassUtils;
+import org.mule.runtime.core.internal.context.notification.BatchingNotificationDispatcher;
 import org.mule.runtime.core.internal.context.notification.Configuration;
 import org.mule.runtime.core.internal.context.notification.Policy;
 import org.mule.runtime.core.privileged.context.notification.OptimisedNotificationHandler;
@@ -55,6 +61,7 @@ import org.mule.runtime.core.privileged.context.notification.OptimisedNotificati
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
@@ -86,12 +93,41 @@ import org.slf4j.Logger;
  * <li>Disabling an event or interface disables all uses of that class or any subclass.</li>
  * <li>Enquiring whether an event is enabled returns true if any subclass is enabled.</li>
  * </ul>
+ *
+ * <p>
+ * Asynchronous notifications are submitted to a scheduler one task per listener and notification, unless batched dispatch is
+ * enabled. In that case each listener gets a bounded queue that is drained in batches, see
+ * {@link #setBatchedDispatch(boolean)}.
+ * </p>
  */
 @NoExtend
 public class ServerNotificationManager implements ServerNotificationHandler, MuleContextAware {
 
   private static final Logger logger = getLogger(ServerNotificationManager.class);
 
+  /**
+   * System property to enable batched dispatch of asynchronous notifications by default.
+   *
+   * @since 4.2.0
+   */
+  public static final String BATCHED_DISPATCH_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.batchedDispatch";
+
+  /**
+   * System property to set the default size of the queue of each listener when batched dispatch is enabled.
+   *
+   * @since 4.2.0
+   */
+  public static final String DISPATCH_QUEUE_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.dispatchQueueSize";
+
+  /**
+   * System property to set the default {@link NotificationOverflowPolicy} when batched dispatch is enabled.
+   *
+   * @since 4.2.0
+   */
+  public static final String DISPATCH_OVERFLOW_POLICY_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.dispatchOverflowPolicy";
+
+  private static final int DEFAULT_DISPATCH_QUEUE_SIZE = 1024;
+
   private boolean dynamic = false;
   private Configuration configuration = new Configuration();
   private AtomicInteger activeFires = new AtomicInteger();
@@ -100,6 +136,11 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   private MuleContext muleContext;
   private Scheduler notificationsLiteScheduler;
   private Scheduler notificationsIoScheduler;
+  private boolean batchedDispatch = getBoolean(BATCHED_DISPATCH_PROPERTY);
+  private int dispatchQueueSize = getInteger(DISPATCH_QUEUE_SIZE_PROPERTY, DEFAULT_DISPATCH_QUEUE_SIZE);
+  private NotificationOverflowPolicy dispatchOverflowPolicy =
+      NotificationOverflowPolicy.valueOf(getProperty(DISPATCH_OVERFLOW_POLICY_PROPERTY, DROP_OLDEST.name()));
+  private final Map<NotificationListener, BatchingNotificationDispatcher> dispatchers = new ConcurrentHashMap<>();
 
   @Override
   public boolean isNotificationDynamic() {
@@ -115,6 +156,38 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     this.dynamic = dynamic;
   }
 
+  /**
+   * When enabled, asynchronous notifications are added to a bounded queue per listener instead of being submitted to a scheduler
+   * one by one. The queue of each listener is drained in batches by a single task, which considerably reduces the overhead of
+   * having listeners for frequent notifications, such as the ones for each message processor.
+   * <p/>
+   * Must be set before any notification is fired.
+   *
+   * @param batchedDispatch whether asynchronous notifications are dispatched in batches.
+   * @since 4.2.0
+   */
+  public void setBatchedDispatch(boolean batchedDispatch) {
+    this.batchedDispatch = batchedDispatch;
+  }
+
+  /**
+   * @param dispatchQueueSize the number of notifications that may be waiting to be delivered to each listener when batched
+   *        dispatch is enabled.
+   * @since 4.2.0
+   */
+  public void setDispatchQueueSize(int dispatchQueueSize) {
+    this.dispatchQueueSize = dispatchQueueSize;
+  }
+
+  /**
+   * @param dispatchOverflowPolicy what to do with notifications for a listener whose queue is full, when batched dispatch is
+   *        enabled.
+   * @since 4.2.0
+   */
+  public void setDispatchOverflowPolicy(NotificationOverflowPolicy dispatchOverflowPolicy) {
+    this.dispatchOverflowPolicy = dispatchOverflowPolicy;
+  }
+
   /**
    * Do not make this object {@link org.mule.runtime.api.lifecycle.Initialisable}. It needs to be initialised before every other
    * object to send notifications.
@@ -152,6 +225,10 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
    */
   public void removeListener(NotificationListener<?> listener) {
     configuration.removeListener(listener);
+    BatchingNotificationDispatcher dispatcher = dispatchers.remove(listener);
+    if (dispatcher != null) {
+      dispatcher.dispose();
+    }
   }
 
   public void disableInterface(Class<? extends NotificationListener> iface) {
@@ -191,6 +268,8 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       }
       if (notification.isSynchronous()) {
         notifyListeners(notification, (listener, nfn) -> listener.onNotification(nfn));
+      } else if (batchedDispatch) {
+        notifyListeners(notification, (listener, nfn) -> getDispatcher(listener).dispatch(nfn));
       } else {
         notifyListeners(notification, (listener, nfn) -> {
           if (listener.isBlocking()) {
@@ -207,6 +286,16 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     }
   }
 
+  private BatchingNotificationDispatcher getDispatcher(NotificationListener listener) {
+    BatchingNotificationDispatcher dispatcher = dispatchers.get(listener);
+    if (dispatcher == null) {
+      dispatcher = dispatchers.computeIfAbsent(listener, l -> new BatchingNotificationDispatcher(l, l.isBlocking()
+          ? notificationsIoScheduler
+          : notificationsLiteScheduler, dispatchQueueSize, dispatchOverflowPolicy));
+    }
+    return dispatcher;
+  }
+
   protected void notifyListeners(Notification notification, NotifierCallback notifier) {
     configuration.getPolicy().dispatch(notification, notifier);
   }
@@ -239,6 +328,9 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       }
     }
 
+    dispatchers.values().forEach(BatchingNotificationDispatcher::dispose);
+    dispatchers.clear();
+
     if (notificationsLiteScheduler != null) {
       notificationsLiteScheduler.stop();
       notificationsLiteScheduler = null;
@@ -285,6 +377,32 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     return disposed.get();
   }
 
+  /**
+   * @return the number of asynchronous notifications waiting to be delivered to their listeners when batched dispatch is
+   *         enabled.
+   * @since 4.2.0
+   */
+  public long getQueuedNotifications() {
+    long queued = 0;
+    for (BatchingNotificationDispatcher dispatcher : dispatchers.values()) {
+      queued += dispatcher.getQueued();
+    }
+    return queued;
+  }
+
+  /**
+   * @return the number of asynchronous notifications that were discarded because the queue of their listener was full, when
+   *         batched dispatch is enabled. Notifications for listeners that have been removed are not accounted for.
+   * @since 4.2.0
+   */
+  public long getDroppedNotifications() {
+    long dropped = 0;
+    for (BatchingNotificationDispatcher dispatcher : dispatchers.values()) {
+      dropped += dispatcher.getDropped();
+    }
+    return dropped;
+  }
+
   /**
    * @return a {@link ServerNotificationManager} with the default configuration for Mule notifications
    */
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.api.el;
 
+import static java.util.Optional.empty;
+
 import org.mule.api.annotation.NoImplement;
 import org.mule.runtime.api.component.location.ComponentLocation;
 import org.mule.runtime.api.el.BindingContext;
@@ -13,8 +15,11 @@ import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.construct.FlowConstruct;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+import org.mule.runtime.core.api.management.stats.ExpressionCacheStatistics;
 import org.mule.runtime.core.internal.message.InternalMessage;
 
+import java.util.Optional;
+
 /**
  * Extends the {@link ExpressionManager} supporting mutating operations and the propagation of more variables.
  * <p>
@@ -65,4 +70,23 @@ public interface ExtendedExpressionManager extends ExpressionManager {
   @Deprecated
   String parse(String expression, CoreEvent event, ComponentLocation componentLocation) throws ExpressionRuntimeException;
 
+  /**
+   * Compiles the given {@code expression} ahead of its first evaluation, so that it is not done when the first event arrives.
+   * Implementations that don't keep compiled expressions just ignore it.
+   *
+   * @param expression the expression to compile
+   * @since 4.2.0
+   */
+  default void compile(String expression) {
+    // Nothing to do by default
+  }
+
+  /**
+   * @return the statistics of the cache of compiled expressions, if this manager keeps one.
+   * @since 4.2.0
+   */
+  default Optional<ExpressionCacheStatistics> getExpressionCacheStatistics() {
+    return empty();
+  }
+
 }
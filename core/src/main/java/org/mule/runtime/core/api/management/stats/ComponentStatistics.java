@@ -6,15 +6,22 @@
  */
 package org.mule.runtime.core.api.management.stats;
 
+import static org.mule.runtime.core.api.management.stats.ProcessingTime.getEffectiveTime;
+
 import org.mule.api.annotation.NoExtend;
 import org.mule.runtime.core.api.util.StringUtils;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. This class is not thread-safe -
- * occasional errors in reported statistics should be expected, especially when the {@link #clear()} method is used.
+ * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. Measurements are recorded without
+ * locking, so that statistics can be enabled without adding contention to the components that report them. Each value is
+ * consistent on its own, but values read while measurements are being recorded may not be consistent with each other, and
+ * occasional errors in reported statistics should be expected when the {@link #clear()} method is used.
  */
 @NoExtend
 public class ComponentStatistics implements Statistics {
@@ -26,14 +33,16 @@ public class ComponentStatistics implements Statistics {
    */
   private static final long serialVersionUID = -2086999226732861674L;
 
-  private long minExecutionTime = 0;
-  private long maxExecutionTime = 0;
-  private long averageExecutionTime = 0;
-  private long executedEvent = 0;
-  private long totalExecTime = 0;
-  private boolean enabled = false;
+  private final AtomicLong minExecutionTime = new AtomicLong(0);
+  private final AtomicLong maxExecutionTime = new AtomicLong(0);
+  private final LongAdder executedEvent = new LongAdder();
+  private final LongAdder totalExecTime = new LongAdder();
+  // Whether any event was executed since last cleared, so recording a measurement doesn't need to sum executedEvent
+  private volatile boolean eventsExecuted = false;
+  private final LatencyHistogram executionTimeHistogram = new LatencyHistogram();
+  private volatile boolean enabled = false;
   private long intervalTime = 0;
-  private long currentIntervalStartTime = 0;
+  private volatile long currentIntervalStartTime = 0;
   private boolean statIntervalTimeEnabled = false;
 
   /**
@@ -65,11 +74,12 @@ public class ComponentStatistics implements Statistics {
    * If called while a branch is being executed, then statistics may be slightly erroneous.
    */
   public void clear() {
-    minExecutionTime = 0;
-    maxExecutionTime = 0;
-    executedEvent = 0;
-    totalExecTime = 0;
-    averageExecutionTime = 0;
+    minExecutionTime.set(0);
+    maxExecutionTime.set(0);
+    eventsExecuted = false;
+    executedEvent.reset();
+    totalExecTime.reset();
+    executionTimeHistogram.reset();
   }
 
   /**
@@ -102,7 +112,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been started.
    */
   public long getMaxExecutionTime() {
-    return maxExecutionTime;
+    return maxExecutionTime.get();
   }
 
   /**
@@ -111,7 +121,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been completed.
    */
   public long getMinExecutionTime() {
-    return minExecutionTime;
+    return minExecutionTime.get();
   }
 
   /**
@@ -121,7 +131,7 @@ public class ComponentStatistics implements Statistics {
    * @return The total cumulative execution time, in milliseconds.
    */
   public long getTotalExecutionTime() {
-    return totalExecTime;
+    return totalExecTime.sum();
   }
 
   /**
@@ -133,7 +143,7 @@ public class ComponentStatistics implements Statistics {
    * @return The number of events executed since last cleared.
    */
   public long getExecutedEvents() {
-    return executedEvent;
+    return executedEvent.sum();
   }
 
   /**
@@ -143,34 +153,23 @@ public class ComponentStatistics implements Statistics {
    * @param branch the time to execute this branch
    * @param total the total time (so far) for processing this event
    */
-  public synchronized void addExecutionBranchTime(boolean first, long branch, long total) {
+  public void addExecutionBranchTime(boolean first, long branch, long total) {
     // TODO MULE-9151 - ComponentStatistics should really create distinct Event
     // objects that can be used to aggregate statistics and then atomically
     // log them at completion time.
 
-    if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
-
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
-        clear();
-        currentIntervalStartTime = currentTime;
-      }
-    }
+    resetIfIntervalElapsed();
 
     if (first) {
-      executedEvent++;
+      executedEvent.increment();
+      eventsExecuted = true;
     }
 
-    if (executedEvent > 0) {
-      totalExecTime += ProcessingTime.getEffectiveTime(branch);
-      long effectiveTotal = ProcessingTime.getEffectiveTime(total);
-      if (maxExecutionTime == 0 || effectiveTotal > maxExecutionTime) {
-        maxExecutionTime = effectiveTotal;
-      }
-      averageExecutionTime = totalExecTime / executedEvent;
+    if (eventsExecuted) {
+      long effectiveBranch = getEffectiveTime(branch);
+      totalExecTime.add(effectiveBranch);
+      updateMax(getEffectiveTime(total));
+      executionTimeHistogram.record(effectiveBranch);
     }
   }
 
@@ -181,12 +180,9 @@ public class ComponentStatistics implements Statistics {
    * 
    * @param time the total time required to process this event
    */
-  public synchronized void addCompleteExecutionTime(long time) {
-    if (executedEvent > 0) {
-      long effectiveTime = ProcessingTime.getEffectiveTime(time);
-      if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-        minExecutionTime = effectiveTime;
-      }
+  public void addCompleteExecutionTime(long time) {
+    if (eventsExecuted) {
+      updateMin(getEffectiveTime(time));
     }
   }
 
@@ -197,7 +193,20 @@ public class ComponentStatistics implements Statistics {
    *
    * @param time The total event time to be logged/recorded.
    */
-  public synchronized void addExecutionTime(long time) {
+  public void addExecutionTime(long time) {
+    resetIfIntervalElapsed();
+
+    executedEvent.increment();
+    eventsExecuted = true;
+
+    long effectiveTime = getEffectiveTime(time);
+    totalExecTime.add(effectiveTime);
+    updateMin(effectiveTime);
+    updateMax(effectiveTime);
+    executionTimeHistogram.record(effectiveTime);
+  }
+
+  private void resetIfIntervalElapsed() {
     if (statIntervalTimeEnabled) {
       long currentTime = System.currentTimeMillis();
       if (currentIntervalStartTime == 0) {
@@ -209,19 +218,26 @@ public class ComponentStatistics implements Statistics {
         currentIntervalStartTime = currentTime;
       }
     }
+  }
 
-    executedEvent++;
-
-    long effectiveTime = ProcessingTime.getEffectiveTime(time);
-    totalExecTime += effectiveTime;
+  private void updateMin(long time) {
+    long current;
+    do {
+      current = minExecutionTime.get();
+      if (current != 0 && current <= time) {
+        return;
+      }
+    } while (!minExecutionTime.compareAndSet(current, time));
+  }
 
-    if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-      minExecutionTime = time;
-    }
-    if (maxExecutionTime == 0 || effectiveTime > maxExecutionTime) {
-      maxExecutionTime = time;
-    }
-    averageExecutionTime = totalExecTime / executedEvent;
+  private void updateMax(long time) {
+    long current;
+    do {
+      current = maxExecutionTime.get();
+      if (current != 0 && current >= time) {
+        return;
+      }
+    } while (!maxExecutionTime.compareAndSet(current, time));
   }
 
   /**
@@ -230,7 +246,29 @@ public class ComponentStatistics implements Statistics {
    * @return the total event time accumulated to this point, divided by the total number of events recorded.
    */
   public long getAverageExecutionTime() {
-    return averageExecutionTime;
+    long executed = executedEvent.sum();
+    return executed == 0 ? 0 : totalExecTime.sum() / executed;
+  }
+
+  /**
+   * Returns the execution time below or equal to which the given percentage of the events fall. When branch times are recorded,
+   * each branch is taken into account as it finishes, through {@link #addExecutionBranchTime(boolean, long, long)}.
+   *
+   * @param percentile the percentage of events, between {@code 0} and {@code 100}. For instance, {@code 99.9} for the 99.9th
+   *        percentile.
+   * @return the execution time for the given percentile, in milliseconds, or zero if no events have been completed.
+   * @since 4.2.0
+   */
+  public long getExecutionTimePercentile(double percentile) {
+    return executionTimeHistogram.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * @return the histogram of the execution times recorded since last cleared. It is updated as new times are recorded.
+   * @since 4.2.0
+   */
+  public LatencyHistogram getExecutionTimeHistogram() {
+    return executionTimeHistogram;
   }
 
 }
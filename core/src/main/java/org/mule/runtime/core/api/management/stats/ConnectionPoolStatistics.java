@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import org.mule.api.annotation.NoImplement;
+
+/**
+ * Metrics of a pool of connections. Values are updated as connections are borrowed and returned.
+ *
+ * @since 4.2.0
+ */
+@NoImplement
+public interface ConnectionPoolStatistics {
+
+  /**
+   * @return the number of connections currently borrowed
+   */
+  int getNumActive();
+
+  /**
+   * @return the number of connections currently idle in the pool
+   */
+  int getNumIdle();
+
+  /**
+   * @return the number of threads waiting for a connection to be returned
+   */
+  int getNumWaiting();
+
+  /**
+   * @return the histogram of the time it took to borrow each connection, in microseconds, including the time spent waiting and
+   *         creating the connection.
+   */
+  LatencyHistogram getBorrowLatency();
+
+  /**
+   * @return the histogram of the time the threads that found the pool exhausted spent waiting for a connection, in
+   *         microseconds.
+   */
+  LatencyHistogram getWaitTime();
+}
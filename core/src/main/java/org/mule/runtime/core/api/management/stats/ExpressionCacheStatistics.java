@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import org.mule.api.annotation.NoImplement;
+
+/**
+ * Metrics of the cache where an artifact keeps the expressions it evaluates already compiled.
+ *
+ * @since 4.2.0
+ */
+@NoImplement
+public interface ExpressionCacheStatistics {
+
+  /**
+   * @return how many times an expression was found already compiled
+   */
+  long getHits();
+
+  /**
+   * @return how many times an expression had to be compiled
+   */
+  long getMisses();
+
+  /**
+   * @return the amount of compiled expressions being kept
+   */
+  int getSize();
+}
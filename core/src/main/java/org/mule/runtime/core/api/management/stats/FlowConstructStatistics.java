@@ -64,6 +64,48 @@ public interface FlowConstructStatistics extends Statistics {
    */
   long getTotalProcessingTime();
 
+  /**
+   * @param percentile the percentage of events, between {@code 0} and {@code 100}.
+   * @return the time below or equal to which the given percentage of the finalized events were processed, or {@code 0} if no
+   *         events have been finalized.
+   * @since 4.2.0
+   */
+  default long getProcessingTimePercentile(double percentile) {
+    return 0;
+  }
+
+  /**
+   * @return the median time required to process an event
+   * @since 4.2.0
+   */
+  default long getProcessingTimeP50() {
+    return getProcessingTimePercentile(50);
+  }
+
+  /**
+   * @return the time within which 95% of the events were processed
+   * @since 4.2.0
+   */
+  default long getProcessingTimeP95() {
+    return getProcessingTimePercentile(95);
+  }
+
+  /**
+   * @return the time within which 99% of the events were processed
+   * @since 4.2.0
+   */
+  default long getProcessingTimeP99() {
+    return getProcessingTimePercentile(99);
+  }
+
+  /**
+   * @return the time within which 99.9% of the events were processed
+   * @since 4.2.0
+   */
+  default long getProcessingTimeP999() {
+    return getProcessingTimePercentile(99.9);
+  }
+
   /**
    * @return the number of execution errors at a given time
    */
@@ -79,6 +121,25 @@ public interface FlowConstructStatistics extends Statistics {
    */
   long getTotalEventsReceived();
 
+  /**
+   * Updates the maximum number of events the flow currently accepts to process concurrently.
+   *
+   * @param concurrencyLimit the new limit.
+   * @since 4.2.0
+   */
+  default void setConcurrencyLimit(int concurrencyLimit) {
+    // Nothing to do by default
+  }
+
+  /**
+   * @return the maximum number of events the flow currently accepts to process concurrently, or {@code -1} if the flow does not
+   *         adapt its concurrency to the observed latency.
+   * @since 4.2.0
+   */
+  default int getConcurrencyLimit() {
+    return -1;
+  }
+
   /**
    * @return  indicates if the statistic is enabled or not.
    */
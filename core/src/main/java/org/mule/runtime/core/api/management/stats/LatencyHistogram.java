@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.ulp;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import org.mule.api.annotation.NoExtend;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies, used to obtain percentiles of the recorded values.
+ * <p/>
+ * As in an HDR histogram, values are counted in buckets whose width grows with the magnitude of the values, so the value
+ * reported for a percentile has a relative error of at most {@code 1/32} regardless of its magnitude, and the memory used is
+ * fixed. Values below {@code 64} are counted exactly, and values over {@link #MAX_TRACKABLE_VALUE} are counted as that value.
+ * <p/>
+ * Recording a value is a single atomic increment, so concurrent recordings do not block each other. Percentiles read while
+ * values are being recorded may not account for the values being recorded at that time.
+ *
+ * @since 4.2.0
+ */
+@NoExtend
+public final class LatencyHistogram implements Serializable {
+
+  private static final long serialVersionUID = -3584093524390155226L;
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKET_HALF_COUNT = 1 << (SUB_BUCKET_BITS - 1);
+  private static final int MAX_VALUE_BITS = 36;
+
+  /**
+   * The greatest value that is counted in its own bucket. In milliseconds, it is a bit more than two years.
+   */
+  public static final long MAX_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(indexOf(MAX_TRACKABLE_VALUE) + 1);
+
+  /**
+   * Counts a value.
+   *
+   * @param value the value to count. Negative values are counted as {@code 0}.
+   */
+  public void record(long value) {
+    counts.incrementAndGet(indexOf(value));
+  }
+
+  /**
+   * Adds the counts of another histogram to this one.
+   *
+   * @param other the histogram to add.
+   */
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < counts.length(); ++i) {
+      long count = other.counts.get(i);
+      if (count != 0) {
+        counts.addAndGet(i, count);
+      }
+    }
+  }
+
+  /**
+   * @return the number of values counted.
+   */
+  public long getTotalCount() {
+    long total = 0;
+    for (int i = 0; i < counts.length(); ++i) {
+      total += counts.get(i);
+    }
+    return total;
+  }
+
+  /**
+   * @param percentile the percentage of values, between {@code 0} and {@code 100}.
+   * @return the value below or equal to which the given percentage of the counted values fall, or {@code 0} if no values were
+   *         counted.
+   */
+  public long getValueAtPercentile(double percentile) {
+    checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+
+    long total = getTotalCount();
+    if (total == 0) {
+      return 0;
+    }
+
+    // The rank is rounded down by one ulp so that floating point errors don't push it to the next value
+    double rank = percentile * total / 100;
+    long target = max(1, (long) ceil(rank - ulp(rank)));
+    long cumulative = 0;
+    int lastCounted = 0;
+    for (int i = 0; i < counts.length(); ++i) {
+      long count = counts.get(i);
+      if (count != 0) {
+        cumulative += count;
+        lastCounted = i;
+        if (cumulative >= target) {
+          return highestValueOf(i);
+        }
+      }
+    }
+    // Values were reset while iterating
+    return highestValueOf(lastCounted);
+  }
+
+  /**
+   * Discards all the counted values.
+   */
+  public void reset() {
+    for (int i = 0; i < counts.length(); ++i) {
+      counts.set(i, 0);
+    }
+  }
+
+  private static int indexOf(long value) {
+    value = min(max(value, 0), MAX_TRACKABLE_VALUE);
+    int magnitude = max(0, 64 - numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+    return SUB_BUCKET_HALF_COUNT * magnitude + (int) (value >>> magnitude);
+  }
+
+  private static long highestValueOf(int index) {
+    int magnitude = index < 2 * SUB_BUCKET_HALF_COUNT ? 0 : index / SUB_BUCKET_HALF_COUNT - 1;
+    long subBucket = index - SUB_BUCKET_HALF_COUNT * magnitude;
+    return ((subBucket + 1) << magnitude) - 1;
+  }
+}
@@ -12,6 +12,7 @@ import org.mule.runtime.core.api.construct.Pipeline;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
 import org.mule.runtime.core.api.processor.Sink;
 
 /**
@@ -50,6 +51,19 @@ public interface ProcessingStrategy {
     return processor;
   }
 
+  /**
+   * Whether consecutive processors of the given {@link ProcessingType} may be enriched by {@link #onProcessor(ReactiveProcessor)}
+   * as a single unit, so that they all run on the same thread instead of switching threads around each one of them. When this is
+   * the case, the notifications and interceptors of the coalesced processors run on the thread chosen by this processing strategy.
+   *
+   * @param processingType the processing type shared by the consecutive processors.
+   * @return {@code true} if consecutive processors of the given type can be coalesced, {@code false} otherwise.
+   * @since 4.2.0
+   */
+  default boolean isCoalescingSupported(ProcessingType processingType) {
+    return false;
+  }
+
   /**
    * Whether the processing that has this instance is synchronous or not
    */
@@ -7,6 +7,7 @@
 package org.mule.runtime.core.api.util;
 
 import static java.util.Collections.unmodifiableMap;
+import static org.mule.runtime.core.api.util.StringUtils.caseInsensitiveHashCode;
 
 import org.apache.commons.collections.map.AbstractHashedMap;
 
@@ -185,15 +186,23 @@ public class CaseInsensitiveHashMap<K, V> implements Map<K, V>, Serializable {
     }
 
     /**
-     * Creates a hash value from the lower case value of the key. The same function will be used when querying a value in the map
-     * also
+     * Creates a hash value from the key ignoring its case. The same function will be used when querying a value in the map also.
+     * <p/>
+     * The hash is computed from the characters of the key, without creating a lower case copy of it, since this is done on every
+     * access to the map.
      *
      * @param key the key value to hash
-     * @return a hash value for the lower case key
+     * @return a case insensitive hash value for the key
      */
     @Override
     protected int hash(Object key) {
-      return super.hash(key.toString().toLowerCase());
+      int h = caseInsensitiveHashCode(key instanceof String ? (String) key : key.toString());
+      // Same spreading done by AbstractHashedMap#hash
+      h += ~(h << 9);
+      h ^= (h >>> 14);
+      h += (h << 4);
+      h ^= (h >>> 10);
+      return h;
     }
 
     /**
@@ -6,6 +6,9 @@
  */
 package org.mule.runtime.core.api.util;
 
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+
 import org.mule.runtime.core.internal.util.ArrayUtils;
 
 import java.util.ArrayList;
@@ -169,5 +172,32 @@ public class StringUtils {
     return org.apache.commons.lang3.StringUtils.trim(str);
   }
 
+  /**
+   * Computes a hash code of the given {@code value} which is the same for all the strings that are
+   * {@link String#equalsIgnoreCase(String) equal ignoring case}, without creating a lower case copy of it.
+   * <p>
+   * ASCII characters are folded in place, and the rest are normalized the same way {@link String#equalsIgnoreCase(String)} does
+   * it.
+   *
+   * @param value the value to hash
+   * @return the case insensitive hash code of the value
+   * @since 4.2.0
+   */
+  public static int caseInsensitiveHashCode(String value) {
+    int h = 0;
+    for (int i = 0; i < value.length(); ++i) {
+      char c = value.charAt(i);
+      if (c < 128) {
+        if (c >= 'A' && c <= 'Z') {
+          c += 'a' - 'A';
+        }
+      } else {
+        c = toLowerCase(toUpperCase(c));
+      }
+      h = 31 * h + c;
+    }
+    return h;
+  }
+
   private StringUtils() {}
 }
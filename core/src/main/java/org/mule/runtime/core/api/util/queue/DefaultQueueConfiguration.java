@@ -6,18 +6,41 @@
  */
 package org.mule.runtime.core.api.util.queue;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
 public final class DefaultQueueConfiguration implements QueueConfiguration {
 
+  /**
+   * System property to make persistent queues store their data in a segmented append-only log by default, when their
+   * configuration doesn't state it explicitly.
+   *
+   * @since 4.2.0
+   */
+  public static final String LOG_STRUCTURED_PROPERTY = SYSTEM_PROPERTY_PREFIX + "queue.logStructured";
+
   private final boolean persistent;
   private final int capacity;
+  private final boolean logStructured;
 
   public DefaultQueueConfiguration() {
     this(QueueConfiguration.MAXIMUM_CAPACITY, false);
   }
 
   public DefaultQueueConfiguration(int capacity, boolean isPersistent) {
+    this(capacity, isPersistent, getBoolean(LOG_STRUCTURED_PROPERTY));
+  }
+
+  /**
+   * @param capacity        the queue capacity
+   * @param isPersistent    whether the queue is persistent
+   * @param isLogStructured whether a persistent queue should store its data in a segmented append-only log
+   * @since 4.2.0
+   */
+  public DefaultQueueConfiguration(int capacity, boolean isPersistent, boolean isLogStructured) {
     this.capacity = capacity;
     this.persistent = isPersistent;
+    this.logStructured = isLogStructured;
   }
 
   @Override
@@ -30,9 +53,15 @@ public final class DefaultQueueConfiguration implements QueueConfiguration {
     return capacity;
   }
 
+  @Override
+  public boolean isLogStructured() {
+    return logStructured;
+  }
+
   @Override
   public String toString() {
-    return String.format("DefaultQueueConfiguration{" + "persistent=%s, capacity=%s}", persistent, capacity);
+    return String.format("DefaultQueueConfiguration{" + "persistent=%s, capacity=%s, logStructured=%s}", persistent, capacity,
+                         logStructured);
   }
 
   @Override
@@ -43,6 +72,7 @@ public final class DefaultQueueConfiguration implements QueueConfiguration {
     if (!obj.getClass().equals(this.getClass())) {
       return false;
     }
-    return persistent == ((DefaultQueueConfiguration) obj).persistent && capacity == ((DefaultQueueConfiguration) obj).capacity;
+    return persistent == ((DefaultQueueConfiguration) obj).persistent && capacity == ((DefaultQueueConfiguration) obj).capacity
+        && logStructured == ((DefaultQueueConfiguration) obj).logStructured;
   }
 }
@@ -20,4 +20,14 @@ public interface QueueConfiguration {
 
   int getCapacity();
 
+  /**
+   * Only taken into account for {@link #isPersistent() persistent} queues.
+   *
+   * @return whether the queue data should be kept in a segmented append-only log instead of the default queue files.
+   * @since 4.2.0
+   */
+  default boolean isLogStructured() {
+    return false;
+  }
+
 }
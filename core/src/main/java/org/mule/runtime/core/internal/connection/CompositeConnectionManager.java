@@ -21,10 +21,13 @@ import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.lifecycle.Lifecycle;
 import org.mule.runtime.core.api.connector.ConnectionManager;
+import org.mule.runtime.core.api.management.stats.ConnectionPoolStatistics;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.internal.retry.ReconnectionConfig;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 
+import java.util.Optional;
+
 import org.slf4j.Logger;
 
 /**
@@ -150,6 +153,15 @@ public class CompositeConnectionManager implements ConnectionManager, Connection
     return childConnectionManager.getDefaultPoolingProfile();
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Optional<ConnectionPoolStatistics> getPoolStatistics(Object owner) {
+    return childConnectionManager.hasBinding(owner) ? childConnectionManager.getPoolStatistics(owner)
+        : parentConnectionManager.getPoolStatistics(owner);
+  }
+
   @Override
   public void dispose() {
     disposeIfNeeded(childConnectionManager, LOGGER);
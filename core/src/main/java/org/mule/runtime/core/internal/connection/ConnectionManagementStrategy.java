@@ -12,6 +12,9 @@ import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.core.api.Closeable;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.api.management.stats.ConnectionPoolStatistics;
+
+import java.util.Optional;
 
 /**
  * Strategy to implement different connection management mechanisms.
@@ -48,6 +51,13 @@ abstract class ConnectionManagementStrategy<C> implements Closeable {
    */
   abstract ConnectionHandler<C> getConnectionHandler() throws ConnectionException;
 
+  /**
+   * @return the statistics of the pool the connections are obtained from, if they are pooled.
+   */
+  Optional<ConnectionPoolStatistics> getPoolStatistics() {
+    return Optional.empty();
+  }
+
   /**
    * Closes all connections and resources allocated through {@code this} instance.
    *
@@ -11,9 +11,12 @@ import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.lifecycle.Lifecycle;
 import org.mule.runtime.api.lifecycle.Stoppable;
 import org.mule.runtime.core.api.connector.ConnectionManager;
+import org.mule.runtime.core.api.management.stats.ConnectionPoolStatistics;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.internal.retry.ReconnectionConfig;
 
+import java.util.Optional;
+
 /**
  * Interface for {@link ConnectionManager} implementations which expands its contract with non API functionality
  *
@@ -46,4 +49,16 @@ public interface ConnectionManagerAdapter extends ConnectionManager, Lifecycle {
    * @return a {@link PoolingProfile}
    */
   PoolingProfile getDefaultPoolingProfile();
+
+  /**
+   * Returns the statistics of the pool of connections bound to the given {@code owner}
+   *
+   * @param owner the owner of the connections
+   * @return the {@link ConnectionPoolStatistics}, or {@link Optional#empty()} if the connections of the {@code owner} are not
+   *         pooled or it has no binding.
+   * @since 4.2.0
+   */
+  default Optional<ConnectionPoolStatistics> getPoolStatistics(Object owner) {
+    return Optional.empty();
+  }
 }
@@ -0,0 +1,527 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.Boolean.getBoolean;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.management.stats.ConnectionPoolStatistics;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+
+/**
+ * Pool of connections created by a {@link ConnectionProvider}, configured through a {@link PoolingProfile}.
+ * <p>
+ * Borrowing and returning a connection don't take any lock: each pooled connection has an atomic state, and a connection is
+ * borrowed by switching it from idle to in use. A thread first tries the last connection it returned, since it is likely to
+ * be idle and still cached by that thread, and then looks for any other idle connection. A new connection is only created
+ * when none is idle and the pool has room for it.
+ * <p>
+ * When the pool is exhausted and {@link PoolingProfile#WHEN_EXHAUSTED_WAIT} is configured, threads wait in a queue. A returned
+ * connection, or the room left by a destroyed one, is handed directly to the thread that has been waiting the longest, so
+ * threads that just arrived can't take it first.
+ * <p>
+ * If {@link PoolingProfile#getEvictionCheckIntervalMillis()} is positive, idle connections are checked in the background on
+ * the given {@link Scheduler}. The ones idle for longer than {@link PoolingProfile#getMinEvictionMillis()} are destroyed. If
+ * {@link #VALIDATE_IDLE_CONNECTIONS_PROPERTY} is set, the rest are also validated and destroyed if they are no longer valid.
+ *
+ * @param <C> the generic type of the pooled connections
+ * @since 4.2.0
+ */
+class ConnectionPool<C> implements ConnectionPoolStatistics {
+
+  /**
+   * System property to make the background eviction of pooled connections also validate the idle connections it doesn't
+   * evict. Validating may require a round trip to the remote system for each idle connection.
+   */
+  public static final String VALIDATE_IDLE_CONNECTIONS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "connection.pool.validateIdle";
+
+  private static final Logger LOGGER = getLogger(ConnectionPool.class);
+
+  private static final int IDLE = 0;
+  private static final int IN_USE = 1;
+  private static final int RESERVED = 2;
+  private static final int REMOVED = 3;
+
+  private final ConnectionProvider<C> connectionProvider;
+  private final int maxActive;
+  private final int maxIdle;
+  private final long maxWaitNanos;
+  private final int exhaustedAction;
+  private final long minEvictionMillis;
+  private final boolean validateIdleConnections;
+
+  private final List<PooledConnection<C>> connections = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<WeakReference<PooledConnection<C>>> lastReturned = new ThreadLocal<>();
+  private final Queue<CompletableFuture<PooledConnection<C>>> waiters = new ConcurrentLinkedQueue<>();
+  // Handed to a waiting thread to let it know that room for a new connection has been reserved for it
+  private final PooledConnection<C> roomAvailable = new PooledConnection<>(null);
+
+  private final AtomicInteger total = new AtomicInteger();
+  private final AtomicInteger idle = new AtomicInteger();
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final LatencyHistogram borrowLatency = new LatencyHistogram();
+  private final LatencyHistogram waitTime = new LatencyHistogram();
+
+  private final ScheduledFuture<?> evictionTask;
+  private volatile boolean closed = false;
+
+  /**
+   * Creates a new pool, which validates idle connections in the background according to
+   * {@link #VALIDATE_IDLE_CONNECTIONS_PROPERTY}.
+   *
+   * @param connectionProvider the {@link ConnectionProvider} used to create, validate and destroy the connections
+   * @param poolingProfile the {@link PoolingProfile} which configures this pool
+   * @param evictionScheduler the {@link Scheduler} on which idle connections are checked, if eviction is enabled by the
+   *        {@code poolingProfile}
+   */
+  ConnectionPool(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile, Scheduler evictionScheduler) {
+    this(connectionProvider, poolingProfile, evictionScheduler, getBoolean(VALIDATE_IDLE_CONNECTIONS_PROPERTY));
+  }
+
+  /**
+   * Creates a new pool
+   *
+   * @param connectionProvider the {@link ConnectionProvider} used to create, validate and destroy the connections
+   * @param poolingProfile the {@link PoolingProfile} which configures this pool
+   * @param evictionScheduler the {@link Scheduler} on which idle connections are checked, if eviction is enabled by the
+   *        {@code poolingProfile}
+   * @param validateIdleConnections whether the idle connections that are not evicted are validated in the background
+   */
+  ConnectionPool(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile, Scheduler evictionScheduler,
+                 boolean validateIdleConnections) {
+    this.connectionProvider = connectionProvider;
+    this.maxActive = poolingProfile.getMaxActive();
+    this.maxIdle = poolingProfile.getMaxIdle();
+    this.maxWaitNanos = MILLISECONDS.toNanos(poolingProfile.getMaxWait());
+    this.exhaustedAction = poolingProfile.getExhaustedAction();
+    this.minEvictionMillis = poolingProfile.getMinEvictionMillis();
+    this.validateIdleConnections = validateIdleConnections;
+
+    long evictionInterval = poolingProfile.getEvictionCheckIntervalMillis();
+    evictionTask = isEvictionEnabled(poolingProfile)
+        ? evictionScheduler.scheduleWithFixedDelay(this::evict, evictionInterval, evictionInterval, MILLISECONDS)
+        : null;
+  }
+
+  /**
+   * @return whether the connections of a pool with the given {@code poolingProfile} are checked in the background.
+   */
+  static boolean isEvictionEnabled(PoolingProfile poolingProfile) {
+    return poolingProfile.getEvictionCheckIntervalMillis() > 0;
+  }
+
+  /**
+   * Borrows a connection from the pool, creating it if needed. The connection must be either returned through
+   * {@link #release(PooledConnection)} or destroyed through {@link #invalidate(PooledConnection)}.
+   *
+   * @return a {@link PooledConnection}
+   * @throws NoSuchElementException if the pool is exhausted, or the time to wait for a connection elapsed
+   * @throws IllegalStateException if the pool is closed
+   * @throws Exception if a connection could not be created
+   */
+  PooledConnection<C> borrow() throws Exception {
+    assertNotClosed();
+
+    long start = nanoTime();
+    PooledConnection<C> connection = acquireIdle();
+    if (connection == null) {
+      connection = createIfRoom();
+    }
+    if (connection == null) {
+      if (exhaustedAction == WHEN_EXHAUSTED_FAIL) {
+        throw new NoSuchElementException("Pool exhausted");
+      } else if (exhaustedAction == WHEN_EXHAUSTED_WAIT) {
+        connection = await(start);
+      } else {
+        total.incrementAndGet();
+        connection = create();
+      }
+    }
+
+    borrowLatency.record(NANOSECONDS.toMicros(nanoTime() - start));
+    return connection;
+  }
+
+  /**
+   * Returns a borrowed connection to the pool. It is handed to the thread that has been waiting the longest for a connection,
+   * if any. Otherwise, the connection is destroyed if the pool already has as many idle connections as allowed, or it was
+   * closed.
+   *
+   * @param connection a borrowed connection
+   */
+  void release(PooledConnection<C> connection) {
+    if (closed) {
+      destroy(connection);
+      return;
+    }
+
+    connection.lastReturnedMillis = currentTimeMillis();
+    if (handOff(connection)) {
+      return;
+    }
+
+    if (maxIdle >= 0 && idle.get() >= maxIdle) {
+      destroy(connection);
+      return;
+    }
+
+    lastReturned.set(connection.weakReference);
+    makeIdle(connection);
+  }
+
+  /**
+   * Destroys a borrowed connection, making room in the pool for another one.
+   *
+   * @param connection a borrowed connection
+   */
+  void invalidate(PooledConnection<C> connection) {
+    destroy(connection);
+  }
+
+  /**
+   * Closes the pool, destroying the idle connections. Borrowed connections are destroyed when returned, and the threads waiting
+   * for a connection fail.
+   */
+  void close() {
+    closed = true;
+    if (evictionTask != null) {
+      evictionTask.cancel(false);
+    }
+
+    CompletableFuture<PooledConnection<C>> waiter;
+    while ((waiter = waiters.poll()) != null) {
+      waiter.completeExceptionally(new IllegalStateException("Connection pool is closed"));
+    }
+
+    for (PooledConnection<C> connection : connections) {
+      if (connection.state.compareAndSet(IDLE, RESERVED)) {
+        idle.decrementAndGet();
+        destroy(connection);
+      }
+    }
+  }
+
+  @Override
+  public int getNumActive() {
+    return total.get() - idle.get();
+  }
+
+  @Override
+  public int getNumIdle() {
+    return idle.get();
+  }
+
+  @Override
+  public int getNumWaiting() {
+    return waiting.get();
+  }
+
+  @Override
+  public LatencyHistogram getBorrowLatency() {
+    return borrowLatency;
+  }
+
+  @Override
+  public LatencyHistogram getWaitTime() {
+    return waitTime;
+  }
+
+  private void assertNotClosed() {
+    if (closed) {
+      throw new IllegalStateException("Connection pool is closed");
+    }
+  }
+
+  private PooledConnection<C> acquireIdle() {
+    WeakReference<PooledConnection<C>> hint = lastReturned.get();
+    if (hint != null) {
+      PooledConnection<C> connection = hint.get();
+      if (connection != null && tryAcquire(connection)) {
+        return connection;
+      }
+    }
+
+    for (PooledConnection<C> connection : connections) {
+      if (tryAcquire(connection)) {
+        return connection;
+      }
+    }
+    return null;
+  }
+
+  private boolean tryAcquire(PooledConnection<C> connection) {
+    if (connection.state.get() == IDLE && connection.state.compareAndSet(IDLE, IN_USE)) {
+      idle.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  private PooledConnection<C> createIfRoom() throws Exception {
+    // Waiting threads get here too, so the pool may have been closed since they started to wait
+    assertNotClosed();
+    return reserveRoom() ? create() : null;
+  }
+
+  private boolean reserveRoom() {
+    int current;
+    do {
+      current = total.get();
+      if (maxActive >= 0 && current >= maxActive) {
+        return false;
+      }
+    } while (!total.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  /**
+   * Creates a new connection. The room for it in {@link #total} must have already been reserved.
+   */
+  private PooledConnection<C> create() throws Exception {
+    PooledConnection<C> connection;
+    try {
+      connection = new PooledConnection<>(connectionProvider.connect());
+    } catch (Exception | Error e) {
+      total.decrementAndGet();
+      signalRoomAvailable();
+      throw e;
+    }
+
+    connection.state.set(IN_USE);
+    connections.add(connection);
+    return connection;
+  }
+
+  private PooledConnection<C> await(long start) throws Exception {
+    CompletableFuture<PooledConnection<C>> waiter = new CompletableFuture<>();
+    waiters.add(waiter);
+    waiting.incrementAndGet();
+    try {
+      PooledConnection<C> connection;
+      try {
+        // Checked again after starting to wait, so that a connection returned in the meantime is not missed
+        connection = acquireIdle();
+        if (connection == null) {
+          connection = createIfRoom();
+        }
+      } catch (Exception e) {
+        cancel(waiter);
+        throw e;
+      }
+
+      if (connection != null) {
+        cancel(waiter);
+      } else {
+        connection = take(waitFor(waiter, start));
+      }
+
+      waitTime.record(NANOSECONDS.toMicros(nanoTime() - start));
+      return connection;
+    } finally {
+      waiting.decrementAndGet();
+    }
+  }
+
+  private PooledConnection<C> waitFor(CompletableFuture<PooledConnection<C>> waiter, long start) throws Exception {
+    try {
+      if (maxWaitNanos > 0) {
+        return waiter.get(maxWaitNanos - (nanoTime() - start), NANOSECONDS);
+      } else {
+        return waiter.get();
+      }
+    } catch (TimeoutException e) {
+      if (waiter.cancel(false)) {
+        waiters.remove(waiter);
+        throw new NoSuchElementException("Timeout waiting for idle object");
+      }
+      // Handed off, or the pool closed, just as the time elapsed
+      return waitFor(waiter, start);
+    } catch (InterruptedException e) {
+      cancel(waiter);
+      Thread.currentThread().interrupt();
+      throw e;
+    } catch (ExecutionException e) {
+      throw (Exception) e.getCause();
+    }
+  }
+
+  /**
+   * Stops waiting, giving back what may have been handed off in the meantime.
+   */
+  private void cancel(CompletableFuture<PooledConnection<C>> waiter) {
+    if (waiter.cancel(false)) {
+      waiters.remove(waiter);
+    } else if (!waiter.isCompletedExceptionally()) {
+      PooledConnection<C> handedOff = waiter.join();
+      if (handedOff == roomAvailable) {
+        total.decrementAndGet();
+        signalRoomAvailable();
+      } else {
+        release(handedOff);
+      }
+    }
+  }
+
+  private PooledConnection<C> take(PooledConnection<C> handedOff) throws Exception {
+    if (handedOff != roomAvailable) {
+      return handedOff;
+    }
+    if (closed) {
+      total.decrementAndGet();
+      throw new IllegalStateException("Connection pool is closed");
+    }
+    return create();
+  }
+
+  /**
+   * @return whether the connection, still in use, was handed to a waiting thread
+   */
+  private boolean handOff(PooledConnection<C> connection) {
+    CompletableFuture<PooledConnection<C>> waiter;
+    while ((waiter = waiters.poll()) != null) {
+      if (waiter.complete(connection)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void makeIdle(PooledConnection<C> connection) {
+    idle.incrementAndGet();
+    connection.state.set(IDLE);
+
+    // A thread may have started to wait after the connection was offered to the waiting ones, and before it was idle
+    while (!waiters.isEmpty() && tryAcquire(connection)) {
+      if (handOff(connection)) {
+        return;
+      }
+      idle.incrementAndGet();
+      connection.state.set(IDLE);
+    }
+
+    // The pool may have been closed after the connection was checked, and before close() went through the idle ones
+    if (closed && connection.state.compareAndSet(IDLE, RESERVED)) {
+      idle.decrementAndGet();
+      destroy(connection);
+    }
+  }
+
+  private void signalRoomAvailable() {
+    while (!waiters.isEmpty() && reserveRoom()) {
+      CompletableFuture<PooledConnection<C>> waiter = waiters.poll();
+      if (waiter != null && waiter.complete(roomAvailable)) {
+        return;
+      }
+      total.decrementAndGet();
+    }
+  }
+
+  private void destroy(PooledConnection<C> connection) {
+    if (connection.state.getAndSet(REMOVED) == REMOVED) {
+      return;
+    }
+
+    connections.remove(connection);
+    total.decrementAndGet();
+    try {
+      connectionProvider.disconnect(connection.connection);
+    } catch (Exception e) {
+      LOGGER.warn("Exception was found trying to destroy connection of type " + connection.connection.getClass().getName(), e);
+    } finally {
+      if (!closed) {
+        signalRoomAvailable();
+      }
+    }
+  }
+
+  private void evict() {
+    long now = currentTimeMillis();
+    for (PooledConnection<C> connection : connections) {
+      if (closed) {
+        return;
+      }
+
+      boolean expired = minEvictionMillis > 0 && now - connection.lastReturnedMillis > minEvictionMillis;
+      if ((!expired && !validateIdleConnections) || !connection.state.compareAndSet(IDLE, RESERVED)) {
+        continue;
+      }
+      idle.decrementAndGet();
+
+      if (expired) {
+        LOGGER.debug("Evicting idle connection");
+        destroy(connection);
+      } else if (!isValid(connection)) {
+        LOGGER.debug("Connection is not valid anymore, it is destroyed and removed from the pool.");
+        destroy(connection);
+      } else {
+        connection.state.set(IN_USE);
+        if (!handOff(connection)) {
+          makeIdle(connection);
+        }
+      }
+    }
+  }
+
+  private boolean isValid(PooledConnection<C> connection) {
+    try {
+      ConnectionValidationResult result = connectionProvider.validate(connection.connection);
+      return result != null && result.isValid();
+    } catch (Exception e) {
+      LOGGER.debug("Exception found validating idle connection", e);
+      return false;
+    }
+  }
+
+  /**
+   * A connection held by a {@link ConnectionPool}
+   *
+   * @param <C> the generic type of the connection
+   */
+  static final class PooledConnection<C> {
+
+    private final C connection;
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private final WeakReference<PooledConnection<C>> weakReference = new WeakReference<>(this);
+    private volatile long lastReturnedMillis = currentTimeMillis();
+
+    PooledConnection(C connection) {
+      this.connection = connection;
+    }
+
+    /**
+     * @return the pooled connection
+     */
+    C getConnection() {
+      return connection;
+    }
+  }
+}
@@ -22,6 +22,7 @@ import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.util.Reference;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.connector.ConnectionManager;
+import org.mule.runtime.core.api.management.stats.ConnectionPoolStatistics;
 import org.mule.runtime.core.api.retry.policy.NoRetryPolicyTemplate;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.internal.retry.ReconnectionConfig;
@@ -29,6 +30,7 @@ import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -289,4 +291,20 @@ public final class DefaultConnectionManager implements ConnectionManagerAdapter
     return defaultPoolingProfile;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Optional<ConnectionPoolStatistics> getPoolStatistics(Object owner) {
+    ConnectionManagementStrategy<?> managementStrategy;
+    readLock.lock();
+    try {
+      managementStrategy = connections.get(new Reference<>(owner));
+    } finally {
+      readLock.unlock();
+    }
+
+    return managementStrategy != null ? managementStrategy.getPoolStatistics() : Optional.empty();
+  }
+
 }
@@ -18,12 +18,14 @@ import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.connector.ConnectionManager;
+import org.mule.runtime.core.api.management.stats.ConnectionPoolStatistics;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.internal.retry.ReconnectionConfig;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Optional;
 
 import javax.inject.Inject;
 
@@ -62,6 +64,11 @@ public final class DelegateConnectionManagerAdapter implements ConnectionManager
     return connectionManagerAdapterStrategy.getDefaultPoolingProfile();
   }
 
+  @Override
+  public Optional<ConnectionPoolStatistics> getPoolStatistics(Object owner) {
+    return connectionManagerAdapterStrategy.getPoolStatistics(owner);
+  }
+
   @Override
   public <C> void bind(Object config, ConnectionProvider<C> connectionProvider) {
     connectionManagerAdapterStrategy.bind(config, connectionProvider);
@@ -140,6 +147,11 @@ public final class DelegateConnectionManagerAdapter implements ConnectionManager
       return delegate.getDefaultPoolingProfile();
     }
 
+    @Override
+    public Optional<ConnectionPoolStatistics> getPoolStatistics(Object owner) {
+      return delegate.getPoolStatistics(owner);
+    }
+
     @Override
     public <C> void bind(Object config, ConnectionProvider<C> connectionProvider) {
       delegate.bind(config, connectionProvider);
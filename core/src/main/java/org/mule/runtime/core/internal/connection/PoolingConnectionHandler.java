@@ -11,8 +11,8 @@ import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.internal.connection.ConnectionPool.PooledConnection;
 
-import org.apache.commons.pool.ObjectPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,19 +27,21 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
   private static final Logger LOGGER = LoggerFactory.getLogger(PoolingConnectionHandler.class);
 
   private C connection;
-  private final ObjectPool<C> pool;
+  private PooledConnection<C> pooledConnection;
+  private final ConnectionPool<C> pool;
   private final PoolingListener poolingListener;
   private final ConnectionProvider connectionProvider;
 
   /**
    * Creates a new instance
    *
-   * @param connection the connection to be wrapped
-   * @param pool       the pool from which the {@code connection} was obtained and to which it has to be returned
+   * @param pooledConnection the connection to be wrapped
+   * @param pool             the pool from which the {@code connection} was obtained and to which it has to be returned
    */
-  PoolingConnectionHandler(C connection, ObjectPool<C> pool, PoolingListener poolingListener,
+  PoolingConnectionHandler(PooledConnection<C> pooledConnection, ConnectionPool<C> pool, PoolingListener poolingListener,
                            ConnectionProvider connectionProvider) {
-    this.connection = connection;
+    this.pooledConnection = pooledConnection;
+    this.connection = pooledConnection.getConnection();
     this.pool = pool;
     this.poolingListener = poolingListener;
     this.connectionProvider = connectionProvider;
@@ -71,7 +73,7 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
       }
       poolingListener.onReturn(connection);
 
-      pool.returnObject(connection);
+      pool.release(pooledConnection);
       returnAttempted = true;
     } catch (Exception e) {
       LOGGER.warn("Could not return connection to the pool. Connection will be destroyed", e);
@@ -82,6 +84,7 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
         }
       } finally {
         connection = null;
+        pooledConnection = null;
       }
     }
   }
@@ -91,12 +94,17 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
    */
   @Override
   public void invalidate() {
+    if (pooledConnection == null) {
+      return;
+    }
+
     try {
-      pool.invalidateObject(connection);
+      pool.invalidate(pooledConnection);
     } catch (Exception e) {
       LOGGER.warn("Exception was found trying to invalidate connection of type " + connection.getClass().getName(), e);
     } finally {
       connection = null;
+      pooledConnection = null;
     }
   }
 
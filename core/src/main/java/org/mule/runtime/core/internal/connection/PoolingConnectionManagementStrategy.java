@@ -6,21 +6,20 @@
  */
 package org.mule.runtime.core.internal.connection;
 
-import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.connection.ConnectionPool.isEvictionEnabled;
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.MuleException;
-import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.management.stats.ConnectionPoolStatistics;
+import org.mule.runtime.core.internal.connection.ConnectionPool.PooledConnection;
 
 import java.util.NoSuchElementException;
-
-import org.apache.commons.pool.ObjectPool;
-import org.apache.commons.pool.PoolableObjectFactory;
-import org.apache.commons.pool.impl.GenericObjectPool;
+import java.util.Optional;
 
 /**
  * A {@link ConnectionManagementStrategy} which returns connections obtained from a {@link #pool}
@@ -31,7 +30,8 @@ import org.apache.commons.pool.impl.GenericObjectPool;
 final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementStrategy<C> {
 
   private final PoolingProfile poolingProfile;
-  private final ObjectPool<C> pool;
+  private final Scheduler evictionScheduler;
+  private final ConnectionPool<C> pool;
   private final PoolingListener<C> poolingListener;
 
   /**
@@ -47,7 +47,10 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     super(connectionProvider, muleContext);
     this.poolingProfile = poolingProfile;
     this.poolingListener = poolingListener;
-    pool = createPool();
+    evictionScheduler = isEvictionEnabled(poolingProfile)
+        ? muleContext.getSchedulerService().ioScheduler(muleContext.getSchedulerBaseConfig().withName("connection.pool.eviction"))
+        : null;
+    pool = new ConnectionPool<>(connectionProvider, poolingProfile, evictionScheduler);
   }
 
   /**
@@ -69,12 +72,12 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     }
   }
 
-  private C borrowConnection() throws Exception {
-    C connection = pool.borrowObject();
+  private PooledConnection<C> borrowConnection() throws Exception {
+    PooledConnection<C> connection = pool.borrow();
     try {
-      poolingListener.onBorrow(connection);
+      poolingListener.onBorrow(connection.getConnection());
     } catch (Exception e) {
-      pool.invalidateObject(connection);
+      pool.invalidate(connection);
       throw e;
     }
 
@@ -91,49 +94,26 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   public void close() throws MuleException {
     try {
       pool.close();
-    } catch (Exception e) {
-      throw new DefaultMuleException(createStaticMessage("Could not close connection pool"), e);
+    } finally {
+      if (evictionScheduler != null) {
+        evictionScheduler.stop();
+      }
     }
   }
 
-  private ObjectPool<C> createPool() {
-    GenericObjectPool.Config config = new GenericObjectPool.Config();
-    config.maxIdle = poolingProfile.getMaxIdle();
-    config.maxActive = poolingProfile.getMaxActive();
-    config.maxWait = poolingProfile.getMaxWait();
-    config.whenExhaustedAction = (byte) poolingProfile.getExhaustedAction();
-    config.minEvictableIdleTimeMillis = poolingProfile.getMinEvictionMillis();
-    config.timeBetweenEvictionRunsMillis = poolingProfile.getEvictionCheckIntervalMillis();
-    GenericObjectPool genericPool = new GenericObjectPool(new ObjectFactoryAdapter(), config);
-
-    return genericPool;
-  }
-
   public PoolingProfile getPoolingProfile() {
     return poolingProfile;
   }
 
-  private class ObjectFactoryAdapter implements PoolableObjectFactory<C> {
-
-    @Override
-    public C makeObject() throws Exception {
-      return connectionProvider.connect();
-    }
-
-    @Override
-    public void destroyObject(C connection) throws Exception {
-      connectionProvider.disconnect(connection);
-    }
-
-    @Override
-    public boolean validateObject(C obj) {
-      return false;
-    }
-
-    @Override
-    public void activateObject(C connection) throws Exception {}
+  @Override
+  Optional<ConnectionPoolStatistics> getPoolStatistics() {
+    return Optional.of(pool);
+  }
 
-    @Override
-    public void passivateObject(C connection) throws Exception {}
+  /**
+   * @return the pool from which the connections are obtained
+   */
+  ConnectionPool<C> getPool() {
+    return pool;
   }
 }
@@ -7,13 +7,17 @@
 package org.mule.runtime.core.internal.construct;
 
 import static com.google.common.base.Functions.identity;
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
 import static java.util.Collections.unmodifiableList;
 import static org.mule.runtime.api.notification.EnrichedNotificationInfo.createInfo;
 import static org.mule.runtime.api.notification.PipelineMessageNotification.PROCESS_COMPLETE;
 import static org.mule.runtime.api.notification.PipelineMessageNotification.PROCESS_END;
 import static org.mule.runtime.api.notification.PipelineMessageNotification.PROCESS_START;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.processor.strategy.AsyncProcessingStrategyFactory.DEFAULT_MAX_CONCURRENCY;
 import static org.mule.runtime.core.api.source.MessageSource.BackPressureStrategy.WAIT;
@@ -47,6 +51,8 @@ import org.mule.runtime.core.api.util.func.CheckedRunnable;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.processor.strategy.DirectProcessingStrategyFactory;
+import org.mule.runtime.core.internal.util.MessagingExceptionResolver;
+import org.mule.runtime.core.privileged.PrivilegedMuleContext;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.privileged.processor.MessageProcessorBuilder;
 import org.mule.runtime.core.privileged.processor.chain.DefaultMessageProcessorChainBuilder;
@@ -73,6 +79,13 @@ import reactor.core.publisher.Mono;
  */
 public abstract class AbstractPipeline extends AbstractFlowConstruct implements Pipeline {
 
+  /**
+   * System property that, when set to {@code true}, makes flows adapt the number of events they accept to process concurrently
+   * to the observed latency. Events over that limit wait for a slot if the source back-pressure strategy is WAIT, and are
+   * rejected with a {@link FlowBackPressureException} otherwise. The limit is capped by the {@code maxConcurrency} of each flow.
+   */
+  public static final String ADAPTIVE_CONCURRENCY_PROPERTY = SYSTEM_PROPERTY_PREFIX + "flow.adaptiveConcurrency";
+
   private final NotificationDispatcher notificationFirer;
 
   private final MessageSource source;
@@ -85,6 +98,8 @@ public abstract class AbstractPipeline extends AbstractFlowConstruct implements
   private volatile boolean canProcessMessage = false;
   private Sink sink;
   private final int maxConcurrency;
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+  private final MessagingExceptionResolver exceptionResolver = new MessagingExceptionResolver(this);
   private final ComponentInitialStateManager componentInitialStateManager;
 
   public AbstractPipeline(String name, MuleContext muleContext, MessageSource source, List<Processor> processors,
@@ -114,6 +129,15 @@ public abstract class AbstractPipeline extends AbstractFlowConstruct implements
     }
 
     processingStrategy = this.processingStrategyFactory.create(muleContext, getName());
+
+    concurrencyLimiter = getBoolean(ADAPTIVE_CONCURRENCY_PROPERTY)
+        ? new AdaptiveConcurrencyLimiter(this.maxConcurrency, limit -> {
+          FlowConstructStatistics statistics = getStatistics();
+          if (statistics != null) {
+            statistics.setConcurrencyLimit(limit);
+          }
+        })
+        : null;
   }
 
   /**
@@ -210,11 +234,50 @@ public abstract class AbstractPipeline extends AbstractFlowConstruct implements
    * and how overload is handled depends on the Source back-pressure strategy.
    */
   private ReactiveProcessor dispatchToFlow() {
+    Function<? super CoreEvent, Mono<? extends CoreEvent>> flowMapper = source.getBackPressureStrategy() == WAIT
+        ? flowWaitMapper(identity(), (result, event) -> result)
+        : flowFailDropMapper(identity(), (result, event) -> result);
     return publisher -> Mono.from(publisher)
         .doOnNext(assertStarted())
-        .flatMap(source.getBackPressureStrategy() == WAIT
-            ? flowWaitMapper(identity(), (result, event) -> result)
-            : flowFailDropMapper(identity(), (result, event) -> result));
+        .flatMap(concurrencyLimiter != null ? limitConcurrency(flowMapper) : flowMapper);
+  }
+
+  /*
+   * Holds back the events over the limit of the adaptive concurrency limiter before they are dispatched, so load is shed before
+   * the schedulers and buffers of the processing strategy fill up. As when dispatching to the flow, sources with a WAIT
+   * back-pressure strategy block until the event is accepted, while the rest get the event rejected.
+   */
+  private Function<CoreEvent, Mono<? extends CoreEvent>> limitConcurrency(Function<? super CoreEvent, Mono<? extends CoreEvent>> flowMapper) {
+    final boolean waitForPermit = source.getBackPressureStrategy() == WAIT;
+    return event -> {
+      if (waitForPermit) {
+        try {
+          if (!concurrencyLimiter.acquire()) {
+            return Mono.error(stoppedException(event));
+          }
+        } catch (InterruptedException e) {
+          currentThread().interrupt();
+          return backPressureError(event);
+        }
+      } else if (!concurrencyLimiter.tryAcquire()) {
+        return backPressureError(event);
+      }
+
+      long startTime = nanoTime();
+      return flowMapper.apply(event)
+          .doOnError(this::isBackPressureError, throwable -> concurrencyLimiter.onOverload())
+          .doFinally(signal -> concurrencyLimiter.release(nanoTime() - startTime));
+    };
+  }
+
+  private Mono<CoreEvent> backPressureError(CoreEvent event) {
+    return Mono.error(exceptionResolver.resolve(new MessagingException(event, new FlowBackPressureException(getName()), this),
+                                                ((PrivilegedMuleContext) getMuleContext()).getErrorTypeLocator(),
+                                                getMuleContext().getExceptionContextProviders()));
+  }
+
+  private boolean isBackPressureError(Throwable throwable) {
+    return throwable instanceof MessagingException && throwable.getCause() instanceof FlowBackPressureException;
   }
 
   /**
@@ -325,6 +388,9 @@ public abstract class AbstractPipeline extends AbstractFlowConstruct implements
       stopOnFailure(e);
       return;
     }
+    if (concurrencyLimiter != null) {
+      concurrencyLimiter.start();
+    }
     canProcessMessage = true;
     if (getMuleContext().isStarted()) {
       try {
@@ -368,16 +434,23 @@ public abstract class AbstractPipeline extends AbstractFlowConstruct implements
   public Consumer<CoreEvent> assertStarted() {
     return event -> {
       if (!canProcessMessage) {
-        throw propagate(new MessagingException(event,
-                                               new LifecycleException(CoreMessages.isStopped(getName()), event.getMessage())));
+        throw propagate(stoppedException(event));
       }
     };
   }
 
+  private MessagingException stoppedException(CoreEvent event) {
+    return new MessagingException(event, new LifecycleException(CoreMessages.isStopped(getName()), event.getMessage()));
+  }
+
   @Override
   protected void doStop() throws MuleException {
     stopSafely(() -> stopIfStoppable(source));
     canProcessMessage = false;
+    if (concurrencyLimiter != null) {
+      // Fail the events waiting for a slot, since they won't be dispatched once the flow is stopped
+      concurrencyLimiter.stop();
+    }
 
     stopSafely(() -> disposeIfDisposable(sink));
     sink = null;
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.construct;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Admission controller that limits the number of events a flow processes concurrently, adapting the limit to the observed
+ * latency with an additive-increase/multiplicative-decrease (AIMD) policy.
+ * <p/>
+ * Latency samples are compared to a smoothed baseline. When a sample exceeds the baseline by more than
+ * {@link #LATENCY_TOLERANCE}, or when the flow reports it is overloaded, the limit is multiplied by {@link #BACKOFF_RATIO}.
+ * Otherwise, the limit grows by one as long as at least half of it is in use, so it only grows when there is demand for it.
+ * The limit never goes below {@code 1} nor above the {@code maxConcurrency} of the flow.
+ *
+ * @since 4.2.0
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+  static final int INITIAL_LIMIT = 20;
+  static final double BACKOFF_RATIO = 0.9;
+  static final double LATENCY_TOLERANCE = 2.0;
+  static final double SMOOTHING_FACTOR = 0.05;
+
+  private final int maxLimit;
+  private final IntConsumer limitListener;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile int limit;
+  private volatile boolean stopped;
+
+  // Guarded by this
+  private double baselineLatency = -1;
+
+  /**
+   * Creates a new limiter.
+   *
+   * @param maxLimit the value the limit may never exceed.
+   * @param limitListener invoked with the new limit every time it changes, including the initial one.
+   */
+  public AdaptiveConcurrencyLimiter(int maxLimit, IntConsumer limitListener) {
+    checkArgument(maxLimit > 0, "maxLimit must be greater than 0");
+    this.maxLimit = maxLimit;
+    this.limitListener = limitListener;
+    this.limit = min(INITIAL_LIMIT, maxLimit);
+    limitListener.accept(limit);
+  }
+
+  /**
+   * Reserves a slot for processing an event. Every successful call must be followed by a call to {@link #release(long)}.
+   *
+   * @return {@code true} if the event can be processed, {@code false} if the limit has been reached and it has to be rejected.
+   */
+  public boolean tryAcquire() {
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= limit) {
+        return false;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  /**
+   * Reserves a slot for processing an event, waiting for one to be freed if the limit has been reached. Every successful call
+   * must be followed by a call to {@link #release(long)}.
+   *
+   * @return {@code true} if the event can be processed, {@code false} if the limiter was {@link #stop() stopped} before a slot
+   *         could be reserved.
+   * @throws InterruptedException if the current thread is interrupted while waiting.
+   */
+  public boolean acquire() throws InterruptedException {
+    while (!stopped) {
+      if (tryAcquire()) {
+        return true;
+      }
+      synchronized (this) {
+        // Slots are freed, the limit raised and the limiter stopped while holding this lock, so none of them can happen between
+        // the check and the wait
+        while (!stopped && inFlight.get() >= limit) {
+          wait();
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Allows {@link #acquire()} to wait for slots again after a {@link #stop()}.
+   */
+  public synchronized void start() {
+    stopped = false;
+  }
+
+  /**
+   * Makes the pending and subsequent calls to {@link #acquire()} fail instead of waiting for a slot, since events that are
+   * waiting will not be processed once the flow is stopped.
+   */
+  public synchronized void stop() {
+    stopped = true;
+    notifyAll();
+  }
+
+  /**
+   * Frees the slot of an event that finished processing, and adjusts the limit according to the time it took.
+   *
+   * @param latencyNanos the time elapsed since the slot was acquired.
+   */
+  public void release(long latencyNanos) {
+    int inFlightBeforeRelease = inFlight.getAndDecrement();
+    onSample(latencyNanos, inFlightBeforeRelease);
+  }
+
+  /**
+   * Notifies that the flow was not able to accept an event, which decreases the limit regardless of the latency observed.
+   */
+  public synchronized void onOverload() {
+    decrease();
+  }
+
+  /**
+   * @return the current limit.
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * @return the number of events being processed.
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private synchronized void onSample(long latencyNanos, int inFlightBeforeRelease) {
+    notifyAll();
+    if (baselineLatency < 0) {
+      baselineLatency = latencyNanos;
+      return;
+    }
+
+    if (latencyNanos > baselineLatency * LATENCY_TOLERANCE) {
+      decrease();
+    } else if (inFlightBeforeRelease * 2 >= limit && limit < maxLimit) {
+      updateLimit(limit + 1);
+    }
+    // Every sample is taken into account so that a sustained change in latency eventually becomes the new baseline
+    baselineLatency += (latencyNanos - baselineLatency) * SMOOTHING_FACTOR;
+  }
+
+  private void decrease() {
+    updateLimit(max(1, (int) (limit * BACKOFF_RATIO)));
+  }
+
+  private void updateLimit(int newLimit) {
+    if (newLimit != limit) {
+      limit = newLimit;
+      notifyAll();
+      limitListener.accept(newLimit);
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.runtime.core.api.context.notification.NotificationOverflowPolicy;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * Delivers asynchronous notifications to a single {@link NotificationListener}.
+ * <p/>
+ * Notifications are added to a bounded queue, and a single drain task at a time delivers them in batches of up to
+ * {@link #BATCH_SIZE}. Only the first notification fired while no drain task is pending causes a task to be submitted to the
+ * {@link Executor}, so under load the cost of a submission is shared by a whole batch instead of paid for every notification.
+ * Since there is one consumer per listener, a listener receives the notifications in the order they were queued, and never
+ * concurrently.
+ * <p/>
+ * When the queue is full, the configured {@link NotificationOverflowPolicy} is applied.
+ *
+ * @since 4.2.0
+ */
+public final class BatchingNotificationDispatcher {
+
+  private static final Logger LOGGER = getLogger(BatchingNotificationDispatcher.class);
+
+  static final int BATCH_SIZE = 256;
+  static final int SAMPLE_RATE = 16;
+  private static final long BLOCK_WAIT_NANOS = 100000;
+
+  private final NotificationListener listener;
+  private final Executor executor;
+  private final NotificationOverflowPolicy overflowPolicy;
+  private final BoundedNotificationQueue queue;
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  private final AtomicLong overflowed = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+  private volatile boolean disposed;
+
+  /**
+   * @param listener the listener to deliver the notifications to.
+   * @param executor where the notifications are delivered.
+   * @param queueSize how many notifications may be waiting to be delivered. It is rounded up to the next power of two.
+   * @param overflowPolicy what to do when {@code queueSize} notifications are waiting to be delivered.
+   */
+  public BatchingNotificationDispatcher(NotificationListener listener, Executor executor, int queueSize,
+                                        NotificationOverflowPolicy overflowPolicy) {
+    checkArgument(queueSize > 0, "queueSize must be greater than 0");
+    this.listener = listener;
+    this.executor = executor;
+    this.overflowPolicy = overflowPolicy;
+    this.queue = new BoundedNotificationQueue(queueSize);
+  }
+
+  /**
+   * Queues a notification to be delivered to the listener.
+   *
+   * @param notification the notification to deliver.
+   */
+  public void dispatch(Notification notification) {
+    if (!queue.offer(notification)) {
+      switch (overflowPolicy) {
+        case BLOCK:
+          offerWaiting(notification);
+          break;
+        case SAMPLE:
+          if (overflowed.getAndIncrement() % SAMPLE_RATE != 0) {
+            dropped.increment();
+            break;
+          }
+          // fall through
+        default:
+          offerDroppingOldest(notification);
+      }
+    }
+    scheduleDrain();
+  }
+
+  private void offerDroppingOldest(Notification notification) {
+    while (!queue.offer(notification)) {
+      if (queue.poll() != null) {
+        dropped.increment();
+      }
+    }
+  }
+
+  private void offerWaiting(Notification notification) {
+    do {
+      if (disposed) {
+        dropped.increment();
+        return;
+      }
+      // The queue may have filled up before the drain was scheduled
+      scheduleDrain();
+      parkNanos(BLOCK_WAIT_NANOS);
+    } while (!queue.offer(notification));
+  }
+
+  private void scheduleDrain() {
+    if (!disposed && !drainScheduled.get() && drainScheduled.compareAndSet(false, true) && !submitDrain()) {
+      drain();
+    }
+  }
+
+  /**
+   * @return {@code true} if the drain task was submitted, {@code false} if the executor rejected it and the caller has to drain
+   *         the queue itself, so no notification is left without a drain task.
+   */
+  private boolean submitDrain() {
+    try {
+      executor.execute(this::drain);
+      return true;
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug("Delivery of notifications to {} rejected by the executor, delivering them on the current thread", listener);
+      return false;
+    }
+  }
+
+  private void drain() {
+    boolean drainNext;
+    do {
+      int delivered = 0;
+      Notification notification;
+      while (delivered < BATCH_SIZE && !disposed && (notification = queue.poll()) != null) {
+        deliver(notification);
+        ++delivered;
+      }
+
+      drainScheduled.set(false);
+      // Notifications queued after the last poll but before the flag was reset would not trigger a drain on their own
+      drainNext = !queue.isEmpty() && !disposed && drainScheduled.compareAndSet(false, true) && !submitDrain();
+    } while (drainNext);
+  }
+
+  private void deliver(Notification notification) {
+    try {
+      listener.onNotification(notification);
+    } catch (Exception e) {
+      LOGGER.warn("Notification listener " + listener + " failed to process " + notification, e);
+    }
+  }
+
+  /**
+   * @return the number of notifications waiting to be delivered.
+   */
+  public int getQueued() {
+    return queue.size();
+  }
+
+  /**
+   * @return the number of notifications that were discarded because the queue was full.
+   */
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  /**
+   * Stops delivering notifications. Notifications that have not been delivered yet are discarded.
+   */
+  public void dispose() {
+    disposed = true;
+  }
+}
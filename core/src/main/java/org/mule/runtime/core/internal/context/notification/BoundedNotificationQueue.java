@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Integer.numberOfLeadingZeros;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import org.mule.runtime.api.notification.Notification;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free bounded queue of notifications backed by a ring buffer.
+ * <p/>
+ * Each slot has a sequence number that tells whether it is free for the producer of a given position or has been published for
+ * the consumer of that position, so producers and consumers only contend on the {@code tail} and {@code head} counters
+ * respectively. Producers only poll from it to make room when the queue is full.
+ *
+ * @since 4.2.0
+ */
+final class BoundedNotificationQueue {
+
+  private final int mask;
+  private final AtomicReferenceArray<Notification> buffer;
+  private final AtomicLongArray sequences;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+
+  /**
+   * @param capacity the minimum number of notifications the queue can hold. It is rounded up to the next power of two.
+   */
+  BoundedNotificationQueue(int capacity) {
+    checkArgument(capacity > 0, "capacity must be greater than 0");
+    int size = capacity == 1 ? 1 : 1 << (32 - numberOfLeadingZeros(capacity - 1));
+    this.mask = size - 1;
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; ++i) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * @return {@code true} if the notification was added, {@code false} if the queue is full.
+   */
+  boolean offer(Notification notification) {
+    while (true) {
+      long position = tail.get();
+      int index = (int) position & mask;
+      long available = sequences.get(index) - position;
+      if (available == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          buffer.lazySet(index, notification);
+          sequences.set(index, position + 1);
+          return true;
+        }
+      } else if (available < 0) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * @return the oldest notification in the queue, or {@code null} if there is none.
+   */
+  Notification poll() {
+    while (true) {
+      long position = head.get();
+      int index = (int) position & mask;
+      long published = sequences.get(index) - (position + 1);
+      if (published == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          Notification notification = buffer.get(index);
+          buffer.lazySet(index, null);
+          sequences.set(index, position + mask + 1);
+          return notification;
+        }
+      } else if (published < 0) {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * @return the number of notifications in the queue, including the ones being added.
+   */
+  int size() {
+    return (int) Math.max(0, tail.get() - head.get());
+  }
+
+  boolean isEmpty() {
+    return size() == 0;
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+}
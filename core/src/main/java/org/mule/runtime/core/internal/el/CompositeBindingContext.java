@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import org.mule.runtime.api.el.Binding;
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.el.ExpressionModule;
+import org.mule.runtime.api.metadata.TypedValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@link BindingContext} which layers the bindings of a child context over the ones of a parent context, without copying either
+ * of them. A binding of the child takes precedence over a binding of the parent with the same identifier.
+ * <p>
+ * Lookups go to the child first, and only go to the parent if the child doesn't have the binding, so a parent which resolves its
+ * bindings lazily, as {@link EventBindingContext} does, is not forced to resolve them all.
+ *
+ * @since 4.2.0
+ */
+public final class CompositeBindingContext implements BindingContext {
+
+  private final BindingContext child;
+  private final BindingContext parent;
+
+  /**
+   * Creates a new instance
+   *
+   * @param child the context which bindings take precedence
+   * @param parent the context to look bindings up in when the {@code child} doesn't have them
+   */
+  public CompositeBindingContext(BindingContext child, BindingContext parent) {
+    this.child = child;
+    this.parent = parent;
+  }
+
+  @Override
+  public Optional<TypedValue> lookup(String identifier) {
+    Optional<TypedValue> value = child.lookup(identifier);
+    return value.isPresent() ? value : parent.lookup(identifier);
+  }
+
+  @Override
+  public Collection<Binding> bindings() {
+    Map<String, Binding> bindings = new LinkedHashMap<>();
+    for (Binding binding : child.bindings()) {
+      bindings.put(binding.identifier(), binding);
+    }
+    for (Binding binding : parent.bindings()) {
+      bindings.putIfAbsent(binding.identifier(), binding);
+    }
+    return bindings.values();
+  }
+
+  @Override
+  public Collection<String> identifiers() {
+    Set<String> identifiers = new LinkedHashSet<>(child.identifiers());
+    identifiers.addAll(parent.identifiers());
+    return identifiers;
+  }
+
+  @Override
+  public Collection<ExpressionModule> modules() {
+    List<ExpressionModule> modules = new ArrayList<>(child.modules());
+    modules.addAll(parent.modules());
+    return modules;
+  }
+}
@@ -8,6 +8,7 @@ package org.mule.runtime.core.internal.el;
 
 import static java.lang.String.format;
 import static java.lang.Thread.currentThread;
+import static java.util.Optional.ofNullable;
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.el.ValidationResult.failure;
 import static org.mule.runtime.api.el.ValidationResult.success;
@@ -37,6 +38,7 @@ import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.event.CoreEvent.Builder;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+import org.mule.runtime.core.api.management.stats.ExpressionCacheStatistics;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.api.transformer.TransformerException;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
@@ -47,6 +49,7 @@ import org.mule.runtime.core.privileged.el.GlobalBindingContextProvider;
 import org.mule.runtime.core.privileged.util.TemplateParser;
 
 import java.util.Iterator;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
@@ -71,6 +74,7 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   private Registry registry;
 
   private ExtendedExpressionLanguageAdaptor expressionLanguage;
+  private DataWeaveExpressionLanguageAdaptor dwExpressionLanguage;
   // Default style parser
   private final TemplateParser parser = TemplateParser.createMuleStyleParser();
   private boolean melDefault;
@@ -79,7 +83,7 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   public void initialise() throws InitialisationException {
     if (!initialized.getAndSet(true)) {
 
-      final DataWeaveExpressionLanguageAdaptor dwExpressionLanguage =
+      dwExpressionLanguage =
           registry.lookupByType(DefaultExpressionLanguageFactoryService.class)
               .map(s -> new DataWeaveExpressionLanguageAdaptor(muleContext, registry, s))
               .orElse(null);
@@ -118,6 +122,24 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Expressions that are not to be evaluated by DataWeave are ignored.
+   */
+  @Override
+  public void compile(String expression) {
+    if (dwExpressionLanguage != null && isExpression(expression)
+        && (hasDwExpression(expression) || (!melDefault && !hasMelExpression(expression)))) {
+      dwExpressionLanguage.compile(expression);
+    }
+  }
+
+  @Override
+  public Optional<ExpressionCacheStatistics> getExpressionCacheStatistics() {
+    return ofNullable(dwExpressionLanguage).map(DataWeaveExpressionLanguageAdaptor::getCompiledExpressionCache);
+  }
+
   @Override
   public void addGlobalBindings(BindingContext bindingContext) {
     expressionLanguage.addGlobalBindings(bindingContext);
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import static java.util.Optional.ofNullable;
+import static org.mule.runtime.api.el.BindingContextUtils.ATTRIBUTES;
+import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
+import static org.mule.runtime.api.el.BindingContextUtils.PAYLOAD;
+import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
+
+import org.mule.runtime.api.el.Binding;
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.el.BindingContextUtils;
+import org.mule.runtime.api.el.ExpressionModule;
+import org.mule.runtime.api.event.Event;
+import org.mule.runtime.api.metadata.TypedValue;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * {@link BindingContext} with the bindings of an {@link Event}, which are only resolved when they are needed.
+ * <p>
+ * The {@code payload} and {@code attributes} bindings are taken straight from the message of the event. The rest are resolved
+ * all at once by {@link BindingContextUtils#addEventBindings(Event, BindingContext)} the first time any of them is needed, and
+ * kept for subsequent lookups.
+ * <p>
+ * Events are immutable, so an instance may be reused for all the evaluations done on the same event. A changed event is a new
+ * event, with its own context.
+ *
+ * @since 4.2.0
+ */
+public final class EventBindingContext implements BindingContext {
+
+  private final Event event;
+  private volatile BindingContext eventBindings;
+
+  public EventBindingContext(Event event) {
+    this.event = event;
+  }
+
+  @Override
+  public Optional<TypedValue> lookup(String identifier) {
+    switch (identifier) {
+      case PAYLOAD:
+        return ofNullable(event.getMessage().getPayload());
+      case ATTRIBUTES:
+        return ofNullable(event.getMessage().getAttributes());
+      default:
+        return eventBindings().lookup(identifier);
+    }
+  }
+
+  @Override
+  public Collection<Binding> bindings() {
+    return eventBindings().bindings();
+  }
+
+  @Override
+  public Collection<String> identifiers() {
+    return eventBindings().identifiers();
+  }
+
+  @Override
+  public Collection<ExpressionModule> modules() {
+    return eventBindings().modules();
+  }
+
+  private BindingContext eventBindings() {
+    BindingContext bindings = eventBindings;
+    if (bindings == null) {
+      // Racing threads would build equivalent contexts, so there is no need to synchronize this
+      bindings = addEventBindings(event, NULL_BINDING_CONTEXT);
+      eventBindings = bindings;
+    }
+    return bindings;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el.dataweave;
+
+import static java.lang.Boolean.FALSE;
+import static java.lang.Boolean.TRUE;
+import static java.util.regex.Pattern.compile;
+import static org.mule.runtime.api.el.BindingContextUtils.ATTRIBUTES;
+import static org.mule.runtime.api.el.BindingContextUtils.PAYLOAD;
+import static org.mule.runtime.api.metadata.DataType.BOOLEAN;
+import static org.mule.runtime.api.metadata.DataType.OBJECT;
+import static org.mule.runtime.core.internal.el.dataweave.DataWeaveExpressionLanguageAdaptor.resolvePayload;
+
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.event.CoreEvent;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An expression already sanitized, along with the means to resolve it without going through the expression language when it is
+ * a trivial one:
+ * <ul>
+ * <li>{@code payload} and {@code attributes}, which are taken from the event.</li>
+ * <li>{@code vars.name}, which is taken from the event variables when it is present.</li>
+ * <li>The {@code true} and {@code false} literals.</li>
+ * </ul>
+ * Any other expression is left for the expression language to evaluate.
+ *
+ * @since 4.2.0
+ */
+final class CompiledExpression {
+
+  /**
+   * Returned by {@link #resolve(CoreEvent, BindingContext)} when the expression has to be evaluated by the expression language.
+   */
+  static final TypedValue<?> UNRESOLVED = new TypedValue<>(null, OBJECT);
+
+  private static final Pattern VARIABLE_SELECTOR = compile("vars\\.([a-zA-Z_][a-zA-Z0-9_]*)");
+  private static final TypedValue<Boolean> TRUE_VALUE = new TypedValue<>(TRUE, BOOLEAN);
+  private static final TypedValue<Boolean> FALSE_VALUE = new TypedValue<>(FALSE, BOOLEAN);
+
+  private enum Kind {
+    PAYLOAD, ATTRIBUTES, VARIABLE, LITERAL, OTHER
+  }
+
+  private final String sanitized;
+  private final Kind kind;
+  private final String variableName;
+  private final TypedValue<?> literal;
+
+  private CompiledExpression(String sanitized, Kind kind, String variableName, TypedValue<?> literal) {
+    this.sanitized = sanitized;
+    this.kind = kind;
+    this.variableName = variableName;
+    this.literal = literal;
+  }
+
+  /**
+   * @param sanitized the expression, without the expression brackets nor the language prefix
+   * @return the compiled form of the given expression
+   */
+  static CompiledExpression compileExpression(String sanitized) {
+    String trimmed = sanitized.trim();
+    if (trimmed.equals(PAYLOAD)) {
+      return new CompiledExpression(sanitized, Kind.PAYLOAD, null, null);
+    } else if (trimmed.equals(ATTRIBUTES)) {
+      return new CompiledExpression(sanitized, Kind.ATTRIBUTES, null, null);
+    } else if (trimmed.equals("true")) {
+      return new CompiledExpression(sanitized, Kind.LITERAL, null, TRUE_VALUE);
+    } else if (trimmed.equals("false")) {
+      return new CompiledExpression(sanitized, Kind.LITERAL, null, FALSE_VALUE);
+    }
+
+    Matcher matcher = VARIABLE_SELECTOR.matcher(trimmed);
+    if (matcher.matches()) {
+      return new CompiledExpression(sanitized, Kind.VARIABLE, matcher.group(1), null);
+    }
+    return new CompiledExpression(sanitized, Kind.OTHER, null, null);
+  }
+
+  /**
+   * @return the expression, without the expression brackets nor the language prefix
+   */
+  String getSanitized() {
+    return sanitized;
+  }
+
+  /**
+   * @return whether this expression just selects the payload
+   */
+  boolean isPayload() {
+    return kind == Kind.PAYLOAD;
+  }
+
+  /**
+   * Resolves this expression without going through the expression language, if possible.
+   *
+   * @param event the event being processed, may be {@code null}
+   * @param context the bindings for the evaluation
+   * @return the result of the expression, or {@link #UNRESOLVED} if it has to be evaluated by the expression language
+   */
+  TypedValue<?> resolve(CoreEvent event, BindingContext context) {
+    switch (kind) {
+      case PAYLOAD:
+        return resolvePayload(event, context);
+      case ATTRIBUTES:
+        return event != null ? event.getMessage().getAttributes() : UNRESOLVED;
+      case VARIABLE:
+        if (event != null) {
+          TypedValue<?> value = event.getVariables().get(variableName);
+          if (value != null) {
+            return value;
+          }
+        }
+        return UNRESOLVED;
+      case LITERAL:
+        return literal;
+      default:
+        return UNRESOLVED;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return sanitized;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el.dataweave;
+
+import static org.mule.runtime.core.internal.el.dataweave.CompiledExpression.compileExpression;
+
+import org.mule.runtime.core.api.management.stats.ExpressionCacheStatistics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Keeps the {@link CompiledExpression compiled form} of the expressions evaluated in an artifact, so that they are sanitized and
+ * analyzed just once instead of on every evaluation.
+ * <p>
+ * Since expressions may be built dynamically, the amount of cached expressions is bounded. Once the limit is reached, new
+ * expressions are compiled on each evaluation.
+ *
+ * @since 4.2.0
+ */
+public final class CompiledExpressionCache implements ExpressionCacheStatistics {
+
+  static final int MAX_CACHED_EXPRESSIONS = 4096;
+
+  private final ConcurrentMap<String, CompiledExpression> expressions = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final Function<String, String> sanitizer;
+
+  /**
+   * @param sanitizer removes the expression brackets and language prefix from an expression
+   */
+  CompiledExpressionCache(Function<String, String> sanitizer) {
+    this.sanitizer = sanitizer;
+  }
+
+  /**
+   * @param expression the expression, as provided for evaluation
+   * @return the compiled form of the {@code expression}
+   */
+  CompiledExpression compile(String expression) {
+    CompiledExpression compiled = expressions.get(expression);
+    if (compiled != null) {
+      hits.increment();
+      return compiled;
+    }
+
+    misses.increment();
+    compiled = compileExpression(sanitizer.apply(expression));
+    if (expressions.size() < MAX_CACHED_EXPRESSIONS) {
+      CompiledExpression previous = expressions.putIfAbsent(expression, compiled);
+      if (previous != null) {
+        compiled = previous;
+      }
+    }
+    return compiled;
+  }
+
+  @Override
+  public long getHits() {
+    return hits.sum();
+  }
+
+  @Override
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  @Override
+  public int getSize() {
+    return expressions.size();
+  }
+}
@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.el.dataweave;
 
 import static java.lang.String.format;
+import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.el.BindingContextUtils.PAYLOAD;
 import static org.mule.runtime.api.el.BindingContextUtils.addEventBuindingsToBuilder;
 import static org.mule.runtime.api.el.BindingContextUtils.addFlowNameBindingsToBuilder;
@@ -18,6 +19,7 @@ import static org.mule.runtime.core.api.el.ExpressionManager.DEFAULT_EXPRESSION_
 import static org.mule.runtime.core.internal.el.DefaultExpressionManager.DW_PREFIX;
 import static org.mule.runtime.core.internal.el.DefaultExpressionManager.DW_PREFIX_LENGTH;
 import static org.mule.runtime.core.internal.el.DefaultExpressionManager.PREFIX_EXPR_SEPARATOR;
+import static org.mule.runtime.core.internal.el.dataweave.CompiledExpression.UNRESOLVED;
 
 import org.mule.runtime.api.artifact.Registry;
 import org.mule.runtime.api.component.location.ComponentLocation;
@@ -33,7 +35,9 @@ import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+import org.mule.runtime.core.internal.el.CompositeBindingContext;
 import org.mule.runtime.core.internal.el.DefaultBindingContextBuilder;
+import org.mule.runtime.core.internal.el.EventBindingContext;
 import org.mule.runtime.core.internal.el.ExtendedExpressionLanguageAdaptor;
 import org.mule.runtime.core.internal.el.context.MuleInstanceContext;
 import org.mule.runtime.core.internal.el.context.ServerContext;
@@ -51,6 +55,7 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
 
   private ExpressionLanguage expressionExecutor;
   private MuleContext muleContext;
+  private final CompiledExpressionCache compiledExpressions = new CompiledExpressionCache(this::sanitize);
 
   @Inject
   public DataWeaveExpressionLanguageAdaptor(MuleContext muleContext, Registry registry,
@@ -84,21 +89,34 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
     expressionExecutor.addGlobalBindings(bindingContext);
   }
 
+  /**
+   * Compiles the given {@code expression} ahead of its first evaluation.
+   *
+   * @param expression the expression to compile
+   */
+  public void compile(String expression) {
+    compiledExpressions.compile(expression);
+  }
+
+  /**
+   * @return the cache of the expressions compiled by this adaptor, to be used for monitoring it
+   */
+  public CompiledExpressionCache getCompiledExpressionCache() {
+    return compiledExpressions;
+  }
+
   @Override
   public TypedValue evaluate(String expression, CoreEvent event, BindingContext context) {
-    String sanitized = sanitize(expression);
-    if (isPayloadExpression(sanitized)) {
-      return event.getMessage().getPayload();
+    CompiledExpression compiled = compiledExpressions.compile(expression);
+    TypedValue resolved = compiled.resolve(event, context);
+    if (resolved != UNRESOLVED) {
+      return resolved;
     } else {
       BindingContext newContext = bindingContextFor(null, event, context);
-      return evaluate(sanitized, exp -> expressionExecutor.evaluate(exp, newContext));
+      return evaluate(compiled.getSanitized(), exp -> expressionExecutor.evaluate(exp, newContext));
     }
   }
 
-  private boolean isPayloadExpression(String sanitized) {
-    return sanitized.equals(PAYLOAD);
-  }
-
   @Override
   public TypedValue evaluate(String expression, DataType expectedOutputType, CoreEvent event, BindingContext context)
       throws ExpressionRuntimeException {
@@ -125,12 +143,13 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
   public TypedValue evaluate(String expression, CoreEvent event, CoreEvent.Builder eventBuilder,
                              ComponentLocation componentLocation,
                              BindingContext context) {
-    String sanitized = sanitize(expression);
-    if (isPayloadExpression(sanitized)) {
-      return resolvePayload(event, context);
+    CompiledExpression compiled = compiledExpressions.compile(expression);
+    TypedValue resolved = compiled.resolve(event, context);
+    if (resolved != UNRESOLVED) {
+      return resolved;
     } else {
       BindingContext newContext = bindingContextFor(componentLocation, event, context);
-      return evaluate(sanitized, exp -> expressionExecutor.evaluate(exp, newContext));
+      return evaluate(compiled.getSanitized(), exp -> expressionExecutor.evaluate(exp, newContext));
     }
   }
 
@@ -184,7 +203,7 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
    * @return the result of the evaluation
    */
   private <T> T sanitizeAndEvaluate(String expression, Function<String, T> evaluation) {
-    return evaluate(sanitize(expression), evaluation);
+    return evaluate(compiledExpressions.compile(expression).getSanitized(), evaluation);
   }
 
   private <T> T evaluate(String expression, Function<String, T> evaluation) {
@@ -202,7 +221,21 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
 
     Builder contextBuilder;
     if (event != null) {
-      contextBuilder = addEventBuindingsToBuilder(event, context);
+      BindingContext eventContext = event.asBindingContext();
+      if (eventContext instanceof EventBindingContext) {
+        // The event bindings are resolved lazily and reused across the evaluations done on the same event, so the other bindings
+        // are layered over them instead of copying them into a new context
+        if (context != null && context != NULL_BINDING_CONTEXT) {
+          eventContext = new CompositeBindingContext(eventContext, context);
+        }
+        if (componentLocation != null) {
+          BindingContext flowNameContext = addFlowNameBindingsToBuilder(componentLocation, BindingContext.builder()).build();
+          eventContext = new CompositeBindingContext(flowNameContext, eventContext);
+        }
+        return eventContext;
+      } else {
+        contextBuilder = addEventBuindingsToBuilder(event, context);
+      }
     } else {
       contextBuilder = BindingContext.builder(context);
     }
@@ -240,31 +273,33 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
 
       @Override
       public TypedValue<?> evaluate(String expression) throws ExpressionExecutionException {
-        String sanitized = sanitize(expression);
-        if (isPayloadExpression(sanitized)) {
-          return resolvePayload(event, context);
+        CompiledExpression compiled = compiledExpressions.compile(expression);
+        TypedValue<?> resolved = compiled.resolve(event, context);
+        if (resolved != UNRESOLVED) {
+          return resolved;
         } else {
-          return session.evaluate(sanitized);
+          return session.evaluate(compiled.getSanitized());
         }
       }
 
       @Override
       public TypedValue<?> evaluate(String expression, long timeout) throws ExpressionExecutionException {
-        String sanitized = sanitize(expression);
-        if (isPayloadExpression(sanitized)) {
-          return resolvePayload(event, context);
+        CompiledExpression compiled = compiledExpressions.compile(expression);
+        TypedValue<?> resolved = compiled.resolve(event, context);
+        if (resolved != UNRESOLVED) {
+          return resolved;
         } else {
-          return session.evaluate(sanitized, timeout);
+          return session.evaluate(compiled.getSanitized(), timeout);
         }
       }
 
       @Override
       public TypedValue<?> evaluate(String expression, DataType expectedOutputType) throws ExpressionExecutionException {
-        String sanitized = sanitize(expression);
-        if (isPayloadExpression(sanitized)) {
+        CompiledExpression compiled = compiledExpressions.compile(expression);
+        if (compiled.isPayload()) {
           return resolvePayload(event, context);
         } else {
-          return session.evaluate(sanitized, expectedOutputType);
+          return session.evaluate(compiled.getSanitized(), expectedOutputType);
         }
       }
 
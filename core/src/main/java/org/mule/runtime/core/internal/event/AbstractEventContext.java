@@ -10,6 +10,7 @@ import static java.lang.Integer.getInteger;
 import static java.lang.String.format;
 import static java.lang.System.lineSeparator;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
 import static org.mule.runtime.core.api.functional.Either.left;
 import static org.mule.runtime.core.api.functional.Either.right;
 import static reactor.core.publisher.Mono.empty;
@@ -22,20 +23,20 @@ import org.mule.runtime.core.api.exception.NullExceptionHandler;
 import org.mule.runtime.core.api.functional.Either;
 import org.mule.runtime.core.internal.context.notification.DefaultFlowCallStack;
 import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.streaming.EventStreamingState;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -44,36 +45,49 @@ import reactor.core.publisher.MonoSink;
 
 /**
  * Base class for implementations of {@link BaseEventContext}
+ * <p/>
+ * State transitions are done with compare-and-set operations, completion of child contexts is tracked with a counter of the
+ * children not yet complete, and callbacks are kept in lock-free lists, so that contexts with many children, as the ones created
+ * by scatter-gather or foreach, do not contend on locks.
  *
  * @since 4.0
  */
-abstract class AbstractEventContext implements BaseEventContext {
+public abstract class AbstractEventContext implements BaseEventContext {
 
-  private static final byte STATE_READY = 0;
-  private static final byte STATE_RESPONSE = 1;
-  private static final byte STATE_COMPLETE = 2;
-  private static final byte STATE_TERMINATED = 3;
+  private static final int STATE_READY = 0;
+  // The response is being signalled to the response callbacks. The context cannot complete until they have been signalled.
+  private static final int STATE_RESPONDING = 1;
+  private static final int STATE_RESPONSE = 2;
+  private static final int STATE_COMPLETE = 3;
+  private static final int STATE_TERMINATED = 4;
+
+  private static final AtomicIntegerFieldUpdater<AbstractEventContext> STATE_UPDATER =
+      newUpdater(AbstractEventContext.class, "state");
+  private static final AtomicIntegerFieldUpdater<AbstractEventContext> INCOMPLETE_CHILDREN_UPDATER =
+      newUpdater(AbstractEventContext.class, "incompleteChildren");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, EventStreamingState> STREAMING_STATE_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, EventStreamingState.class, "streamingState");
+
+  private static final ConsumerNode TERMINATED_NODE = new SignalledNode(null);
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractEventContext.class);
   private static final FlowExceptionHandler NULL_EXCEPTION_HANDLER = NullExceptionHandler.getInstance();
 
   private static final int MAX_DEPTH = getInteger(BaseEventContext.class.getName() + ".maxDepth", 25);
 
-  private transient final List<BaseEventContext> childContexts = new ArrayList<>();
+  private transient final Set<BaseEventContext> childContexts = ConcurrentHashMap.newKeySet();
   private transient final FlowExceptionHandler exceptionHandler;
   private transient final CompletableFuture<Void> externalCompletion;
-  private transient final List<BiConsumer<CoreEvent, Throwable>> onResponseConsumerList = new ArrayList<>();
-  private transient final List<BiConsumer<CoreEvent, Throwable>> onCompletionConsumerList = new ArrayList<>();
-  private transient final List<BiConsumer<CoreEvent, Throwable>> onTerminatedConsumerList = new ArrayList<>();
-
-  private ReadWriteLock childContextsReadWriteLock = new ReentrantReadWriteLock();
+  private transient final AtomicReference<ConsumerNode> onResponseConsumers = new AtomicReference<>();
+  private transient final AtomicReference<ConsumerNode> onCompletionConsumers = new AtomicReference<>();
+  private transient final AtomicReference<ConsumerNode> onTerminatedConsumers = new AtomicReference<>();
 
   private final int depthLevel;
 
-  private volatile byte state = STATE_READY;
+  private volatile int state = STATE_READY;
+  private volatile int incompleteChildren = 0;
   private volatile Either<Throwable, CoreEvent> result;
-
-  private final Set<ResponsePublisher> responsePublishers = new HashSet<>();
+  private transient volatile EventStreamingState streamingState;
 
   protected FlowCallStack flowCallStack = new DefaultFlowCallStack();
 
@@ -117,11 +131,16 @@ abstract class AbstractEventContext implements BaseEventContext {
       throw new EventContextDeepNestingException(messageBuilder.toString());
     }
 
-    childContextsReadWriteLock.writeLock().lock();
-    try {
-      childContexts.add(childContext);
-    } finally {
-      childContextsReadWriteLock.writeLock().unlock();
+    // Only children extending this class notify their completion to the parent, so only those are waited for.
+    if (childContext instanceof AbstractEventContext) {
+      INCOMPLETE_CHILDREN_UPDATER.incrementAndGet(this);
+    }
+    childContexts.add(childContext);
+  }
+
+  private void childCompleted() {
+    if (INCOMPLETE_CHILDREN_UPDATER.decrementAndGet(this) == 0) {
+      tryComplete();
     }
   }
 
@@ -194,76 +213,94 @@ abstract class AbstractEventContext implements BaseEventContext {
     }
   }
 
-  private synchronized void responseDone(Either<Throwable, CoreEvent> result) {
+  private void responseDone(Either<Throwable, CoreEvent> result) {
+    if (!STATE_UPDATER.compareAndSet(this, STATE_READY, STATE_RESPONDING)) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(this + " response was already completed, ignoring.");
+      }
+      return;
+    }
+
     this.result = result;
-    responsePublishers.forEach(rp -> rp.result = result);
+    signalConsumers(onResponseConsumers, result);
     state = STATE_RESPONSE;
-    onResponseConsumerList.stream().forEach(consumer -> signalConsumerSilently(consumer));
-    onResponseConsumerList.clear();
     tryComplete();
   }
 
   protected void tryComplete() {
-    boolean allChildrenComplete;
-
-    childContextsReadWriteLock.readLock().lock();
-    try {
-      allChildrenComplete = childContexts.stream().allMatch(context -> context.isComplete());
-    } finally {
-      childContextsReadWriteLock.readLock().unlock();
-    }
-
-    synchronized (this) {
-      if (state == STATE_RESPONSE && allChildrenComplete) {
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug(this + " completed.");
-        }
-        this.state = STATE_COMPLETE;
-        onCompletionConsumerList.forEach(consumer -> signalConsumerSilently(consumer));
-        onCompletionConsumerList.clear();
-        getParentContext().ifPresent(context -> {
-          if (context instanceof AbstractEventContext) {
-            ((AbstractEventContext) context).tryComplete();
-          }
-        });
-        tryTerminate();
+    if (state == STATE_RESPONSE && incompleteChildren == 0
+        && STATE_UPDATER.compareAndSet(this, STATE_RESPONSE, STATE_COMPLETE)) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(this + " completed.");
       }
+      signalConsumers(onCompletionConsumers, result);
+      getParentContext().ifPresent(context -> {
+        if (context instanceof AbstractEventContext) {
+          ((AbstractEventContext) context).childCompleted();
+        }
+      });
+      tryTerminate();
     }
   }
 
-  protected synchronized void tryTerminate() {
-    if (this.state == STATE_COMPLETE && (externalCompletion == null || externalCompletion.isDone())) {
+  protected void tryTerminate() {
+    if (state == STATE_COMPLETE && (externalCompletion == null || externalCompletion.isDone())
+        && STATE_UPDATER.compareAndSet(this, STATE_COMPLETE, STATE_TERMINATED)) {
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug(this + " terminated.");
       }
-      this.state = STATE_TERMINATED;
 
-      onTerminatedConsumerList.forEach(consumer -> signalConsumerSilently(consumer));
-      onTerminatedConsumerList.clear();
+      signalConsumers(onTerminatedConsumers, result);
 
-      childContextsReadWriteLock.writeLock().lock();
-      try {
-        this.childContexts.clear();
-      } finally {
-        childContextsReadWriteLock.writeLock().unlock();
-      }
+      this.childContexts.clear();
 
-      getParentContext().ifPresent(context -> {
-        AbstractEventContext parent = (AbstractEventContext) context;
-        parent.childContextsReadWriteLock.writeLock().lock();
-        try {
-          parent.childContexts.remove(this);
-        } finally {
-          parent.childContextsReadWriteLock.writeLock().unlock();
-        }
-      });
+      getParentContext().ifPresent(context -> ((AbstractEventContext) context).childContexts.remove(this));
 
+      // Avoid keeping the result in memory once terminated, as it was done before any callback was registered.
+      onResponseConsumers.set(TERMINATED_NODE);
+      onCompletionConsumers.set(TERMINATED_NODE);
+      onTerminatedConsumers.set(TERMINATED_NODE);
       result = null;
-      responsePublishers.clear();
     }
   }
 
-  private void signalConsumerSilently(BiConsumer<CoreEvent, Throwable> consumer) {
+  /*
+   * Adds a consumer to a list, or signals it right away if the list has already been signalled.
+   */
+  private void addConsumer(AtomicReference<ConsumerNode> consumers, BiConsumer<CoreEvent, Throwable> consumer) {
+    requireNonNull(consumer);
+    ConsumerNode current;
+    do {
+      current = consumers.get();
+      if (current instanceof SignalledNode) {
+        signalConsumerSilently(consumer, ((SignalledNode) current).result);
+        return;
+      }
+    } while (!consumers.compareAndSet(current, new ConsumerNode(consumer, current)));
+  }
+
+  /*
+   * Signals the consumers of a list in the order they were added. Consumers added afterwards are signalled when added.
+   */
+  private void signalConsumers(AtomicReference<ConsumerNode> consumers, Either<Throwable, CoreEvent> result) {
+    ConsumerNode current = consumers.getAndSet(new SignalledNode(result));
+    if (current == null || current instanceof SignalledNode) {
+      return;
+    }
+
+    // Nodes are prepended when added, so they are reversed to respect the order in which they were added.
+    ConsumerNode reversed = null;
+    while (current != null) {
+      reversed = new ConsumerNode(current.consumer, reversed);
+      current = current.next;
+    }
+    while (reversed != null) {
+      signalConsumerSilently(reversed.consumer, result);
+      reversed = reversed.next;
+    }
+  }
+
+  private void signalConsumerSilently(BiConsumer<CoreEvent, Throwable> consumer, Either<Throwable, CoreEvent> result) {
     try {
       consumer.accept(result.getRight(), result.getLeft());
     } catch (Throwable t) {
@@ -280,12 +317,32 @@ abstract class AbstractEventContext implements BaseEventContext {
         .orElse(this);
   }
 
+  /**
+   * @return the state of the streaming resources owned by this context, or {@code null} if none was set.
+   * @since 4.2.0
+   */
+  public EventStreamingState getStreamingState() {
+    return streamingState;
+  }
+
+  /**
+   * Sets the state of the streaming resources owned by this context, if the current one is {@code expected}.
+   *
+   * @param expected the state expected to be current
+   * @param streamingState the state to set
+   * @return {@code true} if the state was set, {@code false} if the current state was not the {@code expected} one.
+   * @since 4.2.0
+   */
+  public boolean compareAndSetStreamingState(EventStreamingState expected, EventStreamingState streamingState) {
+    return STREAMING_STATE_UPDATER.compareAndSet(this, expected, streamingState);
+  }
+
   protected FlowExceptionHandler getExceptionHandler() {
     return exceptionHandler;
   }
 
   private boolean isResponseDone() {
-    return state >= STATE_RESPONSE;
+    return state >= STATE_RESPONDING;
   }
 
   @Override
@@ -299,55 +356,38 @@ abstract class AbstractEventContext implements BaseEventContext {
   }
 
   @Override
-  public synchronized void onTerminated(BiConsumer<CoreEvent, Throwable> consumer) {
-    if (state >= STATE_TERMINATED) {
-      signalConsumerSilently(consumer);
-    } else {
-      onTerminatedConsumerList.add(requireNonNull(consumer));
-    }
+  public void onTerminated(BiConsumer<CoreEvent, Throwable> consumer) {
+    addConsumer(onTerminatedConsumers, consumer);
   }
 
   @Override
-  public synchronized void onComplete(BiConsumer<CoreEvent, Throwable> consumer) {
-    if (state >= STATE_COMPLETE) {
-      signalConsumerSilently(consumer);
-    } else {
-      onCompletionConsumerList.add(requireNonNull(consumer));
-    }
+  public void onComplete(BiConsumer<CoreEvent, Throwable> consumer) {
+    addConsumer(onCompletionConsumers, consumer);
   }
 
   @Override
-  public synchronized void onResponse(BiConsumer<CoreEvent, Throwable> consumer) {
-    if (state >= STATE_RESPONSE) {
-      signalConsumerSilently(consumer);
-    } else {
-      onResponseConsumerList.add(requireNonNull(consumer));
-    }
+  public void onResponse(BiConsumer<CoreEvent, Throwable> consumer) {
+    addConsumer(onResponseConsumers, consumer);
   }
 
   @Override
-  public synchronized Publisher<CoreEvent> getResponsePublisher() {
+  public Publisher<CoreEvent> getResponsePublisher() {
     if (isTerminated()) {
       throw new IllegalStateException("getResponsePublisher() cannot be called after eventContext termination.");
     }
 
     final ResponsePublisher responsePublisher = new ResponsePublisher();
-    responsePublishers.add(responsePublisher);
+    onResponse((event, throwable) -> signalConsumers(responsePublisher.sinks, throwable != null ? left(throwable) : right(event)));
     return Mono.create(responsePublisher);
   }
 
   public void forEachChild(Consumer<BaseEventContext> childConsumer) {
-    childContextsReadWriteLock.readLock().lock();
-    try {
-      childContexts.stream().filter(context -> !context.isTerminated()).forEach(context -> {
-        childConsumer.accept(context);
-        if (context instanceof AbstractEventContext) {
-          ((AbstractEventContext) context).forEachChild(childConsumer);
-        }
-      });
-    } finally {
-      childContextsReadWriteLock.readLock().unlock();
-    }
+    childContexts.stream().filter(context -> !context.isTerminated()).forEach(context -> {
+      childConsumer.accept(context);
+      if (context instanceof AbstractEventContext) {
+        ((AbstractEventContext) context).forEachChild(childConsumer);
+      }
+    });
   }
 
   /**
@@ -356,35 +396,41 @@ abstract class AbstractEventContext implements BaseEventContext {
    */
   private final class ResponsePublisher implements Consumer<MonoSink<CoreEvent>> {
 
-    private volatile Either<Throwable, CoreEvent> result;
+    private final AtomicReference<ConsumerNode> sinks = new AtomicReference<>();
 
     @Override
     public void accept(MonoSink<CoreEvent> sink) {
-      if (isResponseDone()) {
-        signalPublisherSink(sink);
-      } else {
-        synchronized (AbstractEventContext.this) {
-          if (isResponseDone()) {
-            signalPublisherSink(sink);
-          } else {
-            onResponse((event, throwable) -> {
-              if (throwable != null) {
-                sink.error(throwable);
-              } else {
-                sink.success(event);
-              }
-            });
-          }
+      addConsumer(sinks, (event, throwable) -> {
+        if (throwable != null) {
+          sink.error(throwable);
+        } else {
+          sink.success(event);
         }
-      }
+      });
     }
+  }
 
-    private void signalPublisherSink(MonoSink<CoreEvent> sink) {
-      if (result.isLeft()) {
-        sink.error(result.getLeft());
-      } else {
-        sink.success(result.getRight());
-      }
+  /**
+   * Node of a lock-free list of callbacks. Once the list is signalled its head is replaced with a {@link SignalledNode}.
+   */
+  private static class ConsumerNode {
+
+    private final BiConsumer<CoreEvent, Throwable> consumer;
+    private final ConsumerNode next;
+
+    ConsumerNode(BiConsumer<CoreEvent, Throwable> consumer, ConsumerNode next) {
+      this.consumer = consumer;
+      this.next = next;
+    }
+  }
+
+  private static final class SignalledNode extends ConsumerNode {
+
+    private final Either<Throwable, CoreEvent> result;
+
+    SignalledNode(Either<Throwable, CoreEvent> result) {
+      super(null, null);
+      this.result = result;
     }
   }
 
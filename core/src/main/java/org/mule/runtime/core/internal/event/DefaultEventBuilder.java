@@ -9,17 +9,17 @@ package org.mule.runtime.core.internal.event;
 
 import static java.lang.String.format;
 import static java.lang.System.lineSeparator;
-import static java.util.Collections.unmodifiableMap;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.empty;
 import static java.util.Optional.ofNullable;
-import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
-import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPayloadAsBytes;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPayloadAsString;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.objectIsNull;
-import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.emptyCaseInsensitiveMap;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
+import static org.mule.runtime.core.internal.event.EventQuickCopy.quickCopy;
+import static org.mule.runtime.core.internal.util.PersistentHashMap.caseInsensitiveCopyOf;
+import static org.mule.runtime.core.internal.util.PersistentHashMap.copyOf;
+import static org.mule.runtime.core.internal.util.PersistentHashMap.emptyCaseInsensitive;
 import static org.mule.runtime.core.internal.util.message.ItemSequenceInfoUtils.fromGroupCorrelation;
 import static org.mule.runtime.core.internal.util.message.ItemSequenceInfoUtils.toGroupCorrelation;
 
@@ -34,17 +34,18 @@ import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.security.Authentication;
 import org.mule.runtime.api.security.SecurityContext;
-import org.mule.runtime.api.util.LazyValue;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.notification.FlowCallStack;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.message.GroupCorrelation;
 import org.mule.runtime.core.api.transformer.MessageTransformerException;
 import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+import org.mule.runtime.core.internal.el.EventBindingContext;
 import org.mule.runtime.core.internal.message.DefaultMessageBuilder;
 import org.mule.runtime.core.internal.message.InternalEvent;
 import org.mule.runtime.core.internal.message.InternalEvent.Builder;
 import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.util.PersistentHashMap;
 import org.mule.runtime.core.privileged.connector.DefaultReplyToHandler;
 import org.mule.runtime.core.privileged.connector.ReplyToHandler;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
@@ -56,7 +57,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.util.HashMap;
@@ -70,10 +73,8 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   private BaseEventContext context;
   private Function<EventContext, Message> messageFactory;
-  private boolean varsModified = false;
-  private Map<String, TypedValue<?>> flowVariables = new HashMap<>();
-  private CaseInsensitiveHashMap<String, TypedValue<?>> originalVars;
-  private Map<String, Object> internalParameters = new HashMap<>(4);
+  private PersistentHashMap<String, TypedValue<?>> flowVariables;
+  private PersistentHashMap<String, Object> internalParameters;
   private Error error;
   private Optional<ItemSequenceInfo> itemSequenceInfo = empty();
   private String legacyCorrelationId;
@@ -83,12 +84,14 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   private SecurityContext securityContext;
   private InternalEvent originalEvent;
   private boolean modified;
+  private boolean contextChanged;
   private boolean notificationsEnabled = true;
 
   public DefaultEventBuilder(BaseEventContext messageContext) {
     this.context = messageContext;
     this.session = new DefaultMuleSession();
-    this.originalVars = emptyCaseInsensitiveMap();
+    this.flowVariables = emptyCaseInsensitive();
+    this.internalParameters = PersistentHashMap.empty();
   }
 
   public DefaultEventBuilder(InternalEvent event) {
@@ -104,14 +107,15 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     this.error = event.getError().orElse(null);
     this.notificationsEnabled = event.isNotificationsEnabled();
 
-    this.originalVars = (CaseInsensitiveHashMap<String, TypedValue<?>>) event.getVariables();
-    this.internalParameters.putAll(event.getInternalParameters());
+    // Events built by this builder already hold persistent maps, so these don't copy them
+    this.flowVariables = caseInsensitiveCopyOf(event.getVariables());
+    this.internalParameters = copyOf(event.getInternalParameters());
   }
 
   public DefaultEventBuilder(BaseEventContext messageContext, InternalEvent event) {
     this(event);
     this.context = messageContext;
-    this.modified = true;
+    this.contextChanged = true;
   }
 
   @Override
@@ -132,61 +136,59 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public DefaultEventBuilder variables(Map<String, ?> flowVariables) {
-    initVariables();
-
-    copyFromTo(flowVariables, this.flowVariables);
-    this.varsModified = true;
+    PersistentHashMap<String, TypedValue<?>> variables = emptyCaseInsensitive();
+    for (Map.Entry<String, ?> entry : flowVariables.entrySet()) {
+      Object value = entry.getValue();
+      variables = variables.plus(entry.getKey(),
+                                 value instanceof TypedValue ? (TypedValue<?>) value
+                                     : new TypedValue<>(value, DataType.fromObject(value)));
+    }
+    this.flowVariables = variables;
+    this.modified = true;
     return this;
   }
 
   @Override
   public DefaultEventBuilder addVariable(String key, Object value) {
-    initVariables();
-
-    flowVariables.put(key, new TypedValue<>(value, DataType.fromObject(value)));
-    this.varsModified = true;
+    flowVariables = flowVariables.plus(key, new TypedValue<>(value, DataType.fromObject(value)));
     this.modified = true;
     return this;
-
   }
 
   @Override
   public DefaultEventBuilder addVariable(String key, Object value, DataType dataType) {
-    initVariables();
-
-    flowVariables.put(key, new TypedValue<>(value, dataType));
-    this.varsModified = true;
+    flowVariables = flowVariables.plus(key, new TypedValue<>(value, dataType));
     this.modified = true;
     return this;
   }
 
   @Override
   public DefaultEventBuilder removeVariable(String key) {
-    initVariables();
-
-    this.modified = flowVariables.remove(key) != null || modified;
-    this.varsModified = this.varsModified || modified;
+    PersistentHashMap<String, TypedValue<?>> updated = flowVariables.minus(key);
+    this.modified = updated != flowVariables || modified;
+    flowVariables = updated;
     return this;
   }
 
   @Override
   public DefaultEventBuilder internalParameters(Map<String, ?> internalParameters) {
-    this.internalParameters.clear();
-    this.internalParameters.putAll(internalParameters);
+    this.internalParameters = copyOf(internalParameters);
     this.modified = true;
     return this;
   }
 
   @Override
   public DefaultEventBuilder addInternalParameter(String key, Object value) {
-    internalParameters.put(key, value);
+    internalParameters = internalParameters.plus(key, value);
     this.modified = true;
     return this;
   }
 
   @Override
   public DefaultEventBuilder removeInternalParameter(String key) {
-    this.modified = internalParameters.remove(key) != null || modified;
+    PersistentHashMap<String, Object> updated = internalParameters.minus(key);
+    this.modified = updated != internalParameters || modified;
+    internalParameters = updated;
     return this;
   }
 
@@ -256,11 +258,10 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   @Override
   public InternalEvent build() {
     if (originalEvent != null && !modified) {
-      return originalEvent;
+      // Only rebasing the event to another context doesn't require copying its state
+      return contextChanged ? (InternalEvent) quickCopy(context, originalEvent) : originalEvent;
     } else {
-      initVariables();
-      return new InternalEventImplementation(context, requireNonNull(messageFactory.apply(context)),
-                                             varsModified ? flowVariables : originalVars,
+      return new InternalEventImplementation(context, requireNonNull(messageFactory.apply(context)), flowVariables,
                                              internalParameters, session, securityContext, replyToDestination,
                                              replyToHandler, itemSequenceInfo, error,
                                              legacyCorrelationId,
@@ -268,19 +269,6 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     }
   }
 
-  protected void initVariables() {
-    if (!this.varsModified) {
-      this.flowVariables.putAll(originalVars);
-    }
-  }
-
-  private void copyFromTo(Map<String, ?> source, Map<String, TypedValue<?>> target) {
-    target.clear();
-    source.forEach((s, o) -> target
-        .put(s, o instanceof TypedValue ? (TypedValue<Object>) o : new TypedValue<>(o, DataType.fromObject(o))));
-    this.modified = true;
-  }
-
   /**
    * <code>EventImplementation</code> represents any data event occurring in the Mule environment. All data sent or received
    * within the Mule environment will be passed between components as an MuleEvent.
@@ -293,60 +281,53 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     private static final long serialVersionUID = 1L;
 
+    // The maps are persistent in memory, but keep the types they had in the serialized form of previous versions
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("context", BaseEventContext.class),
+        new ObjectStreamField("message", Message.class),
+        new ObjectStreamField("session", MuleSession.class),
+        new ObjectStreamField("securityContext", SecurityContext.class),
+        new ObjectStreamField("replyToHandler", ReplyToHandler.class),
+        new ObjectStreamField("replyToDestination", Object.class),
+        new ObjectStreamField("notificationsEnabled", boolean.class),
+        new ObjectStreamField("variables", CaseInsensitiveHashMap.class),
+        new ObjectStreamField("internalParameters", Map.class),
+        new ObjectStreamField("legacyCorrelationId", String.class),
+        new ObjectStreamField("error", Error.class),
+        new ObjectStreamField("itemSequenceInfo", ItemSequenceInfo.class)
+    };
+
     /** Immutable MuleEvent state **/
 
+    // These are not final only so they can be read from the serialized form
     private BaseEventContext context;
     // TODO MULE-10013 make this final
     private Message message;
-    private final MuleSession session;
+    private MuleSession session;
     private SecurityContext securityContext;
 
-    private final ReplyToHandler replyToHandler;
+    private ReplyToHandler replyToHandler;
 
     /** Mutable MuleEvent state **/
-    private final Object replyToDestination;
+    private Object replyToDestination;
 
-    private final boolean notificationsEnabled;
+    private boolean notificationsEnabled;
 
-    private final CaseInsensitiveHashMap<String, TypedValue<?>> variables;
-    private final Map<String, ?> internalParameters;
+    private PersistentHashMap<String, TypedValue<?>> variables;
+    private PersistentHashMap<String, ?> internalParameters;
 
-    private final String legacyCorrelationId;
-    private final Error error;
+    private String legacyCorrelationId;
+    private Error error;
 
     private ItemSequenceInfo itemSequenceInfo;
 
-    private transient LazyValue<BindingContext> bindingContextBuilder =
-        new LazyValue<>(() -> addEventBindings(this, NULL_BINDING_CONTEXT));
-
-    // Use this constructor from the builder
-    private InternalEventImplementation(BaseEventContext context, Message message, Map<String, TypedValue<?>> variables,
-                                        Map<String, ?> internalParameters, MuleSession session, SecurityContext securityContext,
-                                        Object replyToDestination, ReplyToHandler replyToHandler,
-                                        Optional<ItemSequenceInfo> itemSequenceInfo,
-                                        Error error,
-                                        String legacyCorrelationId, boolean notificationsEnabled) {
-      this.context = context;
-      this.session = session;
-      this.securityContext = securityContext;
-      this.message = message;
-      this.variables = new CaseInsensitiveHashMap<>(variables);
-      this.internalParameters = internalParameters;
-
-      this.replyToHandler = replyToHandler;
-      this.replyToDestination = replyToDestination;
-
-      this.itemSequenceInfo = itemSequenceInfo.orElse(null);
-      this.error = error;
-      this.legacyCorrelationId = legacyCorrelationId;
-
-      this.notificationsEnabled = notificationsEnabled;
-    }
+    private transient BindingContext bindingContext;
 
     // Use this constructor from the builder
     private InternalEventImplementation(BaseEventContext context, Message message,
-                                        CaseInsensitiveHashMap<String, TypedValue<?>> variables,
-                                        Map<String, ?> internalParameters, MuleSession session, SecurityContext securityContext,
+                                        PersistentHashMap<String, TypedValue<?>> variables,
+                                        PersistentHashMap<String, ?> internalParameters, MuleSession session,
+                                        SecurityContext securityContext,
                                         Object replyToDestination, ReplyToHandler replyToHandler,
                                         Optional<ItemSequenceInfo> itemSequenceInfo,
                                         Error error,
@@ -482,8 +463,6 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
           throw new DefaultMuleException(e);
         }
       }
-
-      bindingContextBuilder = new LazyValue<>(() -> addEventBindings(this, NULL_BINDING_CONTEXT));
     }
 
     @Override
@@ -501,8 +480,22 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     // //////////////////////////
 
     private void writeObject(ObjectOutputStream out) throws IOException {
+      ObjectOutputStream.PutField fields = out.putFields();
+      fields.put("context", context);
+      fields.put("message", message);
+      fields.put("session", session);
+      fields.put("securityContext", securityContext);
+      fields.put("replyToHandler", replyToHandler);
+      fields.put("replyToDestination", replyToDestination);
+      fields.put("notificationsEnabled", notificationsEnabled);
+      fields.put("variables", new CaseInsensitiveHashMap<>(variables));
+      fields.put("internalParameters", new HashMap<>(internalParameters));
+      fields.put("legacyCorrelationId", legacyCorrelationId);
+      fields.put("error", error);
+      fields.put("itemSequenceInfo", itemSequenceInfo);
+      out.writeFields();
+
       // TODO MULE-10013 remove this logic from here
-      out.defaultWriteObject();
       for (Map.Entry<String, TypedValue<?>> entry : variables.entrySet()) {
         Object value = entry.getValue();
         if (value != null && !(value instanceof Serializable)) {
@@ -513,13 +506,30 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       }
     }
 
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      ObjectInputStream.GetField fields = in.readFields();
+      context = (BaseEventContext) fields.get("context", null);
+      message = (Message) fields.get("message", null);
+      session = (MuleSession) fields.get("session", null);
+      securityContext = (SecurityContext) fields.get("securityContext", null);
+      replyToHandler = (ReplyToHandler) fields.get("replyToHandler", null);
+      replyToDestination = fields.get("replyToDestination", null);
+      notificationsEnabled = fields.get("notificationsEnabled", false);
+      variables = caseInsensitiveCopyOf((Map<String, TypedValue<?>>) fields.get("variables", null));
+      internalParameters = copyOf((Map<String, ?>) fields.get("internalParameters", null));
+      legacyCorrelationId = (String) fields.get("legacyCorrelationId", null);
+      error = (Error) fields.get("error", null);
+      itemSequenceInfo = (ItemSequenceInfo) fields.get("itemSequenceInfo", null);
+    }
+
     private void setMessage(Message message) {
       this.message = message;
     }
 
     @Override
     public Map<String, TypedValue<?>> getVariables() {
-      return variables.toImmutableCaseInsensitiveMap();
+      return variables;
     }
 
     @Override
@@ -539,7 +549,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     @Override
     public Map<String, ?> getInternalParameters() {
-      return unmodifiableMap(internalParameters);
+      return internalParameters;
     }
 
     @Override
@@ -573,7 +583,10 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     @Override
     public BindingContext asBindingContext() {
-      return bindingContextBuilder.get();
+      if (bindingContext == null) {
+        bindingContext = new EventBindingContext(this);
+      }
+      return bindingContext;
     }
   }
 
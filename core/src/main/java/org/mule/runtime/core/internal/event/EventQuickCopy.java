@@ -6,8 +6,6 @@
  */
 package org.mule.runtime.core.internal.event;
 
-import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
-import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
 
 import org.mule.runtime.api.el.BindingContext;
 import org.mule.runtime.api.event.EventContext;
@@ -19,12 +17,12 @@ import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.security.Authentication;
 import org.mule.runtime.api.security.SecurityContext;
-import org.mule.runtime.api.util.LazyValue;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.notification.FlowCallStack;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.message.GroupCorrelation;
 import org.mule.runtime.core.api.transformer.MessageTransformerException;
+import org.mule.runtime.core.internal.el.EventBindingContext;
 import org.mule.runtime.core.internal.message.InternalEvent;
 import org.mule.runtime.core.privileged.connector.ReplyToHandler;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
@@ -49,14 +47,20 @@ public class EventQuickCopy implements InternalEvent, DeserializationPostInitial
    * A new {@link EventContext} is used instead of the existing instance referenced by the existing {@link CoreEvent}. This method
    * should only be used in some specific scenarios like {@code flow-ref} where a new Flow executing the same {@link CoreEvent}
    * needs a new context.
+   * <p>
+   * The returned event is a view of the existing one that shares all of its state but the context, so no state is copied. If
+   * the existing event is already such a view, the new one is based on the event it is a view of, so that views don't nest.
    *
    * @param event existing event to use as a template to create builder instance
    * @param context the context to create event instance with.
-   * @return new {@link CoreEvent} instance.
+   * @return new {@link CoreEvent} instance, or {@code event} if it already has the given {@code context}.
    */
   public static CoreEvent quickCopy(EventContext context, CoreEvent event) {
+    if (event.getContext() == context) {
+      return event;
+    }
     return (event instanceof InternalEvent && context instanceof BaseEventContext)
-        ? new EventQuickCopy((BaseEventContext) context, (InternalEvent) event)
+        ? rebase((BaseEventContext) context, (InternalEvent) event)
         : CoreEvent.builder(context, event).build();
   }
 
@@ -66,22 +70,32 @@ public class EventQuickCopy implements InternalEvent, DeserializationPostInitial
    * A new {@link EventContext} is used instead of the existing instance referenced by the existing {@link PrivilegedEvent}. This
    * method should only be used in some specific scenarios like {@code flow-ref} where a new Flow executing the same
    * {@link PrivilegedEvent} needs a new context.
+   * <p>
+   * The returned event is a view of the existing one that shares all of its state but the context, so no state is copied. If
+   * the existing event is already such a view, the new one is based on the event it is a view of, so that views don't nest.
    *
    * @param event existing event to use as a template to create builder instance
    * @param context the context to create event instance with.
-   * @return new {@link PrivilegedEvent} instance.
+   * @return new {@link PrivilegedEvent} instance, or {@code event} if it already has the given {@code context}.
    */
   public static PrivilegedEvent quickCopy(EventContext context, PrivilegedEvent event) {
+    if (event.getContext() == context) {
+      return event;
+    }
     return (event instanceof InternalEvent && context instanceof BaseEventContext)
-        ? new EventQuickCopy((BaseEventContext) context, (InternalEvent) event)
+        ? rebase((BaseEventContext) context, (InternalEvent) event)
         : PrivilegedEvent.builder(context, event).build();
   }
 
+  private static InternalEvent rebase(BaseEventContext context, InternalEvent event) {
+    InternalEvent base = event instanceof EventQuickCopy ? ((EventQuickCopy) event).event : event;
+    return base.getContext() == context ? base : new EventQuickCopy(context, base);
+  }
+
   private final BaseEventContext context;
   private final InternalEvent event;
 
-  private transient LazyValue<BindingContext> bindingContextBuilder =
-      new LazyValue<>(() -> addEventBindings(this, NULL_BINDING_CONTEXT));
+  private transient BindingContext bindingContext;
 
   public EventQuickCopy(BaseEventContext context, InternalEvent event) {
     this.context = context;
@@ -185,7 +199,10 @@ public class EventQuickCopy implements InternalEvent, DeserializationPostInitial
 
   @Override
   public BindingContext asBindingContext() {
-    return bindingContextBuilder.get();
+    if (bindingContext == null) {
+      bindingContext = new EventBindingContext(this);
+    }
+    return bindingContext;
   }
 
   @Override
@@ -202,7 +219,7 @@ public class EventQuickCopy implements InternalEvent, DeserializationPostInitial
    */
   @SuppressWarnings({"unused"})
   private void initAfterDeserialisation(MuleContext muleContext) throws MuleException {
-    bindingContextBuilder = new LazyValue<>(() -> addEventBindings(this, NULL_BINDING_CONTEXT));
+    // Nothing to do, the binding context is created when first requested
   }
 
 }
@@ -6,9 +6,6 @@
  */
 package org.mule.runtime.core.internal.interception;
 
-import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
-import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
-
 import org.mule.runtime.api.el.BindingContext;
 import org.mule.runtime.api.event.EventContext;
 import org.mule.runtime.api.message.Error;
@@ -133,7 +130,7 @@ public class DefaultInterceptionEvent implements InternalInterceptionEvent {
 
   @Override
   public BindingContext asBindingContext() {
-    return addEventBindings(resolve(), NULL_BINDING_CONTEXT);
+    return resolve().asBindingContext();
   }
 
   /**
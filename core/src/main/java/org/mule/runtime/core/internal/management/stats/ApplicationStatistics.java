@@ -8,6 +8,7 @@ package org.mule.runtime.core.internal.management.stats;
 
 import org.mule.runtime.core.api.management.stats.AllStatistics;
 import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
 
 /**
  * Aggregate statistics for all services and flows in an application. Do this by looping through all of the applications'
@@ -86,6 +87,17 @@ public class ApplicationStatistics extends DefaultFlowConstructStatistics {
     return total;
   }
 
+  @Override
+  public long getProcessingTimePercentile(double percentile) {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (FlowConstructStatistics stats : parent.getServiceStatistics()) {
+      if (stats instanceof DefaultFlowConstructStatistics && !(stats instanceof ApplicationStatistics)) {
+        histogram.add(((DefaultFlowConstructStatistics) stats).flowStatistics.getExecutionTimeHistogram());
+      }
+    }
+    return histogram.getValueAtPercentile(percentile);
+  }
+
   @Override
   public long getExecutionErrors() {
     long total = 0;
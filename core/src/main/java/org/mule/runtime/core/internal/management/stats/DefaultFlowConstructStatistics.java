@@ -8,13 +8,13 @@ package org.mule.runtime.core.internal.management.stats;
 
 import org.mule.runtime.core.api.management.stats.ComponentStatistics;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatistics {
 
   private static final long serialVersionUID = 5337576392583767442L;
-  private final AtomicLong executionError = new AtomicLong(0);
-  private final AtomicLong fatalError = new AtomicLong(0);
+  private final LongAdder executionError = new LongAdder();
+  private final LongAdder fatalError = new LongAdder();
   protected final ComponentStatistics flowStatistics = new ComponentStatistics();
 
   public DefaultFlowConstructStatistics(String flowConstructType, String name) {
@@ -35,29 +35,29 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
 
   @Override
   public void incExecutionError() {
-    executionError.addAndGet(1);
+    executionError.increment();
   }
 
   @Override
   public void incFatalError() {
-    fatalError.addAndGet(1);
+    fatalError.increment();
   }
 
   /**
    * Enable statistics logs (this is a dynamic parameter)
    */
   @Override
-  public synchronized void setEnabled(boolean b) {
+  public void setEnabled(boolean b) {
     super.setEnabled(b);
     flowStatistics.setEnabled(enabled);
   }
 
   @Override
-  public synchronized void clear() {
+  public void clear() {
     super.clear();
 
-    executionError.set(0);
-    fatalError.set(0);
+    executionError.reset();
+    fatalError.reset();
     if (flowStatistics != null) {
       flowStatistics.clear();
     }
@@ -98,14 +98,19 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
     return flowStatistics.getTotalExecutionTime();
   }
 
+  @Override
+  public long getProcessingTimePercentile(double percentile) {
+    return flowStatistics.getExecutionTimePercentile(percentile);
+  }
+
   @Override
   public long getExecutionErrors() {
-    return executionError.get();
+    return executionError.sum();
   }
 
   @Override
   public long getFatalErrors() {
-    return fatalError.get();
+    return fatalError.sum();
   }
 
 }
@@ -35,11 +35,11 @@ import org.mule.runtime.api.metadata.DataTypeBuilder;
 import org.mule.runtime.api.metadata.MapDataType;
 import org.mule.runtime.api.metadata.MediaType;
 import org.mule.runtime.api.metadata.TypedValue;
-import org.mule.runtime.api.util.CaseInsensitiveMapWrapper;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.message.ExceptionPayload;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.api.transformer.TransformerException;
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.message.InternalMessage.CollectionBuilder;
 import org.mule.runtime.core.internal.metadata.DefaultCollectionDataType;
@@ -80,8 +80,8 @@ public final class DefaultMessageBuilder
 
   private ExceptionPayload exceptionPayload;
 
-  private Map<String, TypedValue<Serializable>> inboundProperties = new CaseInsensitiveMapWrapper<>();
-  private Map<String, TypedValue<Serializable>> outboundProperties = new CaseInsensitiveMapWrapper<>();
+  private Map<String, TypedValue<Serializable>> inboundProperties = new CaseInsensitiveHashMap<>();
+  private Map<String, TypedValue<Serializable>> outboundProperties = new CaseInsensitiveHashMap<>();
   private Map<String, DataHandler> inboundAttachments = new LinkedHashMap<>();
   private Map<String, DataHandler> outboundAttachments = new LinkedHashMap<>();
 
@@ -406,8 +406,8 @@ public final class DefaultMessageBuilder
     private transient TypedValue typedValue;
     private TypedValue typedAttributes;
 
-    private Map<String, TypedValue<Serializable>> inboundMap = new CaseInsensitiveMapWrapper<>();
-    private Map<String, TypedValue<Serializable>> outboundMap = new CaseInsensitiveMapWrapper<>();
+    private Map<String, TypedValue<Serializable>> inboundMap = new CaseInsensitiveHashMap<>();
+    private Map<String, TypedValue<Serializable>> outboundMap = new CaseInsensitiveHashMap<>();
 
     private MessageImplementation(TypedValue typedValue, TypedValue typedAttributes,
                                   Map<String, TypedValue<Serializable>> inboundProperties,
@@ -176,6 +176,12 @@ public class ProactorStreamProcessingStrategyFactory extends ReactorStreamProces
       }
     }
 
+    @Override
+    public boolean isCoalescingSupported(ProcessingType processingType) {
+      // IO_RW processors are not coalesced because whether they are scheduled depends on the payload each one receives.
+      return processingType == BLOCKING || processingType == CPU_INTENSIVE;
+    }
+
     private ReactiveProcessor proactor(ReactiveProcessor processor, Scheduler scheduler) {
       reactor.core.scheduler.Scheduler publishOnScheduler = fromExecutorService(decorateScheduler(getCpuLightScheduler()));
 
@@ -192,7 +198,11 @@ public class ProactorStreamProcessingStrategyFactory extends ReactorStreamProces
       }, max(maxConcurrency / (getParallelism() * subscribers), 1));
     }
 
-    private boolean scheduleIoRwEvent(CoreEvent event) {
+    protected Scheduler getBlockingScheduler() {
+      return blockingScheduler;
+    }
+
+    protected boolean scheduleIoRwEvent(CoreEvent event) {
       return event.getMessage().getPayload().getDataType().isStreamType()
           && event.getMessage().getPayload().getByteLength().orElse(MAX_VALUE) > STREAM_PAYLOAD_BLOCKING_IO_THRESHOLD;
     }
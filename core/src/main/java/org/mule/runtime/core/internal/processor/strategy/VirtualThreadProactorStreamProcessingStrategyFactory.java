@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Math.max;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.IO_RW;
+import static org.mule.runtime.core.api.transaction.TransactionCoordination.isTransactionActive;
+import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Flux.just;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.TransactionAwareProactorStreamProcessingStrategyFactory.TransactionAwareProactorStreamProcessingStrategy;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+/**
+ * Creates {@link TransactionAwareProactorStreamProcessingStrategy} instances that run
+ * {@link ReactiveProcessor.ProcessingType#BLOCKING} and {@link ReactiveProcessor.ProcessingType#IO_RW} processors on virtual
+ * threads, one per task, instead of on the shared {@link org.mule.runtime.api.scheduler.SchedulerService#ioScheduler()}. A
+ * blocked virtual thread does not hold a platform thread, so the number of concurrent blocking operations of a flow is limited
+ * only by its {@code maxConcurrency}, which is enforced with a {@link Semaphore} rather than by sizing a thread pool. The events
+ * each pipeline hands to virtual threads are bounded as well, by {@code maxConcurrency} or, when it is not set, by the buffer
+ * size, so upstream back-pressure still applies.
+ * <p/>
+ * Virtual threads are looked up reflectively. When the JVM does not support them, this factory creates the same processing
+ * strategy as {@link TransactionAwareProactorStreamProcessingStrategyFactory}. As with it, events are processed synchronously
+ * when a transaction is active.
+ * <p/>
+ * Flows use this factory by default when the {@link #VIRTUAL_THREADS_PROPERTY} system property is set.
+ *
+ * @since 4.2.0
+ */
+public class VirtualThreadProactorStreamProcessingStrategyFactory extends TransactionAwareProactorStreamProcessingStrategyFactory {
+
+  /**
+   * System property to make flows use virtual threads for their blocking processors by default, when the JVM supports them.
+   */
+  public static final String VIRTUAL_THREADS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "processingStrategy.virtualThreads";
+
+  private static final Logger LOGGER = getLogger(VirtualThreadProactorStreamProcessingStrategyFactory.class);
+
+  private static final Method OF_VIRTUAL = lookupOfVirtual();
+
+  @Override
+  public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
+    if (!isVirtualThreadSupported()) {
+      LOGGER.debug("Virtual threads are not supported by this JVM, using the proactor processing strategy for '{}'",
+                   schedulersNamePrefix);
+      return super.create(muleContext, schedulersNamePrefix);
+    }
+
+    return new VirtualThreadProactorStreamProcessingStrategy(getRingBufferSchedulerSupplier(muleContext, schedulersNamePrefix),
+                                                             getBufferSize(),
+                                                             getSubscriberCount(),
+                                                             getWaitStrategy(),
+                                                             getCpuLightSchedulerSupplier(muleContext, schedulersNamePrefix),
+                                                             () -> muleContext.getSchedulerService()
+                                                                 .ioScheduler(muleContext.getSchedulerBaseConfig()
+                                                                     .withName(schedulersNamePrefix + "." + BLOCKING.name())),
+                                                             () -> muleContext.getSchedulerService()
+                                                                 .cpuIntensiveScheduler(muleContext.getSchedulerBaseConfig()
+                                                                     .withName(schedulersNamePrefix + "."
+                                                                         + CPU_INTENSIVE.name())),
+                                                             () -> newVirtualThreadExecutor(schedulersNamePrefix + "."
+                                                                 + BLOCKING.name()),
+                                                             resolveParallelism(),
+                                                             getMaxConcurrency(),
+                                                             muleContext.getConfiguration().isThreadLoggingEnabled());
+  }
+
+  @Override
+  public Class<? extends ProcessingStrategy> getProcessingStrategyType() {
+    return isVirtualThreadSupported() ? VirtualThreadProactorStreamProcessingStrategy.class : super.getProcessingStrategyType();
+  }
+
+  /**
+   * @return whether the running JVM is able to create virtual threads.
+   */
+  public static boolean isVirtualThreadSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  private static Method lookupOfVirtual() {
+    try {
+      Method ofVirtual = Thread.class.getMethod("ofVirtual");
+      // Virtual threads may be present but disabled, as a preview feature
+      ofVirtual.invoke(null);
+      return ofVirtual;
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  private static ExecutorService newVirtualThreadExecutor(String name) {
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = builderClass.getMethod("name", String.class, long.class).invoke(OF_VIRTUAL.invoke(null), name + "-", 0L);
+      ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+      return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+          .invoke(null, threadFactory);
+    } catch (Exception e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not create virtual thread executor for " + name), e);
+    }
+  }
+
+  static class VirtualThreadProactorStreamProcessingStrategy extends TransactionAwareProactorStreamProcessingStrategy {
+
+    private final Supplier<ExecutorService> virtualThreadExecutorSupplier;
+    private VirtualThreadScheduler virtualThreadScheduler;
+
+    VirtualThreadProactorStreamProcessingStrategy(Supplier<Scheduler> ringBufferSchedulerSupplier,
+                                                  int bufferSize,
+                                                  int subscriberCount,
+                                                  String waitStrategy,
+                                                  Supplier<Scheduler> cpuLightSchedulerSupplier,
+                                                  Supplier<Scheduler> blockingSchedulerSupplier,
+                                                  Supplier<Scheduler> cpuIntensiveSchedulerSupplier,
+                                                  Supplier<ExecutorService> virtualThreadExecutorSupplier,
+                                                  int parallelism,
+                                                  int maxConcurrency,
+                                                  boolean isThreadLoggingEnabled) {
+      super(ringBufferSchedulerSupplier, bufferSize, subscriberCount, waitStrategy, cpuLightSchedulerSupplier,
+            blockingSchedulerSupplier, cpuIntensiveSchedulerSupplier, parallelism, maxConcurrency, isThreadLoggingEnabled);
+      this.virtualThreadExecutorSupplier = virtualThreadExecutorSupplier;
+    }
+
+    @Override
+    public void start() throws MuleException {
+      super.start();
+      virtualThreadScheduler = new VirtualThreadScheduler(getBlockingScheduler().getName(), virtualThreadExecutorSupplier.get(),
+                                                          getCpuLightScheduler(), maxConcurrency);
+    }
+
+    @Override
+    public void stop() throws MuleException {
+      if (virtualThreadScheduler != null) {
+        virtualThreadScheduler.stop();
+      }
+      super.stop();
+    }
+
+    @Override
+    public ReactiveProcessor onProcessor(ReactiveProcessor processor) {
+      if (!isTransactionActive()
+          && (processor.getProcessingType() == BLOCKING || processor.getProcessingType() == IO_RW)) {
+        return onVirtualThread(processor);
+      } else {
+        return super.onProcessor(processor);
+      }
+    }
+
+    private ReactiveProcessor onVirtualThread(ReactiveProcessor processor) {
+      reactor.core.scheduler.Scheduler publishOnScheduler = fromExecutorService(decorateScheduler(getCpuLightScheduler()));
+      reactor.core.scheduler.Scheduler subscribeOnScheduler = fromExecutorService(decorateScheduler(virtualThreadScheduler));
+      // Virtual threads are cheap, but each one holds its event until it completes, so the events in flight are still bounded.
+      final int concurrency = maxConcurrency == MAX_VALUE ? bufferSize : maxConcurrency;
+
+      return publisher -> from(publisher).flatMap(event -> {
+        if (processor.getProcessingType() == IO_RW && !scheduleIoRwEvent(event)) {
+          return just(event)
+              .transform(processor)
+              .subscriberContext(ctx -> ctx.put(PROCESSOR_SCHEDULER_CONTEXT_KEY, getCpuLightScheduler()));
+        } else {
+          return just(event)
+              .transform(processor)
+              .publishOn(publishOnScheduler)
+              .subscribeOn(subscribeOnScheduler)
+              .subscriberContext(ctx -> ctx.put(PROCESSOR_SCHEDULER_CONTEXT_KEY, virtualThreadScheduler));
+        }
+      }, max(concurrency / (getParallelism() * subscribers), 1));
+    }
+  }
+
+  /**
+   * {@link Scheduler} that runs each task on its own virtual thread, allowing at most {@code maxConcurrency} of them to run at
+   * the same time. The tasks waiting for a permit block their own virtual thread only.
+   * <p/>
+   * Delayed and periodic tasks are triggered by the given timer scheduler, and then run on a virtual thread.
+   */
+  private static class VirtualThreadScheduler extends AbstractExecutorService implements Scheduler {
+
+    private final String name;
+    private final ExecutorService delegate;
+    private final Scheduler timer;
+    private final Semaphore permits;
+
+    VirtualThreadScheduler(String name, ExecutorService delegate, Scheduler timer, int maxConcurrency) {
+      this.name = name;
+      this.delegate = delegate;
+      this.timer = timer;
+      this.permits = maxConcurrency == MAX_VALUE ? null : new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      if (permits == null) {
+        delegate.execute(command);
+        return;
+      }
+
+      delegate.execute(() -> {
+        permits.acquireUninterruptibly();
+        try {
+          command.run();
+        } finally {
+          permits.release();
+        }
+      });
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+      return timer.schedule(() -> execute(command), delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+      throw new RejectedExecutionException("Cannot schedule delayed callables in Scheduler '" + name + "'.");
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+      return timer.scheduleAtFixedRate(() -> execute(command), initialDelay, period, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+      return timer.scheduleWithFixedDelay(() -> execute(command), initialDelay, delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithCronExpression(Runnable command, String cronExpression) {
+      return timer.scheduleWithCronExpression(() -> execute(command), cronExpression);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithCronExpression(Runnable command, String cronExpression, TimeZone timeZone) {
+      return timer.scheduleWithCronExpression(() -> execute(command), cronExpression, timeZone);
+    }
+
+    @Override
+    public void stop() {
+      delegate.shutdown();
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public void shutdown() {
+      delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+      return delegate.awaitTermination(timeout, unit);
+    }
+  }
+}
@@ -108,9 +108,11 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
     maxConcurrency = maxConcurrency != null ? maxConcurrency : getDefaultMaxConcurrency();
     forkJoinStrategyFactory = forkJoinStrategyFactory != null ? forkJoinStrategyFactory : getDefaultForkJoinStrategyFactory();
 
-    forkJoinStrategy =
-        forkJoinStrategyFactory.createForkJoinStrategy(resolveProcessingStrategy(), maxConcurrency,
-                                                       isDelayErrors(), timeout, timeoutScheduler, timeoutErrorType);
+    forkJoinStrategy = isBatched()
+        ? forkJoinStrategyFactory.createBatchForkJoinStrategy(resolveProcessingStrategy(), maxConcurrency, isDelayErrors(),
+                                                              timeout, timeoutScheduler, timeoutErrorType)
+        : forkJoinStrategyFactory.createForkJoinStrategy(resolveProcessingStrategy(), maxConcurrency, isDelayErrors(), timeout,
+                                                         timeoutScheduler, timeoutErrorType);
   }
 
   protected ProcessingStrategy resolveProcessingStrategy() {
@@ -195,6 +197,17 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
    */
   protected abstract boolean isDelayErrors();
 
+  /**
+   * Template method that allows implementations to define if each {@link RoutingPair} carries a batch of parts, in which case the
+   * {@link ForkJoinStrategy} is created with {@link ForkJoinStrategyFactory#createBatchForkJoinStrategy}.
+   *
+   * @return whether the routing pairs are batches of parts.
+   * @since 4.2.0
+   */
+  protected boolean isBatched() {
+    return false;
+  }
+
   /**
    * Template method that allows implementations to the default {@link ForkJoinStrategyFactory} that should be used if one isn't
    * configured.
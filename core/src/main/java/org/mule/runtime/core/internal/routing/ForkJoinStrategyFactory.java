@@ -30,6 +30,28 @@ public interface ForkJoinStrategyFactory {
                                           long timeout, Scheduler timeoutScheduler,
                                           ErrorType timeoutErrorType);
 
+  /**
+   * Create instance of {@link ForkJoinStrategy} for routing pairs whose events carry a batch of parts as a {@link java.util.List}
+   * payload rather than a single part.
+   * <p>
+   * The route of each batch returns a {@link java.util.List} with the result of each of its parts, in part order. Implementations
+   * may expand those so that the aggregated result has one entry per part, in the same order the parts were split. By default no
+   * expansion is done, and the aggregated result has one entry per batch.
+   *
+   * @param processingStrategy processing strategy to use
+   * @param maxConcurrency maximum number of batches to be processed in parallel.
+   * @param delayErrors if all batches should be processed regardless of errors and a {@link CompositeRoutingException} thrown or
+   *        not.
+   * @param timeoutErrorType the timeout error type.
+   * @return new instance of {@link ForkJoinStrategy}
+   * @since 4.2.0
+   */
+  default ForkJoinStrategy createBatchForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency,
+                                                       boolean delayErrors, long timeout, Scheduler timeoutScheduler,
+                                                       ErrorType timeoutErrorType) {
+    return createForkJoinStrategy(processingStrategy, maxConcurrency, delayErrors, timeout, timeoutScheduler, timeoutErrorType);
+  }
+
   DataType getResultDataType();
 
 }
@@ -8,6 +8,8 @@
 package org.mule.runtime.core.internal.routing;
 
 import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.processor.strategy.AsyncProcessingStrategyFactory.DEFAULT_MAX_CONCURRENCY;
 import static org.mule.runtime.core.internal.routing.ExpressionSplittingStrategy.DEFAULT_SPLIT_EXPRESSION;
 import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
@@ -16,6 +18,7 @@ import static reactor.core.publisher.Flux.fromIterable;
 
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
@@ -23,6 +26,7 @@ import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrate
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 
 import java.util.Iterator;
 import java.util.List;
@@ -34,6 +38,12 @@ import java.util.Optional;
  * broadcast copies of the current message to every route in parallel subject to any limitation in concurrency that has been
  * configured
  * <p>
+ * When a {@code batchSize} greater than one is configured, the parts are grouped in batches and each route invocation receives a
+ * {@link List} of up to {@code batchSize} parts as its payload, with {@code maxConcurrency} and {@code timeout} applying to
+ * batches. The route must then return a {@link List} with the result of each part of the batch, in part order. The
+ * {@link ForkJoinStrategyFactory} is created through {@link ForkJoinStrategyFactory#createBatchForkJoinStrategy}, allowing it
+ * to aggregate those results back as one per part.
+ * <p>
  * For advanced use cases, a custom {@link ForkJoinStrategyFactory} can be applied to customize the logic used to aggregate the
  * route responses back into one single Event.
  * <p>
@@ -45,6 +55,7 @@ import java.util.Optional;
 public class SplitAggregateScope extends AbstractForkJoinRouter {
 
   private String collectionExpression = DEFAULT_SPLIT_EXPRESSION;
+  private int batchSize = 1;
   private SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy;
 
   private List<Processor> messageProcessors;
@@ -60,11 +71,26 @@ public class SplitAggregateScope extends AbstractForkJoinRouter {
 
   @Override
   protected Publisher<ForkJoinStrategy.RoutingPair> getRoutingPairs(CoreEvent event) {
-    return fromIterable(() -> splittingStrategy.split(event))
+    Flux<TypedValue<?>> parts = fromIterable(() -> splittingStrategy.split(event));
+    if (batchSize > 1) {
+      // Buffer sequence into List<TypedValue<T>> and convert to TypedValue<List<T>>.
+      parts = parts.buffer(batchSize).map(this::toBatch);
+    }
+    return parts
         .map(partTypedValue -> CoreEvent.builder(event).message(Message.builder().payload(partTypedValue).build()).build())
         .map(partEvent -> of(partEvent, nestedChain));
   }
 
+  private TypedValue<?> toBatch(List<TypedValue<?>> batch) {
+    List<Object> values = batch.stream().map(TypedValue::getValue).collect(toList());
+    DataType itemDataType = batch.get(0).getDataType();
+    DataType dataType = DataType.builder().collectionType(List.class)
+        .itemType(itemDataType.getType())
+        .itemMediaType(itemDataType.getMediaType())
+        .build();
+    return new TypedValue<>(values, dataType);
+  }
+
   @Override
   protected List<MessageProcessorChain> getOwnedObjects() {
     return singletonList(nestedChain);
@@ -79,6 +105,11 @@ public class SplitAggregateScope extends AbstractForkJoinRouter {
     return true;
   }
 
+  @Override
+  protected boolean isBatched() {
+    return batchSize > 1;
+  }
+
   @Override
   protected int getDefaultMaxConcurrency() {
     return DEFAULT_MAX_CONCURRENCY;
@@ -97,4 +128,16 @@ public class SplitAggregateScope extends AbstractForkJoinRouter {
   public void setCollectionExpression(String collectionExpression) {
     this.collectionExpression = collectionExpression;
   }
+
+  /**
+   * Set the number of parts to be processed by each route invocation.
+   *
+   * @param batchSize the number of parts per batch, {@code 1} by default.
+   * @throws IllegalArgumentException if the value is zero or less.
+   * @since 4.2.0
+   */
+  public void setBatchSize(int batchSize) {
+    checkArgument(batchSize > 0, "Batch size must be one or more.");
+    this.batchSize = batchSize;
+  }
 }
@@ -7,8 +7,10 @@
 
 package org.mule.runtime.core.internal.routing.forkjoin;
 
+import static java.lang.String.format;
 import static java.time.Duration.ofMillis;
 import static java.util.Optional.empty;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.core.api.event.CoreEvent.builder;
 import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
 import static org.mule.runtime.core.api.rx.Exceptions.checkedConsumer;
@@ -30,6 +32,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.message.Error;
 import org.mule.runtime.api.message.ErrorType;
 import org.mule.runtime.api.message.Message;
@@ -61,6 +64,8 @@ import reactor.core.scheduler.Schedulers;
  * <li>Merge variables using a last-wins strategy.
  * <li>Use of an optional timeout.
  * <li>Delay error behavior, where all errors are collated and thrown as a composite exception.
+ * <li>When created for batches, expansion of the batch results so that results are aggregated one per part, in part order, and
+ * errors are reported at the positions of the parts of the failed batch.
  * </ul>
  */
 public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrategyFactory {
@@ -71,22 +76,45 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   @Override
   public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
                                                  long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
+    return createForkJoinStrategy(processingStrategy, maxConcurrency, delayErrors, timeout, timeoutScheduler, timeoutErrorType,
+                                  false);
+  }
+
+  @Override
+  public ForkJoinStrategy createBatchForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency,
+                                                      boolean delayErrors, long timeout, Scheduler timeoutScheduler,
+                                                      ErrorType timeoutErrorType) {
+    return createForkJoinStrategy(processingStrategy, maxConcurrency, delayErrors, timeout, timeoutScheduler, timeoutErrorType,
+                                  true);
+  }
+
+  private ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
+                                                  long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType,
+                                                  boolean flattenBatches) {
     reactor.core.scheduler.Scheduler reactorTimeoutScheduler = Schedulers.fromExecutorService(timeoutScheduler);
     return (original, routingPairs) -> {
       final AtomicInteger count = new AtomicInteger();
       final CoreEvent.Builder resultBuilder = builder(original);
+      // the number of parts of each batch, in batch sequence order
+      final List<Integer> batchSizes = flattenBatches ? new ArrayList<>() : null;
       return from(routingPairs)
           .map(addSequence(count))
+          .doOnNext(pair -> {
+            if (batchSizes != null) {
+              batchSizes.add(((List<?>) pair.getEvent().getMessage().getPayload().getValue()).size());
+            }
+          })
           .flatMapSequential(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler,
                                               timeoutErrorType),
                              maxConcurrency)
           .collectList()
           .doOnNext(list -> {
             if (list.stream().anyMatch(event -> event.getError().isPresent())) {
-              throw propagate(createCompositeRoutingException(list));
+              throw propagate(createCompositeRoutingException(list, batchSizes));
             }
           })
           .doOnNext(mergeVariables(original, resultBuilder))
+          .map(list -> batchSizes != null ? toPartResults(list, batchSizes) : list)
           .map(createResultEvent(original, resultBuilder));
     };
   }
@@ -102,6 +130,53 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   protected abstract Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original,
                                                                             CoreEvent.Builder resultBuilder);
 
+  /**
+   * Replaces the result of each batch with one event per part, carrying the result at the same position of the list returned for
+   * the batch. Variables were already merged from the batch results, so the part events only differ in their message and
+   * sequence.
+   */
+  private List<CoreEvent> toPartResults(List<CoreEvent> batchResults, List<Integer> batchSizes) {
+    List<CoreEvent> partResults = new ArrayList<>();
+    for (int i = 0; i < batchResults.size(); ++i) {
+      CoreEvent batchResult = batchResults.get(i);
+      for (Message partMessage : toPartMessages(batchResult, batchSizes.get(i))) {
+        partResults.add(builder(batchResult).message(partMessage)
+            .groupCorrelation(Optional.of(GroupCorrelation.of(partResults.size()))).build());
+      }
+    }
+    return partResults;
+  }
+
+  /**
+   * @return the result of each part of a batch, which the route must return as a {@link List} with one entry per part, in part
+   *         order.
+   */
+  private List<Message> toPartMessages(CoreEvent batchResult, int batchSize) {
+    Object payload = batchResult.getMessage().getPayload().getValue();
+    if (!(payload instanceof List) || ((List<?>) payload).size() != batchSize) {
+      String actual = payload instanceof List ? ((List<?>) payload).size() + " entries"
+          : batchResult.getMessage().getPayload().getDataType().toString();
+      throw new MuleRuntimeException(createStaticMessage(format("The result of a batch of %d parts must be a List with one entry "
+          + "per part, but was %s", batchSize, actual)));
+    }
+
+    List<Message> partMessages = new ArrayList<>(batchSize);
+    for (Object part : (List<?>) payload) {
+      partMessages.add(toPartMessage(part));
+    }
+    return partMessages;
+  }
+
+  private Message toPartMessage(Object part) {
+    if (part instanceof Message) {
+      return (Message) part;
+    } else if (part instanceof TypedValue) {
+      return Message.builder().payload((TypedValue<?>) part).build();
+    } else {
+      return Message.of(part);
+    }
+  }
+
   private Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
     return pair -> of(builder(pair.getEvent()).groupCorrelation(Optional.of(GroupCorrelation.of(count.getAndIncrement())))
         .build(), pair.getRoute());
@@ -151,10 +226,31 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
         .build();
   }
 
-  private CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results) {
+  private CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results, List<Integer> batchSizes) {
     Map<String, Message> successMap = new LinkedHashMap<>();
     Map<String, Error> errorMap = new LinkedHashMap<>();
 
+    if (batchSizes != null) {
+      // results are keyed by the position of each part, the error of a batch being reported for all of its parts
+      int partOffset = 0;
+      for (int i = 0; i < results.size(); ++i) {
+        CoreEvent batchResult = results.get(i);
+        int batchSize = batchSizes.get(i);
+        if (batchResult.getError().isPresent()) {
+          for (int part = 0; part < batchSize; ++part) {
+            errorMap.put(Integer.toString(partOffset + part), batchResult.getError().get());
+          }
+        } else {
+          List<Message> partMessages = toPartMessages(batchResult, batchSize);
+          for (int part = 0; part < batchSize; ++part) {
+            successMap.put(Integer.toString(partOffset + part), partMessages.get(part));
+          }
+        }
+        partOffset += batchSize;
+      }
+      return new CompositeRoutingException(new RoutingResult(successMap, errorMap));
+    }
+
     for (CoreEvent event : results) {
       String key = Integer.toString(event.getGroupCorrelation().get().getSequence());
       if (event.getError().isPresent()) {
@@ -168,33 +264,43 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
 
   private Consumer<List<CoreEvent>> mergeVariables(CoreEvent original, CoreEvent.Builder result) {
     return list -> {
+      Map<String, TypedValue<?>> originalVars = original.getVariables();
       Map<String, TypedValue> routeVars = new HashMap<>();
-      list.forEach(event -> event.getVariables().forEach((key, value) -> {
-        // Only merge variables that have been added or mutated in routes
-        if (!value.equals(original.getVariables().get(key))) {
-          if (!routeVars.containsKey(key)) {
-            // A new variable that hasn't already been set by another route is added as a simple entry.
-            routeVars.put(key, value);
-          } else {
-            // If a variable already exists from before route, or was set in a previous route, then it's added to a list of 1.
-            if (!(routeVars.get(key).getValue() instanceof List)) {
-              List newList = new ArrayList();
-              newList.add(routeVars.get(key).getValue());
-              routeVars.put(key, new TypedValue(newList, DataType.builder().collectionType(List.class)
-                  .itemType(routeVars.get(key).getDataType().getType()).build()));
-            }
-            List valueList = (List) routeVars.get(key).getValue();
-            valueList.add(value.getValue());
-            if (((CollectionDataType) routeVars.get(key).getDataType()).getItemDataType().isCompatibleWith(value.getDataType())) {
-              // If item types are compatible then data type is conserved
-              routeVars.put(key, new TypedValue(valueList, routeVars.get(key).getDataType()));
+      for (CoreEvent event : list) {
+        Map<String, TypedValue<?>> vars = event.getVariables();
+        if (vars == originalVars) {
+          // Routes that didn't touch the variables share the instance of the original event, so there is nothing to merge
+          continue;
+        }
+        vars.forEach((key, value) -> {
+          TypedValue<?> originalValue = originalVars.get(key);
+          // Only merge variables that have been added or mutated in routes
+          if (value != originalValue && !value.equals(originalValue)) {
+            if (!routeVars.containsKey(key)) {
+              // A new variable that hasn't already been set by another route is added as a simple entry.
+              routeVars.put(key, value);
             } else {
-              // Else Object item type is used.
-              routeVars.put(key, new TypedValue(valueList, DataType.builder().collectionType(List.class).build()));
+              // If a variable already exists from before route, or was set in a previous route, then it's added to a list of 1.
+              if (!(routeVars.get(key).getValue() instanceof List)) {
+                List newList = new ArrayList();
+                newList.add(routeVars.get(key).getValue());
+                routeVars.put(key, new TypedValue(newList, DataType.builder().collectionType(List.class)
+                    .itemType(routeVars.get(key).getDataType().getType()).build()));
+              }
+              List valueList = (List) routeVars.get(key).getValue();
+              valueList.add(value.getValue());
+              DataType itemDataType = ((CollectionDataType) routeVars.get(key).getDataType()).getItemDataType();
+              if (itemDataType.isCompatibleWith(value.getDataType())) {
+                // If item types are compatible then data type is conserved
+                routeVars.put(key, new TypedValue(valueList, routeVars.get(key).getDataType()));
+              } else {
+                // Else Object item type is used.
+                routeVars.put(key, new TypedValue(valueList, DataType.builder().collectionType(List.class).build()));
+              }
             }
           }
-        }
-      }));
+        });
+      }
       routeVars.forEach((s, typedValue) -> result.addVariable(s, typedValue.getValue(), typedValue.getDataType()));
     };
   }
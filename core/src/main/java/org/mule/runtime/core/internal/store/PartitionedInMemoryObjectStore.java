@@ -6,7 +6,9 @@
  */
 package org.mule.runtime.core.internal.store;
 
+import static java.lang.Math.max;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
 import org.mule.runtime.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.api.store.ObjectDoesNotExistException;
@@ -16,24 +18,48 @@ import org.mule.runtime.core.api.component.InternalComponent;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * In memory implementation of a {@link PartitionableExpirableObjectStore}.
+ * <p>
+ * Each partition keeps an expiry index holding its entries in insertion order, grouped in buckets which each cover a span of
+ * storage time. Entries are appended to the newest bucket and buckets are dropped from the head once empty, so storing an entry,
+ * removing it and expiring it are constant time operations, and since the oldest entries are always at the head of the index,
+ * both TTL expiration and {@code maxEntries} eviction only visit the entries they actually remove.
+ * <p>
+ * Every stored entry gets a version, unique within the store. An entry of the index is only honored while the partition holds
+ * the same version for its key, so storing again a key which was removed, even with the same value, never makes its previous
+ * index entry valid again. Removing an entry just flags its index entry as stale, and buckets which become mostly stale are
+ * purged right away, so the index doesn't take any lock nor grow with the history of the partition.
+ */
 public class PartitionedInMemoryObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
     implements PartitionableExpirableObjectStore<T>, InternalComponent {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedInMemoryObjectStore.class);
 
-  private ConcurrentMap<String, ConcurrentMap<String, T>> partitions = new ConcurrentHashMap<>();
-  private ConcurrentMap<String, ConcurrentLinkedQueue<ExpiryEntry>> expiryInfoPartition = new ConcurrentHashMap<>();
+  private static final long BUCKET_SPAN_NANOS = SECONDS.toNanos(1);
+  private static final int MIN_STALE_ENTRIES_TO_PURGE = 64;
+
+  private ConcurrentMap<String, ConcurrentMap<String, StoredEntry<T>>> partitions = new ConcurrentHashMap<>();
+  private ConcurrentMap<String, ExpiryIndex> expiryInfoPartition = new ConcurrentHashMap<>();
+
+  private final AtomicLong versions = new AtomicLong();
+  private final AtomicLong expiredEntriesCount = new AtomicLong();
+  private final AtomicLong evictedEntriesCount = new AtomicLong();
 
   @Override
   public boolean isPersistent() {
@@ -51,39 +77,32 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   @Override
   protected void doStore(String key, T value, String partitionName) throws ObjectStoreException {
-    T oldValue = getPartition(partitionName).putIfAbsent(key, value);
-    if (oldValue != null) {
+    ConcurrentMap<String, StoredEntry<T>> partition = getPartition(partitionName);
+    StoredEntry<T> entry = new StoredEntry<>(key, value, getCurrentNanoTime(), versions.incrementAndGet());
+    StoredEntry<T> oldEntry = partition.putIfAbsent(key, entry);
+    if (oldEntry != null) {
       throw new ObjectAlreadyExistsException();
     }
-    getExpiryInfoPartition(partitionName).add(new ExpiryEntry(getCurrentNanoTime(), key));
+    getExpiryInfoPartition(partitionName).add(entry);
   }
 
   @Override
   protected T doRetrieve(String key, String partitionName) throws ObjectStoreException {
-    T value = getPartition(partitionName).get(key);
-    if (value == null) {
+    StoredEntry<T> entry = getPartition(partitionName).get(key);
+    if (entry == null) {
       throw new ObjectDoesNotExistException();
     }
-    return value;
+    return entry.value;
   }
 
   @Override
   protected T doRemove(String key, String partitionName) throws ObjectStoreException {
-    T removedValue = getPartition(partitionName).remove(key);
-    if (removedValue == null) {
+    StoredEntry<T> removedEntry = getPartition(partitionName).remove(key);
+    if (removedEntry == null) {
       throw new ObjectDoesNotExistException();
     }
-
-    Iterator<ExpiryEntry> iterator = getExpiryInfoPartition(partitionName).iterator();
-    while (iterator.hasNext()) {
-      ExpiryEntry entry = iterator.next();
-      if (key.equals(entry.getKey())) {
-        iterator.remove();
-        break;
-      }
-    }
-
-    return removedValue;
+    getExpiryInfoPartition(partitionName).discard(removedEntry);
+    return removedEntry.value;
   }
 
   @Override
@@ -93,13 +112,24 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   @Override
   public Map<String, T> retrieveAll(String partitionName) throws ObjectStoreException {
-    return new LinkedHashMap<>(getPartition(partitionName));
+    ConcurrentMap<String, StoredEntry<T>> partition = getPartition(partitionName);
+    Map<String, T> values = new LinkedHashMap<>(partition.size());
+    for (StoredEntry<T> entry : partition.values()) {
+      values.put(entry.key, entry.value);
+    }
+    return values;
   }
 
   @Override
   public void clear(String partitionName) throws ObjectStoreException {
-    getPartition(partitionName).clear();
-    getExpiryInfoPartition(partitionName).clear();
+    ConcurrentMap<String, StoredEntry<T>> partition = getPartition(partitionName);
+    ExpiryIndex expiryIndex = getExpiryInfoPartition(partitionName);
+    // entries stored concurrently with the clear are kept
+    for (StoredEntry<T> entry : partition.values()) {
+      if (partition.remove(entry.key, entry)) {
+        expiryIndex.discard(entry);
+      }
+    }
   }
 
   @Override
@@ -107,11 +137,11 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return new ArrayList<>(partitions.keySet());
   }
 
-  private ConcurrentMap<String, T> getPartition(String partitionName) {
-    ConcurrentMap<String, T> partition = partitions.get(partitionName);
+  private ConcurrentMap<String, StoredEntry<T>> getPartition(String partitionName) {
+    ConcurrentMap<String, StoredEntry<T>> partition = partitions.get(partitionName);
     if (partition == null) {
       partition = new ConcurrentHashMap<>();
-      ConcurrentMap<String, T> previous = partitions.putIfAbsent(partitionName, partition);
+      ConcurrentMap<String, StoredEntry<T>> previous = partitions.putIfAbsent(partitionName, partition);
       if (previous != null) {
         partition = previous;
       }
@@ -119,11 +149,11 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return partition;
   }
 
-  private ConcurrentLinkedQueue<ExpiryEntry> getExpiryInfoPartition(String partitionName) {
-    ConcurrentLinkedQueue<ExpiryEntry> partition = expiryInfoPartition.get(partitionName);
+  private ExpiryIndex getExpiryInfoPartition(String partitionName) {
+    ExpiryIndex partition = expiryInfoPartition.get(partitionName);
     if (partition == null) {
-      partition = new ConcurrentLinkedQueue<>();
-      ConcurrentLinkedQueue<ExpiryEntry> previous = expiryInfoPartition.putIfAbsent(partitionName, partition);
+      partition = new ExpiryIndex();
+      ExpiryIndex previous = expiryInfoPartition.putIfAbsent(partitionName, partition);
       if (previous != null) {
         partition = previous;
       }
@@ -150,49 +180,53 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
   public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
     final long now = getCurrentNanoTime();
     int expiredEntries = 0;
-    ExpiryEntry oldestEntry;
-    ConcurrentLinkedQueue<ExpiryEntry> store = getExpiryInfoPartition(partitionName);
-    ConcurrentMap<String, T> partition = getPartition(partitionName);
-
-    trimToMaxSize(store, maxEntries, partition);
-
-    if (entryTTL == UNBOUNDED) {
-      return;
-    }
-
-    while ((oldestEntry = store.peek()) != null) {
-      if (NANOSECONDS.toMillis(now - oldestEntry.getTime()) >= entryTTL) {
-        oldestEntry = store.remove();
-        partition.remove(oldestEntry.getKey());
-        expiredEntries++;
-      } else {
-        break;
+    int evictedEntries = 0;
+    ExpiryIndex expiryIndex = getExpiryInfoPartition(partitionName);
+    ConcurrentMap<String, StoredEntry<T>> partition = getPartition(partitionName);
+    int excess = maxEntries == UNBOUNDED ? 0 : partition.size() - maxEntries;
+
+    // the oldest entries come first, so this stops at the first one which neither exceeds maxEntries nor has expired
+    expiration: for (Bucket bucket : expiryIndex.buckets) {
+      Iterator<StoredEntry<?>> entries = bucket.entries.iterator();
+      while (entries.hasNext()) {
+        StoredEntry<?> oldestEntry = entries.next();
+        if (oldestEntry.isStale()) {
+          bucket.drop(entries, oldestEntry);
+          continue;
+        }
+        if (!isCurrentVersion(partition, oldestEntry)) {
+          // being stored concurrently, it's not in the partition yet
+          continue;
+        }
+
+        final boolean expired = entryTTL != UNBOUNDED && NANOSECONDS.toMillis(now - oldestEntry.time) >= entryTTL;
+        if (excess <= 0 && !expired) {
+          break expiration;
+        }
+        if (partition.remove(oldestEntry.key, oldestEntry)) {
+          if (excess > 0) {
+            evictedEntries++;
+          } else {
+            expiredEntries++;
+          }
+          excess--;
+          oldestEntry.markStale();
+        }
+        bucket.drop(entries, oldestEntry);
       }
+      expiryIndex.dropIfEmpty(bucket);
     }
 
+    evictedEntriesCount.addAndGet(evictedEntries);
+    expiredEntriesCount.addAndGet(expiredEntries);
     if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Expired " + expiredEntries + " old entries");
+      LOGGER.debug("Expired " + evictedEntries + " excess entries and " + expiredEntries + " old entries");
     }
   }
 
-  private void trimToMaxSize(ConcurrentLinkedQueue<ExpiryEntry> store, int maxEntries, ConcurrentMap<String, T> partition) {
-    if (maxEntries == UNBOUNDED) {
-      return;
-    }
-
-    int currentSize = store.size();
-    int excess = (currentSize - maxEntries);
-    if (excess > 0) {
-      while (currentSize > maxEntries) {
-        ExpiryEntry toRemove = store.remove();
-        partition.remove(toRemove.getKey());
-        currentSize--;
-      }
-
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("Expired " + excess + " excess entries");
-      }
-    }
+  private static boolean isCurrentVersion(Map<String, ? extends StoredEntry<?>> partition, StoredEntry<?> entry) {
+    StoredEntry<?> current = partition.get(entry.key);
+    return current != null && current.version == entry.version;
   }
 
   @Override
@@ -202,7 +236,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
       partition.clear();
     }
 
-    ConcurrentLinkedQueue<ExpiryEntry> entries = expiryInfoPartition.remove(partitionName);
+    ExpiryIndex entries = expiryInfoPartition.remove(partitionName);
     if (entries != null) {
       entries.clear();
     }
@@ -212,22 +246,164 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return System.nanoTime();
   }
 
-  private static class ExpiryEntry {
+  /**
+   * @return the number of entries removed from this store because their TTL elapsed
+   * @since 4.2.0
+   */
+  public long getExpiredEntriesCount() {
+    return expiredEntriesCount.get();
+  }
+
+  /**
+   * @return the number of entries removed from this store to keep its partitions within their {@code maxEntries}
+   * @since 4.2.0
+   */
+  public long getEvictedEntriesCount() {
+    return evictedEntriesCount.get();
+  }
+
+  /**
+   * The entries of a partition in the order they were stored, grouped in buckets of {@link #BUCKET_SPAN_NANOS}.
+   */
+  private static class ExpiryIndex {
+
+    private final Queue<Bucket> buckets = new ConcurrentLinkedQueue<>();
+    private volatile Bucket newest;
+
+    private void add(StoredEntry<?> entry) {
+      Bucket bucket;
+      do {
+        bucket = newest;
+        if (bucket == null || entry.time - bucket.start >= BUCKET_SPAN_NANOS) {
+          bucket = newBucket(entry.time);
+        }
+        bucket.add(entry);
+        entry.bucket = bucket;
+        // a bucket which is no longer the newest may have been dropped meanwhile, in which case the entry is added again
+      } while (bucket.dropped);
+      // the entry may have been removed before it was added
+      countIfStale(entry);
+    }
+
+    private synchronized Bucket newBucket(long time) {
+      Bucket bucket = newest;
+      if (bucket == null || time - bucket.start >= BUCKET_SPAN_NANOS) {
+        bucket = new Bucket(time);
+        buckets.add(bucket);
+        newest = bucket;
+      }
+      return bucket;
+    }
 
+    private void discard(StoredEntry<?> entry) {
+      entry.markStale();
+      countIfStale(entry);
+    }
+
+    private void countIfStale(StoredEntry<?> entry) {
+      final Bucket bucket = entry.bucket;
+      if (bucket != null && entry.isStale() && entry.staleCounted.compareAndSet(false, true)
+          && bucket.onStale()) {
+        bucket.purge();
+        dropIfEmpty(bucket);
+      }
+    }
+
+    private void dropIfEmpty(Bucket bucket) {
+      if (bucket == newest || !bucket.entries.isEmpty()) {
+        return;
+      }
+
+      bucket.dropped = true;
+      if (bucket.entries.isEmpty()) {
+        buckets.remove(bucket);
+      } else {
+        // raced with an addition
+        bucket.dropped = false;
+      }
+    }
+
+    private void clear() {
+      buckets.clear();
+      newest = null;
+    }
+  }
+
+  /**
+   * The entries stored within a span of time, in insertion order, with how many of them are stale.
+   */
+  private static final class Bucket {
+
+    private final long start;
+    private final Queue<StoredEntry<?>> entries = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger staleEntries = new AtomicInteger();
+    private volatile boolean dropped = false;
+
+    private Bucket(long start) {
+      this.start = start;
+    }
+
+    private void add(StoredEntry<?> entry) {
+      entries.add(entry);
+      size.incrementAndGet();
+    }
+
+    /**
+     * @return whether the bucket is mostly stale and should be purged
+     */
+    private boolean onStale() {
+      final int stale = staleEntries.incrementAndGet();
+      return stale >= MIN_STALE_ENTRIES_TO_PURGE && stale * 2 > size.get();
+    }
+
+    private void drop(Iterator<StoredEntry<?>> iterator, StoredEntry<?> entry) {
+      iterator.remove();
+      size.decrementAndGet();
+      if (entry.staleCounted.get()) {
+        staleEntries.decrementAndGet();
+      }
+    }
+
+    private void purge() {
+      int purged = 0;
+      for (Iterator<StoredEntry<?>> iterator = entries.iterator(); iterator.hasNext();) {
+        if (iterator.next().isStale()) {
+          iterator.remove();
+          purged++;
+        }
+      }
+      size.addAndGet(-purged);
+      staleEntries.set(max(0, staleEntries.get() - purged));
+    }
+  }
+
+  /**
+   * A value of a partition, along with the nano time of its storage and its version.
+   */
+  private static final class StoredEntry<T> {
+
+    private final String key;
+    private final T value;
     private final long time;
-    private final Serializable key;
+    private final long version;
+    private volatile Bucket bucket;
+    private volatile boolean stale = false;
+    private final AtomicBoolean staleCounted = new AtomicBoolean(false);
 
-    public ExpiryEntry(long time, Serializable key) {
-      this.time = time;
+    private StoredEntry(String key, T value, long time, long version) {
       this.key = key;
+      this.value = value;
+      this.time = time;
+      this.version = version;
     }
 
-    public long getTime() {
-      return time;
+    private boolean isStale() {
+      return stale;
     }
 
-    public Serializable getKey() {
-      return key;
+    private void markStale() {
+      stale = true;
     }
   }
 }
@@ -0,0 +1,999 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static java.lang.Long.parseLong;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.component.InternalComponent;
+import org.mule.runtime.core.api.config.i18n.CoreMessages;
+import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.api.util.FileUtils;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+
+/**
+ * Persistent {@link PartitionableExpirableObjectStore} which keeps all the partitions in a single append-only data file.
+ * <p>
+ * Unlike {@link PartitionedPersistentObjectStore}, which writes one file per key, every store, removal or clear is appended as a
+ * record to the data file, and the location of the live value of each key is kept in an in-memory index. Retrieving a value is a
+ * single positional read, and storing one is a single append, so neither depends on the number of keys.
+ * <p>
+ * Operations return only once their record has been forced to disk. Writers don't force the file themselves while holding the
+ * lock: the first one to wait forces it for all the records appended so far, and the ones which arrive meanwhile wait for the
+ * next force, so concurrent writers share the cost of each {@code fsync}.
+ * <p>
+ * The index is periodically saved to a checkpoint file, along with the offset of the data file up to which it is up to date. On
+ * startup the index is loaded from the checkpoint of the current data file, and only the records appended after it are read.
+ * Without a valid checkpoint, the index is rebuilt by reading all the record headers sequentially; values are never
+ * deserialized.
+ * <p>
+ * Since the keys of each partition are indexed in insertion order, expiring entries only visits those which actually expire.
+ * <p>
+ * Once the space taken by overwritten records exceeds the space taken by live ones, a background task rewrites the live records
+ * into a new generation of the data file, which then atomically replaces the previous one.
+ *
+ * @since 4.2.0
+ */
+public class PartitionedIndexedPersistentObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
+    implements PartitionableExpirableObjectStore<T>, InternalComponent, MuleContextAware, Disposable {
+
+  private static final Logger LOGGER = getLogger(PartitionedIndexedPersistentObjectStore.class);
+
+  public static final String OBJECT_STORE_DIR = "objectstore-indexed";
+
+  private static final String DATA_FILE_PREFIX = "data-";
+  private static final String DATA_FILE_SUFFIX = ".log";
+  private static final String COMPACTION_FILE_SUFFIX = ".compacting";
+  private static final String CHECKPOINT_FILE_PREFIX = "index-";
+  private static final String CHECKPOINT_FILE_SUFFIX = ".checkpoint";
+  private static final String CHECKPOINT_TEMP_FILE_SUFFIX = ".tmp";
+  private static final long MIN_GARBAGE_TO_COMPACT = 1024 * 1024;
+  private static final long CHECKPOINT_INTERVAL_BYTES = 4 * 1024 * 1024;
+  private static final int CHECKPOINT_VERSION = 1;
+
+  private static final byte OPEN = 1;
+  private static final byte PUT = 2;
+  private static final byte REMOVE = 3;
+  private static final byte CLEAR = 4;
+
+  // checksum + type + timestamp + partition length + key length + value length
+  private static final int HEADER_SIZE = 4 + 1 + 8 + 4 + 4 + 4;
+  private static final byte[] EMPTY = new byte[0];
+
+  private MuleContext muleContext;
+  private ObjectSerializer serializer;
+  private File storeDirectory;
+  private Scheduler compactionScheduler;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, LinkedHashMap<String, Location>> index = new HashMap<>();
+  private final AtomicBoolean compactionScheduled = new AtomicBoolean(false);
+  private final AtomicBoolean checkpointScheduled = new AtomicBoolean(false);
+  private long generation = 0;
+  private File dataFile;
+  private RandomAccessFile randomAccessFile;
+  private FileChannel channel;
+  private long fileSize = 0;
+  private long liveBytes = 0;
+  private long checkpointedFileSize = 0;
+  private boolean initialized = false;
+
+  // Bytes appended since the store was opened, regardless of the generation of the data file they were appended to
+  private volatile long writtenBytes = 0;
+
+  private final Lock syncLock = new ReentrantLock();
+  private final Condition syncCompleted = syncLock.newCondition();
+  private long durableBytes = 0;
+  private boolean syncInProgress = false;
+
+  public PartitionedIndexedPersistentObjectStore() {
+    super();
+  }
+
+  public PartitionedIndexedPersistentObjectStore(MuleContext context) {
+    super();
+    muleContext = context;
+  }
+
+  @Override
+  public void open(String partitionName) throws ObjectStoreException {
+    long lsn = 0;
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      if (!initialized) {
+        initialize();
+      }
+      if (!index.containsKey(partitionName)) {
+        append(OPEN, partitionName, null, EMPTY, currentTimeMillis());
+        index.put(partitionName, new LinkedHashMap<>());
+        lsn = writtenBytes;
+      }
+    } finally {
+      writeLock.unlock();
+    }
+    awaitDurable(lsn);
+  }
+
+  @Override
+  public void close(String partitionName) throws ObjectStoreException {}
+
+  @Override
+  public boolean isPersistent() {
+    return true;
+  }
+
+  @Override
+  protected boolean doContains(String key, String partitionName) throws ObjectStoreException {
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      return getPartition(partitionName).containsKey(key);
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  protected void doStore(String key, T value, String partitionName) throws ObjectStoreException {
+    final byte[] serializedValue = serializer.getInternalProtocol().serialize(value);
+    final long lsn;
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      Map<String, Location> partition = getPartition(partitionName);
+      if (partition.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+      Location location = append(PUT, partitionName, key, serializedValue, currentTimeMillis());
+      partition.put(key, location);
+      liveBytes += location.recordLength;
+      lsn = writtenBytes;
+    } finally {
+      writeLock.unlock();
+    }
+    awaitDurable(lsn);
+    scheduleCheckpointIfNeeded();
+  }
+
+  @Override
+  protected T doRetrieve(String key, String partitionName) throws ObjectStoreException {
+    final byte[] serializedValue;
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      Location location = getPartition(partitionName).get(key);
+      if (location == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      serializedValue = readValue(location);
+    } finally {
+      readLock.unlock();
+    }
+    return deserialize(serializedValue);
+  }
+
+  @Override
+  protected T doRemove(String key, String partitionName) throws ObjectStoreException {
+    final byte[] serializedValue;
+    final long lsn;
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      Location location = getPartition(partitionName).get(key);
+      if (location == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      serializedValue = readValue(location);
+      removeEntry(partitionName, key);
+      lsn = writtenBytes;
+    } finally {
+      writeLock.unlock();
+    }
+    awaitDurable(lsn);
+    scheduleCompactionIfNeeded();
+    return deserialize(serializedValue);
+  }
+
+  @Override
+  public List<String> allKeys(String partitionName) throws ObjectStoreException {
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      return new ArrayList<>(getPartition(partitionName).keySet());
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  public Map<String, T> retrieveAll(String partitionName) throws ObjectStoreException {
+    final Map<String, byte[]> serializedValues;
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      Map<String, Location> partition = getPartition(partitionName);
+      serializedValues = new LinkedHashMap<>(partition.size());
+      for (Map.Entry<String, Location> entry : partition.entrySet()) {
+        serializedValues.put(entry.getKey(), readValue(entry.getValue()));
+      }
+    } finally {
+      readLock.unlock();
+    }
+
+    Map<String, T> values = new LinkedHashMap<>(serializedValues.size());
+    for (Map.Entry<String, byte[]> entry : serializedValues.entrySet()) {
+      values.put(entry.getKey(), deserialize(entry.getValue()));
+    }
+    return values;
+  }
+
+  @Override
+  public void clear(String partitionName) throws ObjectStoreException {
+    final long lsn;
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      Map<String, Location> partition = getPartition(partitionName);
+      append(CLEAR, partitionName, null, EMPTY, currentTimeMillis());
+      for (Location location : partition.values()) {
+        liveBytes -= location.recordLength;
+      }
+      partition.clear();
+      lsn = writtenBytes;
+    } finally {
+      writeLock.unlock();
+    }
+    awaitDurable(lsn);
+    scheduleCompactionIfNeeded();
+  }
+
+  @Override
+  public void disposePartition(String partitionName) throws ObjectStoreException {
+    clear(partitionName);
+  }
+
+  @Override
+  public List<String> allPartitions() throws ObjectStoreException {
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      return new ArrayList<>(index.keySet());
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    expire(entryTTL, maxEntries, DEFAULT_PARTITION_NAME);
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
+    final long lsn;
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      Map<String, Location> partition = getPartition(partitionName);
+      final long now = currentTimeMillis();
+      int excess = maxEntries == UNBOUNDED ? 0 : partition.size() - maxEntries;
+
+      // the partition keeps the insertion order, so the oldest entries come first
+      Iterator<Map.Entry<String, Location>> entries = partition.entrySet().iterator();
+      while (entries.hasNext()) {
+        Map.Entry<String, Location> entry = entries.next();
+        boolean expired = entryTTL != UNBOUNDED && now - entry.getValue().timestamp >= entryTTL;
+        if (excess <= 0 && !expired) {
+          break;
+        }
+        append(REMOVE, partitionName, entry.getKey(), EMPTY, now);
+        liveBytes -= entry.getValue().recordLength;
+        entries.remove();
+        excess--;
+      }
+      lsn = writtenBytes;
+    } finally {
+      writeLock.unlock();
+    }
+    awaitDurable(lsn);
+    scheduleCompactionIfNeeded();
+  }
+
+  @Override
+  public void dispose() {
+    if (compactionScheduler != null) {
+      compactionScheduler.stop();
+    }
+
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      if (channel != null) {
+        channel.force(false);
+        markDurable();
+        randomAccessFile.close();
+        writeCheckpoint(generation, fileSize, index);
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Could not close object store data file " + dataFile.getAbsolutePath(), e);
+    } finally {
+      channel = null;
+      randomAccessFile = null;
+      index.clear();
+      initialized = false;
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void setMuleContext(MuleContext context) {
+    muleContext = context;
+  }
+
+  protected String getWorkingDirectory() {
+    return muleContext.getConfiguration().getWorkingDirectory();
+  }
+
+  private void initialize() throws ObjectStoreException {
+    generation = 0;
+    fileSize = 0;
+    liveBytes = 0;
+    checkpointedFileSize = 0;
+    serializer = muleContext.getObjectSerializer();
+    storeDirectory = FileUtils.newFile(getWorkingDirectory() + File.separator + OBJECT_STORE_DIR);
+    if (!storeDirectory.exists() && !storeDirectory.mkdirs()) {
+      throw new MuleRuntimeException(CoreMessages.failedToCreate("object store directory " + storeDirectory.getAbsolutePath()));
+    }
+
+    try {
+      recover();
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %s",
+                                                                storeDirectory.getAbsolutePath())),
+                                     e);
+    }
+
+    compactionScheduler = muleContext.getSchedulerService()
+        .ioScheduler(muleContext.getSchedulerBaseConfig().withName("ObjectStore-compactor").withMaxConcurrentTasks(1));
+    initialized = true;
+  }
+
+  private void recover() throws IOException {
+    File[] files = storeDirectory.listFiles();
+    File latest = null;
+    List<File> checkpoints = new ArrayList<>();
+    for (File file : files) {
+      String name = file.getName();
+      if (name.endsWith(COMPACTION_FILE_SUFFIX) || name.endsWith(CHECKPOINT_TEMP_FILE_SUFFIX)) {
+        // a compaction or a checkpoint didn't finish, the previous files are still valid
+        deleteQuietly(file);
+      } else if (name.startsWith(CHECKPOINT_FILE_PREFIX) && name.endsWith(CHECKPOINT_FILE_SUFFIX)) {
+        checkpoints.add(file);
+      } else if (name.startsWith(DATA_FILE_PREFIX) && name.endsWith(DATA_FILE_SUFFIX)) {
+        long fileGeneration = parseLong(name.substring(DATA_FILE_PREFIX.length(), name.length() - DATA_FILE_SUFFIX.length()));
+        if (latest == null || fileGeneration > generation) {
+          if (latest != null) {
+            deleteQuietly(latest);
+          }
+          latest = file;
+          generation = fileGeneration;
+        } else {
+          deleteQuietly(file);
+        }
+      }
+    }
+
+    dataFile = latest != null ? latest : dataFile(generation);
+    final File checkpoint = checkpointFile(generation);
+    for (File file : checkpoints) {
+      if (!file.equals(checkpoint)) {
+        deleteQuietly(file);
+      }
+    }
+    if (latest != null) {
+      if (checkpoint.exists()) {
+        loadCheckpoint(checkpoint);
+      }
+      replay();
+    }
+    randomAccessFile = new RandomAccessFile(dataFile, "rw");
+    channel = randomAccessFile.getChannel();
+    if (channel.size() > fileSize) {
+      LOGGER.warn(format("Discarding %d bytes of incomplete records from %s", channel.size() - fileSize,
+                         dataFile.getAbsolutePath()));
+      channel.truncate(fileSize);
+    }
+  }
+
+  /**
+   * Reads the records appended after the point the index is up to date, which is the start of the file unless it was loaded from a
+   * checkpoint.
+   */
+  private void replay() throws IOException {
+    FileInputStream file = new FileInputStream(dataFile);
+    file.getChannel().position(fileSize);
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(file))) {
+      byte[] header = new byte[HEADER_SIZE];
+      while (true) {
+        try {
+          input.readFully(header);
+        } catch (EOFException e) {
+          return;
+        }
+
+        ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+        final int checksum = headerBuffer.getInt();
+        final byte type = headerBuffer.get();
+        final long timestamp = headerBuffer.getLong();
+        final int partitionLength = headerBuffer.getInt();
+        final int keyLength = headerBuffer.getInt();
+        final int valueLength = headerBuffer.getInt();
+        if (partitionLength < 0 || keyLength < 0 || valueLength < 0) {
+          return;
+        }
+
+        byte[] body = new byte[partitionLength + keyLength + valueLength];
+        try {
+          input.readFully(body);
+        } catch (EOFException e) {
+          return;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(header, 4, HEADER_SIZE - 4);
+        crc.update(body);
+        if ((int) crc.getValue() != checksum) {
+          return;
+        }
+
+        final String partitionName = new String(body, 0, partitionLength, UTF_8);
+        final String key = keyLength > 0 ? new String(body, partitionLength, keyLength, UTF_8) : null;
+        final Location location =
+            new Location(fileSize + HEADER_SIZE + partitionLength + keyLength, valueLength, HEADER_SIZE + body.length, timestamp);
+        apply(type, partitionName, key, location);
+        fileSize += location.recordLength;
+      }
+    }
+  }
+
+  private void apply(byte type, String partitionName, String key, Location location) {
+    LinkedHashMap<String, Location> partition = index.computeIfAbsent(partitionName, p -> new LinkedHashMap<>());
+    if (type == PUT) {
+      Location previous = partition.put(key, location);
+      if (previous != null) {
+        liveBytes -= previous.recordLength;
+      }
+      liveBytes += location.recordLength;
+    } else if (type == REMOVE) {
+      Location removed = partition.remove(key);
+      if (removed != null) {
+        liveBytes -= removed.recordLength;
+      }
+    } else if (type == CLEAR) {
+      for (Location removed : partition.values()) {
+        liveBytes -= removed.recordLength;
+      }
+      partition.clear();
+    }
+  }
+
+  /**
+   * Loads the index from the given checkpoint of the current data file. If the checkpoint can't be used, the index is left empty
+   * so that the whole data file is replayed.
+   */
+  private void loadCheckpoint(File checkpoint) {
+    try {
+      byte[] content = Files.readAllBytes(checkpoint.toPath());
+      if (content.length < 8) {
+        throw new EOFException();
+      }
+      CRC32 crc = new CRC32();
+      crc.update(content, 0, content.length - 8);
+      DataInputStream input = new DataInputStream(new ByteArrayInputStream(content));
+      input.skipBytes(content.length - 8);
+      if (input.readLong() != crc.getValue()) {
+        throw new IOException("Checksum mismatch");
+      }
+
+      input = new DataInputStream(new ByteArrayInputStream(content, 0, content.length - 8));
+      if (input.readInt() != CHECKPOINT_VERSION || input.readLong() != generation) {
+        throw new IOException("Checkpoint doesn't belong to the current data file");
+      }
+      final long tailOffset = input.readLong();
+      if (tailOffset > dataFile.length()) {
+        throw new IOException("Checkpoint is ahead of the data file");
+      }
+
+      final int partitions = input.readInt();
+      for (int i = 0; i < partitions; i++) {
+        LinkedHashMap<String, Location> partition = new LinkedHashMap<>();
+        index.put(readString(input), partition);
+        final int entries = input.readInt();
+        for (int j = 0; j < entries; j++) {
+          final String key = readString(input);
+          Location location = new Location(input.readLong(), input.readInt(), input.readInt(), input.readLong());
+          partition.put(key, location);
+          liveBytes += location.recordLength;
+        }
+      }
+      fileSize = tailOffset;
+      checkpointedFileSize = tailOffset;
+    } catch (IOException e) {
+      LOGGER.warn(format("Could not load object store index checkpoint %s, the whole data file will be read",
+                         checkpoint.getAbsolutePath()),
+                  e);
+      index.clear();
+      liveBytes = 0;
+      fileSize = 0;
+    }
+  }
+
+  private static String readString(DataInputStream input) throws IOException {
+    byte[] bytes = new byte[input.readInt()];
+    input.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    byte[] bytes = value.getBytes(UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  /**
+   * Saves the given {@code snapshot} of the index as the checkpoint of a generation of the data file. The records up to
+   * {@code tailOffset} must have been forced to disk already.
+   */
+  private void writeCheckpoint(long checkpointGeneration, long tailOffset, Map<String, ? extends Map<String, Location>> snapshot)
+      throws IOException {
+    ByteArrayOutputStream content = new ByteArrayOutputStream();
+    DataOutputStream output = new DataOutputStream(content);
+    output.writeInt(CHECKPOINT_VERSION);
+    output.writeLong(checkpointGeneration);
+    output.writeLong(tailOffset);
+    output.writeInt(snapshot.size());
+    for (Map.Entry<String, ? extends Map<String, Location>> partition : snapshot.entrySet()) {
+      writeString(output, partition.getKey());
+      output.writeInt(partition.getValue().size());
+      for (Map.Entry<String, Location> entry : partition.getValue().entrySet()) {
+        Location location = entry.getValue();
+        writeString(output, entry.getKey());
+        output.writeLong(location.valueOffset);
+        output.writeInt(location.valueLength);
+        output.writeInt(location.recordLength);
+        output.writeLong(location.timestamp);
+      }
+    }
+    output.flush();
+    CRC32 crc = new CRC32();
+    crc.update(content.toByteArray());
+    output.writeLong(crc.getValue());
+    output.flush();
+
+    final File checkpoint = checkpointFile(checkpointGeneration);
+    final File tempFile = new File(storeDirectory, checkpoint.getName() + CHECKPOINT_TEMP_FILE_SUFFIX);
+    try (FileOutputStream file = new FileOutputStream(tempFile)) {
+      content.writeTo(file);
+      file.getChannel().force(false);
+    }
+    Files.move(tempFile.toPath(), checkpoint.toPath(), ATOMIC_MOVE);
+  }
+
+  /**
+   * Saves a checkpoint of the index so that reopening the store only has to read the records appended after this point.
+   */
+  void checkpoint() {
+    final long checkpointGeneration;
+    final long tailOffset;
+    final FileChannel source;
+    final Map<String, Map<String, Location>> snapshot = new LinkedHashMap<>();
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      if (channel == null) {
+        return;
+      }
+      source = channel;
+      checkpointGeneration = generation;
+      tailOffset = fileSize;
+      for (Map.Entry<String, LinkedHashMap<String, Location>> partition : index.entrySet()) {
+        snapshot.put(partition.getKey(), new LinkedHashMap<>(partition.getValue()));
+      }
+    } finally {
+      readLock.unlock();
+    }
+
+    try {
+      source.force(false);
+      writeCheckpoint(checkpointGeneration, tailOffset, snapshot);
+    } catch (ClosedChannelException e) {
+      // the data file was compacted or the store disposed meanwhile, and they save their own checkpoint
+      return;
+    } catch (IOException e) {
+      LOGGER.warn("Could not save checkpoint of object store data file " + dataFile.getAbsolutePath(), e);
+      return;
+    }
+
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      if (generation == checkpointGeneration) {
+        checkpointedFileSize = max(checkpointedFileSize, tailOffset);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void scheduleCheckpointIfNeeded() {
+    if (fileSize - checkpointedFileSize > CHECKPOINT_INTERVAL_BYTES && checkpointScheduled.compareAndSet(false, true)) {
+      compactionScheduler.submit(() -> {
+        try {
+          checkpoint();
+        } finally {
+          checkpointScheduled.set(false);
+        }
+      });
+    }
+  }
+
+  /**
+   * Waits until the records appended up to {@code lsn} are on disk. The first writer to wait forces the data file for everything
+   * appended so far, and the ones arriving meanwhile wait for that force to finish and then for the next one.
+   *
+   * @param lsn the value of {@link #writtenBytes} right after appending the record to wait for
+   */
+  private void awaitDurable(long lsn) throws ObjectStoreException {
+    syncLock.lock();
+    try {
+      while (durableBytes < lsn) {
+        if (syncInProgress) {
+          syncCompleted.awaitUninterruptibly();
+          continue;
+        }
+
+        syncInProgress = true;
+        long target = 0;
+        IOException failure = null;
+        syncLock.unlock();
+        try {
+          final FileChannel source;
+          Lock readLock = lock.readLock();
+          readLock.lock();
+          try {
+            target = writtenBytes;
+            source = channel;
+          } finally {
+            readLock.unlock();
+          }
+          if (source != null) {
+            source.force(false);
+          }
+        } catch (IOException e) {
+          failure = e;
+        } finally {
+          syncLock.lock();
+          syncInProgress = false;
+          syncCompleted.signalAll();
+        }
+
+        if (failure == null) {
+          durableBytes = max(durableBytes, target);
+        } else if (durableBytes < lsn) {
+          // a compaction or a dispose may have forced the records after closing the channel being forced
+          throw new ObjectStoreException(createStaticMessage("Could not sync object store data file "
+              + dataFile.getAbsolutePath()), failure);
+        }
+      }
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  /**
+   * Records that everything appended so far is on disk. Must be called while holding the write lock, right after forcing it.
+   */
+  private void markDurable() {
+    syncLock.lock();
+    try {
+      durableBytes = max(durableBytes, writtenBytes);
+      syncCompleted.signalAll();
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private Location append(byte type, String partitionName, String key, byte[] value, long timestamp)
+      throws ObjectStoreException {
+    final byte[] partitionBytes = partitionName.getBytes(UTF_8);
+    final byte[] keyBytes = key != null ? key.getBytes(UTF_8) : EMPTY;
+    ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + partitionBytes.length + keyBytes.length + value.length);
+    record.putInt(0).put(type).putLong(timestamp).putInt(partitionBytes.length).putInt(keyBytes.length).putInt(value.length)
+        .put(partitionBytes).put(keyBytes).put(value);
+
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), 4, record.capacity() - 4);
+    record.putInt(0, (int) crc.getValue());
+    record.flip();
+
+    final long offset = fileSize;
+    try {
+      long position = offset;
+      while (record.hasRemaining()) {
+        position += channel.write(record, position);
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not write to object store data file "
+          + dataFile.getAbsolutePath()), e);
+    }
+    fileSize += record.capacity();
+    writtenBytes += record.capacity();
+
+    return new Location(offset + HEADER_SIZE + partitionBytes.length + keyBytes.length, value.length, record.capacity(),
+                        timestamp);
+  }
+
+  private void removeEntry(String partitionName, String key) throws ObjectStoreException {
+    append(REMOVE, partitionName, key, EMPTY, currentTimeMillis());
+    Location removed = index.get(partitionName).remove(key);
+    liveBytes -= removed.recordLength;
+  }
+
+  private byte[] readValue(Location location) throws ObjectStoreException {
+    ByteBuffer buffer = ByteBuffer.allocate(location.valueLength);
+    try {
+      long position = location.valueOffset;
+      while (buffer.hasRemaining()) {
+        int read = channel.read(buffer, position);
+        if (read < 0) {
+          throw new EOFException();
+        }
+        position += read;
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not read from object store data file "
+          + dataFile.getAbsolutePath()), e);
+    }
+    return buffer.array();
+  }
+
+  @SuppressWarnings("unchecked")
+  private T deserialize(byte[] serializedValue) throws ObjectStoreException {
+    try {
+      T value = serializer.getInternalProtocol().deserialize(serializedValue);
+      if (value instanceof DeserializationPostInitialisable) {
+        DeserializationPostInitialisable.Implementation.init(value, muleContext);
+      }
+      return value;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private LinkedHashMap<String, Location> getPartition(String partitionName) throws ObjectStoreException {
+    LinkedHashMap<String, Location> partition = index.get(partitionName);
+    if (partition == null) {
+      throw new ObjectStoreException(CoreMessages.createStaticMessage("No partition named: " + partitionName));
+    }
+    return partition;
+  }
+
+  private void scheduleCompactionIfNeeded() {
+    final long garbage = fileSize - liveBytes;
+    if (garbage > MIN_GARBAGE_TO_COMPACT && garbage > liveBytes && compactionScheduled.compareAndSet(false, true)) {
+      compactionScheduler.submit(() -> {
+        try {
+          compact();
+        } finally {
+          compactionScheduled.set(false);
+        }
+      });
+    }
+  }
+
+  /**
+   * Rewrites the live records into the next generation of the data file, and replaces the current one with it.
+   * <p>
+   * Records are never modified once appended, so the live ones are copied without holding the lock, allowing stores and
+   * retrievals to proceed meanwhile. The write lock is only taken at the end to append the records written during the copy, in
+   * their original order, and to swap the data file and the index.
+   */
+  void compact() {
+    final FileChannel source;
+    final long copiedSize;
+    final long compactedGeneration;
+    final Map<String, List<Location>> liveLocations = new LinkedHashMap<>();
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      if (channel == null) {
+        return;
+      }
+      source = channel;
+      copiedSize = fileSize;
+      compactedGeneration = generation;
+      for (Map.Entry<String, LinkedHashMap<String, Location>> partition : index.entrySet()) {
+        liveLocations.put(partition.getKey(), new ArrayList<>(partition.getValue().values()));
+      }
+    } finally {
+      readLock.unlock();
+    }
+
+    final File compactionFile = new File(storeDirectory, dataFile(compactedGeneration + 1).getName() + COMPACTION_FILE_SUFFIX);
+    final Map<Location, Location> relocations = new HashMap<>();
+    try (RandomAccessFile compacted = new RandomAccessFile(compactionFile, "rw")) {
+      FileChannel target = compacted.getChannel();
+      long position = 0;
+      for (Map.Entry<String, List<Location>> partition : liveLocations.entrySet()) {
+        position += writeOpenRecord(target, position, partition.getKey());
+        for (Location location : partition.getValue()) {
+          transfer(source, location.recordOffset(), location.recordLength, target, position);
+          relocations.put(location, location.relocate(position));
+          position += location.recordLength;
+        }
+      }
+      final long tailOffset = position;
+
+      Lock writeLock = lock.writeLock();
+      writeLock.lock();
+      try {
+        if (channel != source) {
+          // the store was disposed meanwhile
+          deleteQuietly(compactionFile);
+          return;
+        }
+
+        // replays the writes made during the copy, so the new file has the same contents as the current one
+        transfer(source, copiedSize, fileSize - copiedSize, target, tailOffset);
+        target.force(false);
+
+        final File compactedDataFile = dataFile(compactedGeneration + 1);
+        Files.move(compactionFile.toPath(), compactedDataFile.toPath(), ATOMIC_MOVE);
+
+        randomAccessFile.close();
+        deleteQuietly(dataFile);
+        deleteQuietly(checkpointFile(compactedGeneration));
+        // everything appended so far is in the compacted file, which was just forced
+        markDurable();
+
+        generation = compactedGeneration + 1;
+        dataFile = compactedDataFile;
+        randomAccessFile = new RandomAccessFile(dataFile, "rw");
+        channel = randomAccessFile.getChannel();
+        fileSize = tailOffset + fileSize - copiedSize;
+        checkpointedFileSize = 0;
+        for (LinkedHashMap<String, Location> partition : index.values()) {
+          partition.replaceAll((key, location) -> {
+            Location relocated = relocations.get(location);
+            return relocated != null ? relocated : location.relocate(location.recordOffset() - copiedSize + tailOffset);
+          });
+        }
+      } finally {
+        writeLock.unlock();
+      }
+
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(format("Compacted object store data file into generation %d (%d live bytes copied)",
+                            compactedGeneration + 1, tailOffset));
+      }
+    } catch (IOException e) {
+      deleteQuietly(compactionFile);
+      LOGGER.warn("Could not compact object store data file " + dataFile.getAbsolutePath(), e);
+    }
+  }
+
+  private void transfer(FileChannel source, long offset, long length, FileChannel target, long targetPosition)
+      throws IOException {
+    // transferTo writes at the current position of the target channel
+    target.position(targetPosition);
+    long transferred = 0;
+    while (transferred < length) {
+      transferred += source.transferTo(offset + transferred, length - transferred, target);
+    }
+  }
+
+  private long writeOpenRecord(FileChannel target, long position, String partitionName) throws IOException {
+    final byte[] partitionBytes = partitionName.getBytes(UTF_8);
+    ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + partitionBytes.length);
+    record.putInt(0).put(OPEN).putLong(currentTimeMillis()).putInt(partitionBytes.length).putInt(0).putInt(0)
+        .put(partitionBytes);
+
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), 4, record.capacity() - 4);
+    record.putInt(0, (int) crc.getValue());
+    record.flip();
+
+    long written = 0;
+    while (record.hasRemaining()) {
+      written += target.write(record, position + written);
+    }
+    return written;
+  }
+
+  private File dataFile(long fileGeneration) {
+    return new File(storeDirectory, format("%s%020d%s", DATA_FILE_PREFIX, fileGeneration, DATA_FILE_SUFFIX));
+  }
+
+  private File checkpointFile(long fileGeneration) {
+    return new File(storeDirectory, format("%s%020d%s", CHECKPOINT_FILE_PREFIX, fileGeneration, CHECKPOINT_FILE_SUFFIX));
+  }
+
+  /**
+   * The location of a value in the data file
+   */
+  private static final class Location {
+
+    private final long valueOffset;
+    private final int valueLength;
+    private final int recordLength;
+    private final long timestamp;
+
+    private Location(long valueOffset, int valueLength, int recordLength, long timestamp) {
+      this.valueOffset = valueOffset;
+      this.valueLength = valueLength;
+      this.recordLength = recordLength;
+      this.timestamp = timestamp;
+    }
+
+    private long recordOffset() {
+      return valueOffset + valueLength - recordLength;
+    }
+
+    private Location relocate(long recordOffset) {
+      return new Location(recordOffset + recordLength - valueLength, valueLength, recordLength, timestamp);
+    }
+  }
+}
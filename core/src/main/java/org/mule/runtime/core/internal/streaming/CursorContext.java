@@ -6,9 +6,12 @@
  */
 package org.mule.runtime.core.internal.streaming;
 
+import org.mule.runtime.api.streaming.Cursor;
 import org.mule.runtime.api.streaming.CursorProvider;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
+import java.util.Set;
+
 /**
  * Groups a {@link CursorProvider} with information about its context
  *
@@ -18,16 +21,21 @@ public final class CursorContext {
 
   private final CursorProvider cursorProvider;
   private final BaseEventContext ownerContext;
+  private final EventStreamingState streamingState;
+  private final Set<Cursor> cursors;
 
   /**
    * Creates a new instance
    *
    * @param cursorProvider the {@link CursorProvider} which will be managed
    * @param ownerContext   the {@link BaseEventContext} which owns the {@code cursorProvider}
+   * @param streamingState the {@link EventStreamingState} of the {@code ownerContext}
    */
-  public CursorContext(CursorProvider cursorProvider, BaseEventContext ownerContext) {
+  CursorContext(CursorProvider cursorProvider, BaseEventContext ownerContext, EventStreamingState streamingState) {
     this.cursorProvider = cursorProvider;
     this.ownerContext = ownerContext;
+    this.streamingState = streamingState;
+    this.cursors = streamingState.addProvider(cursorProvider);
   }
 
   /**
@@ -43,4 +51,12 @@ public final class CursorContext {
   public BaseEventContext getOwnerContext() {
     return ownerContext;
   }
+
+  EventStreamingState getStreamingState() {
+    return streamingState;
+  }
+
+  Set<Cursor> getCursors() {
+    return cursors;
+  }
 }
@@ -6,7 +6,6 @@
  */
 package org.mule.runtime.core.internal.streaming;
 
-import static java.util.Collections.newSetFromMap;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
@@ -15,46 +14,27 @@ import org.mule.runtime.api.streaming.Cursor;
 import org.mule.runtime.api.streaming.CursorProvider;
 import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
 import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
-import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.event.AbstractEventContext;
 import org.mule.runtime.core.internal.streaming.bytes.ManagedCursorStreamProvider;
 import org.mule.runtime.core.internal.streaming.object.ManagedCursorIteratorProvider;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.cache.RemovalListener;
-import com.google.common.cache.RemovalNotification;
-
-import java.util.Collection;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Keeps track of active {@link Cursor cursors} and their {@link CursorProvider providers}
+ * <p>
+ * The {@link EventStreamingState} of each event is attached to its {@link AbstractEventContext}, and each {@link CursorContext}
+ * references the state of its owner and the set of cursors of its provider, so opening and closing a cursor doesn't require any
+ * lookup. The state is disposed, releasing all its resources, when the owner context terminates.
  *
  * @since 4.0
  */
 public class CursorManager {
 
-  private static Logger LOGGER = LoggerFactory.getLogger(CursorManager.class);
-
-  private final LoadingCache<String, EventStreamingState> registry =
-      CacheBuilder.newBuilder()
-          .removalListener((RemovalNotification<String, EventStreamingState> notification) -> notification.getValue().dispose())
-          .build(new CacheLoader<String, EventStreamingState>() {
-
-            @Override
-            public EventStreamingState load(String key) throws Exception {
-              return new EventStreamingState();
-            }
-          });
+  // Used for event contexts which can't hold their own streaming state
+  private final ConcurrentMap<String, EventStreamingState> registry = new ConcurrentHashMap<>();
 
   private final MutableStreamingStatistics statistics;
   private final Scheduler disposalScheduler;
@@ -79,10 +59,7 @@ public class CursorManager {
    * @return a {@link CursorContext}
    */
   public CursorProvider manage(CursorProvider provider, BaseEventContext ownerContext) {
-    registerEventContext(ownerContext);
-    registry.getUnchecked(ownerContext.getId()).addProvider(provider);
-
-    final CursorContext context = new CursorContext(provider, ownerContext);
+    final CursorContext context = new CursorContext(provider, ownerContext, getStreamingState(ownerContext));
     if (provider instanceof CursorStreamProvider) {
       return new ManagedCursorStreamProvider(context, this);
     } else if (provider instanceof CursorIteratorProvider) {
@@ -99,7 +76,7 @@ public class CursorManager {
    * @param providerHandle the handle for the provider that generated it
    */
   public void onOpen(Cursor cursor, CursorContext providerHandle) {
-    registry.getUnchecked(providerHandle.getOwnerContext().getId()).addCursor(providerHandle.getCursorProvider(), cursor);
+    providerHandle.getStreamingState().addCursor(providerHandle.getCursors(), cursor);
     statistics.incrementOpenCursors();
   }
 
@@ -111,105 +88,51 @@ public class CursorManager {
    * @param handle the handle for the provider that generated it
    */
   public void onClose(Cursor cursor, CursorContext handle) {
-    final String eventId = handle.getOwnerContext().getId();
-    EventStreamingState state = registry.getIfPresent(eventId);
-
-    if (state != null && state.removeCursor(handle.getCursorProvider(), cursor)) {
-      registry.invalidate(eventId);
-    }
-  }
-
-  private void terminated(BaseEventContext rootContext) {
-    EventStreamingState state = registry.getIfPresent(rootContext.getId());
-    if (state != null) {
-      registry.invalidate(rootContext.getId());
+    EventStreamingState state = handle.getStreamingState();
+    if (state.removeCursor(handle.getCursorProvider(), handle.getCursors(), cursor)) {
+      registry.remove(handle.getOwnerContext().getId(), state);
     }
   }
 
-  /**
-   * Duplicate registration will occur if cursors are opened in multiple child flows or processing branches. This means terminate
-   * will fire multiple times sequentially during completion of the parent EventContext. After the first terminate all other
-   * invocation will literally be no-ops. This is preferred to introducing contention here given multiple thread may be opening
-   * cursors concurrently.
-   */
-  private void registerEventContext(BaseEventContext eventContext) {
-    eventContext.onTerminated((response, throwable) -> terminated(eventContext));
-  }
-
-  private class EventStreamingState {
-
-    private AtomicBoolean disposed = new AtomicBoolean(false);
-    private AtomicInteger cursorCount = new AtomicInteger(0);
-
-    private final LoadingCache<CursorProvider, Set<Cursor>> cursors = CacheBuilder.newBuilder()
-        .removalListener((RemovalListener<CursorProvider, Set<Cursor>>) notification -> {
-          try {
-            closeProvider(notification.getKey());
-            releaseAll(notification.getValue());
-          } finally {
-            notification.getKey().releaseResources();
-          }
-        })
-        .build(new CacheLoader<CursorProvider, Set<Cursor>>() {
-
-          @Override
-          public Set<Cursor> load(CursorProvider key) throws Exception {
-            statistics.incrementOpenProviders();
-            return newSetFromMap(new ConcurrentHashMap<>());
-          }
-        });
-
-    private synchronized void addProvider(CursorProvider adapter) {
-      cursors.getUnchecked(adapter);
-    }
-
-    private void addCursor(CursorProvider provider, Cursor cursor) {
-      cursors.getUnchecked(provider).add(cursor);
-      cursorCount.incrementAndGet();
-    }
-
-    private boolean removeCursor(CursorProvider provider, Cursor cursor) {
-      Set<Cursor> openCursors = cursors.getUnchecked(provider);
-      if (openCursors.remove(cursor)) {
-        statistics.decrementOpenCursors();
-        if (cursorCount.decrementAndGet() <= 0 && provider.isClosed()) {
-          dispose();
-          return true;
+  private EventStreamingState getStreamingState(BaseEventContext ownerContext) {
+    // A state is disposed once all its cursors are closed, so a new one is needed if more providers are managed afterwards
+    if (ownerContext instanceof AbstractEventContext) {
+      AbstractEventContext eventContext = (AbstractEventContext) ownerContext;
+      while (true) {
+        EventStreamingState state = eventContext.getStreamingState();
+        if (state != null && !state.isDisposed()) {
+          return state;
         }
-      }
-
-      return false;
-    }
-
-    private void dispose() {
-      if (disposed.compareAndSet(false, true)) {
-        try {
-          disposalScheduler.execute(() -> {
-            cursors.invalidateAll();
-          });
-        } catch (RejectedExecutionException e) {
-          // If the Scheduler is busy and can't accept the task, we perform it in the current thread.
-          cursors.invalidateAll();
+        EventStreamingState newState = new EventStreamingState(statistics, disposalScheduler);
+        if (eventContext.compareAndSetStreamingState(state, newState)) {
+          registerEventContext(eventContext, newState);
+          return newState;
         }
       }
     }
 
-    private void releaseAll(Collection<Cursor> cursors) {
-      cursors.forEach(cursor -> {
-        try {
-          cursor.release();
-          statistics.decrementOpenCursors();
-        } catch (Exception e) {
-          LOGGER.warn("Exception was found trying to close cursor. Execution will continue", e);
-        }
-      });
-    }
-
-    private void closeProvider(CursorProvider provider) {
-      if (!provider.isClosed()) {
-        provider.close();
-        statistics.decrementOpenProviders();
+    final String id = ownerContext.getId();
+    while (true) {
+      EventStreamingState state = registry.get(id);
+      if (state != null && !state.isDisposed()) {
+        return state;
+      }
+      EventStreamingState newState = new EventStreamingState(statistics, disposalScheduler);
+      if (state == null ? registry.putIfAbsent(id, newState) == null : registry.replace(id, state, newState)) {
+        registerEventContext(ownerContext, newState);
+        return newState;
       }
     }
   }
+
+  /**
+   * Registration only happens once per event context, when its {@link EventStreamingState} is created, so no callbacks pile up
+   * on contexts for which many cursors are opened.
+   */
+  private void registerEventContext(BaseEventContext eventContext, EventStreamingState state) {
+    eventContext.onTerminated((response, throwable) -> {
+      registry.remove(eventContext.getId(), state);
+      state.dispose();
+    });
+  }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.streaming.Cursor;
+import org.mule.runtime.api.streaming.CursorProvider;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps track of the {@link CursorProvider providers} owned by an event context and of the {@link Cursor cursors} they opened,
+ * so that they are released when the event context terminates.
+ * <p>
+ * Instances are created by the {@link CursorManager} and attached to the owner event context, so that tracking a cursor doesn't
+ * require looking up the state of its event.
+ *
+ * @since 4.2.0
+ */
+public final class EventStreamingState {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventStreamingState.class);
+
+  private final Map<CursorProvider, Set<Cursor>> cursors = new ConcurrentHashMap<>();
+  private final AtomicInteger cursorCount = new AtomicInteger(0);
+  private final AtomicBoolean disposed = new AtomicBoolean(false);
+  private final MutableStreamingStatistics statistics;
+  private final Scheduler disposalScheduler;
+
+  EventStreamingState(MutableStreamingStatistics statistics, Scheduler disposalScheduler) {
+    this.statistics = statistics;
+    this.disposalScheduler = disposalScheduler;
+  }
+
+  /**
+   * Starts tracking the given {@code provider}, unless it is already tracked.
+   *
+   * @return the set in which the cursors opened by the {@code provider} are to be tracked
+   */
+  Set<Cursor> addProvider(CursorProvider provider) {
+    Set<Cursor> providerCursors = cursors.get(provider);
+    if (providerCursors == null) {
+      providerCursors = cursors.computeIfAbsent(provider, p -> {
+        statistics.incrementOpenProviders();
+        return ConcurrentHashMap.newKeySet();
+      });
+    }
+    return providerCursors;
+  }
+
+  void addCursor(Set<Cursor> providerCursors, Cursor cursor) {
+    providerCursors.add(cursor);
+    cursorCount.incrementAndGet();
+  }
+
+  /**
+   * Stops tracking a closed {@code cursor}, disposing this state if it was the last one and its provider is closed.
+   *
+   * @return whether this state was disposed
+   */
+  boolean removeCursor(CursorProvider provider, Set<Cursor> providerCursors, Cursor cursor) {
+    if (providerCursors.remove(cursor)) {
+      statistics.decrementOpenCursors();
+      if (cursorCount.decrementAndGet() <= 0 && provider.isClosed()) {
+        dispose();
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Closes all the tracked providers and releases the cursors they opened. Only the first invocation has any effect.
+   */
+  void dispose() {
+    if (disposed.compareAndSet(false, true)) {
+      try {
+        disposalScheduler.execute(this::releaseAll);
+      } catch (RejectedExecutionException e) {
+        // If the Scheduler is busy and can't accept the task, we perform it in the current thread.
+        releaseAll();
+      }
+    }
+  }
+
+  /**
+   * @return whether {@link #dispose()} was invoked on this state
+   */
+  boolean isDisposed() {
+    return disposed.get();
+  }
+
+  private void releaseAll() {
+    cursors.forEach((provider, providerCursors) -> {
+      try {
+        closeProvider(provider);
+        releaseAll(providerCursors);
+      } finally {
+        provider.releaseResources();
+      }
+    });
+    cursors.clear();
+  }
+
+  private void releaseAll(Set<Cursor> providerCursors) {
+    providerCursors.forEach(cursor -> {
+      try {
+        cursor.release();
+        statistics.decrementOpenCursors();
+      } catch (Exception e) {
+        LOGGER.warn("Exception was found trying to close cursor. Execution will continue", e);
+      }
+    });
+  }
+
+  private void closeProvider(CursorProvider provider) {
+    if (!provider.isClosed()) {
+      provider.close();
+      statistics.decrementOpenProviders();
+    }
+  }
+}
@@ -8,32 +8,83 @@ package org.mule.runtime.core.internal.streaming;
 
 import org.mule.runtime.core.api.streaming.StreamingStatistics;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Mutable implementation of {@link StreamingStatistics}
+ * <p>
+ * The counters of providers and cursors are updated every time one is opened or closed, so they are kept in
+ * {@link LongAdder adders} to avoid contention between the threads doing so.
  *
  * @since 4.0
  */
 public class MutableStreamingStatistics implements StreamingStatistics {
 
-  private final AtomicInteger openProviders = new AtomicInteger(0);
-  private final AtomicInteger openCursors = new AtomicInteger(0);
+  private final LongAdder openProviders = new LongAdder();
+  private final LongAdder openCursors = new LongAdder();
+  private final AtomicLong directMemory = new AtomicLong(0);
+  private volatile long maxDirectMemory = 0;
 
   void incrementOpenProviders() {
-    openProviders.incrementAndGet();
+    openProviders.increment();
   }
 
   void decrementOpenProviders() {
-    openProviders.decrementAndGet();
+    openProviders.decrement();
   }
 
   void incrementOpenCursors() {
-    openCursors.incrementAndGet();
+    openCursors.increment();
   }
 
   void decrementOpenCursors() {
-    openCursors.decrementAndGet();
+    openCursors.decrement();
+  }
+
+  /**
+   * Records that direct memory has been allocated for streaming buffers
+   *
+   * @param bytes the amount of allocated bytes
+   * @since 4.2.0
+   */
+  public void onDirectMemoryAllocated(long bytes) {
+    directMemory.addAndGet(bytes);
+  }
+
+  /**
+   * Records that direct memory used by streaming buffers has been released
+   *
+   * @param bytes the amount of released bytes
+   * @since 4.2.0
+   */
+  public void onDirectMemoryReleased(long bytes) {
+    directMemory.addAndGet(-bytes);
+  }
+
+  /**
+   * @param maxDirectMemory the maximum amount of direct memory that streaming buffers can use
+   * @since 4.2.0
+   */
+  public void setMaxDirectMemory(long maxDirectMemory) {
+    this.maxDirectMemory = maxDirectMemory;
+  }
+
+  /**
+   * @return The amount of direct (off-heap) memory currently held by streaming buffers
+   * @since 4.2.0
+   */
+  public long getDirectMemoryInUse() {
+    return directMemory.get();
+  }
+
+  /**
+   * @return The maximum amount of direct (off-heap) memory that streaming buffers can use, or {@code 0} if
+   * direct buffers are not enabled
+   * @since 4.2.0
+   */
+  public long getMaxDirectMemory() {
+    return maxDirectMemory;
   }
 
   /**
@@ -41,7 +92,7 @@ public class MutableStreamingStatistics implements StreamingStatistics {
    */
   @Override
   public int getOpenCursorProvidersCount() {
-    return openProviders.get();
+    return openProviders.intValue();
   }
 
   /**
@@ -49,6 +100,6 @@ public class MutableStreamingStatistics implements StreamingStatistics {
    */
   @Override
   public int getOpenCursorsCount() {
-    return openCursors.get();
+    return openCursors.intValue();
   }
 }
@@ -61,9 +61,18 @@ abstract class AbstractCursorStream extends CursorStream {
   public synchronized final void release() {
     if (!released) {
       released = true;
+      doRelease();
     }
   }
 
+  /**
+   * Template method invoked the first time this cursor is released. Implementations should drop any reference
+   * to the buffer's contents, since the memory backing it might be reclaimed once all cursors are released.
+   * <p>
+   * Reads and releases are synchronized on this cursor, so this is never invoked while a read is in progress.
+   */
+  protected void doRelease() {}
+
   /**
    * {@inheritDoc}
    */
@@ -94,7 +103,7 @@ abstract class AbstractCursorStream extends CursorStream {
    * @throws IllegalStateException if {@code this} instance has been disposed
    */
   @Override
-  public final int read() throws IOException {
+  public synchronized final int read() throws IOException {
     assertNotDisposed();
     return doRead();
   }
@@ -111,7 +120,7 @@ abstract class AbstractCursorStream extends CursorStream {
    * {@inheritDoc}
    */
   @Override
-  public int read(byte[] b, int off, int len) throws IOException {
+  public synchronized int read(byte[] b, int off, int len) throws IOException {
     assertNotDisposed();
     return doRead(b, off, len);
   }
@@ -19,6 +19,7 @@ import java.nio.channels.AsynchronousCloseException;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 
@@ -39,6 +40,11 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
   private ReadableByteChannel streamChannel;
   private boolean streamFullyConsumed = false;
 
+  /**
+   * One reference is held by the buffer itself until it is closed, and one by each of its readers
+   */
+  private final AtomicInteger references = new AtomicInteger(1);
+
   /**
    * Creates a new instance
    *
@@ -82,27 +88,61 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
    * {@inheritDoc}
    */
   @Override
+  public boolean addReader() {
+    int current;
+    do {
+      current = references.get();
+      if (current == 0) {
+        return false;
+      }
+    } while (!references.compareAndSet(current, current + 1));
+
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeReader() {
+    if (references.decrementAndGet() == 0) {
+      releaseResources();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * The buffered stream is closed right away, but releasing the memory is left to the last reader to be
+   * {@link #removeReader() removed}. Memory handed back to the {@link ByteBufferManager} may be reused by another buffer right
+   * away, so it can't be released while a reader may still access it, whether it is direct memory or not.
+   */
+  @Override
   public final void close() {
     if (closed.compareAndSet(false, true)) {
       withWriteLock(() -> {
-        try {
-          doClose();
-          return null;
-        } finally {
-          if (streamChannel != null) {
-            closeSafely(streamChannel::close);
-          }
-
-          if (stream != null) {
-            closeSafely(stream::close);
-          }
+        if (streamChannel != null) {
+          closeSafely(streamChannel::close);
         }
+
+        if (stream != null) {
+          closeSafely(stream::close);
+        }
+        return null;
       });
+
+      removeReader();
     }
   }
 
+  private void releaseResources() {
+    withWriteLock(() -> {
+      doClose();
+      return null;
+    });
+  }
+
   /**
-   * Template method to support the {@link #close()} operation
+   * Template method to support the {@link #close()} operation. Releases the memory held by this buffer.
    */
   public abstract void doClose();
 
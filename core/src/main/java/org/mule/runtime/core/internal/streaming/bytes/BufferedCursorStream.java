@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.streaming.bytes;
 
 import static java.lang.Math.toIntExact;
+import static org.mule.runtime.api.util.Preconditions.checkState;
 import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
 import org.mule.runtime.api.streaming.bytes.CursorStream;
 import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
@@ -19,6 +20,9 @@ import java.nio.ByteBuffer;
  * <p>
  * To reduce contention on the {@link InputStreamBuffer}, this class also uses a local intermediate
  * memory buffer which size must be configured
+ * <p>
+ * Instances are registered as readers of the {@link InputStreamBuffer} until they are released, so that the memory they read
+ * from is not reclaimed while they might still access it.
  *
  * @see InputStreamBuffer
  * @since 4.0
@@ -46,6 +50,7 @@ public final class BufferedCursorStream extends AbstractCursorStream {
    */
   public BufferedCursorStream(InputStreamBuffer streamBuffer, CursorStreamProvider provider) {
     super(provider);
+    checkState(streamBuffer.addReader(), "Buffer is closed");
     this.streamBuffer = streamBuffer;
   }
 
@@ -117,6 +122,17 @@ public final class BufferedCursorStream extends AbstractCursorStream {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void doRelease() {
+    localBuffer = NULL_BUFFER;
+    rangeStart = 0;
+    rangeEnd = -1;
+    streamBuffer.removeReader();
+  }
+
   private int assureDataInLocalBuffer(int len) {
     if (len <= localBuffer.remaining()) {
       return toIntExact(len);
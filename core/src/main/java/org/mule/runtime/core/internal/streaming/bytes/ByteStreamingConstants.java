@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.streaming.bytes;
 import static java.lang.Integer.valueOf;
 import static org.mule.runtime.api.util.DataUnit.KB;
 import static org.mule.runtime.core.api.config.MuleProperties.MULE_STREAMING_BUCKET_SIZE;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 
 /**
  * Constants around byte streaming
@@ -22,6 +23,43 @@ public final class ByteStreamingConstants {
    */
   public static final int DEFAULT_BUFFER_BUCKET_SIZE = getDefaultBucketSize();
 
+  /**
+   * System property key for selecting the {@link org.mule.runtime.core.api.streaming.bytes.ByteBufferManager} implementation.
+   * Supported values are {@link #POOLING_BUFFER_MANAGER} (the default) and {@link #THREAD_LOCAL_BUFFER_MANAGER}
+   *
+   * @since 4.2.0
+   */
+  public static final String MULE_STREAMING_BUFFER_MANAGER = SYSTEM_PROPERTY_PREFIX + "streaming.bufferManager";
+
+  /**
+   * Selects the {@link PoolingByteBufferManager}
+   *
+   * @since 4.2.0
+   */
+  public static final String POOLING_BUFFER_MANAGER = "pooling";
+
+  /**
+   * Selects the {@link ThreadLocalCachingByteBufferManager}
+   *
+   * @since 4.2.0
+   */
+  public static final String THREAD_LOCAL_BUFFER_MANAGER = "threadLocal";
+
+  /**
+   * System property key which enables allocating streaming buffers in direct (off-heap) memory
+   *
+   * @since 4.2.0
+   */
+  public static final String MULE_STREAMING_DIRECT_BUFFERS = SYSTEM_PROPERTY_PREFIX + "streaming.directBuffers";
+
+  /**
+   * System property key for the maximum amount of direct memory (in bytes) that streaming buffers can use. Only
+   * applies when {@link #MULE_STREAMING_DIRECT_BUFFERS} is enabled.
+   *
+   * @since 4.2.0
+   */
+  public static final String MULE_STREAMING_MAX_DIRECT_MEMORY = SYSTEM_PROPERTY_PREFIX + "streaming.maxDirectMemory";
+
   private static int getDefaultBucketSize() {
     String bucketSize = System.getProperty(MULE_STREAMING_BUCKET_SIZE);
     return bucketSize != null ? valueOf(bucketSize) : KB.toBytes(8);
@@ -6,13 +6,26 @@
  */
 package org.mule.runtime.core.internal.streaming.bytes;
 
+import static java.lang.String.format;
+import static java.lang.Boolean.getBoolean;
+import static java.lang.System.getProperty;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.MULE_STREAMING_BUFFER_MANAGER;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.MULE_STREAMING_DIRECT_BUFFERS;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.POOLING_BUFFER_MANAGER;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.THREAD_LOCAL_BUFFER_MANAGER;
 import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
 import org.mule.runtime.core.api.streaming.bytes.factory.InMemoryCursorStreamProviderFactory;
+import org.mule.runtime.core.internal.streaming.bytes.factory.FileStoreCursorStreamProviderFactory;
 import org.mule.runtime.core.internal.streaming.bytes.factory.NullCursorStreamProviderFactory;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.api.streaming.bytes.ByteStreamingManager;
 import org.mule.runtime.core.api.streaming.bytes.CursorStreamProviderFactory;
 import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
+
+import java.util.concurrent.ExecutorService;
 
 /**
  * Default implementation of {@link ByteStreamingManager}
@@ -29,6 +42,41 @@ public class DefaultByteStreamingManager implements ByteStreamingManager {
     this.streamingManager = streamingManager;
   }
 
+  /**
+   * Creates the {@link ByteBufferManager} selected through the {@link ByteStreamingConstants#MULE_STREAMING_BUFFER_MANAGER}
+   * system property. If not set, a {@link PoolingByteBufferManager} is created.
+   * <p>
+   * If the {@link ByteStreamingConstants#MULE_STREAMING_DIRECT_BUFFERS} system property is enabled, the
+   * {@link PoolingByteBufferManager} will allocate direct buffers. Direct buffers are not supported by the
+   * {@link ThreadLocalCachingByteBufferManager}, since it caches released buffers instead of freeing them.
+   *
+   * @param allocationScheduler executor to be used by the buffer manager for allocation tasks, if it needs one.
+   * @param statistics the statistics on which the buffer manager reports the direct memory usage
+   * @return a new {@link ByteBufferManager}
+   * @throws IllegalArgumentException if the system property has an unsupported value, or if direct buffers are enabled for a
+   *         buffer manager which doesn't support them
+   * @since 4.2.0
+   */
+  public static ByteBufferManager createBufferManager(ExecutorService allocationScheduler,
+                                                     MutableStreamingStatistics statistics) {
+    String bufferManager = getProperty(MULE_STREAMING_BUFFER_MANAGER, POOLING_BUFFER_MANAGER);
+    if (POOLING_BUFFER_MANAGER.equals(bufferManager)) {
+      return getBoolean(MULE_STREAMING_DIRECT_BUFFERS)
+          ? new PoolingByteBufferManager(allocationScheduler, new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT, statistics)
+          : new PoolingByteBufferManager(allocationScheduler);
+    } else if (THREAD_LOCAL_BUFFER_MANAGER.equals(bufferManager)) {
+      if (getBoolean(MULE_STREAMING_DIRECT_BUFFERS)) {
+        throw new IllegalArgumentException(format("System property '%s' is not supported by the '%s' buffer manager",
+                                                  MULE_STREAMING_DIRECT_BUFFERS, THREAD_LOCAL_BUFFER_MANAGER));
+      }
+      return new ThreadLocalCachingByteBufferManager();
+    }
+
+    throw new IllegalArgumentException(format("Invalid value for system property '%s'. Expected '%s' or '%s' but got '%s'",
+                                              MULE_STREAMING_BUFFER_MANAGER, POOLING_BUFFER_MANAGER,
+                                              THREAD_LOCAL_BUFFER_MANAGER, bufferManager));
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -37,6 +85,18 @@ public class DefaultByteStreamingManager implements ByteStreamingManager {
     return new InMemoryCursorStreamProviderFactory(bufferManager, config, streamingManager);
   }
 
+  /**
+   * Creates a {@link CursorStreamProviderFactory} which buffers in memory up to a certain threshold
+   * and overflows into a local file after that
+   *
+   * @param config the configuration for the produced providers
+   * @return a new {@link CursorStreamProviderFactory}
+   * @since 4.2.0
+   */
+  public CursorStreamProviderFactory getFileStoreCursorProviderFactory(FileStoreCursorStreamConfig config) {
+    return new FileStoreCursorStreamProviderFactory(bufferManager, config, streamingManager);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.core.api.util.func.CheckedConsumer;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+import org.slf4j.Logger;
+
+/**
+ * Utility methods for handling direct (off-heap) {@link ByteBuffer buffers}
+ *
+ * @since 4.2.0
+ */
+final class DirectBufferUtils {
+
+  private static final Logger LOGGER = getLogger(DirectBufferUtils.class);
+
+  private static final CheckedConsumer<ByteBuffer> DEALLOCATOR = createDeallocator();
+
+  /**
+   * Releases the native memory held by the given direct {@code buffer} without waiting for it to be garbage collected.
+   * <p>
+   * The buffer, and any view created from it, <b>MUST NOT</b> be used after invoking this method. If the running JVM
+   * does not allow releasing the memory explicitly, then this method does nothing and the memory will be reclaimed
+   * once the buffer is collected.
+   *
+   * @param buffer a direct {@link ByteBuffer}
+   */
+  static void free(ByteBuffer buffer) {
+    if (buffer.isDirect()) {
+      DEALLOCATOR.accept(buffer);
+    }
+  }
+
+  private static CheckedConsumer<ByteBuffer> createDeallocator() {
+    try {
+      // Java 9+
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      Object unsafe = theUnsafe.get(null);
+
+      return buffer -> invokeCleaner.invoke(unsafe, buffer);
+    } catch (Exception e) {
+      // Fallback to Java 8 behaviour
+    }
+
+    try {
+      Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      Method cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+
+      return buffer -> {
+        Object cleaner = cleanerMethod.invoke(buffer);
+        if (cleaner != null) {
+          cleanMethod.invoke(cleaner);
+        }
+      };
+    } catch (Exception e) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Direct buffers cannot be explicitly released in this JVM. Their memory will be released on GC", e);
+      }
+      return buffer -> {
+      };
+    }
+  }
+
+  private DirectBufferUtils() {}
+}
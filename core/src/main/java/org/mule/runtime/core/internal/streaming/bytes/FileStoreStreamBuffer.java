@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.DataUnit.MB;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds the first bytes of the stream in memory
+ * and overflows the rest into a temporal file.
+ * <p>
+ * The in memory portion is a single buffer obtained from the {@link ByteBufferManager}, which size is given by
+ * {@link FileStoreCursorStreamConfig#getMaxInMemorySize()}. Once that buffer is full, the rest of the stream is
+ * appended to a file created through {@link org.mule.runtime.core.internal.streaming.TempBufferFileUtils}. Because
+ * the file is only appended to, regions which have already been written never change, so they are read back through
+ * memory mapped windows of the file's channel instead of being copied into the heap.
+ * <p>
+ * This allows streams of arbitrary size to be repeatable while keeping a fixed heap footprint per buffer.
+ *
+ * @since 4.2.0
+ */
+public class FileStoreStreamBuffer extends AbstractInputStreamBuffer {
+
+  private static final int MAPPED_WINDOW_SIZE = MB.toBytes(1);
+
+  private final int inMemoryCapacity;
+  private ByteBuffer memoryBuffer;
+  private ByteBuffer transferBuffer;
+
+  private File bufferFile;
+  private RandomAccessFile randomAccessFile;
+  private FileChannel fileChannel;
+  private volatile MappedWindow mappedWindow;
+
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration.
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate all buffers
+   */
+  public FileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager);
+    inMemoryCapacity = config.getMaxInMemorySize().toBytes();
+    memoryBuffer = bufferManager.allocate(inMemoryCapacity);
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return doGet(position, length, true);
+  }
+
+  private ByteBuffer doGet(long position, int length, boolean consumeStreamIfNecessary) {
+    return withReadLock(releaser -> {
+
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      if (consumeStreamIfNecessary) {
+        releaser.release();
+        return withWriteLock(() -> {
+
+          ByteBuffer refetch = getFromCurrentData(position, length);
+          if (refetch != null) {
+            return refetch;
+          }
+
+          final long requiredUpperBound = position + length;
+          while (!isStreamFullyConsumed() && bufferTip < requiredUpperBound) {
+            try {
+              final int read = consumeForwardData();
+              if (read > 0) {
+                refetch = getFromCurrentData(position, min(length, read));
+                if (refetch != null) {
+                  return refetch;
+                }
+              } else {
+                streamFullyConsumed();
+              }
+            } catch (IOException e) {
+              throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+            }
+          }
+
+          return doGet(position, length, false);
+        });
+      } else {
+        return getFromCurrentData(position, length);
+      }
+    });
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position < bufferTip) {
+      length = min(length, toIntExact(min(Integer.MAX_VALUE, bufferTip - position)));
+      return copy(position, length);
+    }
+
+    return null;
+  }
+
+  /**
+   * {@inheritDoc}
+   * While the in memory buffer has remaining capacity, data is read into it. After that, data is read into an
+   * intermediate buffer and appended to the backing file.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    final int read = memoryBuffer.hasRemaining() ? consumeStream(memoryBuffer) : consumeIntoFile();
+
+    if (read > 0) {
+      bufferTip += read;
+    } else {
+      streamFullyConsumed();
+    }
+
+    return read;
+  }
+
+  private int consumeIntoFile() throws IOException {
+    if (fileChannel == null) {
+      bufferFile = createBufferFile("file-store-stream");
+      randomAccessFile = new RandomAccessFile(bufferFile, "rw");
+      fileChannel = randomAccessFile.getChannel();
+      transferBuffer = bufferManager.allocate(DEFAULT_BUFFER_BUCKET_SIZE);
+    }
+
+    transferBuffer.clear();
+    final int read = consumeStream(transferBuffer);
+    if (read > 0) {
+      transferBuffer.flip();
+      long filePosition = bufferTip - inMemoryCapacity;
+      while (transferBuffer.hasRemaining()) {
+        filePosition += fileChannel.write(transferBuffer, filePosition);
+      }
+    }
+
+    return read;
+  }
+
+  /**
+   * {@inheritDoc}
+   * Neither of the two storages ever relocates data which has already been buffered, so the returned buffers
+   * are always read-only views of it instead of actual copies.
+   */
+  @Override
+  protected ByteBuffer copy(long position, int length) {
+    if (position < inMemoryCapacity) {
+      final int offset = toIntExact(position);
+      ByteBuffer view = memoryBuffer.duplicate();
+      view.limit(offset + min(length, inMemoryCapacity - offset));
+      view.position(offset);
+      return view.slice().asReadOnlyBuffer();
+    }
+
+    try {
+      return fromFile(position - inMemoryCapacity, length);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read from buffer file " + bufferFile), e);
+    }
+  }
+
+  private ByteBuffer fromFile(long filePosition, int length) throws IOException {
+    MappedWindow window = mappedWindow;
+    if (window == null || !window.contains(filePosition)) {
+      window = mapWindow(filePosition);
+      mappedWindow = window;
+    }
+
+    return window.slice(filePosition, length);
+  }
+
+  private MappedWindow mapWindow(long filePosition) throws IOException {
+    final long windowStart = filePosition - (filePosition % MAPPED_WINDOW_SIZE);
+    final long writtenLength = bufferTip - inMemoryCapacity;
+    final long windowSize = min(MAPPED_WINDOW_SIZE, writtenLength - windowStart);
+
+    return new MappedWindow(windowStart, fileChannel.map(READ_ONLY, windowStart, windowSize));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void doClose() {
+    deallocate(memoryBuffer);
+    memoryBuffer = null;
+
+    if (deallocate(transferBuffer)) {
+      transferBuffer = null;
+    }
+
+    mappedWindow = null;
+    if (fileChannel != null) {
+      closeSafely(fileChannel::close);
+      closeSafely(randomAccessFile::close);
+      fileChannel = null;
+    }
+
+    if (bufferFile != null) {
+      deleteQuietly(bufferFile);
+    }
+  }
+
+  /**
+   * A region of the buffer file which has been mapped into memory
+   */
+  private static class MappedWindow {
+
+    private final long start;
+    private final long end;
+    private final MappedByteBuffer buffer;
+
+    private MappedWindow(long start, MappedByteBuffer buffer) {
+      this.start = start;
+      this.buffer = buffer;
+      end = start + buffer.capacity();
+    }
+
+    private boolean contains(long filePosition) {
+      return filePosition >= start && filePosition < end;
+    }
+
+    private ByteBuffer slice(long filePosition, int length) {
+      final int offset = toIntExact(filePosition - start);
+      ByteBuffer view = buffer.duplicate();
+      view.limit(offset + toIntExact(min(length, end - filePosition)));
+      view.position(offset);
+      return view.slice();
+    }
+  }
+}
@@ -8,9 +8,9 @@ package org.mule.runtime.core.internal.streaming.bytes;
 
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
-import static java.lang.System.arraycopy;
-import static java.nio.ByteBuffer.wrap;
+import static java.util.Arrays.copyOf;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.Preconditions.checkState;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.streaming.exception.StreamingBufferSizeExceededException;
 import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
@@ -28,6 +28,16 @@ import java.nio.ByteBuffer;
  * expanded up to a certain threshold configured in the constructor. Once that threshold
  * is reached, a {@link StreamingBufferSizeExceededException} will be thrown. If no threshold
  * is provided, then the buffer will be allowed to grow indefinitely.
+ * <p>
+ * The buffer is an append-only list of chunks: the first one has the configured initial size and
+ * each expansion appends a new chunk of {@code bufferSizeIncrement} bytes. Because chunks are never
+ * relocated, data before the {@link #bufferTip} never changes. The tip is volatile and only advanced
+ * once the data behind it has been written, so reading already buffered data requires neither locks nor
+ * copies. Only the thread which needs to consume more of the stream synchronizes with the others.
+ * <p>
+ * Since the buffered data is never accessed through {@link ByteBuffer#array()}, chunks can be direct buffers if the
+ * {@link ByteBufferManager} allocates off-heap memory. Either way, chunks are handed back to the {@link ByteBufferManager}
+ * once this buffer is closed and all its readers are removed, since the manager may hand them to another buffer right away.
  *
  * @since 4.0
  */
@@ -35,11 +45,28 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
 
   private static final int STREAM_FINISHED_PROBE = 10;
 
-  private ByteBuffer buffer;
+  private final int initialBufferSize;
   private final int bufferSizeIncrement;
   private final int maxBufferSize;
-  private long bufferTip = 0;
-  private boolean streamFullyConsumed = false;
+
+  /**
+   * The chunk currently being written by the producer. Only accessed while holding the write lock
+   */
+  private ByteBuffer currentChunk;
+  private ByteBuffer[] chunks;
+  private int capacity;
+
+  /**
+   * Read only views of the allocated chunks, which are never mutated after publication
+   */
+  private volatile ByteBuffer[] chunkViews;
+  private volatile long bufferTip = 0;
+
+  /**
+   * Set once the chunks are handed back to the {@link ByteBufferManager}. The chunk arrays are left in place, so that readers
+   * which already got a reference to them don't fail with an {@link ArrayIndexOutOfBoundsException}.
+   */
+  private volatile boolean released = false;
 
   /**
    * Creates a new instance
@@ -49,71 +76,48 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
    */
   public InMemoryStreamBuffer(InputStream stream, InMemoryCursorStreamConfig config, ByteBufferManager bufferManager) {
     super(stream, bufferManager);
-    buffer = bufferManager.allocate(config.getInitialBufferSize().toBytes());
+    initialBufferSize = config.getInitialBufferSize().toBytes();
     this.bufferSizeIncrement = config.getBufferSizeIncrement() != null
         ? config.getBufferSizeIncrement().toBytes()
         : 0;
 
     this.maxBufferSize = config.getMaxBufferSize().toBytes();
+
+    currentChunk = bufferManager.allocate(initialBufferSize);
+    chunks = new ByteBuffer[] {currentChunk};
+    chunkViews = new ByteBuffer[] {currentChunk.duplicate()};
+    capacity = initialBufferSize;
   }
 
   @Override
   protected ByteBuffer doGet(long position, int length) {
-    return doGet(position, length, true);
-  }
-
-  private ByteBuffer doGet(long position, int length, boolean consumeStreamIfNecessary) {
-    return withReadLock(releaser -> {
+    ByteBuffer presentRead = getFromCurrentData(position, length);
+    if (presentRead != null) {
+      return presentRead;
+    }
 
-      ByteBuffer presentRead = getFromCurrentData(position, length);
-      if (presentRead != null) {
-        return presentRead;
+    return withWriteLock(() -> {
+      ByteBuffer refetch = getFromCurrentData(position, length);
+      if (refetch != null) {
+        return refetch;
       }
 
-      if (consumeStreamIfNecessary) {
-        releaser.release();
-        return withWriteLock(() -> {
-
-          ByteBuffer refetch;
-          refetch = getFromCurrentData(position, length);
-          if (refetch != null) {
-            return refetch;
-          }
-
-          final long requiredUpperBound = position + length;
-          while (!isStreamFullyConsumed() && bufferTip < requiredUpperBound) {
-            try {
-              final int read = consumeForwardData();
-              if (read > 0) {
-                refetch = getFromCurrentData(position, min(length, read));
-                if (refetch != null) {
-                  return refetch;
-                }
-              } else {
-                streamFullyConsumed();
-                buffer.limit(buffer.position());
-              }
-            } catch (IOException e) {
-              throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
-            }
-          }
-
-          return doGet(position, length, false);
-        });
-      } else {
-        return getFromCurrentData(position, length);
+      while (!isStreamFullyConsumed() && bufferTip <= position) {
+        try {
+          consumeForwardData();
+        } catch (IOException e) {
+          throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+        }
       }
+
+      return getFromCurrentData(position, length);
     });
   }
 
   private ByteBuffer getFromCurrentData(long position, int length) {
-    if (isStreamFullyConsumed() && position > bufferTip) {
-      return null;
-    }
-
-    if (position < bufferTip) {
-      length = min(length, toIntExact(bufferTip - position));
-      return copy(position, length);
+    final long tip = bufferTip;
+    if (position < tip) {
+      return copy(position, toIntExact(min(length, tip - position)));
     }
 
     return null;
@@ -124,107 +128,126 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
    */
   @Override
   public void doClose() {
-    deallocate(buffer);
-    buffer = null;
+    released = true;
+    for (ByteBuffer chunk : chunks) {
+      deallocate(chunk);
+    }
+    currentChunk = null;
   }
 
   /**
    * {@inheritDoc}
-   * If {@code buffer} doesn't have any remaining capacity, then {@link #expandBuffer()}
-   * is invoked before attempting to consume new information.
+   * If the current chunk doesn't have any remaining capacity, then a new one is appended
+   * before attempting to consume new information.
    *
    * @throws StreamingBufferSizeExceededException if the buffer is not big enough and cannot be expanded
    */
   @Override
   public int consumeForwardData() throws IOException {
-    ByteBuffer b = buffer;
-    ByteBuffer readBuffer = b.hasRemaining()
-        ? b
-        : bufferManager.allocate(bufferSizeIncrement > 0 ? bufferSizeIncrement : STREAM_FINISHED_PROBE);
+    if (!currentChunk.hasRemaining()) {
+      return canBeExpanded() ? consumeIntoNewChunk() : probeStreamFinished();
+    }
 
-    final boolean auxBuffer = readBuffer != b;
-    final int read;
+    return onConsumed(consumeStream(currentChunk));
+  }
 
+  private int consumeIntoNewChunk() throws IOException {
+    ByteBuffer chunk = bufferManager.allocate(bufferSizeIncrement);
+    final int read;
     try {
-      read = consumeStream(readBuffer);
-
-      if (read > 0) {
-        if (auxBuffer) {
-          b = expandBuffer();
-          readBuffer.flip();
-          b.put(readBuffer);
-          buffer = b;
-        }
+      read = consumeStream(chunk);
+    } catch (IOException | RuntimeException e) {
+      deallocate(chunk);
+      throw e;
+    }
 
-        bufferTip += read;
-      } else {
-        streamFullyConsumed = true;
+    if (read > 0) {
+      appendChunk(chunk);
+    } else {
+      deallocate(chunk);
+    }
+
+    return onConsumed(read);
+  }
+
+  private int probeStreamFinished() throws IOException {
+    ByteBuffer probe = bufferManager.allocate(bufferSizeIncrement > 0 ? bufferSizeIncrement : STREAM_FINISHED_PROBE);
+    try {
+      if (consumeStream(probe) > 0) {
+        throw new StreamingBufferSizeExceededException(maxBufferSize);
       }
     } finally {
-      if (auxBuffer) {
-        bufferManager.deallocate(readBuffer);
-      }
+      bufferManager.deallocate(probe);
     }
 
+    return onConsumed(-1);
+  }
+
+  private int onConsumed(int read) {
+    if (read > 0) {
+      // volatile write, publishes the bytes just written
+      bufferTip += read;
+    } else {
+      streamFullyConsumed();
+    }
 
     return read;
   }
 
-  /**
-   * Expands the size of the buffer by {@link #bufferSizeIncrement}
-   *
-   * @return a new, expanded {@link ByteBuffer}
-   */
-  private ByteBuffer expandBuffer() {
-    ByteBuffer b = buffer;
-    int newSize = b.capacity() + bufferSizeIncrement;
-    if (!canBeExpandedTo(newSize)) {
-      throw new StreamingBufferSizeExceededException(maxBufferSize);
-    }
+  private void appendChunk(ByteBuffer chunk) {
+    final int index = chunks.length;
+    chunks = copyOf(chunks, index + 1);
+    chunks[index] = chunk;
 
-    ByteBuffer newBuffer = bufferManager.allocate(newSize);
-    b.position(0);
-    newBuffer.put(b);
-    ByteBuffer oldBuffer = b;
-    b = newBuffer;
-    buffer = b;
-    deallocate(oldBuffer);
+    ByteBuffer[] views = copyOf(chunkViews, index + 1);
+    views[index] = chunk.duplicate();
+    chunkViews = views;
 
-    return b;
+    currentChunk = chunk;
+    capacity += bufferSizeIncrement;
   }
 
+  /**
+   * {@inheritDoc}
+   * The returned buffer is a view over the chunk which contains the given {@code position}. Because
+   * chunks are never relocated, no data is actually copied. The returned buffer will not cross the chunk's
+   * boundary, so it might contain less than {@code length} bytes.
+   */
   @Override
   protected ByteBuffer copy(long position, int length) {
-    return canDoSoftCopy() ? softCopy(position, length) : hardCopy(position, length);
+    checkState(!released, "Buffer is closed");
+    final int chunkIndex = chunkIndex(position);
+    final ByteBuffer chunk = chunkViews[chunkIndex].duplicate();
+    final int offset = toIntExact(position - chunkStart(chunkIndex));
+
+    chunk.limit(offset + min(length, chunkSize(chunkIndex) - offset));
+    chunk.position(offset);
+    return chunk.slice();
   }
 
-  private ByteBuffer softCopy(long position, int length) {
-    final int offset = toIntExact(position);
-    return wrap(buffer.array(), offset, min(length, buffer.limit() - offset)).slice();
-  }
+  private int chunkIndex(long position) {
+    if (position < initialBufferSize) {
+      return 0;
+    }
 
-  protected ByteBuffer hardCopy(long position, int length) {
-    final int offset = toIntExact(position);
-    length = min(length, buffer.limit() - offset);
+    return 1 + toIntExact((position - initialBufferSize) / bufferSizeIncrement);
+  }
 
-    byte[] b = new byte[length];
-    arraycopy(buffer.array(), offset, b, 0, length);
-    return wrap(b);
+  private long chunkStart(int chunkIndex) {
+    return chunkIndex == 0 ? 0 : initialBufferSize + ((long) (chunkIndex - 1) * bufferSizeIncrement);
   }
 
-  private boolean canDoSoftCopy() {
-    return streamFullyConsumed ||
-        buffer.capacity() >= maxBufferSize ||
-        bufferSizeIncrement == 0;
+  private int chunkSize(int chunkIndex) {
+    return chunkIndex == 0 ? initialBufferSize : bufferSizeIncrement;
   }
 
-  private boolean canBeExpandedTo(int newSize) {
+  private boolean canBeExpanded() {
     if (bufferSizeIncrement <= 0) {
       return false;
     } else if (maxBufferSize == 0) {
       return true;
     }
 
-    return newSize <= maxBufferSize;
+    return capacity + bufferSizeIncrement <= maxBufferSize;
   }
 }
@@ -36,7 +36,26 @@ public interface InputStreamBuffer {
   ByteBuffer get(long position, int length);
 
   /**
-   * Releases all the resources held by this buffer
+   * Registers a reader of this buffer, such as a cursor. The memory held by the buffer is not released while there are
+   * registered readers, even if the buffer is {@link #close() closed}, since they might still be accessing it through the
+   * buffers returned by {@link #get(long, int)}.
+   *
+   * @return whether the reader was registered. {@code false} if the buffer's resources have already been released
+   * @since 4.2.0
+   */
+  boolean addReader();
+
+  /**
+   * Unregisters a reader previously registered through {@link #addReader()}. The reader must not access any buffer previously
+   * obtained from this one afterwards.
+   *
+   * @since 4.2.0
+   */
+  void removeReader();
+
+  /**
+   * Releases all the resources held by this buffer. Its memory is released once all the readers are
+   * {@link #removeReader() removed}.
    */
   void close();
 }
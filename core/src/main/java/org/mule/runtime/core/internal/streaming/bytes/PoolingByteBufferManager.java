@@ -16,6 +16,8 @@ import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.core.api.config.MuleProperties.MULE_STREAMING_MAX_MEMORY;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
 import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.MULE_STREAMING_MAX_DIRECT_MEMORY;
+import static org.mule.runtime.core.internal.streaming.bytes.DirectBufferUtils.free;
 import static org.mule.runtime.core.internal.util.ConcurrencyUtils.withLock;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.exception.MuleRuntimeException;
@@ -24,6 +26,7 @@ import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
 import org.mule.runtime.core.api.util.func.CheckedRunnable;
 import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
 import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
@@ -59,6 +62,15 @@ import org.slf4j.Logger;
  * {@link #allocate(int)} will block until more memory becomes available (by invoking {@link #deallocate(ByteBuffer)}).
  * If {@link #allocate(int)} is blocked by more than {@link #waitTimeoutMillis} milliseconds, then a
  * {@link MaxStreamingMemoryExceededException} is thrown.
+ * <p>
+ * Optionally, buffers can be allocated in direct (off-heap) memory. In that case, the memory threshold is taken from the
+ * {@link ByteStreamingConstants#MULE_STREAMING_MAX_DIRECT_MEMORY} system property instead and the retained direct memory is
+ * reported to the {@link MutableStreamingStatistics}. Direct buffers up to the
+ * {@link ByteStreamingConstants#DEFAULT_BUFFER_BUCKET_SIZE default size} are cleared and kept idle in the pools like heap ones,
+ * since allocating native memory is expensive. The native memory of larger buffers, or of buffers which don't belong to the pool
+ * they are returned to, is explicitly released as soon as they are {@link #deallocate(ByteBuffer) deallocated}, instead of
+ * waiting for them to be garbage collected. Streaming buffers only deallocate direct buffers once no cursor can read them
+ * anymore, so this happens when the {@link org.mule.runtime.core.internal.streaming.CursorManager} releases their provider.
  *
  * @since 4.0
  */
@@ -71,6 +83,8 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
   private final AtomicLong streamingMemory = new AtomicLong(0);
   private final long maxStreamingMemory;
   private final long waitTimeoutMillis;
+  private final boolean direct;
+  private final MutableStreamingStatistics statistics;
 
   private BufferPool defaultSizePool;
 
@@ -121,14 +135,47 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
    * @param waitTimeoutMillis how long to wait when the pool is exhausted
    */
   public PoolingByteBufferManager(ExecutorService allocationScheduler, MemoryManager memoryManager, long waitTimeoutMillis) {
+    this(allocationScheduler, memoryManager, waitTimeoutMillis, false, null);
+  }
+
+  /**
+   * Creates a new instance which allocates direct (off-heap) buffers. The retained direct memory can grow up to the value
+   * of the {@link ByteStreamingConstants#MULE_STREAMING_MAX_DIRECT_MEMORY} system property or, if not set, to 70% of
+   * {@link MemoryManager#getMaxMemory()}.
+   *
+   * @param allocationScheduler executor to use to allocate the buffer. The pools expiration thread group will be inherited by
+   *        this scheduler threadGroup.
+   * @param memoryManager a {@link MemoryManager} used to determine the runtime's max memory
+   * @param waitTimeoutMillis how long to wait when the pool is exhausted
+   * @param statistics the statistics on which the used direct memory is reported
+   * @since 4.2.0
+   */
+  public PoolingByteBufferManager(ExecutorService allocationScheduler, MemoryManager memoryManager, long waitTimeoutMillis,
+                                  MutableStreamingStatistics statistics) {
+    this(allocationScheduler, memoryManager, waitTimeoutMillis, true, statistics);
+  }
+
+  private PoolingByteBufferManager(ExecutorService allocationScheduler, MemoryManager memoryManager, long waitTimeoutMillis,
+                                   boolean direct, MutableStreamingStatistics statistics) {
     this.allocationScheduler = allocationScheduler;
-    maxStreamingMemory = calculateMaxStreamingMemory(memoryManager);
+    this.direct = direct;
+    this.statistics = statistics;
+    maxStreamingMemory = direct
+        ? calculateMaxStreamingMemory(memoryManager, MULE_STREAMING_MAX_DIRECT_MEMORY)
+        : calculateMaxStreamingMemory(memoryManager);
     this.waitTimeoutMillis = waitTimeoutMillis;
+    if (direct) {
+      statistics.setMaxDirectMemory(maxStreamingMemory);
+    }
     defaultSizePool = newBufferPool(DEFAULT_BUFFER_BUCKET_SIZE);
   }
 
-  private long calculateMaxStreamingMemory(MemoryManager memoryManager) {
-    String maxMemoryProperty = getProperty(MULE_STREAMING_MAX_MEMORY);
+  static long calculateMaxStreamingMemory(MemoryManager memoryManager) {
+    return calculateMaxStreamingMemory(memoryManager, MULE_STREAMING_MAX_MEMORY);
+  }
+
+  private static long calculateMaxStreamingMemory(MemoryManager memoryManager, String maxMemoryPropertyName) {
+    String maxMemoryProperty = getProperty(maxMemoryPropertyName);
     if (maxMemoryProperty == null) {
       return round(memoryManager.getMaxMemory() * MAX_STREAMING_PERCENTILE);
     } else {
@@ -137,11 +184,19 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
       } catch (Exception e) {
         throw new IllegalArgumentException(format("Invalid value for system property '%s'. A memory size (in bytes) was "
             + "expected, got '%s' instead",
-                                                  MULE_STREAMING_MAX_MEMORY, maxMemoryProperty));
+                                                  maxMemoryPropertyName, maxMemoryProperty));
       }
     }
   }
 
+  /**
+   * @return whether this manager allocates direct (off-heap) buffers
+   * @since 4.2.0
+   */
+  public boolean isDirect() {
+    return direct;
+  }
+
   private BufferPool newBufferPool(Integer capacity) {
     // This has to be run in another executor, since the creation of the pool will create its own thread to handle
     // eviction.
@@ -228,6 +283,11 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
         @Override
         public ByteBuffer create() throws Exception {
           if (streamingMemory.addAndGet(bufferCapacity) <= maxStreamingMemory) {
+            if (direct) {
+              ByteBuffer buffer = ByteBuffer.allocateDirect(bufferCapacity);
+              statistics.onDirectMemoryAllocated(bufferCapacity);
+              return buffer;
+            }
             return ByteBuffer.allocate(bufferCapacity);
           }
 
@@ -249,6 +309,10 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
 
         @Override
         public void destroyObject(PooledObject<ByteBuffer> p) throws Exception {
+          if (direct) {
+            free(p.getObject());
+            statistics.onDirectMemoryReleased(bufferCapacity);
+          }
           if (streamingMemory.addAndGet(-bufferCapacity) < maxStreamingMemory) {
             signalPoolNotFull();
           }
@@ -276,10 +340,20 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
     }
 
     private void returnBuffer(ByteBuffer buffer) throws Exception {
-      pool.returnObject(buffer);
+      if (direct && !isReusable(buffer)) {
+        // Destroys the buffer, freeing its native memory
+        pool.invalidateObject(buffer);
+      } else {
+        buffer.clear();
+        pool.returnObject(buffer);
+      }
       signalPoolNotFull();
     }
 
+    private boolean isReusable(ByteBuffer buffer) {
+      return buffer.isDirect() && buffer.capacity() == bufferCapacity && bufferCapacity <= DEFAULT_BUFFER_BUCKET_SIZE;
+    }
+
     private void signalPoolNotFull() {
       signal(poolNotFull::signal);
     }
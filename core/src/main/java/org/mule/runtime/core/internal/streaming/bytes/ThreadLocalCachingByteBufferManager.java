@@ -0,0 +1,456 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Integer.numberOfTrailingZeros;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.calculateMaxStreamingMemory;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ByteBufferManager} implementation which caches released buffers without going through a shared pool.
+ * <p>
+ * Each thread keeps a small magazine of buffers of the {@link ByteStreamingConstants#DEFAULT_BUFFER_BUCKET_SIZE default size},
+ * so that allocating and deallocating those buffers touches no shared state. When the magazine is empty or full, buffers are
+ * taken from or returned to a lock-free slab shared by all threads.
+ * <p>
+ * Any other capacity is rounded up to the next power of two, and buffers are cached in a bounded slab per size class. The
+ * returned buffers have their limit set to the requested capacity. Buffers cached in those slabs still count against the
+ * memory limit, and are dropped to make room when an allocation would otherwise have to wait.
+ * <p>
+ * Just like {@link PoolingByteBufferManager}, the amount of memory retained by allocated buffers is limited. Memory is not
+ * reserved on a single shared counter for each allocation: each thread reserves a stripe of {@link #STRIPE_RESERVATION} bytes
+ * from the shared counter at once and allocates from it, giving back to the shared counter whatever exceeds twice that amount.
+ * The shared counter is only updated with compare-and-set, so concurrent reservations never exceed the limit. When that limit
+ * is reached, invocations to {@link #allocate(int)} will block until more memory becomes available or
+ * {@link #waitTimeoutMillis} elapse, in which case a {@link MaxStreamingMemoryExceededException} is thrown. Only that slow path
+ * synchronizes threads, and while there are threads waiting, released memory goes straight back to the shared counter.
+ * <p>
+ * This manager only allocates heap buffers. Direct buffers must be freed as soon as they are deallocated, which defeats caching
+ * them.
+ *
+ * @since 4.2.0
+ */
+public class ThreadLocalCachingByteBufferManager implements ByteBufferManager, Disposable {
+
+  static final int MAGAZINE_SIZE = 8;
+  static final long STRIPE_RESERVATION = (long) MAGAZINE_SIZE * DEFAULT_BUFFER_BUCKET_SIZE;
+  private static final int MAX_IDLE_PER_SLAB = Runtime.getRuntime().availableProcessors() * MAGAZINE_SIZE;
+  private static final int MAX_SIZE_CLASS = 1 << 30;
+
+  private final AtomicLong streamingMemory = new AtomicLong(0);
+  private final long maxStreamingMemory;
+  private final long waitTimeoutMillis;
+
+  private final ThreadLocal<Magazine> magazines = ThreadLocal.withInitial(this::newMagazine);
+  // Weakly referenced so that the magazines of dead threads can be collected, and the memory reserved by them given back
+  private final Set<MagazineReference> allMagazines = ConcurrentHashMap.newKeySet();
+  private final ReferenceQueue<Magazine> collectedMagazines = new ReferenceQueue<>();
+  private final Slab defaultSizeSlab = new Slab();
+  // Indexed by the base 2 logarithm of the size class
+  private final Slab[] sizeClassSlabs = new Slab[numberOfTrailingZeros(MAX_SIZE_CLASS) + 1];
+
+  private final Lock memoryLock = new ReentrantLock();
+  private final Condition memoryAvailable = memoryLock.newCondition();
+  private final AtomicInteger waiters = new AtomicInteger(0);
+
+  private volatile boolean disposed = false;
+
+  /**
+   * Creates a new instance which allows up to 70% of the runtime's max memory to be used for streaming and has a default wait
+   * timeout. The definition of max memory is that of {@link MemoryManager#getMaxMemory()}
+   */
+  public ThreadLocalCachingByteBufferManager() {
+    this(new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param memoryManager     a {@link MemoryManager} used to determine the runtime's max memory
+   * @param waitTimeoutMillis how long to wait when the streaming memory is exhausted
+   */
+  public ThreadLocalCachingByteBufferManager(MemoryManager memoryManager, long waitTimeoutMillis) {
+    maxStreamingMemory = calculateMaxStreamingMemory(memoryManager);
+    this.waitTimeoutMillis = waitTimeoutMillis;
+    for (int i = 0; i < sizeClassSlabs.length; i++) {
+      sizeClassSlabs[i] = new Slab();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ByteBuffer allocate(int capacity) {
+    final int size = sizeClassOf(capacity);
+    ByteBuffer buffer = null;
+
+    if (size == DEFAULT_BUFFER_BUCKET_SIZE) {
+      reserve(size);
+      if (!disposed) {
+        buffer = magazines.get().pop();
+        if (buffer == null) {
+          buffer = defaultSizeSlab.poll();
+        }
+      }
+    } else if (isPowerOfTwo(size)) {
+      // Cached buffers of a size class already hold their memory
+      buffer = disposed ? null : sizeClassSlabs[numberOfTrailingZeros(size)].poll();
+      if (buffer == null) {
+        reserve(size);
+      }
+    } else {
+      reserve(size);
+    }
+
+    if (buffer == null) {
+      buffer = ByteBuffer.allocate(size);
+    } else {
+      buffer.clear();
+    }
+
+    buffer.limit(capacity);
+    return buffer;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void deallocate(ByteBuffer byteBuffer) {
+    final int size = byteBuffer.capacity();
+
+    if (size == DEFAULT_BUFFER_BUCKET_SIZE) {
+      release(size);
+      if (!disposed && !magazines.get().push(byteBuffer)) {
+        defaultSizeSlab.offer(byteBuffer);
+      }
+    } else if (disposed || !isPowerOfTwo(size) || waiters.get() > 0
+        || !sizeClassSlabs[numberOfTrailingZeros(size)].offer(byteBuffer)) {
+      release(size);
+    }
+  }
+
+  /**
+   * @return the capacity of the buffers allocated for the given {@code capacity}: the default buffer size is kept as is, and any
+   *         other capacity is rounded up to the next power of two, unless it exceeds the largest size class.
+   */
+  private static int sizeClassOf(int capacity) {
+    if (capacity == DEFAULT_BUFFER_BUCKET_SIZE || capacity > MAX_SIZE_CLASS) {
+      return capacity;
+    }
+
+    return capacity <= 1 ? 1 : highestOneBit(capacity - 1) << 1;
+  }
+
+  private static boolean isPowerOfTwo(int size) {
+    return size > 0 && (size & (size - 1)) == 0;
+  }
+
+  private void reserve(long bytes) {
+    Stripe stripe = magazines.get().stripe;
+    if (stripe.take(bytes)) {
+      return;
+    }
+
+    if (tryReserve(bytes + STRIPE_RESERVATION)) {
+      stripe.give(STRIPE_RESERVATION);
+    } else if (!tryReserve(bytes)) {
+      awaitMemory(bytes);
+    }
+  }
+
+  private boolean tryReserve(long bytes) {
+    long current;
+    do {
+      current = streamingMemory.get();
+      if (current + bytes > maxStreamingMemory) {
+        return false;
+      }
+    } while (!streamingMemory.compareAndSet(current, current + bytes));
+
+    return true;
+  }
+
+  private void awaitMemory(long bytes) {
+    waiters.incrementAndGet();
+    memoryLock.lock();
+    try {
+      long remainingNanos = MILLISECONDS.toNanos(waitTimeoutMillis);
+      final long deadline = nanoTime() + remainingNanos;
+      while (true) {
+        if (tryReserve(bytes)) {
+          return;
+        }
+
+        if (expungeCollectedMagazines() + dropIdleSizeClassBuffers() > 0) {
+          continue;
+        }
+
+        if (remainingNanos <= 0) {
+          throw new MaxStreamingMemoryExceededException(createStaticMessage(format(
+                                                                                   "Max streaming memory limit of %d bytes was exceeded",
+                                                                                   maxStreamingMemory)));
+        }
+
+        memoryAvailable.await(remainingNanos, NANOSECONDS);
+        remainingNanos = deadline - nanoTime();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MaxStreamingMemoryExceededException(createStaticMessage("Interrupted while waiting for streaming memory"));
+    } finally {
+      memoryLock.unlock();
+      waiters.decrementAndGet();
+    }
+  }
+
+  private void release(long bytes) {
+    Stripe stripe = magazines.get().stripe;
+    if (waiters.get() > 0) {
+      releaseShared(bytes + stripe.drain());
+      memoryLock.lock();
+      try {
+        memoryAvailable.signalAll();
+      } finally {
+        memoryLock.unlock();
+      }
+    } else {
+      releaseShared(stripe.give(bytes));
+    }
+  }
+
+  private void releaseShared(long bytes) {
+    if (bytes > 0) {
+      streamingMemory.addAndGet(-bytes);
+    }
+  }
+
+  /**
+   * Drops the buffers cached in the size class slabs, giving their memory back to the shared counter.
+   *
+   * @return the amount of memory released
+   */
+  private long dropIdleSizeClassBuffers() {
+    long released = 0;
+    for (Slab slab : sizeClassSlabs) {
+      ByteBuffer buffer;
+      while ((buffer = slab.poll()) != null) {
+        released += buffer.capacity();
+      }
+    }
+
+    releaseShared(released);
+    return released;
+  }
+
+  /**
+   * Forgets the magazines of threads which are no longer alive, giving the memory reserved by them back to the shared counter.
+   *
+   * @return the amount of memory released
+   */
+  private long expungeCollectedMagazines() {
+    long released = 0;
+    Reference<? extends Magazine> collected;
+    while ((collected = collectedMagazines.poll()) != null) {
+      allMagazines.remove(collected);
+      released += ((MagazineReference) collected).stripe.drain();
+    }
+
+    releaseShared(released);
+    return released;
+  }
+
+  private Magazine newMagazine() {
+    expungeCollectedMagazines();
+
+    Magazine magazine = new Magazine();
+    allMagazines.add(new MagazineReference(magazine, collectedMagazines));
+    return magazine;
+  }
+
+  /**
+   * {@inheritDoc}
+   * The buffers cached in the magazines of all threads are dropped, and magazines no longer accept buffers afterwards.
+   */
+  @Override
+  public void dispose() {
+    disposed = true;
+    for (MagazineReference reference : allMagazines) {
+      Magazine magazine = reference.get();
+      if (magazine != null) {
+        magazine.clear();
+      }
+    }
+    allMagazines.clear();
+    defaultSizeSlab.clear();
+    for (Slab slab : sizeClassSlabs) {
+      slab.clear();
+    }
+  }
+
+  /**
+   * A fixed size stack of buffers which is only used by its owning thread. Its monitor is only contended when the manager is
+   * disposed from another thread.
+   */
+  private static class Magazine {
+
+    private final ByteBuffer[] buffers = new ByteBuffer[MAGAZINE_SIZE];
+    private final Stripe stripe = new Stripe();
+    private int size = 0;
+    private boolean cleared = false;
+
+    private synchronized ByteBuffer pop() {
+      if (size == 0) {
+        return null;
+      }
+
+      ByteBuffer buffer = buffers[--size];
+      buffers[size] = null;
+      return buffer;
+    }
+
+    private synchronized boolean push(ByteBuffer buffer) {
+      if (cleared || size == MAGAZINE_SIZE) {
+        return false;
+      }
+
+      buffers[size++] = buffer;
+      return true;
+    }
+
+    private synchronized void clear() {
+      cleared = true;
+      for (int i = 0; i < size; i++) {
+        buffers[i] = null;
+      }
+      size = 0;
+    }
+  }
+
+  /**
+   * Memory reserved from the shared counter by a thread which is not used by any buffer yet. Its monitor is only contended when
+   * the memory of a dead thread is given back.
+   */
+  private static class Stripe {
+
+    private long available = 0;
+
+    private synchronized boolean take(long bytes) {
+      if (available < bytes) {
+        return false;
+      }
+
+      available -= bytes;
+      return true;
+    }
+
+    /**
+     * @return the amount of memory that exceeds what a stripe may keep, which has to be given back to the shared counter
+     */
+    private synchronized long give(long bytes) {
+      available += bytes;
+      if (available <= 2 * STRIPE_RESERVATION) {
+        return 0;
+      }
+
+      long excess = available - STRIPE_RESERVATION;
+      available = STRIPE_RESERVATION;
+      return excess;
+    }
+
+    private synchronized long drain() {
+      long drained = available;
+      available = 0;
+      return drained;
+    }
+  }
+
+  /**
+   * Keeps the {@link Stripe} of a {@link Magazine} reachable after the magazine is collected, so that its memory is not lost
+   */
+  private static class MagazineReference extends WeakReference<Magazine> {
+
+    private final Stripe stripe;
+
+    private MagazineReference(Magazine magazine, ReferenceQueue<Magazine> queue) {
+      super(magazine, queue);
+      stripe = magazine.stripe;
+    }
+  }
+
+  /**
+   * A bounded, lock-free cache of buffers of the same capacity, shared by all threads
+   */
+  private static class Slab {
+
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger(0);
+    private volatile boolean cleared = false;
+
+    private ByteBuffer poll() {
+      ByteBuffer buffer = buffers.poll();
+      if (buffer != null) {
+        size.decrementAndGet();
+      }
+
+      return buffer;
+    }
+
+    /**
+     * @return whether the buffer was cached
+     */
+    private boolean offer(ByteBuffer buffer) {
+      if (cleared) {
+        return false;
+      }
+
+      if (size.incrementAndGet() > MAX_IDLE_PER_SLAB) {
+        size.decrementAndGet();
+        return false;
+      }
+
+      buffers.offer(buffer);
+      if (cleared) {
+        // Raced with clear()
+        buffers.clear();
+      }
+      return true;
+    }
+
+    private void clear() {
+      cleared = true;
+      buffers.clear();
+      size.set(0);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_BUFFER_SIZE;
+
+/**
+ * Configuration for a {@link ObjectStreamBuffer} which uses a local file for buffering
+ *
+ * @since 4.2.0
+ */
+public final class FileStoreCursorIteratorConfig {
+
+  private static final int DEFAULT_MAX_IN_MEMORY_BUCKETS = 10;
+
+  private final int bucketSize;
+  private final int maxInMemoryBuckets;
+
+  /**
+   * @return A new instance configured with default settings
+   */
+  public static FileStoreCursorIteratorConfig getDefault() {
+    return new FileStoreCursorIteratorConfig(DEFAULT_OBJECT_STREAMING_BUFFER_SIZE, DEFAULT_MAX_IN_MEMORY_BUCKETS);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param bucketSize         the amount of instances grouped in each {@link Bucket}. Must be greater than zero
+   * @param maxInMemoryBuckets the maximum amount of already written buckets to keep in memory. Cannot be negative
+   * @throws IllegalArgumentException if any of the given arguments is invalid
+   */
+  public FileStoreCursorIteratorConfig(int bucketSize, int maxInMemoryBuckets) {
+    checkArgument(bucketSize > 0, "bucketSize must be greater than zero");
+    checkArgument(maxInMemoryBuckets >= 0, "maxInMemoryBuckets cannot be negative");
+
+    this.bucketSize = bucketSize;
+    this.maxInMemoryBuckets = maxInMemoryBuckets;
+  }
+
+  /**
+   * @return The amount of instances grouped in each {@link Bucket}
+   */
+  public int getBucketSize() {
+    return bucketSize;
+  }
+
+  /**
+   * @return The maximum amount of already written buckets to keep in memory
+   */
+  public int getMaxInMemoryBuckets() {
+    return maxInMemoryBuckets;
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.nio.ByteBuffer.allocate;
+import static java.nio.ByteBuffer.wrap;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An {@link AbstractObjectStreamBuffer} implementation which only keeps a bounded amount of {@link Bucket buckets} in memory.
+ * <p>
+ * All buckets have the same capacity. Each time a bucket gets full, it is serialized with the given {@link ObjectSerializer}
+ * and appended to a segment file. Only the bucket currently being filled plus the most recently used written buckets
+ * are kept in memory. Buckets which are not present are read back from the segment file on demand.
+ * <p>
+ * Items in the stream need to be serializable by the given {@link ObjectSerializer}.
+ *
+ * @param <T> The generic type of the items in the stream
+ * @since 4.2.0
+ */
+public class FileStoreObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T> {
+
+  private final FileStoreCursorIteratorConfig config;
+  private final ObjectSerializer serializer;
+  private final Map<Integer, Bucket<T>> hotBuckets;
+  private final List<Segment> segments = new ArrayList<>();
+
+  private File segmentFile;
+  private RandomAccessFile randomAccessFile;
+  private FileChannel segmentChannel;
+  private long segmentFileTip = 0;
+
+  public FileStoreObjectStreamBuffer(Iterator<T> stream, FileStoreCursorIteratorConfig config, ObjectSerializer serializer) {
+    super(stream);
+    this.config = config;
+    this.serializer = serializer;
+
+    final int maxInMemoryBuckets = config.getMaxInMemoryBuckets();
+    hotBuckets = new LinkedHashMap<Integer, Bucket<T>>(maxInMemoryBuckets + 1, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Bucket<T>> eldest) {
+        return size() > maxInMemoryBuckets;
+      }
+    };
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Position toPosition(long position) {
+    final int bucketSize = config.getBucketSize();
+    return new Position((int) (position / bucketSize), (int) (position % bucketSize));
+  }
+
+  @Override
+  protected void initialize(Optional<Position> maxPosition, Bucket<T> initialBucket) {
+    setCurrentBucket(new Bucket<>(0, config.getBucketSize()));
+  }
+
+  @Override
+  protected Optional<Bucket<T>> getPresentBucket(Position position) {
+    final int bucketIndex = position.getBucketIndex();
+    final Bucket<T> current = getCurrentBucket();
+    if (current != null && current.getIndex() == bucketIndex) {
+      return of(current);
+    }
+
+    if (bucketIndex < segments.size()) {
+      return of(getWrittenBucket(bucketIndex));
+    }
+
+    return empty();
+  }
+
+  private Bucket<T> getWrittenBucket(int bucketIndex) {
+    Bucket<T> bucket;
+    synchronized (hotBuckets) {
+      bucket = hotBuckets.get(bucketIndex);
+    }
+
+    if (bucket == null) {
+      bucket = readBucket(segments.get(bucketIndex));
+      cache(bucket);
+    }
+
+    return bucket;
+  }
+
+  @Override
+  protected Bucket<T> onBucketOverflow(Bucket<T> overflownBucket) {
+    writeBucket(overflownBucket);
+    cache(overflownBucket);
+
+    return new Bucket<>(overflownBucket.getIndex() + 1, config.getBucketSize());
+  }
+
+  private void cache(Bucket<T> bucket) {
+    synchronized (hotBuckets) {
+      hotBuckets.put(bucket.getIndex(), bucket);
+    }
+  }
+
+  private void writeBucket(Bucket<T> bucket) {
+    try {
+      if (segmentChannel == null) {
+        segmentFile = createBufferFile("file-store-objects");
+        randomAccessFile = new RandomAccessFile(segmentFile, "rw");
+        segmentChannel = randomAccessFile.getChannel();
+      }
+
+      ByteBuffer data = wrap(serializer.getInternalProtocol().serialize(bucket));
+      final Segment segment = new Segment(segmentFileTip, data.remaining());
+      while (data.hasRemaining()) {
+        segmentFileTip += segmentChannel.write(data, segmentFileTip);
+      }
+
+      segments.add(segment);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write objects to buffer file " + segmentFile), e);
+    }
+  }
+
+  private Bucket<T> readBucket(Segment segment) {
+    try {
+      ByteBuffer data = allocate(segment.length);
+      long position = segment.offset;
+      while (data.hasRemaining()) {
+        int read = segmentChannel.read(data, position);
+        if (read < 0) {
+          throw new IOException("Unexpected end of buffer file " + segmentFile);
+        }
+        position += read;
+      }
+
+      return serializer.getInternalProtocol().deserialize(data.array());
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read objects from buffer file " + segmentFile), e);
+    }
+  }
+
+  @Override
+  protected void validateMaxBufferSizeNotExceeded(int instancesCount) {
+    // items are not retained in memory, so there's no limit to enforce
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void doClose() {
+    synchronized (hotBuckets) {
+      hotBuckets.clear();
+    }
+    segments.clear();
+
+    if (segmentChannel != null) {
+      closeSafely(segmentChannel::close);
+      closeSafely(randomAccessFile::close);
+      segmentChannel = null;
+    }
+
+    if (segmentFile != null) {
+      deleteQuietly(segmentFile);
+    }
+  }
+
+  /**
+   * The region of the segment file in which a bucket was written
+   */
+  private static class Segment {
+
+    private final long offset;
+    private final int length;
+
+    private Segment(long offset, int length) {
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+}
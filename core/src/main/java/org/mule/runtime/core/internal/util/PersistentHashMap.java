@@ -0,0 +1,506 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.Integer.bitCount;
+import static java.lang.System.arraycopy;
+import static java.util.Arrays.asList;
+import static java.util.Objects.requireNonNull;
+import static org.mule.runtime.core.api.util.StringUtils.caseInsensitiveHashCode;
+
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable {@link Map} in which adding or removing an entry returns a new map that shares most of its structure with the
+ * original one, instead of copying it.
+ * <p>
+ * Entries are kept in a hash array mapped trie: each level of the trie consumes 5 bits of the hash of the keys, so
+ * {@link #plus(Object, Object)} and {@link #minus(Object)} only copy the nodes in the path to the entry, which is at most 7
+ * nodes of up to 32 slots, regardless of the size of the map. Lookups visit the same path.
+ * <p>
+ * A map created through {@link #emptyCaseInsensitive()} has the semantics of a {@link CaseInsensitiveHashMap}: its keys are
+ * {@link String strings} compared with {@link String#equalsIgnoreCase(String)}, and the case of a key is preserved as it was
+ * when first added. Keys are hashed without creating a lower case copy of them.
+ * <p>
+ * The mutating methods of {@link Map} throw {@link UnsupportedOperationException}. Instances are thread-safe.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @since 4.2.0
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+  private static final long serialVersionUID = -1652165479254862935L;
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  @SuppressWarnings("rawtypes")
+  private static final PersistentHashMap EMPTY = new PersistentHashMap<>(false, new BitmapNode(0, new Object[0]), 0);
+  @SuppressWarnings("rawtypes")
+  private static final PersistentHashMap EMPTY_CASE_INSENSITIVE =
+      new PersistentHashMap<>(true, new BitmapNode(0, new Object[0]), 0);
+
+  /**
+   * @return an empty map which compares keys with {@link Object#equals(Object)}
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentHashMap<K, V> empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @return an empty map which compares {@link String} keys ignoring their case
+   */
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentHashMap<String, V> emptyCaseInsensitive() {
+    return EMPTY_CASE_INSENSITIVE;
+  }
+
+  /**
+   * Returns a map with the entries of the given {@code map}, which compares keys with {@link Object#equals(Object)}. If the
+   * given {@code map} already is such a {@link PersistentHashMap}, it is returned as is.
+   *
+   * @param map the map to copy
+   * @return a {@link PersistentHashMap}
+   */
+  public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+    return copyOf(map, empty());
+  }
+
+  /**
+   * Returns a map with the entries of the given {@code map}, which compares {@link String} keys ignoring their case. If the given
+   * {@code map} already is such a {@link PersistentHashMap}, it is returned as is.
+   *
+   * @param map the map to copy
+   * @return a {@link PersistentHashMap}
+   */
+  public static <V> PersistentHashMap<String, V> caseInsensitiveCopyOf(Map<String, ? extends V> map) {
+    return copyOf(map, emptyCaseInsensitive());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map, PersistentHashMap<K, V> empty) {
+    if (map instanceof PersistentHashMap && ((PersistentHashMap) map).caseInsensitive == empty.caseInsensitive) {
+      return (PersistentHashMap<K, V>) map;
+    }
+
+    PersistentHashMap<K, V> copy = empty;
+    for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+      copy = copy.plus(entry.getKey(), entry.getValue());
+    }
+    return copy;
+  }
+
+  private final boolean caseInsensitive;
+  private final transient BitmapNode root;
+  private final transient int size;
+  private transient Set<Map.Entry<K, V>> entrySet;
+
+  private PersistentHashMap(boolean caseInsensitive, BitmapNode root, int size) {
+    this.caseInsensitive = caseInsensitive;
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns a map with the entries of this one plus the given one. If this map already has an entry for an equivalent key, its
+   * value is replaced but the key is kept as it is.
+   *
+   * @param key the key of the entry to add
+   * @param value the value of the entry to add
+   * @return a new map, or this same instance if it already has the given entry
+   */
+  public PersistentHashMap<K, V> plus(K key, V value) {
+    requireNonNull(key, "key cannot be null");
+    int hash = hash(key);
+    Entry existing = find(root, hash, key, 0);
+    if (existing != null && existing.getValue() == value) {
+      return this;
+    }
+
+    Entry entry = new Entry(existing != null ? existing.getKey() : key, value, hash);
+    return new PersistentHashMap<>(caseInsensitive, (BitmapNode) put(root, entry, 0), existing != null ? size : size + 1);
+  }
+
+  /**
+   * Returns a map with the entries of this one except for the one with the given {@code key}.
+   *
+   * @param key the key of the entry to remove
+   * @return a new map, or this same instance if it has no entry for the given {@code key}
+   */
+  @SuppressWarnings("unchecked")
+  public PersistentHashMap<K, V> minus(Object key) {
+    if (key == null) {
+      return this;
+    }
+    int hash = hash(key);
+    if (find(root, hash, key, 0) == null) {
+      return this;
+    }
+
+    Object newRoot = remove(root, hash, key, 0);
+    if (newRoot == null) {
+      return caseInsensitive ? (PersistentHashMap<K, V>) EMPTY_CASE_INSENSITIVE : empty();
+    } else if (newRoot instanceof Entry) {
+      Entry remaining = (Entry) newRoot;
+      newRoot = new BitmapNode(bit(remaining.hash, 0), new Object[] {remaining});
+    }
+    return new PersistentHashMap<>(caseInsensitive, (BitmapNode) newRoot, size - 1);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key != null && find(root, hash(key), key, 0) != null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    if (key == null) {
+      return null;
+    }
+    Entry entry = find(root, hash(key), key, 0);
+    return entry != null ? (V) entry.getValue() : null;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Map.Entry<K, V>>() {
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+          return new EntryIterator(root);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  private int hash(Object key) {
+    int h;
+    if (caseInsensitive) {
+      h = caseInsensitiveHashCode(key.toString());
+    } else {
+      h = key.hashCode();
+    }
+    // Spreads the higher bits, since the lower ones are consumed first
+    return h ^ (h >>> 16);
+  }
+
+  private boolean isEqualKey(Object key1, Object key2) {
+    if (caseInsensitive && key1 instanceof String && key2 instanceof String) {
+      return ((String) key1).equalsIgnoreCase((String) key2);
+    }
+    return Objects.equals(key1, key2);
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  private Entry find(Object node, int hash, Object key, int shift) {
+    while (true) {
+      if (node instanceof CollisionNode) {
+        for (Entry entry : ((CollisionNode) node).entries) {
+          if (isEqualKey(entry.getKey(), key)) {
+            return entry;
+          }
+        }
+        return null;
+      }
+
+      BitmapNode bitmapNode = (BitmapNode) node;
+      int bit = bit(hash, shift);
+      if ((bitmapNode.bitmap & bit) == 0) {
+        return null;
+      }
+      Object slot = bitmapNode.slots[bitmapNode.index(bit)];
+      if (slot instanceof Entry) {
+        Entry entry = (Entry) slot;
+        return entry.hash == hash && isEqualKey(entry.getKey(), key) ? entry : null;
+      }
+      node = slot;
+      shift += BITS;
+    }
+  }
+
+  private Object put(Object node, Entry entry, int shift) {
+    if (node instanceof CollisionNode) {
+      Entry[] entries = ((CollisionNode) node).entries;
+      for (int i = 0; i < entries.length; ++i) {
+        if (isEqualKey(entries[i].getKey(), entry.getKey())) {
+          Entry[] updated = entries.clone();
+          updated[i] = entry;
+          return new CollisionNode(updated);
+        }
+      }
+      Entry[] updated = new Entry[entries.length + 1];
+      arraycopy(entries, 0, updated, 0, entries.length);
+      updated[entries.length] = entry;
+      return new CollisionNode(updated);
+    }
+
+    BitmapNode bitmapNode = (BitmapNode) node;
+    int bit = bit(entry.hash, shift);
+    int index = bitmapNode.index(bit);
+    if ((bitmapNode.bitmap & bit) == 0) {
+      return bitmapNode.insert(bit, index, entry);
+    }
+
+    Object slot = bitmapNode.slots[index];
+    if (slot instanceof Entry) {
+      Entry current = (Entry) slot;
+      if (current.hash == entry.hash && isEqualKey(current.getKey(), entry.getKey())) {
+        return bitmapNode.replace(index, entry);
+      }
+      return bitmapNode.replace(index, merge(current, entry, shift + BITS));
+    }
+    return bitmapNode.replace(index, put(slot, entry, shift + BITS));
+  }
+
+  private static Object merge(Entry entry1, Entry entry2, int shift) {
+    if (shift >= Integer.SIZE) {
+      return new CollisionNode(new Entry[] {entry1, entry2});
+    }
+
+    int bit1 = bit(entry1.hash, shift);
+    int bit2 = bit(entry2.hash, shift);
+    if (bit1 == bit2) {
+      return new BitmapNode(bit1, new Object[] {merge(entry1, entry2, shift + BITS)});
+    }
+    // Compared as unsigned, since the bit for the last slot is the sign bit
+    return new BitmapNode(bit1 | bit2, Integer.compareUnsigned(bit1, bit2) < 0 ? new Object[] {entry1, entry2}
+        : new Object[] {entry2, entry1});
+  }
+
+  /**
+   * Removes the entry with the given key, which must be present in the given node.
+   *
+   * @return {@code null} if the node is left empty, the only {@link Entry} left in the node if it has no other entries or nodes,
+   *         or the new node otherwise.
+   */
+  private Object remove(Object node, int hash, Object key, int shift) {
+    if (node instanceof CollisionNode) {
+      Entry[] entries = ((CollisionNode) node).entries;
+      if (entries.length == 2) {
+        return isEqualKey(entries[0].getKey(), key) ? entries[1] : entries[0];
+      }
+      Entry[] updated = new Entry[entries.length - 1];
+      int j = 0;
+      for (Entry entry : entries) {
+        if (!isEqualKey(entry.getKey(), key)) {
+          updated[j++] = entry;
+        }
+      }
+      return new CollisionNode(updated);
+    }
+
+    BitmapNode bitmapNode = (BitmapNode) node;
+    int bit = bit(hash, shift);
+    int index = bitmapNode.index(bit);
+    Object slot = bitmapNode.slots[index];
+
+    Object updatedSlot = slot instanceof Entry ? null : remove(slot, hash, key, shift + BITS);
+    if (updatedSlot == null) {
+      if (bitmapNode.slots.length == 1) {
+        return null;
+      }
+      if (bitmapNode.slots.length == 2 && bitmapNode.slots[1 - index] instanceof Entry) {
+        return bitmapNode.slots[1 - index];
+      }
+      return bitmapNode.delete(bit, index);
+    }
+    if (updatedSlot instanceof Entry && bitmapNode.slots.length == 1) {
+      return updatedSlot;
+    }
+    return bitmapNode.replace(index, updatedSlot);
+  }
+
+  private Object writeReplace() {
+    return new SerializedForm(this);
+  }
+
+  private void readObject(ObjectInputStream in) throws InvalidObjectException {
+    throw new InvalidObjectException("Proxy required");
+  }
+
+  /**
+   * Node of the trie which has a slot for each value of the bits of the hash consumed at its level, either holding an
+   * {@link Entry} or a child node. Only the used slots are allocated.
+   */
+  private static final class BitmapNode {
+
+    private final int bitmap;
+    private final Object[] slots;
+
+    private BitmapNode(int bitmap, Object[] slots) {
+      this.bitmap = bitmap;
+      this.slots = slots;
+    }
+
+    private int index(int bit) {
+      return bitCount(bitmap & (bit - 1));
+    }
+
+    private BitmapNode insert(int bit, int index, Object slot) {
+      Object[] updated = new Object[slots.length + 1];
+      arraycopy(slots, 0, updated, 0, index);
+      updated[index] = slot;
+      arraycopy(slots, index, updated, index + 1, slots.length - index);
+      return new BitmapNode(bitmap | bit, updated);
+    }
+
+    private BitmapNode replace(int index, Object slot) {
+      Object[] updated = slots.clone();
+      updated[index] = slot;
+      return new BitmapNode(bitmap, updated);
+    }
+
+    private BitmapNode delete(int bit, int index) {
+      Object[] updated = new Object[slots.length - 1];
+      arraycopy(slots, 0, updated, 0, index);
+      arraycopy(slots, index + 1, updated, index, slots.length - index - 1);
+      return new BitmapNode(bitmap & ~bit, updated);
+    }
+  }
+
+  /**
+   * Node holding the entries whose keys have the same hash.
+   */
+  private static final class CollisionNode {
+
+    private final Entry[] entries;
+
+    private CollisionNode(Entry[] entries) {
+      this.entries = entries;
+    }
+  }
+
+  private static final class Entry extends SimpleImmutableEntry<Object, Object> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int hash;
+
+    private Entry(Object key, Object value, int hash) {
+      super(key, value);
+      this.hash = hash;
+    }
+  }
+
+  private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+    private final Deque<Iterator<Object>> stack = new ArrayDeque<>();
+    private Entry next;
+
+    private EntryIterator(BitmapNode root) {
+      push(root);
+      advance();
+    }
+
+    private void push(Object node) {
+      Object[] slots = node instanceof CollisionNode ? ((CollisionNode) node).entries : ((BitmapNode) node).slots;
+      stack.push(asList(slots).iterator());
+    }
+
+    private void advance() {
+      next = null;
+      while (next == null && !stack.isEmpty()) {
+        Iterator<Object> current = stack.peek();
+        if (!current.hasNext()) {
+          stack.pop();
+          continue;
+        }
+        Object slot = current.next();
+        if (slot instanceof Entry) {
+          next = (Entry) slot;
+        } else {
+          push(slot);
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map.Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Entry result = next;
+      advance();
+      return (Map.Entry<K, V>) (Map.Entry<?, ?>) result;
+    }
+  }
+
+  /**
+   * Serialized form of a {@link PersistentHashMap}, which holds its entries in arrays instead of the trie.
+   */
+  private static final class SerializedForm implements Serializable {
+
+    private static final long serialVersionUID = 2952532716046291618L;
+
+    private final boolean caseInsensitive;
+    private final Object[] keys;
+    private final Object[] values;
+
+    private SerializedForm(PersistentHashMap<?, ?> map) {
+      caseInsensitive = map.caseInsensitive;
+      keys = new Object[map.size];
+      values = new Object[map.size];
+      int i = 0;
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        keys[i] = entry.getKey();
+        values[i] = entry.getValue();
+        ++i;
+      }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readResolve() {
+      PersistentHashMap map = caseInsensitive ? EMPTY_CASE_INSENSITIVE : EMPTY;
+      for (int i = 0; i < keys.length; ++i) {
+        map = map.plus(keys[i], values[i]);
+      }
+      return map;
+    }
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import static java.nio.ByteBuffer.wrap;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.Preconditions.checkState;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the entries of a {@link TransactionJournalFile} in batches.
+ * <p>
+ * Committers enqueue their already serialized entries in a bounded ring buffer. A single writer task takes all the entries
+ * available in the ring, appends them to the journal file with one gathering write and forces the file to disk once for the whole
+ * batch. Committers are released through {@link #awaitDurable(long)} only once the batch holding their entry is durable, so many
+ * concurrent transactions share the cost of each {@code force()}.
+ * <p>
+ * The writer task doesn't own a thread: it is submitted to an IO {@link Scheduler} when entries are enqueued and none is running,
+ * and it finishes as soon as the ring is empty. A journal file which is not being written to, like the one of a
+ * {@link TransactionJournal} which is not the current one, holds no thread at all.
+ *
+ * @since 4.2.0
+ */
+class JournalGroupCommitWriter {
+
+  static final int RING_SIZE = 1024;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JournalGroupCommitWriter.class);
+
+  private final String journalName;
+  private final byte[][] ring = new byte[RING_SIZE][];
+  private final Lock lock = new ReentrantLock();
+  private final Condition notFull = lock.newCondition();
+  private final Condition batchWritten = lock.newCondition();
+  private final Condition writerDone = lock.newCondition();
+  private final Scheduler scheduler;
+
+  private FileChannel channel;
+  private long enqueued = 0;
+  private long taken = 0;
+  private long durable = 0;
+  private IOException failure;
+  private boolean writing = false;
+  private boolean closed = false;
+
+  /**
+   * @param journalName the name of the journal file, used in error messages
+   * @param channel     the channel of the journal file, which must be in append mode
+   * @param scheduler   the IO scheduler on which batches are written. It is not stopped by this writer.
+   */
+  JournalGroupCommitWriter(String journalName, FileChannel channel, Scheduler scheduler) {
+    this.journalName = journalName;
+    this.channel = channel;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Adds a serialized entry to the next batch, waiting for room in the ring buffer if necessary.
+   *
+   * @param entry the serialized journal entry
+   * @return the sequence of the entry, to be used with {@link #awaitDurable(long)}
+   */
+  long enqueue(byte[] entry) {
+    final long sequence;
+    final boolean startWriter;
+    lock.lock();
+    try {
+      while (enqueued - taken == RING_SIZE && !closed) {
+        notFull.awaitUninterruptibly();
+      }
+      checkState(!closed, "Transaction journal " + journalName + " has already been closed");
+
+      ring[(int) (enqueued % RING_SIZE)] = entry;
+      sequence = ++enqueued;
+      startWriter = !writing;
+      writing = true;
+    } finally {
+      lock.unlock();
+    }
+
+    if (startWriter) {
+      startWriter();
+    }
+    return sequence;
+  }
+
+  private void startWriter() {
+    try {
+      scheduler.execute(this::writeBatches);
+    } catch (RejectedExecutionException e) {
+      // If the Scheduler is busy and can't accept the task, the batch is written in the current thread.
+      writeBatches();
+    }
+  }
+
+  /**
+   * Waits until the entry with the given {@code sequence} has been written and forced to disk.
+   *
+   * @param sequence the sequence returned by {@link #enqueue(byte[])}
+   * @throws MuleRuntimeException if the journal file could not be written
+   */
+  void awaitDurable(long sequence) {
+    lock.lock();
+    try {
+      while (durable < sequence) {
+        if (failure != null) {
+          throw new MuleRuntimeException(createStaticMessage("Could not write to transaction journal " + journalName), failure);
+        }
+        batchWritten.awaitUninterruptibly();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Waits until all the entries enqueued so far are durable.
+   */
+  void flush() {
+    final long sequence;
+    lock.lock();
+    try {
+      sequence = enqueued;
+    } finally {
+      lock.unlock();
+    }
+    awaitDurable(sequence);
+  }
+
+  /**
+   * Flushes the pending entries and makes the following batches be written to the given {@code channel}.
+   *
+   * @param channel the channel of the new journal file
+   */
+  void reset(FileChannel channel) {
+    flush();
+    lock.lock();
+    try {
+      this.channel = channel;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Waits for the pending entries to be written and rejects any further entry. The channel is not closed.
+   */
+  void close() {
+    lock.lock();
+    try {
+      closed = true;
+      notFull.signalAll();
+      while (writing) {
+        writerDone.awaitUninterruptibly();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes batches until the ring is empty.
+   */
+  private void writeBatches() {
+    while (true) {
+      final ByteBuffer[] batch;
+      final long batchEnd;
+      final FileChannel target;
+
+      lock.lock();
+      try {
+        if (enqueued == taken) {
+          writing = false;
+          writerDone.signalAll();
+          return;
+        }
+
+        batch = new ByteBuffer[(int) (enqueued - taken)];
+        for (int i = 0; i < batch.length; i++) {
+          final int slot = (int) ((taken + i) % RING_SIZE);
+          batch[i] = wrap(ring[slot]);
+          ring[slot] = null;
+        }
+        taken = enqueued;
+        batchEnd = enqueued;
+        target = channel;
+        notFull.signalAll();
+      } finally {
+        lock.unlock();
+      }
+
+      IOException error = null;
+      if (failure == null) {
+        try {
+          write(target, batch);
+          target.force(false);
+        } catch (IOException e) {
+          LOGGER.error("Could not write to transaction journal " + journalName, e);
+          error = e;
+        }
+      }
+
+      lock.lock();
+      try {
+        if (error != null) {
+          // a partially written batch leaves the journal in an unknown state, so no further entries are considered durable
+          failure = error;
+        } else if (failure == null) {
+          durable = batchEnd;
+        }
+        batchWritten.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private static void write(FileChannel channel, ByteBuffer[] batch) throws IOException {
+    int index = 0;
+    while (index < batch.length) {
+      channel.write(batch, index, batch.length - index);
+      while (index < batch.length && !batch[index].hasRemaining()) {
+        index++;
+      }
+    }
+  }
+}
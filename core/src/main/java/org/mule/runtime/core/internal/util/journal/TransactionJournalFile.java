@@ -7,11 +7,13 @@
 package org.mule.runtime.core.internal.util.journal;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -50,7 +52,9 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
 
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
+  private FileOutputStream logFileStream;
   private DataOutputStream logFileOutputStream;
+  private JournalGroupCommitWriter groupCommitWriter;
   private int journalOperations = 0;
 
   /**
@@ -61,6 +65,21 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
                                 TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes, null);
+  }
+
+  /**
+   * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
+   *        loaded from it.
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param groupCommitScheduler the IO scheduler on which a {@link JournalGroupCommitWriter} writes the entries in batches, or
+   *        {@code null} to write each entry as it is logged
+   * @since 4.2.0
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                Scheduler groupCommitScheduler) {
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
@@ -68,17 +87,42 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
       loadAllEntries(transactionCompletePredicate);
     }
     createLogOutputStream();
+    if (groupCommitScheduler != null) {
+      groupCommitWriter = new JournalGroupCommitWriter(journalFile.getName(), logFileStream.getChannel(), groupCommitScheduler);
+    }
   }
 
   /**
    * Adds a journal entry for an operation done over a transactional resource
-   * 
+   * <p>
+   * When using group commit, the entry is only enqueued for writing. Use {@link #awaitDurable(long)} with the returned sequence
+   * to wait until it's durable, preferably without holding any lock so that other entries can join the same batch.
+   *
    * @param journalEntry operation details
+   * @return the sequence of the entry in the group commit writer, or {@code 0} if group commit is not used
    */
-  public synchronized void logOperation(K journalEntry) {
+  public synchronized long logOperation(K journalEntry) {
     entries.put(journalEntry.getTxId(), journalEntry);
-    journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
     journalOperations++;
+    if (groupCommitWriter == null) {
+      journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
+      return 0;
+    }
+
+    ByteArrayOutputStream serializedEntry = new ByteArrayOutputStream();
+    journalEntrySerializer.serialize(journalEntry, new DataOutputStream(serializedEntry));
+    return groupCommitWriter.enqueue(serializedEntry.toByteArray());
+  }
+
+  /**
+   * Waits until the entry logged with the given {@code sequence} is durable. Does nothing if group commit is not used.
+   *
+   * @param sequence the value returned by {@link #logOperation(JournalEntry)}
+   */
+  public void awaitDurable(long sequence) {
+    if (groupCommitWriter != null) {
+      groupCommitWriter.awaitDurable(sequence);
+    }
   }
 
   /**
@@ -120,6 +164,13 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Will not remove the transaction context.
    */
   public synchronized void close() {
+    if (groupCommitWriter != null) {
+      groupCommitWriter.close();
+    }
+    closeLogOutputStream();
+  }
+
+  private void closeLogOutputStream() {
     try {
       logFileOutputStream.close();
     } catch (IOException e) {
@@ -156,10 +207,16 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Remove all the entries from the transaction journal and cleans the transaction journal fle.
    */
   public synchronized void clear() {
-    close();
+    if (groupCommitWriter != null) {
+      groupCommitWriter.flush();
+    }
+    closeLogOutputStream();
     entries.clear();
     FileUtils.deleteQuietly(journalFile);
     createLogOutputStream();
+    if (groupCommitWriter != null) {
+      groupCommitWriter.reset(logFileStream.getChannel());
+    }
   }
 
   private void createLogOutputStream() {
@@ -171,7 +228,8 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
       }
     }
     try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
+      this.logFileStream = new FileOutputStream(journalFile, true);
+      this.logFileOutputStream = new DataOutputStream(logFileStream);
     } catch (FileNotFoundException e) {
       throw new MuleRuntimeException(e);
     }
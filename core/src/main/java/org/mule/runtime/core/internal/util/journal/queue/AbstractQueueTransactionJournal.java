@@ -6,7 +6,11 @@
  */
 package org.mule.runtime.core.internal.util.journal.queue;
 
+import static java.lang.Boolean.getBoolean;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.internal.util.journal.TransactionJournal.GROUP_COMMIT_PROPERTY;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.internal.util.journal.JournalEntry;
 import org.mule.runtime.core.internal.util.journal.JournalEntrySerializer;
 import org.mule.runtime.core.internal.util.journal.TransactionCompletePredicate;
@@ -32,11 +36,26 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
   protected transient Logger logger = LoggerFactory.getLogger(getClass());
 
   private TransactionJournal<T, K> logFile;
+  private Scheduler groupCommitScheduler;
 
   public AbstractQueueTransactionJournal(String logFilesDirectory, JournalEntrySerializer journalEntrySerializer,
                                          Integer maximumFileSizeInMegabytes) {
+    this(logFilesDirectory, journalEntrySerializer, maximumFileSizeInMegabytes, null);
+  }
+
+  /**
+   * @param muleContext the context from which the IO scheduler used for {@link TransactionJournal#GROUP_COMMIT_PROPERTY group
+   *        commit} is obtained. Group commit is not used if it is {@code null}.
+   * @since 4.2.0
+   */
+  public AbstractQueueTransactionJournal(String logFilesDirectory, JournalEntrySerializer journalEntrySerializer,
+                                         Integer maximumFileSizeInMegabytes, MuleContext muleContext) {
     checkArgument(maximumFileSizeInMegabytes == null || maximumFileSizeInMegabytes > 0,
                   "Maximum tx log file size needs to be greater than zero");
+    if (muleContext != null && getBoolean(GROUP_COMMIT_PROPERTY)) {
+      groupCommitScheduler = muleContext.getSchedulerService()
+          .ioScheduler(muleContext.getSchedulerBaseConfig().withName("tx-journal-writer"));
+    }
     this.logFile = new TransactionJournal(logFilesDirectory, new TransactionCompletePredicate() {
 
       @Override
@@ -44,7 +63,7 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
         AbstractQueueTxJournalEntry abstractQueueTxJournalEntry = (AbstractQueueTxJournalEntry) journalEntry;
         return abstractQueueTxJournalEntry.isCommit() || abstractQueueTxJournalEntry.isRollback();
       }
-    }, journalEntrySerializer, maximumFileSizeInMegabytes);
+    }, journalEntrySerializer, maximumFileSizeInMegabytes, groupCommitScheduler);
   }
 
   public void logAdd(T txId, QueueStore queue, Serializable value) {
@@ -111,6 +130,9 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
 
   public synchronized void close() {
     logFile.close();
+    if (groupCommitScheduler != null) {
+      groupCommitScheduler.stop();
+    }
   }
 
   public synchronized void clear() {
@@ -0,0 +1,821 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Long.parseLong;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.util.Arrays.sort;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.Preconditions.checkState;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.api.MuleContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation which stores the queue data in a segmented append-only log.
+ * <p/>
+ * Every operation appends a record to the active segment file: added items (untaken items get a position before the current
+ * head), tombstones for removed items and markers for cleared queues. Records are never rewritten in place, and once the active
+ * segment reaches {@link #MAX_SEGMENT_SIZE_PROPERTY_KEY its maximum size} a new one is started. The order of the queue and the
+ * location of each item are kept in an in-memory index which is rebuilt by replaying the segments when the queue is opened, so
+ * reading or removing the head never scans the files.
+ * <p/>
+ * Writers don't sync the log themselves. They wait for a sync task, run on an IO {@link Scheduler}, which forces the log to disk
+ * once for all the records appended since its previous sync, so the cost of each {@code fsync} is shared by all concurrent
+ * producers and consumers.
+ * <p/>
+ * A periodic task on that same scheduler reclaims disk space: segments without live items are deleted, and the few items left in
+ * a mostly consumed segment are moved to the active segment so it can be deleted as well. The log is always forced before
+ * deleting a segment, so the tombstones of the items removed from it can't be lost.
+ *
+ * @since 4.2.0
+ */
+public class LogStructuredQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  public static final String MAX_SEGMENT_SIZE_PROPERTY_KEY = SYSTEM_PROPERTY_PREFIX + "queue.log.maxSegmentSize";
+
+  private static final int DEFAULT_MAX_SEGMENT_SIZE = 4 * 1024 * 1024;
+  private static final double COMPACTION_THRESHOLD = 0.25;
+  private static final long COMPACTION_INTERVAL_MILLIS = 1000;
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String LOG_DIRECTORY_SUFFIX = "-log";
+  private static final String SEGMENT_SUFFIX = ".segment";
+
+  private static final byte PUT = 1;
+  private static final byte REMOVE = 2;
+  private static final byte CLEAR = 3;
+
+  // checksum + type + position + length
+  private static final int HEADER_SIZE = 4 + 1 + 8 + 4;
+  private static final byte[] EMPTY_PAYLOAD = new byte[0];
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final String queueName;
+  private final int capacity;
+  private final int maxSegmentSize;
+  private final ObjectSerializer serializer;
+  private final File logDirectory;
+
+  private final Lock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+  private final NavigableMap<Long, Entry> index = new TreeMap<>();
+  private final List<Segment> segments = new ArrayList<>();
+  private volatile Segment activeSegment;
+  private long nextSegmentId = 0;
+  private long headPosition;
+  private long tailPosition;
+  private long minRecoveredPosition = Long.MAX_VALUE;
+  private long maxRecoveredPosition = Long.MIN_VALUE;
+  private volatile long writtenBytes = 0;
+
+  private final Lock syncLock = new ReentrantLock();
+  private final Condition syncCompleted = syncLock.newCondition();
+  private long requestedBytes = 0;
+  private long syncedBytes = 0;
+  private long failedBytes = 0;
+  private IOException syncFailure;
+  private boolean syncScheduled = false;
+  private boolean stopped = false;
+
+  private final Scheduler scheduler;
+  private final ScheduledFuture<?> compactionTask;
+  private boolean closed = false;
+
+  public LogStructuredQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity) {
+    this.queueName = queueName;
+    this.capacity = capacity;
+    serializer = muleContext.getObjectSerializer();
+    maxSegmentSize = Integer.getInteger(MAX_SEGMENT_SIZE_PROPERTY_KEY, DEFAULT_MAX_SEGMENT_SIZE);
+    logDirectory = createLogDirectory(new File(workingDirectory, QUEUE_STORE_DIRECTORY), queueName);
+
+    try {
+      recover();
+    } catch (IOException e) {
+      closeSegments();
+      throw new MuleRuntimeException(createStaticMessage("Could not open the log of queue " + queueName), e);
+    }
+
+    scheduler = muleContext.getSchedulerService()
+        .ioScheduler(muleContext.getSchedulerBaseConfig().withName("queue-log-" + queueName));
+    compactionTask = scheduler.scheduleWithFixedDelay(this::compact, COMPACTION_INTERVAL_MILLIS, COMPACTION_INTERVAL_MILLIS,
+                                                      MILLISECONDS);
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(format("Queue %s has %s messages in %s log segments", queueName, index.size(), segments.size()));
+    }
+  }
+
+  private static File createLogDirectory(File queuesDirectory, String queueName) {
+    if (!queuesDirectory.exists()) {
+      checkState(queuesDirectory.mkdirs(), "Could not create queue store directory " + queuesDirectory.getAbsolutePath());
+    }
+
+    File directory = new File(queuesDirectory, queueName + LOG_DIRECTORY_SUFFIX);
+    if (!directory.isDirectory() && !directory.mkdir()) {
+      // if file system does not support the name provided then use a hex representation of the name.
+      directory = new File(queuesDirectory, QueueFileProvider.toHex(queueName) + LOG_DIRECTORY_SUFFIX);
+      checkState(directory.isDirectory() || directory.mkdir(),
+                 "Could not create queue log directory " + directory.getAbsolutePath());
+    }
+    return directory;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void putNow(Serializable o) {
+    final byte[] payload = serialize(o);
+    final long lsn;
+    lock.lock();
+    try {
+      lsn = put(payload);
+    } finally {
+      lock.unlock();
+    }
+    awaitSync(lsn);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean offer(Serializable o, int room, long timeout) throws InterruptedException {
+    checkInterrupted();
+    final byte[] payload = o != null ? serialize(o) : null;
+    long lsn = 0;
+    lock.lock();
+    try {
+      if (capacity > 0) {
+        if (capacity <= room) {
+          throw new IllegalStateException("Can not add more objects than the capacity in one time");
+        }
+        long remainingNanos = MILLISECONDS.toNanos(timeout);
+        while (index.size() >= capacity - room) {
+          if (timeout < 0) {
+            notFull.await();
+          } else {
+            if (remainingNanos <= 0) {
+              return false;
+            }
+            remainingNanos = notFull.awaitNanos(remainingNanos);
+          }
+        }
+      }
+      if (payload != null) {
+        lsn = put(payload);
+      }
+    } finally {
+      lock.unlock();
+    }
+    awaitSync(lsn);
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Serializable poll(long timeout) throws InterruptedException {
+    checkInterrupted();
+    final byte[] payload;
+    final long lsn;
+    lock.lock();
+    try {
+      long remainingNanos = MILLISECONDS.toNanos(timeout);
+      while (index.isEmpty()) {
+        if (remainingNanos <= 0) {
+          return null;
+        }
+        remainingNanos = notEmpty.awaitNanos(remainingNanos);
+      }
+      Entry head = index.firstEntry().getValue();
+      payload = read(head);
+      lsn = remove(head);
+    } finally {
+      lock.unlock();
+    }
+    awaitSync(lsn);
+    return deserialize(payload);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Serializable peek() throws InterruptedException {
+    checkInterrupted();
+    final byte[] payload;
+    lock.lock();
+    try {
+      if (index.isEmpty()) {
+        return null;
+      }
+      payload = read(index.firstEntry().getValue());
+    } finally {
+      lock.unlock();
+    }
+    return deserialize(payload);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void untake(Serializable item) throws InterruptedException {
+    checkInterrupted();
+    final byte[] payload = serialize(item);
+    final long lsn;
+    lock.lock();
+    try {
+      final long position = --headPosition;
+      index.put(position, write(PUT, position, payload));
+      notEmpty.signalAll();
+      lsn = writtenBytes;
+    } finally {
+      lock.unlock();
+    }
+    awaitSync(lsn);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getSize() {
+    lock.lock();
+    try {
+      return index.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * The clear marker is written in a new segment and forced to disk right away, so all the previous segments can be deleted.
+   */
+  @Override
+  public void clear() throws InterruptedException {
+    checkInterrupted();
+    lock.lock();
+    try {
+      roll();
+      write(CLEAR, 0, EMPTY_PAYLOAD);
+      activeSegment.channel.force(false);
+      index.clear();
+      for (Segment segment : new ArrayList<>(segments)) {
+        if (segment != activeSegment) {
+          deleteSegment(segment);
+        }
+      }
+      notFull.signalAll();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not clear the log of queue " + queueName), e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean addAll(Collection<? extends Serializable> items) {
+    List<byte[]> payloads = new ArrayList<>(items.size());
+    for (Serializable item : items) {
+      payloads.add(serialize(item));
+    }
+
+    long lsn = 0;
+    lock.lock();
+    try {
+      for (byte[] payload : payloads) {
+        lsn = put(payload);
+      }
+    } finally {
+      lock.unlock();
+    }
+    awaitSync(lsn);
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void remove(Serializable value) {
+    long lsn = 0;
+    lock.lock();
+    try {
+      for (Entry entry : index.values()) {
+        if (value.equals(deserialize(read(entry)))) {
+          lsn = remove(entry);
+          break;
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    awaitSync(lsn);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean contains(Serializable value) {
+    lock.lock();
+    try {
+      for (Entry entry : index.values()) {
+        if (value.equals(deserialize(read(entry)))) {
+          return true;
+        }
+      }
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void close() {
+    stopBackgroundTasks();
+    lock.lock();
+    try {
+      closed = true;
+      closeSegments();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void dispose() {
+    close();
+    deleteQuietly(logDirectory);
+  }
+
+  private long put(byte[] payload) {
+    final long position = tailPosition++;
+    index.put(position, write(PUT, position, payload));
+    notEmpty.signalAll();
+    return writtenBytes;
+  }
+
+  private long remove(Entry entry) {
+    index.remove(entry.position);
+    Entry tombstone = write(REMOVE, entry.position, EMPTY_PAYLOAD);
+    onRemoved(entry, tombstone.segment);
+    notFull.signalAll();
+    return writtenBytes;
+  }
+
+  private void onRemoved(Entry entry, Segment tombstoneHolder) {
+    entry.segment.removeLive(entry);
+    if (entry.segment != tombstoneHolder) {
+      // the tombstone has to outlive the segment which holds the removed item
+      tombstoneHolder.pendingTombstones++;
+      entry.segment.tombstoneHolders.merge(tombstoneHolder, 1, Integer::sum);
+    }
+  }
+
+  private Entry write(byte type, long position, byte[] payload) {
+    try {
+      if (activeSegment.size >= maxSegmentSize) {
+        roll();
+      }
+
+      ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+      record.putInt(0).put(type).putLong(position).putInt(payload.length).put(payload);
+      record.putInt(0, checksum(record.array()));
+      record.flip();
+
+      final Segment segment = activeSegment;
+      final long offset = segment.size;
+      long writePosition = offset;
+      while (record.hasRemaining()) {
+        writePosition += segment.channel.write(record, writePosition);
+      }
+      segment.size = writePosition;
+      writtenBytes += record.capacity();
+
+      Entry entry = new Entry(position, segment, offset + HEADER_SIZE, payload.length);
+      if (type == PUT) {
+        segment.addLive(entry);
+      }
+      return entry;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write to the log of queue " + queueName), e);
+    }
+  }
+
+  private byte[] read(Entry entry) {
+    ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+    try {
+      readFully(entry.segment.channel, buffer, entry.offset);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read from the log of queue " + queueName), e);
+    }
+    return buffer.array();
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        throw new EOFException();
+      }
+      position += read;
+    }
+  }
+
+  private static int checksum(byte[] record) {
+    CRC32 crc = new CRC32();
+    crc.update(record, 4, record.length - 4);
+    return (int) crc.getValue();
+  }
+
+  private void roll() throws IOException {
+    if (activeSegment != null) {
+      activeSegment.channel.force(false);
+    }
+    Segment segment = new Segment(nextSegmentId++);
+    segments.add(segment);
+    activeSegment = segment;
+  }
+
+  private void recover() throws IOException {
+    File[] files = logDirectory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+    long[] ids = new long[files.length];
+    for (int i = 0; i < files.length; i++) {
+      String name = files[i].getName();
+      ids[i] = parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+    sort(ids);
+
+    for (long id : ids) {
+      Segment segment = new Segment(id);
+      segments.add(segment);
+      replay(segment);
+      nextSegmentId = id + 1;
+    }
+
+    if (minRecoveredPosition <= maxRecoveredPosition) {
+      headPosition = minRecoveredPosition;
+      tailPosition = maxRecoveredPosition + 1;
+    }
+
+    Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    if (last != null && last.size < maxSegmentSize) {
+      activeSegment = last;
+    } else {
+      roll();
+    }
+  }
+
+  private void replay(Segment segment) throws IOException {
+    final long fileSize = segment.channel.size();
+    final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    long offset = 0;
+
+    while (offset + HEADER_SIZE <= fileSize) {
+      header.clear();
+      readFully(segment.channel, header, offset);
+      final byte type = header.get(4);
+      final long position = header.getLong(5);
+      final int length = header.getInt(13);
+      if (length < 0 || offset + HEADER_SIZE + length > fileSize) {
+        break;
+      }
+
+      ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + length);
+      readFully(segment.channel, record, offset);
+      if (record.getInt(0) != checksum(record.array())) {
+        break;
+      }
+
+      apply(segment, type, position, new Entry(position, segment, offset + HEADER_SIZE, length));
+      offset += record.capacity();
+    }
+
+    if (offset < fileSize) {
+      // the last record was not completely written before the runtime stopped
+      logger.warn(format("Discarding %s bytes of incomplete records in the log of queue %s", fileSize - offset, queueName));
+      segment.channel.truncate(offset);
+    }
+    segment.size = offset;
+  }
+
+  private void apply(Segment segment, byte type, long position, Entry entry) {
+    if (type == PUT) {
+      Entry previous = index.put(position, entry);
+      if (previous != null) {
+        // the item was moved by a compaction which was interrupted before deleting its original segment
+        previous.segment.removeLive(previous);
+      }
+      segment.addLive(entry);
+    } else if (type == REMOVE) {
+      Entry removed = index.remove(position);
+      if (removed != null) {
+        onRemoved(removed, segment);
+      }
+    } else if (type == CLEAR) {
+      index.clear();
+      for (Segment previous : new ArrayList<>(segments)) {
+        if (previous != segment) {
+          deleteSegment(previous);
+        }
+      }
+      return;
+    }
+
+    minRecoveredPosition = min(minRecoveredPosition, position);
+    maxRecoveredPosition = max(maxRecoveredPosition, position);
+  }
+
+  /**
+   * Forces all the records written so far to disk, and keeps doing so while writers keep waiting for newer records.
+   */
+  private void sync() {
+    while (true) {
+      // everything up to this point was written either to the active segment or to a segment forced when it was rolled
+      final long target = writtenBytes;
+      IOException failure = null;
+      try {
+        activeSegment.channel.force(false);
+      } catch (IOException e) {
+        failure = e;
+      }
+
+      syncLock.lock();
+      try {
+        if (failure == null) {
+          syncedBytes = max(syncedBytes, target);
+          syncFailure = null;
+        } else {
+          syncFailure = failure;
+          failedBytes = target;
+        }
+        syncCompleted.signalAll();
+
+        if (failure != null || requestedBytes <= syncedBytes) {
+          syncScheduled = false;
+          return;
+        }
+      } finally {
+        syncLock.unlock();
+      }
+    }
+  }
+
+  private void awaitSync(long lsn) {
+    syncLock.lock();
+    try {
+      if (lsn > requestedBytes) {
+        requestedBytes = lsn;
+      }
+      while (syncedBytes < lsn) {
+        if (syncFailure != null && lsn <= failedBytes) {
+          throw new MuleRuntimeException(createStaticMessage("Could not sync the log of queue " + queueName), syncFailure);
+        }
+        if (stopped) {
+          throw new MuleRuntimeException(createStaticMessage("Queue " + queueName + " has already been closed"));
+        }
+        if (!syncScheduled) {
+          syncScheduled = true;
+          syncLock.unlock();
+          try {
+            scheduleSync();
+          } finally {
+            syncLock.lock();
+          }
+        } else {
+          syncCompleted.awaitUninterruptibly();
+        }
+      }
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private void scheduleSync() {
+    try {
+      scheduler.execute(this::sync);
+    } catch (RejectedExecutionException e) {
+      // If the Scheduler is busy and can't accept the task, the sync is performed in the current thread.
+      sync();
+    }
+  }
+
+  /**
+   * Deletes the segments which no longer hold live items or needed tombstones, and relocates the live items of those which
+   * are mostly empty.
+   * <p/>
+   * Each segment keeps track of its own live items as records are written and removed, so only the segments being compacted
+   * are visited, never the whole index.
+   */
+  private void compact() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+
+      List<Segment> consumedSegments = new ArrayList<>();
+      Set<Segment> sparseSegments = new HashSet<>();
+      for (Segment segment : segments) {
+        if (segment == activeSegment || segment.pendingTombstones > 0) {
+          continue;
+        }
+        if (segment.liveEntries.isEmpty()) {
+          consumedSegments.add(segment);
+        } else if (segment.liveBytes < segment.size * COMPACTION_THRESHOLD) {
+          sparseSegments.add(segment);
+        }
+      }
+
+      if (consumedSegments.isEmpty() && sparseSegments.isEmpty()) {
+        return;
+      }
+
+      for (Segment segment : sparseSegments) {
+        for (Entry entry : segment.liveEntries) {
+          index.put(entry.position, write(PUT, entry.position, read(entry)));
+        }
+        segment.liveEntries.clear();
+        segment.liveBytes = 0;
+      }
+      // The tombstones of the items removed from the deleted segments, as well as the relocated items, may still be only in the
+      // active segment, and they must be on disk before the records they supersede are gone.
+      activeSegment.channel.force(false);
+      consumedSegments.forEach(this::deleteSegment);
+      sparseSegments.forEach(this::deleteSegment);
+
+      if (logger.isDebugEnabled()) {
+        logger.debug(format("Compacted %s segments from the log of queue %s", sparseSegments.size(), queueName));
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Could not compact the log of queue " + queueName, e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void deleteSegment(Segment segment) {
+    segments.remove(segment);
+    closeQuietly(segment.randomAccessFile);
+    deleteQuietly(segment.file);
+    segment.tombstoneHolders.forEach((holder, tombstones) -> holder.pendingTombstones -= tombstones);
+  }
+
+  private void stopBackgroundTasks() {
+    compactionTask.cancel(false);
+
+    syncLock.lock();
+    try {
+      while (syncScheduled) {
+        syncCompleted.awaitUninterruptibly();
+      }
+      syncScheduled = true;
+    } finally {
+      syncLock.unlock();
+    }
+
+    // forces the records of the writers still waiting before rejecting any further sync
+    sync();
+    syncLock.lock();
+    try {
+      stopped = true;
+      syncCompleted.signalAll();
+    } finally {
+      syncLock.unlock();
+    }
+
+    scheduler.stop();
+  }
+
+  private void closeSegments() {
+    for (Segment segment : segments) {
+      closeQuietly(segment.randomAccessFile);
+    }
+  }
+
+  private byte[] serialize(Serializable item) {
+    return serializer.getInternalProtocol().serialize(item);
+  }
+
+  private Serializable deserialize(byte[] payload) {
+    return serializer.getInternalProtocol().deserialize(payload);
+  }
+
+  private void checkInterrupted() throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  /**
+   * The location of a live item in the log
+   */
+  private static class Entry {
+
+    private final long position;
+    private final Segment segment;
+    private final long offset;
+    private final int length;
+
+    private Entry(long position, Segment segment, long offset, int length) {
+      this.position = position;
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  /**
+   * A file of the log, with the accounting needed to decide when it can be reclaimed
+   */
+  private class Segment {
+
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private long size = 0;
+    private final Set<Entry> liveEntries = new LinkedHashSet<>();
+    private long liveBytes = 0;
+
+    /**
+     * Tombstones held by this segment for items in segments which have not been deleted yet
+     */
+    private int pendingTombstones = 0;
+
+    /**
+     * Segments holding tombstones for items which were stored in this one, with how many each
+     */
+    private final Map<Segment, Integer> tombstoneHolders = new HashMap<>();
+
+    private Segment(long id) throws IOException {
+      file = new File(logDirectory, format("%020d%s", id, SEGMENT_SUFFIX));
+      randomAccessFile = new RandomAccessFile(file, "rw");
+      channel = randomAccessFile.getChannel();
+    }
+
+    private void addLive(Entry entry) {
+      liveEntries.add(entry);
+      liveBytes += entry.length;
+    }
+
+    private void removeLive(Entry entry) {
+      if (liveEntries.remove(entry)) {
+        liveBytes -= entry.length;
+      }
+    }
+  }
+}
@@ -79,7 +79,11 @@ public class TransactionalQueueManager extends AbstractQueueManager {
     if (queuesAccessedForRecovery.containsKey(queueName)) {
       return queuesAccessedForRecovery.get(queueName);
     }
-    DefaultQueueStore queueStore = createQueueStore(queueName, new DefaultQueueConfiguration(0, true));
+    // recovery must read the queue from the same kind of store it was written to
+    QueueConfiguration recoveryConfiguration = getQueueConfiguration(queueName)
+        .map(config -> new DefaultQueueConfiguration(0, true, config.isLogStructured()))
+        .orElseGet(() -> new DefaultQueueConfiguration(0, true));
+    DefaultQueueStore queueStore = createQueueStore(queueName, recoveryConfiguration);
     queuesAccessedForRecovery.put(queueName, queueStore);
     return queueStore;
   }
@@ -36,6 +36,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The MonitoredObjectStoreWrapper wraps an ObjectStore which does not support direct expiry and adds this behavior
@@ -73,6 +74,9 @@ public class MonitoredObjectStoreWrapper<T extends Serializable> extends Templat
    */
   protected String name = null;
 
+  private final AtomicLong expiredEntriesCount = new AtomicLong();
+  private final AtomicLong evictedEntriesCount = new AtomicLong();
+
   public MonitoredObjectStoreWrapper(ObjectStore<StoredObject<T>> baseStore, ObjectStoreSettings settings) {
     this.baseStore = baseStore;
     maxEntries = settings.getMaxEntries().orElse(null);
@@ -159,7 +163,7 @@ public class MonitoredObjectStoreWrapper<T extends Serializable> extends Templat
     try {
       final long now = System.currentTimeMillis();
       List<String> keys = allKeys();
-      int excess = (allKeys().size() - maxEntries);
+      int excess = maxEntries != null ? keys.size() - maxEntries : 0;
 
       PriorityQueue<StoredObject<T>> sortedMaxEntries = null;
 
@@ -173,6 +177,7 @@ public class MonitoredObjectStoreWrapper<T extends Serializable> extends Templat
 
         if (entryTtl != null && now - obj.getTimestamp() >= entryTtl) {
           remove(key);
+          expiredEntriesCount.incrementAndGet();
           excess--;
         } else if (maxEntries != null && excess > 0) {
           sortedMaxEntries.offer(obj);
@@ -183,6 +188,7 @@ public class MonitoredObjectStoreWrapper<T extends Serializable> extends Templat
         StoredObject<T> obj = sortedMaxEntries.poll();
         while (obj != null && excess > 0) {
           remove(obj.getKey());
+          evictedEntriesCount.incrementAndGet();
           excess--;
           obj = sortedMaxEntries.poll();
         }
@@ -192,6 +198,22 @@ public class MonitoredObjectStoreWrapper<T extends Serializable> extends Templat
     }
   }
 
+  /**
+   * @return the number of entries removed from this store because their {@code entryTtl} elapsed
+   * @since 4.2.0
+   */
+  public long getExpiredEntriesCount() {
+    return expiredEntriesCount.get();
+  }
+
+  /**
+   * @return the number of entries removed from this store to keep it within its {@code maxEntries}
+   * @since 4.2.0
+   */
+  public long getEvictedEntriesCount() {
+    return evictedEntriesCount.get();
+  }
+
   @Override
   public void dispose() {
     if (scheduledTask != null) {
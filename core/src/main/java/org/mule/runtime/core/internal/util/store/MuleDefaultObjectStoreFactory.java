@@ -6,14 +6,25 @@
  */
 package org.mule.runtime.core.internal.util.store;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
+import org.mule.runtime.core.internal.store.PartitionedIndexedPersistentObjectStore;
 import org.mule.runtime.core.internal.store.PartitionedPersistentObjectStore;
 
 import java.io.Serializable;
 
 public class MuleDefaultObjectStoreFactory implements DefaultObjectStoreFactory {
 
+  /**
+   * System property to use a {@link PartitionedIndexedPersistentObjectStore} as the default persistent object store, instead
+   * of a {@link PartitionedPersistentObjectStore}.
+   *
+   * @since 4.2.0
+   */
+  public static final String INDEXED_PERSISTENT_OBJECT_STORE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectStore.indexed";
+
   @Override
   public ObjectStore<Serializable> createDefaultInMemoryObjectStore() {
     return new PartitionedInMemoryObjectStore<>();
@@ -21,6 +32,9 @@ public class MuleDefaultObjectStoreFactory implements DefaultObjectStoreFactory
 
   @Override
   public ObjectStore<Serializable> createDefaultPersistentObjectStore() {
+    if (getBoolean(INDEXED_PERSISTENT_OBJECT_STORE_PROPERTY)) {
+      return new PartitionedIndexedPersistentObjectStore<>();
+    }
     return new PartitionedPersistentObjectStore<>();
   }
 }
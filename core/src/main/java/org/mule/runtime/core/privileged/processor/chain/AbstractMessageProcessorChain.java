@@ -38,6 +38,7 @@ import org.mule.runtime.core.api.context.thread.notification.ThreadNotificationS
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.api.rx.Exceptions;
 import org.mule.runtime.core.api.streaming.StreamingManager;
@@ -136,15 +137,27 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
   @Override
   public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
     List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptors = resolveInterceptors();
+    List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> coalescedInterceptors = null;
+    List<Processor> processorsToExecute = getProcessorsToExecute();
     Flux<CoreEvent> stream = from(publisher);
-    for (Processor processor : getProcessorsToExecute()) {
-      // Perform assembly for processor chain by transforming the existing publisher with a publisher function for each processor
-      // along with the interceptors that decorate it.
-      stream = stream.transform(applyInterceptors(interceptors, processor))
-          // #1 Register local error hook to wrap exceptions in a MessagingException maintaining failed event.
-          .subscriberContext(context -> context.put(REACTOR_ON_OPERATOR_ERROR_LOCAL, getLocalOperatorErrorHook(processor)))
-          // #2 Register continue error strategy to handle errors without stopping the stream.
-          .onErrorContinue(getContinueStrategyErrorHandler(processor));
+    int i = 0;
+    while (i < processorsToExecute.size()) {
+      Processor processor = processorsToExecute.get(i);
+      int runEnd = resolveCoalescedRunEnd(processorsToExecute, i);
+      if (runEnd - i > 1) {
+        // Consecutive processors the processing strategy can run on the same thread are enriched by it only once. Only
+        // processors with no interceptors are coalesced, and only for events that fire no notifications, since those have to
+        // run on the flow thread.
+        if (coalescedInterceptors == null) {
+          coalescedInterceptors = resolveCoalescedInterceptors();
+        }
+        stream = applyCoalescedRun(stream, processorsToExecute.subList(i, runEnd), interceptors, coalescedInterceptors);
+      } else {
+        // Perform assembly for processor chain by transforming the existing publisher with a publisher function for each
+        // processor along with the interceptors that decorate it.
+        stream = applyProcessor(stream, applyInterceptors(interceptors, processor), processor);
+      }
+      i = runEnd;
     }
     return stream.subscriberContext(ctx -> {
       ClassLoader tccl = currentThread().getContextClassLoader();
@@ -159,6 +172,75 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
     });
   }
 
+  private Flux<CoreEvent> applyProcessor(Flux<CoreEvent> stream, ReactiveProcessor interceptedProcessor, Processor processor) {
+    return stream.transform(interceptedProcessor)
+        // #1 Register local error hook to wrap exceptions in a MessagingException maintaining failed event.
+        .subscriberContext(context -> context.put(REACTOR_ON_OPERATOR_ERROR_LOCAL, getLocalOperatorErrorHook(processor)))
+        // #2 Register continue error strategy to handle errors without stopping the stream.
+        .onErrorContinue(getContinueStrategyErrorHandler(processor));
+  }
+
+  private Flux<CoreEvent> applyCoalescedRun(Flux<CoreEvent> stream, List<Processor> run,
+                                            List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptors,
+                                            List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> coalescedInterceptors) {
+    Processor coalesced = new CoalescedProcessors(run, coalescedInterceptors);
+    ReactiveProcessor coalescedPath =
+        events -> applyProcessor(from(events), resolveProcessingStrategyInterceptor().apply(coalesced, coalesced), run.get(0));
+    if (!run.stream().anyMatch(this::hasLocation)) {
+      return stream.transform(coalescedPath);
+    }
+
+    ReactiveProcessor notifyingPath = events -> {
+      Flux<CoreEvent> notifyingStream = from(events);
+      for (Processor processor : run) {
+        notifyingStream = applyProcessor(notifyingStream, applyInterceptors(interceptors, processor), processor);
+      }
+      return notifyingStream;
+    };
+    // Listeners may be registered after the chain is assembled, so whether an event fires notifications is decided as it
+    // arrives. It is resolved only once per event so that exactly one of the paths gets it.
+    return stream
+        .map(event -> new RoutedEvent(event, isNotificationEnabled(event)))
+        .publish(routed -> Flux.merge(routed.filter(r -> !r.notifying).map(r -> r.event).transform(coalescedPath),
+                                      routed.filter(r -> r.notifying).map(r -> r.event).transform(notifyingPath)));
+  }
+
+  /**
+   * @return the index after the last processor of the run starting at {@code start} that the processing strategy is able to
+   *         coalesce, or {@code start + 1} if there is no such run.
+   */
+  private int resolveCoalescedRunEnd(List<Processor> processorsToExecute, int start) {
+    Processor first = processorsToExecute.get(start);
+    ProcessingType processingType = first.getProcessingType();
+    int end = start + 1;
+    if (processingStrategy != null && processingStrategy.isCoalescingSupported(processingType) && isCoalescible(first)) {
+      while (end < processorsToExecute.size() && processorsToExecute.get(end).getProcessingType() == processingType
+          && isCoalescible(processorsToExecute.get(end))) {
+        ++end;
+      }
+    }
+    return end;
+  }
+
+  /**
+   * Interceptors of a processor run on the flow thread, outside of the processing strategy. A processor that has any of them
+   * can't be coalesced with others without moving them to the processing strategy threads. Notifications are handled per event
+   * by {@link #applyCoalescedRun}.
+   */
+  private boolean isCoalescible(Processor processor) {
+    return additionalInterceptors.isEmpty();
+  }
+
+  private boolean hasLocation(Processor processor) {
+    return processor instanceof Component && ((Component) processor).getLocation() != null;
+  }
+
+  private boolean isNotificationEnabled(CoreEvent event) {
+    ServerNotificationManager notificationManager = muleContext.getNotificationManager();
+    return notificationManager != null && notificationManager.isNotificationEnabled(MessageProcessorNotification.class)
+        && ((PrivilegedEvent) event).isNotificationsEnabled();
+  }
+
   /*
    * Used to catch exceptions emitted by reactor operators and wrap these in a MessagingException while conserving a reference to
    * the failed Event.
@@ -226,32 +308,12 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
     List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptors = new ArrayList<>();
 
     // Set thread context
-    interceptors.add((processor, next) -> stream -> from(stream)
-        // #2 Wrap execution, after processing strategy, on processor execution thread.
-        .doOnNext(event -> {
-          currentMuleContext.set(muleContext);
-          setCurrentEvent((PrivilegedEvent) event);
-        })
-        // #1 Update TCCL with the one from the Region of the processor to execute once in execution thread.
-        .transform(doOnNextOrErrorWithContext(TCCL_REACTOR_CTX_CONSUMER)
-            .andThen(next)
-            // #1 Set back previous TCCL.
-            .andThen(doOnNextOrErrorWithContext(TCCL_ORIGINAL_REACTOR_CTX_CONSUMER))));
+    interceptors.add(threadContextInterceptor());
 
     // Apply processing strategy. This is done here to ensure notifications and interceptors do not execute on async processor
     // threads which may be limited to avoid deadlocks.
     if (processingStrategy != null) {
-      if (muleContext.getConfiguration().isThreadLoggingEnabled()) {
-        interceptors.add((processor, next) -> stream -> from(stream)
-            .subscriberContext(context -> context.put(THREAD_NOTIFICATION_LOGGER_CONTEXT_KEY, threadNotificationLogger))
-            .doOnNext(event -> threadNotificationLogger.setStartingThread(event.getContext().getId(), true))
-            .transform(processingStrategy
-                .onProcessor(new InterceptedReactiveProcessor(processor, next, threadNotificationLogger)))
-            .doOnNext(event -> threadNotificationLogger.setFinishThread(event.getContext().getId())));
-      } else {
-        interceptors.add((processor, next) -> processingStrategy
-            .onProcessor(new InterceptedReactiveProcessor(processor, next, null)));
-      }
+      interceptors.add(resolveProcessingStrategyInterceptor());
     }
 
     // Apply processor interceptors around processor and other core logic
@@ -271,6 +333,51 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
     return interceptors;
   }
 
+  /**
+   * @return the interceptors to apply to each processor of a run the processing strategy enriches as a whole, sorted from
+   *         inside-out. These run on the processing strategy thread.
+   */
+  private List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> resolveCoalescedInterceptors() {
+    List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptors = new ArrayList<>();
+
+    interceptors.add(threadContextInterceptor());
+    interceptors.add((processor, next) -> stream -> from(stream)
+        .transform(next)
+        .map(result -> {
+          setCurrentEvent((PrivilegedEvent) result);
+          return updateEventForStreaming(streamingManager).apply(result);
+        }));
+
+    return interceptors;
+  }
+
+  private BiFunction<Processor, ReactiveProcessor, ReactiveProcessor> threadContextInterceptor() {
+    return (processor, next) -> stream -> from(stream)
+        // #2 Wrap execution, after processing strategy, on processor execution thread.
+        .doOnNext(event -> {
+          currentMuleContext.set(muleContext);
+          setCurrentEvent((PrivilegedEvent) event);
+        })
+        // #1 Update TCCL with the one from the Region of the processor to execute once in execution thread.
+        .transform(doOnNextOrErrorWithContext(TCCL_REACTOR_CTX_CONSUMER)
+            .andThen(next)
+            // #1 Set back previous TCCL.
+            .andThen(doOnNextOrErrorWithContext(TCCL_ORIGINAL_REACTOR_CTX_CONSUMER)));
+  }
+
+  private BiFunction<Processor, ReactiveProcessor, ReactiveProcessor> resolveProcessingStrategyInterceptor() {
+    if (muleContext.getConfiguration().isThreadLoggingEnabled()) {
+      return (processor, next) -> stream -> from(stream)
+          .subscriberContext(context -> context.put(THREAD_NOTIFICATION_LOGGER_CONTEXT_KEY, threadNotificationLogger))
+          .doOnNext(event -> threadNotificationLogger.setStartingThread(event.getContext().getId(), true))
+          .transform(processingStrategy
+              .onProcessor(new InterceptedReactiveProcessor(processor, next, threadNotificationLogger)))
+          .doOnNext(event -> threadNotificationLogger.setFinishThread(event.getContext().getId()));
+    } else {
+      return (processor, next) -> processingStrategy.onProcessor(new InterceptedReactiveProcessor(processor, next, null));
+    }
+  }
+
   private Function<? super Publisher<CoreEvent>, ? extends Publisher<CoreEvent>> doOnNextOrErrorWithContext(Consumer<Context> contextConsumer) {
     return lift((scannable, subscriber) -> new CoreSubscriber<CoreEvent>() {
 
@@ -467,4 +574,51 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
     disposeIfNeeded(getMessageProcessorsForLifecycle(), LOGGER);
   }
 
+  /**
+   * Run of consecutive processors that the processing strategy enriches as a single processor, so they all execute on the same
+   * thread. Each processor keeps its own thread context and error handling. Processors with interceptors are not coalesced, and
+   * events that fire notifications go through the processors one by one instead.
+   */
+  private final class CoalescedProcessors implements Processor {
+
+    private final List<Processor> processors;
+    private final List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptors;
+
+    CoalescedProcessors(List<Processor> processors,
+                        List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptors) {
+      this.processors = processors;
+      this.interceptors = interceptors;
+    }
+
+    @Override
+    public CoreEvent process(CoreEvent event) throws MuleException {
+      return processToApply(event, this);
+    }
+
+    @Override
+    public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+      Flux<CoreEvent> stream = from(publisher);
+      for (Processor processor : processors) {
+        stream = applyProcessor(stream, applyInterceptors(interceptors, processor), processor);
+      }
+      return stream;
+    }
+
+    @Override
+    public ProcessingType getProcessingType() {
+      return processors.get(0).getProcessingType();
+    }
+  }
+
+  private static final class RoutedEvent {
+
+    private final CoreEvent event;
+    private final boolean notifying;
+
+    RoutedEvent(CoreEvent event, boolean notifying) {
+      this.event = event;
+      this.notifying = notifying;
+    }
+  }
+
 }
@@ -41,6 +41,7 @@ public final class AttributeEvaluator {
       new HashSet<>(asList(Object.class, InputStream.class, Iterator.class, Serializable.class));
 
   private String attributeValue;
+  private final AttributeType attributeType;
   private ExtendedExpressionManager expressionManager;
   private Function<CoreEvent, TypedValue> expressionEventResolver;
   private Function<BindingContext, TypedValue> expressionContextResolver;
@@ -66,7 +67,8 @@ public final class AttributeEvaluator {
   public AttributeEvaluator(String attributeValue, DataType expectedDataType) {
     this.attributeValue = sanitize(attributeValue);
 
-    switch (resolveAttributeType()) {
+    attributeType = resolveAttributeType();
+    switch (attributeType) {
       case EXPRESSION:
         if (expectedDataType != null && !BLACK_LIST_TYPES.contains(expectedDataType.getType())) {
           expressionEventResolver =
@@ -91,6 +93,9 @@ public final class AttributeEvaluator {
 
   public AttributeEvaluator initialize(final ExtendedExpressionManager expressionManager) {
     this.expressionManager = expressionManager;
+    if (attributeType == AttributeType.EXPRESSION) {
+      expressionManager.compile(attributeValue);
+    }
     return this;
   }
 
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.config;
 
+import static java.lang.Thread.currentThread;
 import static java.util.Optional.ofNullable;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
@@ -49,13 +50,14 @@ import org.mule.runtime.module.extension.internal.util.ReflectionCache;
 import org.mule.runtime.module.extension.internal.value.ValueProviderMediator;
 
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import org.slf4j.Logger;
 
@@ -67,6 +69,10 @@ import org.slf4j.Logger;
  * {@link #resolverSet#resolve(Object)}, the resulting {@link ResolverSetResult} might not end up generating a new instance. This
  * is so because {@link ResolverSetResult} instances are put in a cache to guarantee that equivalent evaluations of the
  * {@code resolverSet} return the same instance.
+ * <p>
+ * The cache doesn't block readers: when an instance is missing, only the threads that need that same instance wait for it to
+ * be created, while the rest keep resolving theirs. Instances are expired one by one, so that an instance is never expired while
+ * it is being returned.
  *
  * @since 4.0.0
  */
@@ -80,10 +86,7 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   private final ConnectionProviderValueResolver connectionProviderResolver;
   private final ExpirationPolicy expirationPolicy;
 
-  private final Map<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> cache = new ConcurrentHashMap<>();
-  private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
-  private final Lock cacheReadLock = cacheLock.readLock();
-  private final Lock cacheWriteLock = cacheLock.writeLock();
+  private final ConcurrentMap<Pair<ResolverSetResult, ResolverSetResult>, CacheEntry> cache = new ConcurrentHashMap<>();
   private final ReflectionCache reflectionCache;
 
   /**
@@ -135,33 +138,54 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   private ConfigurationInstance getConfiguration(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult,
                                                  CoreEvent event)
       throws Exception {
-    ConfigurationInstance configuration;
-    cacheReadLock.lock();
-    try {
-      configuration = cache.get(resolverSetResult);
-      if (configuration != null) {
-        // important to account between the boundaries of the lock to prevent race condition
-        updateUsageStatistic(configuration);
-        return configuration;
+    while (true) {
+      CacheEntry entry = cache.get(resolverSetResult);
+      if (entry == null) {
+        CacheEntry newEntry = new CacheEntry();
+        entry = cache.putIfAbsent(resolverSetResult, newEntry);
+        if (entry == null) {
+          return createConfiguration(resolverSetResult, newEntry, event);
+        }
       }
-    } finally {
-      cacheReadLock.unlock();
-    }
 
-    cacheWriteLock.lock();
-    try {
-      // re-check in case some other thread beat us to it...
-      configuration = cache.get(resolverSetResult);
-      if (configuration == null) {
-        configuration = createConfiguration(resolverSetResult, event);
-        cache.put(resolverSetResult, configuration);
+      if (entry.creator == currentThread()) {
+        // Waiting would never end, since this same thread has to complete the configuration
+        throw new MuleRuntimeException(createStaticMessage("Configuration '" + getName()
+            + "' requires itself to be resolved while it is being created"));
+      }
+
+      ConfigurationInstance configuration = entry.configuration.join();
+      if (configuration != null && entry.acquire()) {
+        try {
+          // important to account while the entry is acquired to prevent it from expiring concurrently
+          updateUsageStatistic(configuration);
+          return configuration;
+        } finally {
+          entry.release();
+        }
       }
 
-      // accounting here for the same reasons as above
+      // The configuration could not be created or just expired, try again with a new one
+      cache.remove(resolverSetResult, entry);
+    }
+  }
+
+  private ConfigurationInstance createConfiguration(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult,
+                                                    CacheEntry entry, CoreEvent event)
+      throws MuleException {
+    ConfigurationInstance configuration = null;
+    try {
+      configuration = createConfiguration(resolverSetResult, event);
+      // accounting before publishing it for the same reasons as above
       updateUsageStatistic(configuration);
       return configuration;
     } finally {
-      cacheWriteLock.unlock();
+      if (configuration == null) {
+        cache.remove(resolverSetResult, entry);
+      }
+      entry.creator = null;
+      // wakes up the threads waiting for this configuration, they will try again if it failed
+      entry.configuration.complete(configuration);
     }
   }
 
@@ -231,15 +255,13 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   @Override
   public List<ConfigurationInstance> getExpired() {
-    cacheWriteLock.lock();
-    try {
-      return cache.entrySet().stream().filter(entry -> isExpired(entry.getValue())).map(entry -> {
-        cache.remove(entry.getKey());
-        return entry.getValue();
-      }).collect(toImmutableList());
-    } finally {
-      cacheWriteLock.unlock();
-    }
+    return cache.entrySet().stream().map(entry -> {
+      ConfigurationInstance configuration = entry.getValue().expireIf(this::isExpired);
+      if (configuration != null) {
+        cache.remove(entry.getKey(), entry.getValue());
+      }
+      return configuration;
+    }).filter(Objects::nonNull).collect(toImmutableList());
   }
 
   private boolean isExpired(ConfigurationInstance configuration) {
@@ -316,4 +338,89 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
         .map(ob -> ((ConnectionProviderObjectBuilder) ob).providerModel);
   }
 
+  /**
+   * Holds a cached {@link ConfigurationInstance}, which is completed with {@code null} if it could not be created.
+   * <p>
+   * The state counts the threads that are updating the statistics of the configuration, so that it is not expired based on
+   * stale statistics. Negative values mean that it is being checked for expiration, or that it already expired.
+   */
+  private static final class CacheEntry {
+
+    private static final int EXPIRING = -1;
+    private static final int EXPIRED = -2;
+    private static final long EXPIRATION_CHECK_WAIT_MILLIS = 10;
+
+    private final CompletableFuture<ConfigurationInstance> configuration = new CompletableFuture<>();
+    private final AtomicInteger state = new AtomicInteger();
+    // The thread creating the configuration, until it completes
+    private volatile Thread creator = currentThread();
+
+    /**
+     * @return {@code true} if the configuration can be used, {@code false} if it expired.
+     */
+    private boolean acquire() {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          int current = state.get();
+          if (current == EXPIRED) {
+            return false;
+          } else if (current == EXPIRING) {
+            // The outcome of the check decides whether this configuration can be used
+            interrupted |= awaitExpirationCheck();
+          } else if (state.compareAndSet(current, current + 1)) {
+            return true;
+          }
+        }
+      } finally {
+        if (interrupted) {
+          currentThread().interrupt();
+        }
+      }
+    }
+
+    /**
+     * @return whether the thread was interrupted while waiting.
+     */
+    private synchronized boolean awaitExpirationCheck() {
+      if (state.get() == EXPIRING) {
+        try {
+          // Bounded, although the expiration check notifies its outcome
+          wait(EXPIRATION_CHECK_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private synchronized void endExpirationCheck(int newState) {
+      state.set(newState);
+      notifyAll();
+    }
+
+    private void release() {
+      state.decrementAndGet();
+    }
+
+    /**
+     * @return the configuration if it expired, {@code null} otherwise.
+     */
+    private ConfigurationInstance expireIf(Predicate<ConfigurationInstance> isExpired) {
+      ConfigurationInstance instance = configuration.getNow(null);
+      if (instance == null || !isExpired.test(instance) || !state.compareAndSet(0, EXPIRING)) {
+        return null;
+      }
+
+      // check again, in case it was used since the first check
+      if (isExpired.test(instance)) {
+        endExpirationCheck(EXPIRED);
+        return instance;
+      } else {
+        endExpirationCheck(0);
+        return null;
+      }
+    }
+  }
+
 }
@@ -241,15 +241,26 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
     return parameterValues;
   }
 
+  @Override
+  public Object[] resolveValues(ExecutionContext executionContext, Class<?>[] parameterTypes) {
+    Object[] parameterValues = new Object[argumentResolvers.length];
+    for (int i = 0; i < argumentResolvers.length; ++i) {
+      parameterValues[i] = resolveParameterValue(parameterTypes[i], argumentResolvers[i].resolve(executionContext).get());
+    }
+
+    return parameterValues;
+  }
+
   private Supplier<Object> wrapParameterResolution(Class<?> parameterType, Supplier<?> valueSupplier) {
-    return () -> {
-      Object parameterValue = valueSupplier.get();
-      if (parameterValue == null) {
-        return resolvePrimitiveTypeDefaultValue(parameterType);
-      } else {
-        return resolveCursor(parameterValue);
-      }
-    };
+    return () -> resolveParameterValue(parameterType, valueSupplier.get());
+  }
+
+  private Object resolveParameterValue(Class<?> parameterType, Object parameterValue) {
+    if (parameterValue == null) {
+      return resolvePrimitiveTypeDefaultValue(parameterType);
+    } else {
+      return resolveCursor(parameterValue);
+    }
   }
 
   private Object resolvePrimitiveTypeDefaultValue(Class<?> type) {
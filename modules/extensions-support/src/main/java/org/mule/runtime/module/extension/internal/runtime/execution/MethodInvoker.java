@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static java.lang.invoke.MethodHandles.dropArguments;
+import static java.lang.invoke.MethodHandles.publicLookup;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.lang.reflect.Modifier.isStatic;
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.springframework.util.ReflectionUtils.invokeMethod;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.slf4j.Logger;
+
+/**
+ * Invokes a given {@link Method} with the arguments in an array.
+ * <p>
+ * The invoker is bound to the {@link Method} when it is created, so that the lookup and access checks are not repeated on each
+ * invocation. Whenever possible, the {@link Method} is invoked through a {@link MethodHandle} adapted to take the target and an
+ * argument array, which avoids the argument checks and the boxing of the arguments of reflective invocations. Methods that cannot
+ * be accessed through a {@link MethodHandle} are invoked reflectively.
+ * <p>
+ * In both cases, exceptions are propagated the same way: unchecked exceptions are thrown as is, while checked ones are wrapped
+ * in an {@link UndeclaredThrowableException}.
+ *
+ * @since 4.2.0
+ */
+abstract class MethodInvoker {
+
+  private static final Logger LOGGER = getLogger(MethodInvoker.class);
+
+  /**
+   * Creates an invoker for the given {@code method}
+   *
+   * @param method the {@link Method} to invoke
+   * @return a new {@link MethodInvoker}
+   */
+  static MethodInvoker of(Method method) {
+    try {
+      return new MethodHandleInvoker(method);
+    } catch (IllegalAccessException e) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Method " + method + " is not accessible through a MethodHandle, it will be invoked reflectively", e);
+      }
+      return new ReflectiveInvoker(method);
+    }
+  }
+
+  /**
+   * Invokes the method
+   *
+   * @param target the object to invoke the method on. Ignored if the method is static
+   * @param args the arguments for the method
+   * @return the value returned by the method, or {@code null} if it is {@code void}
+   */
+  abstract Object invoke(Object target, Object[] args);
+
+  private static final class MethodHandleInvoker extends MethodInvoker {
+
+    private final MethodHandle handle;
+
+    private MethodHandleInvoker(Method method) throws IllegalAccessException {
+      MethodHandle handle = publicLookup().unreflect(method).asFixedArity();
+      if (isStatic(method.getModifiers())) {
+        handle = dropArguments(handle, 0, Object.class);
+      }
+      int parameterCount = method.getParameterCount();
+      this.handle = handle.asType(genericMethodType(parameterCount + 1)).asSpreader(Object[].class, parameterCount);
+    }
+
+    @Override
+    Object invoke(Object target, Object[] args) {
+      try {
+        return (Object) handle.invokeExact(target, args);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new UndeclaredThrowableException(t);
+      }
+    }
+  }
+
+  private static final class ReflectiveInvoker extends MethodInvoker {
+
+    private final Method method;
+
+    private ReflectiveInvoker(Method method) {
+      this.method = method;
+    }
+
+    @Override
+    Object invoke(Object target, Object[] args) {
+      return invokeMethod(method, target, args);
+    }
+  }
+}
@@ -6,7 +6,6 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.execution;
 
-import static java.util.Arrays.stream;
 import static org.apache.commons.lang3.ArrayUtils.isEmpty;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
@@ -15,7 +14,6 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
 import static org.slf4j.LoggerFactory.getLogger;
-import static org.springframework.util.ReflectionUtils.invokeMethod;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.MuleRuntimeException;
@@ -38,7 +36,10 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
- * Executes a task associated to a {@link ExecutionContext} by invoking a given {@link Method}
+ * Executes a task associated to a {@link ExecutionContext} by invoking a given {@link Method}.
+ * <p>
+ * The {@link Method} is bound to a {@link MethodInvoker} when this executor is created, and the argument resolvers when it is
+ * initialised, so that invoking it only resolves the argument values.
  *
  * @param <M> the generic type of the associated {@link ComponentModel}
  * @since 4.0
@@ -49,11 +50,17 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   private static class NoArgumentsResolverDelegate implements ArgumentResolverDelegate {
 
     private static final Supplier[] EMPTY = new Supplier[] {};
+    private static final Object[] EMPTY_VALUES = new Object[] {};
 
     @Override
     public Supplier<Object>[] resolve(ExecutionContext executionContext, Class<?>[] parameterTypes) {
       return EMPTY;
     }
+
+    @Override
+    public Object[] resolveValues(ExecutionContext executionContext, Class<?>[] parameterTypes) {
+      return EMPTY_VALUES;
+    }
   }
 
   private static final Logger LOGGER = getLogger(ReflectiveMethodOperationExecutor.class);
@@ -61,6 +68,8 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
 
   private final List<ParameterGroupModel> groups;
   private final Method method;
+  private final Class<?>[] parameterTypes;
+  private final MethodInvoker methodInvoker;
   private final Object componentInstance;
   private final ClassLoader extensionClassLoader;
 
@@ -71,15 +80,17 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   public ReflectiveMethodComponentExecutor(List<ParameterGroupModel> groups, Method method, Object componentInstance) {
     this.groups = groups;
     this.method = method;
+    this.parameterTypes = method.getParameterTypes();
+    this.methodInvoker = MethodInvoker.of(method);
     this.componentInstance = componentInstance;
     extensionClassLoader = method.getDeclaringClass().getClassLoader();
   }
 
   public Object execute(ExecutionContext<M> executionContext) {
     return withContextClassLoader(extensionClassLoader,
-                                  () -> invokeMethod(method, componentInstance,
-                                                     stream(getParameterValues(executionContext, method.getParameterTypes()))
-                                                         .map(Supplier::get).toArray(Object[]::new)));
+                                  () -> methodInvoker.invoke(componentInstance,
+                                                             argumentResolverDelegate.resolveValues(executionContext,
+                                                                                                    parameterTypes)));
   }
 
   private Supplier<Object>[] getParameterValues(ExecutionContext<M> executionContext, Class<?>[] parameterTypes) {
@@ -91,7 +102,7 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
     initialiseIfNeeded(componentInstance, true, muleContext);
 
     argumentResolverDelegate =
-        isEmpty(method.getParameterTypes()) ? NO_ARGS_DELEGATE : getMethodArgumentResolver(groups, method);
+        isEmpty(parameterTypes) ? NO_ARGS_DELEGATE : getMethodArgumentResolver(groups, method);
   }
 
   private ArgumentResolverDelegate getMethodArgumentResolver(List<ParameterGroupModel> groups, Method method) {
@@ -132,7 +143,7 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
     return ec -> withContextClassLoader(extensionClassLoader,
                                         () -> {
                                           final Object[] resolved =
-                                              getParameterValues(ec, method.getParameterTypes());
+                                              getParameterValues(ec, parameterTypes);
 
                                           final Map<String, Object> resolvedParams = new HashMap<>();
                                           for (int i = 0; i < method.getParameterCount(); ++i) {
@@ -50,7 +50,8 @@ import java.util.Optional;
 import java.util.stream.Stream;
 
 /**
- * Implementation of {@link SourceCallbackExecutor} which uses reflection to execute the callback through a {@link Method}
+ * Implementation of {@link SourceCallbackExecutor} which executes the callback through a {@link Method}. The method is bound
+ * when this executor is created, see {@link ReflectiveMethodComponentExecutor}.
  *
  * @since 4.0
  */
@@ -9,16 +9,21 @@ package org.mule.runtime.module.extension.internal.runtime.config;
 import static java.util.Arrays.asList;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 import static org.junit.rules.ExpectedException.none;
 import static org.mockito.Answers.RETURNS_DEEP_STUBS;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -61,8 +66,12 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import com.google.common.collect.ImmutableList;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 @SmallTest
 @RunWith(MockitoJUnitRunner.class)
@@ -201,6 +210,75 @@ public class DynamicConfigurationProviderTestCase extends AbstractConfigurationP
     assertThat(configs, containsInAnyOrder(instance1, instance2));
   }
 
+  @Test
+  public void resolveAfterExpiredCreatesNewInstance() throws Exception {
+    ConfigurationInstance instance1 = provider.get(event);
+    timeSupplier.move(10, MINUTES);
+    assertThat(((DynamicConfigurationProvider) provider).getExpired(), contains(sameInstance(instance1)));
+
+    mockConfigurationInstance(configurationModel, MODULE_CLASS.newInstance());
+    ConfigurationInstance instance2 = provider.get(event);
+    assertThat(instance2, is(not(sameInstance(instance1))));
+    assertThat(provider.get(event), is(sameInstance(instance2)));
+  }
+
+  @Test
+  public void concurrentResolutionCreatesSingleInstance() throws Exception {
+    final int threads = 8;
+    ExecutorService executor = newFixedThreadPool(threads);
+    try {
+      CyclicBarrier barrier = new CyclicBarrier(threads);
+      List<Future<ConfigurationInstance>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(() -> {
+          barrier.await();
+          return provider.get(event);
+        }));
+      }
+
+      ConfigurationInstance config = results.get(0).get();
+      for (Future<ConfigurationInstance> result : results) {
+        assertThat(result.get(), is(sameInstance(config)));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void resolveAfterFailureCreatesNewInstance() throws Exception {
+    final Lifecycle connProvider = mock(Lifecycle.class, withSettings().extraInterfaces(ConnectionProvider.class));
+    doThrow(new RuntimeException("Start failed!")).when(connProvider).start();
+    when(connectionProviderResolver.resolve(any())).thenReturn(new Pair<>(connProvider, resolverSetResult));
+
+    try {
+      provider.get(event);
+      fail("Expected configuration to fail");
+    } catch (Exception e) {
+      // expected
+    }
+
+    when(connectionProviderResolver.resolve(any())).thenReturn(null);
+    assertThat(provider.get(event).getValue(), is(instanceOf(HeisenbergExtension.class)));
+  }
+
+  @Test
+  public void reentrantResolutionFailsInsteadOfDeadlocking() throws Exception {
+    final Lifecycle connProvider = mock(Lifecycle.class, withSettings().extraInterfaces(ConnectionProvider.class));
+    doAnswer(invocation -> provider.get(event)).when(connProvider).start();
+    when(connectionProviderResolver.resolve(any())).thenReturn(new Pair<>(connProvider, resolverSetResult));
+
+    try {
+      provider.get(event);
+      fail("Expected reentrant resolution to fail");
+    } catch (Exception e) {
+      // expected
+    }
+
+    when(connectionProviderResolver.resolve(any())).thenReturn(null);
+    assertThat(provider.get(event).getValue(), is(instanceOf(HeisenbergExtension.class)));
+  }
+
   private HeisenbergExtension makeAlternateInstance() throws Exception {
     ResolverSetResult alternateResult = mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS);
     when(alternateResult.asMap()).thenReturn(new HashMap<>());
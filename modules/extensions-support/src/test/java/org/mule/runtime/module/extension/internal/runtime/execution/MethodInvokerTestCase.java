@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.junit.Test;
+
+@SmallTest
+public class MethodInvokerTestCase extends AbstractMuleTestCase {
+
+  private final Operations operations = new Operations();
+
+  @Test
+  public void instanceMethod() throws Exception {
+    MethodInvoker invoker = MethodInvoker.of(method("concat", String.class, int.class, long.class));
+    assertThat(invoker.invoke(operations, new Object[] {"a", 1, 2L}), is("a12"));
+  }
+
+  @Test
+  public void noArguments() throws Exception {
+    MethodInvoker invoker = MethodInvoker.of(method("self"));
+    assertThat(invoker.invoke(operations, new Object[] {}), is(sameInstance(operations)));
+  }
+
+  @Test
+  public void voidMethod() throws Exception {
+    MethodInvoker invoker = MethodInvoker.of(method("accept", Object.class));
+    assertThat(invoker.invoke(operations, new Object[] {"value"}), is(nullValue()));
+    assertThat(operations.accepted, is("value"));
+  }
+
+  @Test
+  public void staticMethod() throws Exception {
+    MethodInvoker invoker = MethodInvoker.of(method("twice", int.class));
+    assertThat(invoker.invoke(null, new Object[] {3}), is(6));
+  }
+
+  @Test
+  public void varArgsMethod() throws Exception {
+    MethodInvoker invoker = MethodInvoker.of(method("count", String[].class));
+    assertThat(invoker.invoke(operations, new Object[] {new String[] {"a", "b"}}), is(2));
+  }
+
+  @Test
+  public void nonAccessibleMethod() throws Exception {
+    MethodInvoker invoker = MethodInvoker.of(NonPublicOperations.class.getMethod("hello"));
+    assertThat(invoker.invoke(new NonPublicOperations(), new Object[] {}), is("hello"));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void uncheckedExceptionThrownAsIs() throws Exception {
+    MethodInvoker.of(method("failUnchecked")).invoke(operations, new Object[] {});
+  }
+
+  @Test
+  public void checkedExceptionWrapped() throws Exception {
+    try {
+      MethodInvoker.of(method("failChecked")).invoke(operations, new Object[] {});
+      fail("Expected exception");
+    } catch (UndeclaredThrowableException e) {
+      assertThat(e.getCause(), instanceOf(IOException.class));
+    }
+  }
+
+  private Method method(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+    return Operations.class.getMethod(name, parameterTypes);
+  }
+
+  public static class Operations {
+
+    private Object accepted;
+
+    public String concat(String value, int number, long otherNumber) {
+      return value + number + otherNumber;
+    }
+
+    public Operations self() {
+      return this;
+    }
+
+    public void accept(Object value) {
+      accepted = value;
+    }
+
+    public static int twice(int value) {
+      return value * 2;
+    }
+
+    public int count(String... values) {
+      return values.length;
+    }
+
+    public void failUnchecked() {
+      throw new IllegalStateException();
+    }
+
+    public void failChecked() throws IOException {
+      throw new IOException();
+    }
+  }
+
+  static class NonPublicOperations {
+
+    public String hello() {
+      return "hello";
+    }
+  }
+}
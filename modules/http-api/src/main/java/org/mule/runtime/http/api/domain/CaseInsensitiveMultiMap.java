@@ -45,7 +45,7 @@ public class CaseInsensitiveMultiMap extends MultiMap<String, String> implements
   public CaseInsensitiveMultiMap(MultiMap<String, String> paramsMap, boolean optimized) {
     this.optimized = optimized;
     this.paramsMap = optimized
-        ? new OptimizedCaseInsensitiveMapWrapper<>(new LinkedHashMap<>())
+        ? new LowerCaseKeysHashMap<>()
         : new CaseInsensitiveMapWrapper<>(new LinkedHashMap<>());
     putAll(paramsMap);
   }
@@ -0,0 +1,421 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.http.api.domain;
+
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Insertion ordered {@link Map} where the case of the keys is not taken into account. Keys are stored as they are first put, and
+ * putting an equal key with a different case only replaces the value.
+ * <p>
+ * Unlike {@link OptimizedCaseInsensitiveMapWrapper}, keys are hashed and compared in place, ignoring their case, instead of
+ * being wrapped and lowercased, so no lookup allocates. The hashes of the names of the most common HTTP headers, both lowercase
+ * and capitalized, are taken from a table of precomputed values instead of being computed char by char.
+ * <p>
+ * This map is not thread-safe.
+ *
+ * @param <T> The class of the values referenced in the map.
+ *
+ * @since 4.2.0
+ */
+final class LowerCaseKeysHashMap<T> extends AbstractMap<String, T> implements Serializable {
+
+  private static final long serialVersionUID = 2364906219382446085L;
+
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  private static final String[] COMMON_KEYS = new String[256];
+  private static final int[] COMMON_KEY_HASHES = new int[COMMON_KEYS.length];
+
+  static {
+    for (String lowerCaseKey : new String[] {"accept", "accept-charset", "accept-encoding", "accept-language",
+        "access-control-allow-origin", "authorization", "cache-control", "connection", "content-disposition", "content-encoding",
+        "content-language", "content-length", "content-location", "content-type", "cookie", "date", "etag", "expect", "expires",
+        "host", "if-match", "if-modified-since", "if-none-match", "keep-alive", "last-modified", "location", "origin", "pragma",
+        "proxy-authorization", "range", "referer", "server", "set-cookie", "transfer-encoding", "upgrade", "user-agent", "vary",
+        "via", "www-authenticate", "x-correlation-id", "x-forwarded-for", "x-forwarded-host", "x-forwarded-proto",
+        "x-request-id"}) {
+      addCommonKey(lowerCaseKey);
+      addCommonKey(capitalize(lowerCaseKey));
+    }
+  }
+
+  private transient Node<T>[] table;
+  private transient Node<T> head;
+  private transient Node<T> tail;
+  private transient int size;
+  private transient int modCount;
+  private transient Set<Entry<String, T>> entrySet;
+
+  /**
+   * Creates a new empty map.
+   */
+  LowerCaseKeysHashMap() {
+    table = newTable(DEFAULT_CAPACITY);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String && getNode((String) key) != null;
+  }
+
+  @Override
+  public T get(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    Node<T> node = getNode((String) key);
+    return node == null ? null : node.value;
+  }
+
+  @Override
+  public T put(String key, T value) {
+    requireNonNull(key, "key cannot be null");
+    int hash = hash(key);
+    int index = hash & (table.length - 1);
+    for (Node<T> node = table[index]; node != null; node = node.next) {
+      if (node.hash == hash && keyMatches(node.key, key)) {
+        T previous = node.value;
+        node.value = value;
+        return previous;
+      }
+    }
+
+    Node<T> node = new Node<>(hash, key, value, table[index]);
+    table[index] = node;
+    if (tail == null) {
+      head = node;
+    } else {
+      tail.after = node;
+      node.before = tail;
+    }
+    tail = node;
+    ++modCount;
+    if (++size > threshold()) {
+      resize();
+    }
+    return null;
+  }
+
+  @Override
+  public T remove(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    Node<T> node = getNode((String) key);
+    if (node == null) {
+      return null;
+    }
+    removeNode(node);
+    return node.value;
+  }
+
+  @Override
+  public void clear() {
+    if (size > 0) {
+      table = newTable(DEFAULT_CAPACITY);
+      head = tail = null;
+      size = 0;
+      ++modCount;
+    }
+  }
+
+  @Override
+  public Set<Entry<String, T>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  private Node<T> getNode(String key) {
+    int hash = hash(key);
+    for (Node<T> node = table[hash & (table.length - 1)]; node != null; node = node.next) {
+      if (node.hash == hash && keyMatches(node.key, key)) {
+        return node;
+      }
+    }
+    return null;
+  }
+
+  private void removeNode(Node<T> node) {
+    int index = node.hash & (table.length - 1);
+    if (table[index] == node) {
+      table[index] = node.next;
+    } else {
+      Node<T> previous = table[index];
+      while (previous.next != node) {
+        previous = previous.next;
+      }
+      previous.next = node.next;
+    }
+
+    if (node.before == null) {
+      head = node.after;
+    } else {
+      node.before.after = node.after;
+    }
+    if (node.after == null) {
+      tail = node.before;
+    } else {
+      node.after.before = node.before;
+    }
+    --size;
+    ++modCount;
+  }
+
+  private int threshold() {
+    return table.length == MAXIMUM_CAPACITY ? Integer.MAX_VALUE : table.length - (table.length >>> 2);
+  }
+
+  private void resize() {
+    Node<T>[] newTable = newTable(table.length << 1);
+    // Rehashing in insertion order keeps the buckets ordered the same way as they would be without a resize
+    for (Node<T> node = head; node != null; node = node.after) {
+      int index = node.hash & (newTable.length - 1);
+      node.next = newTable[index];
+      newTable[index] = node;
+    }
+    table = newTable;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Node<T>[] newTable(int capacity) {
+    return new Node[capacity];
+  }
+
+  private static boolean keyMatches(String storedKey, String key) {
+    return storedKey == key || (storedKey.length() == key.length() && storedKey.regionMatches(true, 0, key, 0, key.length()));
+  }
+
+  /**
+   * Computes the hash of {@code key} ignoring its case, without creating a lowercase copy of it. Common header names are looked
+   * up by their {@link String#hashCode()}, which {@link String} caches, instead of being hashed char by char.
+   */
+  private static int hash(String key) {
+    for (int i = key.hashCode() & (COMMON_KEYS.length - 1); COMMON_KEYS[i] != null; i = (i + 1) & (COMMON_KEYS.length - 1)) {
+      if (COMMON_KEYS[i] == key || COMMON_KEYS[i].equals(key)) {
+        return COMMON_KEY_HASHES[i];
+      }
+    }
+    return spread(caseInsensitiveHashCode(key));
+  }
+
+  private static int spread(int h) {
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Same as {@code org.mule.runtime.core.api.util.StringUtils#caseInsensitiveHashCode(String)}, which this module can't depend
+   * on. Consistent with {@link String#regionMatches(boolean, int, String, int, int)} ignoring case.
+   */
+  private static int caseInsensitiveHashCode(String value) {
+    int h = 0;
+    for (int i = 0; i < value.length(); ++i) {
+      char c = value.charAt(i);
+      if (c < 128) {
+        if (c >= 'A' && c <= 'Z') {
+          c += 'a' - 'A';
+        }
+      } else {
+        c = toLowerCase(toUpperCase(c));
+      }
+      h = 31 * h + c;
+    }
+    return h;
+  }
+
+  private static void addCommonKey(String key) {
+    int i = key.hashCode() & (COMMON_KEYS.length - 1);
+    while (COMMON_KEYS[i] != null) {
+      i = (i + 1) & (COMMON_KEYS.length - 1);
+    }
+    COMMON_KEYS[i] = key;
+    COMMON_KEY_HASHES[i] = spread(caseInsensitiveHashCode(key));
+  }
+
+  /**
+   * @return {@code key} with the first char of each dash separated word in uppercase, as HTTP headers are usually written.
+   */
+  private static String capitalize(String key) {
+    char[] chars = key.toCharArray();
+    for (int i = 0; i < chars.length; ++i) {
+      if (i == 0 || chars[i - 1] == '-') {
+        chars[i] = toUpperCase(chars[i]);
+      }
+    }
+    return new String(chars);
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeInt(size);
+    for (Node<T> node = head; node != null; node = node.after) {
+      out.writeObject(node.key);
+      out.writeObject(node.value);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    table = newTable(DEFAULT_CAPACITY);
+    int entries = in.readInt();
+    for (int i = 0; i < entries; ++i) {
+      put((String) in.readObject(), (T) in.readObject());
+    }
+  }
+
+  private static final class Node<T> implements Entry<String, T> {
+
+    private final int hash;
+    private final String key;
+    private T value;
+    private Node<T> next;
+    private Node<T> before;
+    private Node<T> after;
+
+    private Node(int hash, String key, T value, Node<T> next) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+      this.next = next;
+    }
+
+    @Override
+    public String getKey() {
+      return key;
+    }
+
+    @Override
+    public T getValue() {
+      return value;
+    }
+
+    @Override
+    public T setValue(T value) {
+      T previous = this.value;
+      this.value = value;
+      return previous;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> other = (Entry<?, ?>) obj;
+      return key.equals(other.getKey()) && Objects.equals(value, other.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return key.hashCode() ^ Objects.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Entry<String, T>> {
+
+    @Override
+    public Iterator<Entry<String, T>> iterator() {
+      return new EntryIterator();
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Entry) || !(((Entry<?, ?>) o).getKey() instanceof String)) {
+        return false;
+      }
+      Entry<?, ?> entry = (Entry<?, ?>) o;
+      Node<T> node = getNode((String) entry.getKey());
+      return node != null && Objects.equals(node.value, entry.getValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (contains(o)) {
+        LowerCaseKeysHashMap.this.remove(((Entry<?, ?>) o).getKey());
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void clear() {
+      LowerCaseKeysHashMap.this.clear();
+    }
+  }
+
+  private final class EntryIterator implements Iterator<Entry<String, T>> {
+
+    private Node<T> next = head;
+    private Node<T> current;
+    private int expectedModCount = modCount;
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<String, T> next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      current = next;
+      next = next.after;
+      return current;
+    }
+
+    @Override
+    public void remove() {
+      if (current == null) {
+        throw new IllegalStateException();
+      }
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      removeNode(current);
+      current = null;
+      expectedModCount = modCount;
+    }
+  }
+}
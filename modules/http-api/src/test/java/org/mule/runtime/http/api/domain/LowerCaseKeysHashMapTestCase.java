@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.http.api.domain;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.test.allure.AllureConstants.HttpFeature.HTTP_SERVICE;
+import static org.mule.test.allure.AllureConstants.HttpFeature.HttpStory.MULTI_MAP;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(HTTP_SERVICE)
+@Story(MULTI_MAP)
+public class LowerCaseKeysHashMapTestCase {
+
+  private final LowerCaseKeysHashMap<String> map = new LowerCaseKeysHashMap<>();
+
+  @Test
+  public void keysStoredAsGiven() {
+    map.put("Content-Type", "text/plain");
+    map.put("X-Custom", "value");
+    map.put("accept", "*/*");
+
+    assertThat(map.keySet(), contains("Content-Type", "X-Custom", "accept"));
+  }
+
+  @Test
+  public void putWithDifferentCaseKeepsFirstKey() {
+    map.put("X-Custom", "value");
+    map.put("x-CUSTOM", "other");
+
+    assertThat(map.keySet(), contains("X-Custom"));
+    assertThat(map.get("x-custom"), is("other"));
+  }
+
+  @Test
+  public void commonKeysMatchAnyCase() {
+    map.put("content-type", "text/plain");
+    map.put("Content-Length", "0");
+
+    assertThat(map.get("Content-Type"), is("text/plain"));
+    assertThat(map.get("CONTENT-TYPE"), is("text/plain"));
+    assertThat(map.get("content-length"), is("0"));
+    assertThat(map.get("Content-length"), is("0"));
+  }
+
+  @Test
+  public void nonAsciiKeysIgnoreCase() {
+    map.put("X-\u00c4rger", "value");
+
+    assertThat(map.get("x-\u00e4rger"), is("value"));
+  }
+
+  @Test
+  public void lookupIgnoresCase() {
+    map.put("Content-Type", "text/plain");
+
+    assertThat(map.get("CONTENT-TYPE"), is("text/plain"));
+    assertThat(map.containsKey("content-type"), is(true));
+    assertThat(map.put("content-TYPE", "application/json"), is("text/plain"));
+    assertThat(map.size(), is(1));
+    assertThat(map.remove("Content-type"), is("application/json"));
+    assertThat(map.isEmpty(), is(true));
+  }
+
+  @Test
+  public void keepsInsertionOrderAcrossResizes() {
+    for (int i = 0; i < 100; ++i) {
+      map.put("Key" + i, "value" + i);
+    }
+    for (int i = 0; i < 100; i += 2) {
+      map.remove("KEY" + i);
+    }
+
+    Iterator<Entry<String, String>> iterator = map.entrySet().iterator();
+    for (int i = 1; i < 100; i += 2) {
+      Entry<String, String> entry = iterator.next();
+      assertThat(entry.getKey(), is("Key" + i));
+      assertThat(entry.getValue(), is("value" + i));
+    }
+    assertThat(iterator.hasNext(), is(false));
+  }
+
+  @Test
+  public void iteratorRemove() {
+    map.put("A", "1");
+    map.put("B", "2");
+
+    Iterator<Entry<String, String>> iterator = map.entrySet().iterator();
+    iterator.next();
+    iterator.remove();
+
+    assertThat(map.get("a"), nullValue());
+    assertThat(map.keySet(), contains("B"));
+  }
+
+  @Test
+  public void serialization() throws Exception {
+    map.put("Host", "localhost");
+    map.put("X-Custom", "value");
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(map);
+    }
+    Object deserialized = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+    assertThat(deserialized, is(map));
+    assertThat(((LowerCaseKeysHashMap<String>) deserialized).get("HOST"), is("localhost"));
+  }
+}
@@ -52,7 +52,7 @@ public class EventBenchmark extends AbstractBenchmark {
     event = eventBuilder.build();
     eventWith10VariablesProperties = createMuleEventWithFlowVarsAndProperties(10);
     eventWith50VariablesProperties = createMuleEventWithFlowVarsAndProperties(50);
-    eventWith100VariablesProperties = createMuleEventWithFlowVarsAndProperties(50);
+    eventWith100VariablesProperties = createMuleEventWithFlowVarsAndProperties(100);
   }
 
   @TearDown
@@ -125,6 +125,16 @@ public class EventBenchmark extends AbstractBenchmark {
     return CoreEvent.builder(eventWith100VariablesProperties).addVariable(KEY, VALUE).build();
   }
 
+  @Benchmark
+  public CoreEvent removeEventVariableEventWith100VariablesProperties() {
+    return CoreEvent.builder(eventWith100VariablesProperties).removeVariable("FlOwVaRiAbLeKeY1").build();
+  }
+
+  @Benchmark
+  public Object getEventVariableEventWith100VariablesProperties() {
+    return eventWith100VariablesProperties.getVariables().get("flowvariablekey50");
+  }
+
 
   @Benchmark
   public CoreEvent copyWith10FlowVarsAnd10PropertiesWrite1OfEach() throws Exception {
@@ -33,6 +33,7 @@ import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 
 import java.util.ArrayList;
@@ -51,7 +52,7 @@ public class EventContextBenchmark extends AbstractBenchmark {
   private String id = UUID.getUUID();
   private String severId = UUID.getUUID();
   private CoreEvent event;
-
+  private BaseEventContext sharedParentContext;
 
   @Setup
   public void setup() throws Exception {
@@ -63,6 +64,7 @@ public class EventContextBenchmark extends AbstractBenchmark {
     CoreEvent.Builder eventBuilder =
         CoreEvent.builder(create(flow, CONNECTOR_LOCATION)).message(messageBuilder.build());
     event = eventBuilder.build();
+    sharedParentContext = (BaseEventContext) create(flow, CONNECTOR_LOCATION);
   }
 
   @TearDown
@@ -162,4 +164,39 @@ public class EventContextBenchmark extends AbstractBenchmark {
     return new Object[] {result, complete};
   }
 
+  // Fan-out benchmarks: every thread creates and completes child contexts of the same parent, as the routes of a scatter-gather
+  // or the iterations of a foreach do. Compare the results for the different thread counts to see how child tracking scales.
+
+  @Benchmark
+  @Threads(1)
+  public BaseEventContext childEventContextSharedParent1Thread() {
+    return completeChildOfSharedParent();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public BaseEventContext childEventContextSharedParent4Threads() {
+    return completeChildOfSharedParent();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public BaseEventContext childEventContextSharedParent8Threads() {
+    return completeChildOfSharedParent();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public BaseEventContext childEventContextSharedParent16Threads() {
+    return completeChildOfSharedParent();
+  }
+
+  private BaseEventContext completeChildOfSharedParent() {
+    BaseEventContext child = child(sharedParentContext, empty());
+    child.onTerminated((response, throwable) -> {
+    });
+    child.success(event);
+    return child;
+  }
+
 }
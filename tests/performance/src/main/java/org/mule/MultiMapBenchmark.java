@@ -20,6 +20,7 @@ import java.util.Map.Entry;
 public class MultiMapBenchmark extends AbstractBenchmark {
 
   private MultiMap<String, String> multiMap;
+  private CaseInsensitiveMultiMap headers;
 
   @Setup
   public void setup() throws Exception {
@@ -27,6 +28,14 @@ public class MultiMapBenchmark extends AbstractBenchmark {
     multiMap.put("key1", "value");
     multiMap.put("key10",
                  asList("value1", "value2", "value3", "value4", "value5", "value6", "value7", "value8", "value9", "value10"));
+
+    headers = new CaseInsensitiveMultiMap();
+    headers.put("Host", "localhost:8081");
+    headers.put("User-Agent", "Mozilla/5.0");
+    headers.put("Accept", "*/*");
+    headers.put("Content-Type", "application/json");
+    headers.put("Content-Length", "1024");
+    headers.put("X-Correlation-ID", "8a4c2f5e-6f1b-4e2a-9b7d-3c1e0a9f8d2b");
   }
 
   @Benchmark
@@ -77,4 +86,24 @@ public class MultiMapBenchmark extends AbstractBenchmark {
     return mm;
   }
 
+  @Benchmark
+  public String getHeader() {
+    return headers.get("Content-Type");
+  }
+
+  @Benchmark
+  public boolean containsHeader() {
+    return headers.containsKey("x-correlation-id");
+  }
+
+  @Benchmark
+  public CaseInsensitiveMultiMap putHeaders() {
+    CaseInsensitiveMultiMap mm = new CaseInsensitiveMultiMap();
+    mm.put("Host", "localhost:8081");
+    mm.put("Content-Type", "application/json");
+    mm.put("Content-Length", "1024");
+    mm.put("X-Correlation-ID", "8a4c2f5e-6f1b-4e2a-9b7d-3c1e0a9f8d2b");
+    return mm;
+  }
+
 }
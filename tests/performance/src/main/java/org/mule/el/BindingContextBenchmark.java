@@ -54,6 +54,16 @@ public class BindingContextBenchmark extends AbstractBenchmark {
     return addEventBindings(event, NULL_BINDING_CONTEXT);
   }
 
+  @Benchmark
+  public Object payloadFromNewEvent() {
+    return CoreEvent.builder(event).build().asBindingContext().lookup(BindingContextUtils.PAYLOAD);
+  }
+
+  @Benchmark
+  public Object varsFromNewEvent() {
+    return CoreEvent.builder(event).build().asBindingContext().lookup(VARS);
+  }
+
   @Benchmark
   public Object withParent() {
     return BindingContext.builder(globalCtx)
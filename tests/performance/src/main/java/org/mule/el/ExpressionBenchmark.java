@@ -69,6 +69,16 @@ public class ExpressionBenchmark extends AbstractBenchmark {
     return expressionManager.evaluate("vars.foo == 'bar'", event.asBindingContext()).getValue();
   }
 
+  @Benchmark
+  public Object dwEventPayload() {
+    return expressionManager.evaluate("#[payload]", event).getValue();
+  }
+
+  @Benchmark
+  public Object dwEventVariable() {
+    return expressionManager.evaluate("#[vars.foo]", event).getValue();
+  }
+
   @Benchmark
   public Object melGetLocale() {
     return expressionManager.evaluate("mel:java.util.Locale.getDefault().getLanguage()", event).getValue();
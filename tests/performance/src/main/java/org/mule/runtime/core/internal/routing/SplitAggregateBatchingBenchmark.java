@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.util.Optional.empty;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.metadata.DataType.fromObject;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.api.exception.Errors.ComponentIdentifiers.Handleable.TIMEOUT;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.internal.processor.strategy.DirectProcessingStrategyFactory.DIRECT_PROCESSING_STRATEGY_INSTANCE;
+import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.registerObject;
+import static reactor.core.publisher.Flux.fromIterable;
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Measures the cost per part of routing a split collection through a fork-join strategy, as the split-aggregate scope does, for
+ * different batch sizes. Run with {@code -prof gc} to get the allocation per part.
+ */
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@OutputTimeUnit(MILLISECONDS)
+public class SplitAggregateBatchingBenchmark extends AbstractBenchmark {
+
+  private static final int PARTS = 10000;
+
+  @Param({"1", "10", "100", "1000"})
+  public int batchSize;
+
+  private MuleContext muleContext;
+  private Scheduler timeoutScheduler;
+  private ForkJoinStrategy forkJoinStrategy;
+  private MessageProcessorChain route;
+  private CoreEvent event;
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    Flow flow = createFlow(muleContext);
+    registerObject(muleContext, FLOW_NAME, flow, FlowConstruct.class);
+
+    List<Integer> parts = new ArrayList<>(PARTS);
+    for (int i = 0; i < PARTS; i++) {
+      parts.add(i);
+    }
+    event = CoreEvent.builder(create(flow, CONNECTOR_LOCATION)).message(Message.of(parts)).build();
+
+    route = newChain(empty(), e -> e);
+    route.setMuleContext(muleContext);
+
+    timeoutScheduler = muleContext.getSchedulerService().cpuLightScheduler();
+    ErrorType timeoutErrorType = muleContext.getErrorTypeRepository().getErrorType(TIMEOUT).get();
+    CollectListForkJoinStrategyFactory factory = new CollectListForkJoinStrategyFactory();
+    forkJoinStrategy = batchSize > 1
+        ? factory.createBatchForkJoinStrategy(DIRECT_PROCESSING_STRATEGY_INSTANCE, 1, true, Long.MAX_VALUE, timeoutScheduler,
+                                              timeoutErrorType)
+        : factory.createForkJoinStrategy(DIRECT_PROCESSING_STRATEGY_INSTANCE, 1, true, Long.MAX_VALUE, timeoutScheduler,
+                                         timeoutErrorType);
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    timeoutScheduler.stop();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PARTS)
+  public CoreEvent splitAggregate() {
+    return Mono.from(forkJoinStrategy.forkJoin(event, routingPairs())).block();
+  }
+
+  private Flux<RoutingPair> routingPairs() {
+    Flux<TypedValue<?>> parts =
+        fromIterable((List<Integer>) event.getMessage().getPayload().getValue()).<TypedValue<?>>map(TypedValue::of);
+    return (batchSize > 1 ? parts.buffer(batchSize).<TypedValue<?>>map(list -> new TypedValue<>(list, fromObject(list))) : parts)
+        .map(part -> of(CoreEvent.builder(event).message(Message.builder().payload(part).build()).build(), route));
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.mule.runtime.api.util.DataUnit.KB;
+import static org.mule.runtime.api.util.DataUnit.MB;
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamProvider;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@OutputTimeUnit(MICROSECONDS)
+public class InMemoryStreamBufferBenchmark extends AbstractBenchmark {
+
+  private static final int DATA_SIZE = MB.toBytes(4);
+  private static final int READ_CHUNK_SIZE = KB.toBytes(4);
+
+  @Param({"1", "4", "16"})
+  public int cursors;
+
+  private byte[] data;
+  private InMemoryCursorStreamConfig config;
+  private ExecutorService allocationScheduler;
+  private ExecutorService readers;
+  private PoolingByteBufferManager bufferManager;
+
+  @Setup
+  public void setup() {
+    data = new byte[DATA_SIZE];
+    new Random().nextBytes(data);
+    config = new InMemoryCursorStreamConfig(new DataSize(256, KB), new DataSize(256, KB), new DataSize(8, MB));
+    allocationScheduler = newSingleThreadExecutor();
+    bufferManager = new PoolingByteBufferManager(allocationScheduler);
+    readers = newFixedThreadPool(cursors);
+  }
+
+  @TearDown
+  public void teardown() {
+    readers.shutdownNow();
+    bufferManager.dispose();
+    allocationScheduler.shutdownNow();
+  }
+
+  @Benchmark
+  public long concurrentCursorsOnSameProvider() throws Exception {
+    InMemoryCursorStreamProvider provider = new InMemoryCursorStreamProvider(new ByteArrayInputStream(data), config,
+                                                                             bufferManager);
+    try {
+      List<Future<Long>> results = new ArrayList<>(cursors);
+      for (int i = 0; i < cursors; i++) {
+        results.add(readers.submit(() -> readFully(provider.openCursor())));
+      }
+
+      long total = 0;
+      for (Future<Long> result : results) {
+        total += result.get();
+      }
+      return total;
+    } finally {
+      provider.close();
+      provider.releaseResources();
+    }
+  }
+
+  private long readFully(CursorStream cursor) throws Exception {
+    try {
+      byte[] chunk = new byte[READ_CHUNK_SIZE];
+      long total = 0;
+      int read;
+      while ((read = cursor.read(chunk, 0, READ_CHUNK_SIZE)) != -1) {
+        total += read;
+      }
+      return total;
+    } finally {
+      cursor.close();
+    }
+  }
+}